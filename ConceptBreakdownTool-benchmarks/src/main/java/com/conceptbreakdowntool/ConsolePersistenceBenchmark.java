@@ -0,0 +1,143 @@
+package com.conceptbreakdowntool;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Feb 12th, 2024
+ ClassName: ConsolePersistenceBenchmark
+
+ Purpose: Measures how long the console application takes to load a library from each of its file formats, how much it
+ allocates (run with -prof gc; gc.alloc.rate.norm is bytes per load), and how much heap it needs at its peak (peakHeapMb).
+ A library of n rows has n concepts with one component each, and one category per CONCEPTS_PER_CATEGORY concepts.
+ Each trial writes the library in both formats to temporary files; every load starts from a new DatabaseManager.
+
+ Running:
+ mvn -B package, then java -jar target/benchmarks.jar ConsolePersistenceBenchmark -prof gc -p rows=1000
+
+ Methods:
+ loadAllData(): Loads a data.json file written the way saveAllData() writes it.
+ loadFromFile(): Loads a concepts.txt file, the format the console asks for when it starts.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class ConsolePersistenceBenchmark {
+    private static final int CONCEPTS_PER_CATEGORY = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    //Attributes
+    private Path jsonFile;
+    private Path textFile;
+
+    // setUp(): Writes the library as data.json and as concepts.txt, and silences the console so printing isn't what gets measured.
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PrintStream silent = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        System.setOut(silent);
+        System.setErr(silent);
+
+        int categoryCount = Math.max(1, (rows + CONCEPTS_PER_CATEGORY - 1) / CONCEPTS_PER_CATEGORY);
+        List<Category> categories = new ArrayList<>();
+        List<Concept> concepts = new ArrayList<>();
+        List<Component> components = new ArrayList<>();
+        for (int id = 1; id <= categoryCount; id++) {
+            categories.add(new Category(id, "Category " + id));
+        }
+        for (int id = 1; id <= rows; id++) {
+            Concept concept = new Concept(id, "Concept " + id, "Category " + ((id - 1) / CONCEPTS_PER_CATEGORY + 1), "Details of concept " + id);
+            Component component = new Component("Component " + id, "Details of component " + id);
+            concept.addComponent(component);
+            concepts.add(concept);
+            components.add(component);
+        }
+
+        jsonFile = Files.createTempFile("conceptbreakdowntool-bench-", ".json");
+        try (Writer writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+            Map<String, Object> allData = new HashMap<>();
+            allData.put("concepts", concepts);
+            allData.put("components", components);
+            allData.put("categories", categories);
+            new Gson().toJson(allData, writer);
+        }
+
+        textFile = Files.createTempFile("conceptbreakdowntool-bench-", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+            for (Category category : categories) {
+                writer.write("Category: " + category.getId() + "," + category.getTopic());
+                writer.newLine();
+            }
+            for (Concept concept : concepts) {
+                writer.write("Concept: " + concept.getId() + ", " + concept.getTopic() + ", " + concept.getCategory() + ", " + concept.getDetails());
+                writer.newLine();
+                for (Component component : concept.getComponents()) {
+                    writer.write("Component: " + component.getTopic() + ", " + component.getDetails());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(textFile);
+    }
+
+    //BENCHMARKS
+    @Benchmark
+    public DatabaseManager loadAllData(PeakHeap peakHeap) {
+        DatabaseManager dbManager = new DatabaseManager();
+        dbManager.loadAllData(jsonFile.toString());
+        return dbManager;
+    }
+
+    @Benchmark
+    public DatabaseManager loadFromFile(PeakHeap peakHeap) {
+        DatabaseManager dbManager = new DatabaseManager();
+        ConceptBreakdownToolApplication.loadFromFile(dbManager, textFile.toString());
+        return dbManager;
+    }
+}
@@ -0,0 +1,64 @@
+package com.conceptbreakdowntool;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/*
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Feb 12th, 2024
+ ClassName: PeakHeap
+
+ Purpose: Reports the most heap an operation needed, next to its time, as an extra JMH result column (peakHeapMb).
+ Before each iteration the heap is collected and every heap pool's peak is reset; after it, the pools' peaks are added up.
+ Pools can peak at slightly different moments, so the sum is an upper bound. Benchmarks that use it should run one
+ operation per iteration (Mode.SingleShotTime), so the peak belongs to that operation.
+
+ Attributes:
+ double peakHeapMb: The peak heap of the last iteration, in MB.
+
+ Methods:
+ reset(): Collects the heap and resets the peaks before an iteration.
+ measure(): Adds up the heap pools' peaks after an iteration.
+ */
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class PeakHeap {
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    //Attributes
+    public double peakHeapMb;
+
+    //reset(): Collects the heap and resets every heap pool's peak, so the peak starts from what is really live.
+    @Setup(Level.Iteration)
+    public void reset() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        peakHeapMb = 0;
+    }
+
+    //measure(): Adds up the heap pools' peaks from the iteration that just finished.
+    @TearDown(Level.Iteration)
+    public void measure() {
+        long peakBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeapMb = peakBytes / BYTES_PER_MB;
+    }
+}
@@ -262,8 +262,8 @@ public class ConceptBreakdownToolApplication {
         }
     }
 
-    //loadFromFile(): Load concepts, components, and categories from a file into the database.
-    private static void loadFromFile(DatabaseManager dbManager, String filename) {
+    //loadFromFile(): Load concepts, components, and categories from a file into the database. Package-private so the benchmarks can time it.
+    static void loadFromFile(DatabaseManager dbManager, String filename) {
         try (Scanner scanner = new Scanner(new File(filename))) {
             Concept lastConcept = null; // Keep track of the last loaded concept
 
@@ -38,7 +38,7 @@ import java.util.*;
 
  //Data Persistence
  saveAllData(): Saves the current state to a JSON file.
- loadAllData(): Loads data from a JSON file.
+ loadAllData(): Loads data from data.json, or from a given JSON file.
 
  //Retrieval Methods
  getConcepts(): Retrieves all Concepts.
@@ -226,9 +226,22 @@ public class DatabaseManager {
         }
     }
 
+    /*  loadAllData(): Loads concepts, components, and categories from data.json in the working folder.
+        Arguments: None
+        Return value: None
+     */
     public void loadAllData() {
+        loadAllData("data.json");
+    }
+
+    /*  loadAllData(): Loads concepts, components, and categories from a JSON file written by saveAllData().
+        Arguments:
+            - filePath: The JSON file to read.
+        Return value: None
+     */
+    public void loadAllData(String filePath) {
         Gson gson = new Gson();
-        File file = new File("data.json");
+        File file = new File(filePath);
         if (file.exists() && file.length() != 0) {
             try (FileReader reader = new FileReader(file)) {
                 Type dataType = new TypeToken<Map<String, List<?>>>(){}
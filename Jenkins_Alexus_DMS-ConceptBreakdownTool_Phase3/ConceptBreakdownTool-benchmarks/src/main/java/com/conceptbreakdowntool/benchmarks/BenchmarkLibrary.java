@@ -0,0 +1,170 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: BenchmarkLibrary
+
+ Purpose: Gives each benchmark trial its own temporary SQLite library of a chosen size, so benchmarks that add or delete never affect
+ one another.
+
+ - HOW IT WORKS
+     * A library of n rows has n concepts, one component per concept, and one category per CONCEPTS_PER_CATEGORY concepts.
+       Category i is named "Category i", concept i is "Concept i", and its component is "Component i".
+     * The first trial of a size writes a template file to the temp folder with batched inserts in one transaction; later trials
+       (and later runs) copy it, since writing a million rows takes far longer than copying the file.
+     * open() loads the copy into a DatabaseManager the same way the application opens a file.
+ - LIBRARY METHODS
+     * create(): Copies (or first writes) the template for a size into a new temporary file.
+     * open(): Loads the copy into a DatabaseManager.
+     * delete(): Removes the copy.
+     * silenceConsole(): Drops DatabaseManager's console messages so printing isn't what gets measured.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool.benchmarks;
+
+import com.conceptbreakdowntool.DatabaseManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class BenchmarkLibrary {
+    public static final int CONCEPTS_PER_CATEGORY = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    //Attributes
+    private final int rows;
+    private final Path file;
+
+    private BenchmarkLibrary(int rows, Path file) {
+        this.rows = rows;
+        this.file = file;
+    }
+
+    /**
+     LIBRARY METHODS
+     **/
+    /**
+     create(): Copies the template library of a size into a new temporary file, writing the template first if it doesn't exist yet.
+     * @param rows the number of concepts (and components)
+     * @return the library
+     **/
+    public static BenchmarkLibrary create(int rows) throws IOException, SQLException {
+        Path template = Paths.get(System.getProperty("java.io.tmpdir"), "conceptbreakdowntool-bench-" + rows + ".db");
+        if (!Files.exists(template)) {
+            Path partial = Files.createTempFile("conceptbreakdowntool-bench-", ".partial");
+            write(partial, rows);
+            Files.move(partial, template, StandardCopyOption.REPLACE_EXISTING); // Only a finished template is ever reused
+        }
+        Path copy = Files.createTempFile("conceptbreakdowntool-bench-", ".db");
+        Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+        return new BenchmarkLibrary(rows, copy);
+    }
+
+    /**
+     open(): Loads the library into a new DatabaseManager.
+     * @return the loaded database manager
+     **/
+    public DatabaseManager open() {
+        String path = file.toString();
+        DatabaseManager dbManager = new DatabaseManager(path);
+        if (!dbManager.loadDataFromFile(path)) {
+            throw new IllegalStateException("Could not load benchmark library " + path);
+        }
+        return dbManager;
+    }
+
+    /**
+     delete(): Removes the library's file.
+     **/
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    public String getPath() {
+        return file.toString();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCategoryCount() {
+        return categoryCount(rows);
+    }
+
+    /**
+     silenceConsole(): Drops everything printed to System.out; DatabaseManager reports every change there.
+     **/
+    public static void silenceConsole() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+
+    private static int categoryCount(int rows) {
+        return Math.max(1, (rows + CONCEPTS_PER_CATEGORY - 1) / CONCEPTS_PER_CATEGORY);
+    }
+
+    /**
+     write(): Writes a library of the given size with the application's tables, in one transaction.
+     **/
+    private static void write(Path path, int rows) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE Category (Category_ID INTEGER PRIMARY KEY, Category_Topic TEXT NOT NULL)");
+            stmt.execute("CREATE TABLE Concept (Concept_ID INTEGER PRIMARY KEY, Concept_Topic TEXT NOT NULL, Category_ID INTEGER NOT NULL, Concept_Details TEXT NOT NULL, FOREIGN KEY(Category_ID) REFERENCES Category(Category_ID))");
+            stmt.execute("CREATE TABLE Component (Component_Topic TEXT NOT NULL, Component_Description TEXT NOT NULL, Concept_ID INTEGER NOT NULL, FOREIGN KEY(Concept_ID) REFERENCES Concept(Concept_ID))");
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement category = conn.prepareStatement("INSERT INTO Category VALUES (?, ?)")) {
+                for (int id = 1; id <= categoryCount(rows); id++) {
+                    category.setInt(1, id);
+                    category.setString(2, "Category " + id);
+                    category.addBatch();
+                }
+                category.executeBatch();
+            }
+            try (PreparedStatement concept = conn.prepareStatement("INSERT INTO Concept VALUES (?, ?, ?, ?)");
+                 PreparedStatement component = conn.prepareStatement("INSERT INTO Component VALUES (?, ?, ?)")) {
+                for (int id = 1; id <= rows; id++) {
+                    concept.setInt(1, id);
+                    concept.setString(2, "Concept " + id);
+                    concept.setInt(3, (id - 1) / CONCEPTS_PER_CATEGORY + 1);
+                    concept.setString(4, "Details of concept " + id);
+                    concept.addBatch();
+                    component.setString(1, "Component " + id);
+                    component.setString(2, "Details of component " + id);
+                    component.setInt(3, id);
+                    component.addBatch();
+                    if (id % BATCH_SIZE == 0) {
+                        concept.executeBatch();
+                        component.executeBatch();
+                    }
+                }
+                concept.executeBatch();
+                component.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DatabaseManagerBenchmark
+
+ Purpose: Measures DatabaseManager's everyday changes and lookups against libraries of 1,000, 100,000, and 1,000,000 rows, as both
+ throughput (operations per microsecond or millisecond) and latency percentiles (p50, p90, p99, ... from sampled operation times).
+
+ - HOW IT WORKS
+     * Every trial works on its own copy of a BenchmarkLibrary, so additions and deletions from one benchmark never reach another.
+     * Lookups walk a fixed, shuffled list of existing IDs, the same in every run, so no two runs measure different access patterns.
+     * deleteConcept() gets a freshly added concept before every call; adding it isn't part of the measured time.
+     * Lookups are reported in microseconds and changes, which write to disk, in milliseconds.
+ - RUNNING
+     * From the parent folder: mvn -B verify -Prun-benchmarks
+     * Or after mvn -B package: java -jar ConceptBreakdownTool-benchmarks/target/benchmarks.jar DatabaseManagerBenchmark -p rows=1000
+     * Each million-row trial spends a few minutes loading the library before it measures anything, so the whole suite takes about an hour.
+ - BENCHMARKS
+     * addCategory(), addConcept(), addComponent(): Inserts a new entry.
+     * getConcept(), getComponentsByConceptId(), findCategoryByName(): Looks up an existing entry.
+     * updateComponent(), deleteConcept(): Changes or removes an existing entry.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool.benchmarks;
+
+import com.conceptbreakdowntool.Category;
+import com.conceptbreakdowntool.Component;
+import com.conceptbreakdowntool.Concept;
+import com.conceptbreakdowntool.DatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class DatabaseManagerBenchmark {
+    private static final int LOOKUP_IDS = 4096; // A power of two, so the next index is a mask instead of a division
+    private static final long SEED = 42;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    //Attributes
+    private BenchmarkLibrary library;
+    private DatabaseManager dbManager;
+    private final int[] conceptIds = new int[LOOKUP_IDS];
+    private final String[] categoryNames = new String[LOOKUP_IDS];
+    private int next;
+    private int nextCategoryId;
+    private int added;
+
+    /**
+     setUp(): Opens a private copy of the library and picks the IDs the lookups will walk.
+     **/
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        BenchmarkLibrary.silenceConsole();
+        library = BenchmarkLibrary.create(rows);
+        dbManager = library.open();
+        Random random = new Random(SEED);
+        for (int i = 0; i < LOOKUP_IDS; i++) {
+            conceptIds[i] = 1 + random.nextInt(rows);
+            categoryNames[i] = "Category " + (1 + random.nextInt(library.getCategoryCount()));
+        }
+        nextCategoryId = library.getCategoryCount() + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        library.delete();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (LOOKUP_IDS - 1);
+        return next;
+    }
+
+
+    /**
+     BENCHMARKS
+     **/
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean addCategory() {
+        int id = nextCategoryId++;
+        return dbManager.addCategory(new Category(id, "Benchmark Category " + id));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void addConcept() {
+        added++;
+        dbManager.addConcept(new Concept(0, "Benchmark Concept " + added, categoryNames[nextIndex()], "Added by the benchmark"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void addComponent() {
+        added++;
+        dbManager.addComponent(new Component("Benchmark Component " + added, "Added by the benchmark", conceptIds[nextIndex()]));
+    }
+
+    @Benchmark
+    public Concept getConcept() {
+        return dbManager.getConcept(conceptIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<Component> getComponentsByConceptId() {
+        return dbManager.getComponentsByConceptId(conceptIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public Category findCategoryByName() {
+        return dbManager.findCategoryByName(categoryNames[nextIndex()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean updateComponent() {
+        int conceptId = conceptIds[nextIndex()];
+        String topic = "Component " + conceptId;
+        return dbManager.updateComponent(conceptId, topic, topic, "Updated " + (++added));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean deleteConcept(DeleteTarget target) {
+        return dbManager.deleteConcept(target.conceptId);
+    }
+
+
+    /**
+     DeleteTarget: Adds the concept that the next deleteConcept() call removes, outside the measured time.
+     **/
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        int conceptId;
+
+        @Setup(Level.Invocation)
+        public void addConcept(DatabaseManagerBenchmark benchmark) {
+            Concept concept = new Concept(0, "Doomed Concept " + (++benchmark.added), "Category 1", "Removed by the benchmark");
+            benchmark.dbManager.addConcept(concept);
+            conceptId = concept.getId();
+        }
+    }
+}
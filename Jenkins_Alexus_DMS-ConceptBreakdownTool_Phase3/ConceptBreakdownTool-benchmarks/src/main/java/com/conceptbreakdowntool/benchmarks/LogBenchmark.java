@@ -0,0 +1,97 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: LogBenchmark
+
+ Purpose: Measures what a log statement costs the thread that logs it, below the level and above it, next to the println it replaced.
+
+ - RUNNING
+     * After mvn -B package: java -jar ConceptBreakdownTool-benchmarks/target/benchmarks.jar LogBenchmark
+ - BENCHMARKS
+     * disabledSupplier(): A DEBUG message passed as a Supplier while the level is INFO; nothing is built.
+     * disabledConcat(): The same message built with + before the call, which still pays for the string.
+     * enabledAsync(): An INFO message handed to the log-writer thread (written to a stream that discards it).
+     * println(): Writing the same line directly, as DatabaseManager did before Log.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool.benchmarks;
+
+import com.conceptbreakdowntool.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+    private static final Log LOG = Log.get(LogBenchmark.class);
+
+    //Attributes
+    private final PrintStream discard = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+    private int row;
+
+    @Setup
+    public void setUp() {
+        Log.setLevel(Log.Level.INFO);
+        Log.setSink(discard);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Log.flush();
+        Log.setSink(System.err);
+    }
+
+
+    /**
+     BENCHMARKS
+     **/
+    @Benchmark
+    public void disabledSupplier() {
+        int current = ++row;
+        LOG.debug(() -> "Loaded row " + current);
+    }
+
+    @Benchmark
+    public void disabledConcat() {
+        LOG.debug("Loaded row " + ++row);
+    }
+
+    @Benchmark
+    public void enabledAsync() {
+        LOG.info("Loaded row " + ++row);
+    }
+
+    @Benchmark
+    public void println() {
+        discard.println("Loaded row " + ++row);
+    }
+}
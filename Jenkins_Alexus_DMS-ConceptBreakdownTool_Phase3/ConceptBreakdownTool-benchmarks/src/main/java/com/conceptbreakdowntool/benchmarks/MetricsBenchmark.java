@@ -0,0 +1,85 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: MetricsBenchmark
+
+ Purpose: Measures what DataMetrics adds to every data operation, which should stay under 100ns per call, with metrics on and off.
+
+ - RUNNING
+     * After mvn -B package: java -jar ConceptBreakdownTool-benchmarks/target/benchmarks.jar MetricsBenchmark
+ - BENCHMARKS
+     * clockReads(): Two System.nanoTime() calls alone, the floor under recordEnabled() on this machine.
+     * recordEnabled(): start() and record() around one call, as every DatabaseManager operation does.
+     * recordDisabled(): The same with metrics turned off.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool.benchmarks;
+
+import com.conceptbreakdowntool.DataMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    //Attributes
+    private final DataMetrics metrics = DataMetrics.get();
+    private final DataMetrics.Operation operation = metrics.operation("benchmark");
+
+
+    /**
+     BENCHMARKS
+     **/
+    @Benchmark
+    public long clockReads() {
+        long start = System.nanoTime();
+        return System.nanoTime() - start;
+    }
+
+    @Benchmark
+    public void recordEnabled() {
+        operation.record(metrics.start());
+    }
+
+    @Benchmark
+    public void recordDisabled(Disabled disabled) {
+        operation.record(metrics.start());
+    }
+
+
+    /**
+     Disabled: Turns metrics off for the iteration.
+     **/
+    @State(Scope.Benchmark)
+    public static class Disabled {
+        @Setup(Level.Iteration)
+        public void disable() {
+            DataMetrics.get().setEnabled(false);
+        }
+
+        @TearDown(Level.Iteration)
+        public void enable() {
+            DataMetrics.get().setEnabled(true);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: PersistenceBenchmark
+
+ Purpose: Measures the load and save paths of the application for libraries of several sizes: how long each takes, how much it
+ allocates, and how much heap it needs at its peak.
+
+ - HOW IT WORKS
+     * Each load starts from a new DatabaseManager, the way the application opens a file, and times one complete load (SingleShotTime).
+     * Allocation comes from the GC profiler (-prof gc, on by default in the run-benchmarks profile): gc.alloc.rate.norm is bytes per load
+       or save. Peak heap is the peakHeapMb column from PeakHeap.
+     * The console application's JSON and text loaders live in the root module, which has the same classes under the same names;
+       ConsolePersistenceBenchmark in ConceptBreakdownTool-benchmarks at the top of the repository measures those.
+ - RUNNING
+     * From the parent folder: mvn -B verify -Prun-benchmarks -Djmh.args="PersistenceBenchmark -prof gc"
+     * Or after mvn -B package: java -jar ConceptBreakdownTool-benchmarks/target/benchmarks.jar PersistenceBenchmark -prof gc -p rows=1000
+ - BENCHMARKS
+     * loadDataFromDatabase(): Reads the SQLite tables through the database manager's own connection.
+     * loadDataFromFile(): Opens a SQLite file chosen by the user, as the Load File button does.
+     * saveAllData(): Writes the loaded library as JSON with Gson.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool.benchmarks;
+
+import com.conceptbreakdowntool.DatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class PersistenceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    //Attributes
+    private BenchmarkLibrary library;
+    private DatabaseManager loaded; // Saved by saveAllData()
+    private Path jsonFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        BenchmarkLibrary.silenceConsole();
+        library = BenchmarkLibrary.create(rows);
+        loaded = library.open(); // Also adds the tables and indexes a file gets when it is first opened
+        jsonFile = Files.createTempFile("conceptbreakdowntool-bench-", ".json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        library.delete();
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(Paths.get(jsonFile + ".bak"));
+    }
+
+
+    /**
+     BENCHMARKS
+     **/
+    @Benchmark
+    public DatabaseManager loadDataFromDatabase(PeakHeap peakHeap) {
+        DatabaseManager dbManager = new DatabaseManager(library.getPath());
+        dbManager.loadDataFromDatabase();
+        return dbManager;
+    }
+
+    @Benchmark
+    public DatabaseManager loadDataFromFile(PeakHeap peakHeap) {
+        DatabaseManager dbManager = new DatabaseManager(library.getPath());
+        dbManager.loadDataFromFile(library.getPath());
+        return dbManager;
+    }
+
+    @Benchmark
+    public void saveAllData(PeakHeap peakHeap) {
+        loaded.saveAllData(jsonFile.toString());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: ActionButtonCell
+
+ Purpose: One shared renderer and editor for a table column of action buttons, such as View/Update/Remove. The cell's value is the ID
+ of the row's entry; a click hands the button's action and that ID to a dispatcher.
+
+ - HOW IT WORKS
+     * The renderer is a flyweight: one panel of buttons is built up front and only its background changes from row to row, so painting
+       a screen full of rows creates no Swing components and no other objects.
+     * The editor has its own panel, the only one with listeners. A click stops editing first (the action may change the table), then
+       passes the button's action and the edited row's ID to the dispatcher.
+     * Nothing is stored per row and nothing is printed, so the table can hold any number of rows.
+ - CELL METHODS
+     * getTableCellRendererComponent(): Gathers the shared panel, colored for the row.
+     * getTableCellEditorComponent(): Gathers the editor panel for the clicked row.
+     * getCellEditorValue(): Gathers the ID of the row being edited.
+ - NESTED INTERFACES/CLASSES
+     * Dispatcher(Interface): Runs an action for the entry with a given ID.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+
+public class ActionButtonCell extends AbstractCellEditor implements TableCellRenderer, TableCellEditor {
+    //Attributes
+    private final Dispatcher dispatcher;
+    private final JPanel rendererPanel;
+    private final JPanel editorPanel;
+    private int editingId;
+
+    /**
+     Constructor(ActionButtonCell): Creates the shared cell.
+     * @param dispatcher runs the clicked action; each button's label is its action
+     * @param actions the button labels, in order, such as "View", "Update", "Remove"
+     **/
+    public ActionButtonCell(Dispatcher dispatcher, String... actions) {
+        this.dispatcher = dispatcher;
+        this.rendererPanel = createPanel(actions, false);
+        this.editorPanel = createPanel(actions, true);
+    }
+
+    /**
+     CELL METHODS
+     **/
+    /**
+     getTableCellRendererComponent(): Gathers the shared panel with the row's background; the same panel draws every row.
+     **/
+    @Override
+    public java.awt.Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+        rendererPanel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
+        return rendererPanel;
+    }
+
+    /**
+     getTableCellEditorComponent(): Remembers the clicked row's ID and gathers the editor panel, whose buttons act on it.
+     **/
+    @Override
+    public java.awt.Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+        editingId = (Integer) value;
+        editorPanel.setBackground(table.getSelectionBackground());
+        return editorPanel;
+    }
+
+    /**
+     getCellEditorValue(): Gathers the ID of the row being edited; the buttons never change it.
+     **/
+    @Override
+    public Object getCellEditorValue() {
+        return editingId;
+    }
+
+
+    /**
+     createPanel(): Builds a panel of buttons; only the editor's copy gets a listener.
+     **/
+    private JPanel createPanel(String[] actions, boolean editor) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        for (String action : actions) {
+            JButton button = new JButton(action);
+            if (editor) {
+                button.addActionListener(e -> dispatch(e.getActionCommand()));
+            }
+            panel.add(button);
+        }
+        return panel;
+    }
+
+    private void dispatch(String action) {
+        int id = editingId;
+        fireEditingStopped();
+        dispatcher.dispatch(action, id);
+    }
+
+
+    /**
+     NESTED INTERFACES/CLASSES
+     **/
+    /**
+     Dispatcher(Interface): Runs an action for the entry with a given ID. Called on the EDT.
+     **/
+    public interface Dispatcher {
+        /**dispatch(): @param action the clicked button's label @param id the ID in the clicked row **/
+        void dispatch(String action, int id);
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: CategoryTableModel
+
+ Purpose: Table model for the main window's category table. It stores nothing but the category IDs, in display order, in a primitive array
+ and reads each visible cell straight from the DatabaseManager's hierarchy, so memory stays a few bytes per row and JTable only asks
+ for the rows that are actually on screen. The row of each ID is found through RowIndex, an open-addressing map kept in two int
+ arrays, so finding a row boxes nothing.
+
+ - COLUMNS
+     * ID_COLUMN: The category ID.
+     * NAME_COLUMN: The category name, looked up when the cell is painted.
+     * ACTIONS_COLUMN: The category ID again; a shared renderer/editor draws the View/Update/Remove buttons for it.
+ - DATA METHODS
+     * reload(): Re-reads the category IDs from the hierarchy.
+     * applyChanges(): Applies a change set from the ChangeNotifier row by row, so the table keeps its selection and scroll position.
+     * getIdAt(): Gets the category ID shown on a row.
+     * getRowOf(): Finds the row a category is shown on.
+ - NESTED CLASSES
+     * RowIndex: Maps category IDs to rows with linear probing in primitive arrays.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+
+public class CategoryTableModel extends AbstractTableModel {
+    public static final int ID_COLUMN = 0;
+    public static final int NAME_COLUMN = 1;
+    public static final int ACTIONS_COLUMN = 2;
+    private static final String[] COLUMN_NAMES = {"ID", "Category Name", "Actions"};
+
+    //Attributes
+    private final DatabaseManager dbManager;
+    private int[] ids = new int[64];
+    private int rowCount;
+    private final RowIndex rowOf = new RowIndex(); // Category ID -> row
+
+    /**
+     Constructor(CategoryTableModel): Creates an empty model that reads from the given database manager.
+     * @param dbManager the database manager whose hierarchy supplies the rows
+     **/
+    public CategoryTableModel(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     DATA METHODS
+     **/
+    /**
+     reload(): Re-reads the category IDs from the hierarchy in display order and tells the table everything changed. Must be called on the EDT.
+     **/
+    public void reload() {
+        rowCount = 0;
+        rowOf.clear();
+        dbManager.getHierarchy().traverse(new LibraryHierarchy.Visitor() {
+            @Override
+            public boolean visitCategory(Category category) {
+                if (rowCount == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                rowOf.put(category.getId(), rowCount);
+                ids[rowCount++] = category.getId();
+                return false; // Only categories are listed
+            }
+        });
+        fireTableDataChanged();
+    }
+
+    /**
+     applyChanges(): Applies a change set to the rows it touches: deleted categories lose their row, new ones are added at the end
+     (where the hierarchy lists them), and updated ones are repainted. The table is only told about those rows, so one edit costs the
+     same however many categories there are. Must be called on the EDT.
+     * @param changes the change set delivered by the ChangeNotifier
+     **/
+    public void applyChanges(ChangeNotifier.ChangeSet changes) {
+        if (changes.isReload()) {
+            reload();
+            return;
+        }
+        ChangeNotifier.Changes<Integer> categories = changes.getCategories();
+        removeRows(categories);
+
+        int firstNewRow = rowCount;
+        for (int id : categories.getInserted()) {
+            if (rowOf.get(id) >= 0) {
+                fireRowUpdated(id); // Already picked up by a reload after it was added
+            } else if (dbManager.getCategory(id) != null) {
+                if (rowCount == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                rowOf.put(id, rowCount);
+                ids[rowCount++] = id;
+            }
+        }
+        if (rowCount > firstNewRow) {
+            fireTableRowsInserted(firstNewRow, rowCount - 1);
+        }
+
+        for (int id : categories.getUpdated()) {
+            fireRowUpdated(id);
+        }
+    }
+
+    /**
+     getIdAt(): Gets the category ID shown on a row.
+     * @param row the model row
+     * @return the category ID
+     **/
+    public int getIdAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     getRowOf(): Finds the row a category is shown on.
+     * @param categoryId the category ID
+     * @return the model row, or -1 if the category isn't shown
+     **/
+    public int getRowOf(int categoryId) {
+        return rowOf.get(categoryId);
+    }
+
+
+    /**
+     removeRows(): Removes the rows of deleted categories, last row first so the earlier row numbers stay valid, and renumbers the rows
+     that moved up.
+     **/
+    private void removeRows(ChangeNotifier.Changes<Integer> categories) {
+        int[] rows = new int[categories.getDeleted().size()];
+        int count = 0;
+        for (int id : categories.getDeleted()) {
+            int row = rowOf.remove(id);
+            if (row >= 0) {
+                rows[count++] = row;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        Arrays.sort(rows, 0, count);
+        for (int i = count - 1; i >= 0; i--) {
+            int row = rows[i];
+            System.arraycopy(ids, row + 1, ids, row, rowCount - row - 1);
+            rowCount--;
+            fireTableRowsDeleted(row, row);
+        }
+        for (int row = rows[0]; row < rowCount; row++) {
+            rowOf.put(ids[row], row);
+        }
+    }
+
+    private void fireRowUpdated(int categoryId) {
+        int row = getRowOf(categoryId);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == NAME_COLUMN ? String.class : Integer.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == ACTIONS_COLUMN; // Only the button column should be editable
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int id = ids[row];
+        if (column == NAME_COLUMN) {
+            Category category = dbManager.getCategory(id);
+            return category == null ? "" : category.getTopic();
+        }
+        return id;
+    }
+
+    /**
+     RowIndex: Category ID -> row, in two int arrays with linear probing. A row of 0 in the rows array marks a free slot, so rows are
+     stored plus one. The table is kept at most half full and removals shift the entries after them back, so lookups never pass a
+     deleted slot.
+     **/
+    static final class RowIndex {
+        private int[] keys = new int[64];
+        private int[] rows = new int[64]; // row + 1, or 0 for a free slot
+        private int size;
+
+        /** get(): Gets the row of an ID, or -1 if it has none. **/
+        int get(int id) {
+            for (int slot = slot(id); rows[slot] != 0; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == id) {
+                    return rows[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /** put(): Sets the row of an ID. **/
+        void put(int id, int row) {
+            if (2 * (size + 1) > keys.length) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(id);
+            while (rows[slot] != 0 && keys[slot] != id) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (rows[slot] == 0) {
+                size++;
+            }
+            keys[slot] = id;
+            rows[slot] = row + 1;
+        }
+
+        /**
+         remove(): Removes an ID.
+         * @return its row, or -1 if it had none
+         **/
+        int remove(int id) {
+            int mask = keys.length - 1;
+            int slot = slot(id);
+            while (rows[slot] != 0 && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (rows[slot] == 0) {
+                return -1;
+            }
+            int row = rows[slot] - 1;
+            size--;
+            // Shift back every entry after the hole that would otherwise no longer be reached from its home slot
+            int hole = slot;
+            for (int next = (hole + 1) & mask; rows[next] != 0; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    rows[hole] = rows[next];
+                    hole = next;
+                }
+            }
+            rows[hole] = 0;
+            return row;
+        }
+
+        /** clear(): Removes every ID. **/
+        void clear() {
+            Arrays.fill(rows, 0);
+            size = 0;
+        }
+
+        private int slot(int id) {
+            return (id * 0x9E3779B9 >>> 16 ^ id * 0x9E3779B9) & (keys.length - 1);
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new int[capacity];
+            rows = new int[capacity];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldRows[slot] != 0) {
+                    put(oldKeys[slot], oldRows[slot] - 1);
+                }
+            }
+        }
+    }
+}
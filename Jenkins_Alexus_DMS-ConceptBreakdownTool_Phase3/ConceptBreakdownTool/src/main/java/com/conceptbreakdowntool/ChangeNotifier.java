@@ -0,0 +1,335 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: ChangeNotifier
+
+ Purpose: Tells the views what changed in the library. Changes made in a burst, such as a bulk import, are gathered into one change set
+ and delivered once on the Event Dispatch Thread (EDT), instead of refreshing the views after every single change.
+
+ - HOW IT WORKS
+     * DatabaseManager records every insert, update, and delete as it happens, from whichever thread made it.
+     * The first change of a burst starts a Swing Timer. Each further change pushes delivery back until the library has been quiet for
+       quietMillis, but never past maxDelayMillis after the first change, so a long import still shows progress.
+     * Changes to the same entry are merged: inserted then updated stays inserted, inserted then deleted cancels out,
+       deleted then inserted again becomes updated.
+     * A full reload replaces the fine-grained changes; listeners should redraw everything when isReload() is true.
+     * Nothing is gathered while there are no listeners, so the console application pays nothing for it.
+ - RECORDING METHODS
+     * categoryChanged(), conceptChanged(), componentChanged(): Records a change to one entry.
+     * reloaded(): Records that everything was reloaded.
+ - DELIVERY METHODS
+     * addListener(), removeListener(): Registers a listener for change sets.
+     * flush(): Delivers the pending changes right away.
+ - NESTED INTERFACES/CLASSES
+     * ChangeKind(Enum): Inserted, updated, or deleted.
+     * Listener(Interface): Receives each change set on the EDT.
+     * ChangeSet: The categories, concepts, and components changed in one burst.
+     * Changes: The inserted, updated, and deleted keys of one kind of entry.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class ChangeNotifier {
+    static final int DEFAULT_QUIET_MILLIS = 40;
+    static final int DEFAULT_MAX_DELAY_MILLIS = 250;
+
+    //Attributes
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final int quietMillis;
+    private final int maxDelayMillis;
+    private final Timer timer; // Only touched on the EDT
+    private ChangeSet pending; // Guarded by this
+    private long firstChangeNanos;
+    private long lastChangeNanos;
+
+    /**
+     Constructor(ChangeNotifier): Creates a notifier with the default quiet period and maximum delay.
+     **/
+    public ChangeNotifier() {
+        this(DEFAULT_QUIET_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     Constructor(ChangeNotifier): Creates a notifier.
+     * @param quietMillis how long the library has to be quiet before a change set is delivered
+     * @param maxDelayMillis the longest a change waits for delivery during a continuous burst
+     **/
+    public ChangeNotifier(int quietMillis, int maxDelayMillis) {
+        this.quietMillis = quietMillis;
+        this.maxDelayMillis = Math.max(quietMillis, maxDelayMillis);
+        this.timer = new Timer(quietMillis, e -> timerFired());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     RECORDING METHODS
+     **/
+    /**
+     categoryChanged(): Records a change to a category.
+     * @param kind what happened to it
+     * @param categoryId the category's ID
+     **/
+    public void categoryChanged(ChangeKind kind, int categoryId) {
+        record(ChangeSet::getCategories, kind, categoryId);
+    }
+
+    /**
+     conceptChanged(): Records a change to a concept.
+     * @param kind what happened to it
+     * @param conceptId the concept's ID
+     **/
+    public void conceptChanged(ChangeKind kind, int conceptId) {
+        record(ChangeSet::getConcepts, kind, conceptId);
+    }
+
+    /**
+     componentChanged(): Records a change to a component.
+     * @param kind what happened to it
+     * @param componentKey the component's key from DatabaseManager.componentKey(), since components have no ID
+     **/
+    public void componentChanged(ChangeKind kind, String componentKey) {
+        record(ChangeSet::getComponents, kind, componentKey);
+    }
+
+    /**
+     reloaded(): Records that the whole library was reloaded; the change set tells listeners to redraw everything.
+     **/
+    public void reloaded() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            boolean first = beginChange();
+            pending.reload = true;
+            pending.categories.clear();
+            pending.concepts.clear();
+            pending.components.clear();
+            if (first) {
+                SwingUtilities.invokeLater(this::startTimer);
+            }
+        }
+    }
+
+
+    /**
+     DELIVERY METHODS
+     **/
+    /**
+     addListener(): Registers a listener; it receives each change set on the EDT.
+     * @param listener the listener to add
+     **/
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     removeListener(): Unregisters a listener.
+     * @param listener the listener to remove
+     **/
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     flush(): Delivers the pending changes right away instead of waiting for the quiet period. Must be called on the EDT.
+     **/
+    public void flush() {
+        timer.stop();
+        deliver();
+    }
+
+
+    private <K> void record(Function<ChangeSet, Changes<K>> changesOf, ChangeKind kind, K key) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            boolean first = beginChange();
+            if (!pending.reload) {
+                changesOf.apply(pending).apply(kind, key);
+            }
+            if (first) {
+                SwingUtilities.invokeLater(this::startTimer);
+            }
+        }
+    }
+
+    /**
+     beginChange(): Notes the time of a change, starting a new change set if none is pending. Called while holding the lock.
+     * @return true if this is the first change of a new set, so the timer has to be started
+     **/
+    private boolean beginChange() {
+        lastChangeNanos = System.nanoTime();
+        if (pending != null) {
+            return false;
+        }
+        pending = new ChangeSet();
+        firstChangeNanos = lastChangeNanos;
+        return true;
+    }
+
+    private void startTimer() {
+        timer.setInitialDelay(quietMillis);
+        timer.restart();
+    }
+
+    /**
+     timerFired(): Delivers the pending changes once the library has been quiet long enough, or the oldest change has waited long enough;
+     otherwise waits a little longer.
+     **/
+    private void timerFired() {
+        long waitMillis;
+        synchronized (this) {
+            if (pending == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            long quietFor = TimeUnit.NANOSECONDS.toMillis(now - lastChangeNanos);
+            long waitedFor = TimeUnit.NANOSECONDS.toMillis(now - firstChangeNanos);
+            waitMillis = Math.min(quietMillis - quietFor, maxDelayMillis - waitedFor);
+        }
+        if (waitMillis > 0) {
+            timer.setInitialDelay((int) waitMillis);
+            timer.restart();
+        } else {
+            deliver();
+        }
+    }
+
+    private void deliver() {
+        ChangeSet changes;
+        synchronized (this) {
+            changes = pending;
+            pending = null;
+        }
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.libraryChanged(changes);
+        }
+    }
+
+
+    /**
+     NESTED INTERFACES/CLASSES
+     **/
+    /**
+     ChangeKind(Enum): What happened to an entry.
+     **/
+    public enum ChangeKind {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     Listener(Interface): Receives each change set on the EDT.
+     **/
+    public interface Listener {
+        /**libraryChanged(): Called once per burst of changes. @param changes what changed **/
+        void libraryChanged(ChangeSet changes);
+    }
+
+    /**
+     ChangeSet: The categories, concepts, and components changed in one burst. A change inside a category (to one of its concepts,
+     components, or relationships) also marks the category itself as updated.
+     **/
+    public static class ChangeSet {
+        private final Changes<Integer> categories = new Changes<>();
+        private final Changes<Integer> concepts = new Changes<>();
+        private final Changes<String> components = new Changes<>();
+        private boolean reload;
+
+        /**getCategories(): Gathers the changed category IDs. **/
+        public Changes<Integer> getCategories() { return categories; }
+        /**getConcepts(): Gathers the changed concept IDs. **/
+        public Changes<Integer> getConcepts() { return concepts; }
+        /**getComponents(): Gathers the changed component keys. **/
+        public Changes<String> getComponents() { return components; }
+        /**isReload(): Checks whether everything was reloaded, in which case the fine-grained changes are empty and views should redraw. **/
+        public boolean isReload() { return reload; }
+
+        /**isEmpty(): Checks whether nothing changed. **/
+        public boolean isEmpty() {
+            return !reload && categories.isEmpty() && concepts.isEmpty() && components.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return reload ? "ChangeSet[reload]" : "ChangeSet[categories " + categories + ", concepts " + concepts + ", components " + components + "]";
+        }
+    }
+
+    /**
+     Changes: The inserted, updated, and deleted keys of one kind of entry, in the order they first changed.
+     **/
+    public static class Changes<K> {
+        private final Set<K> inserted = new LinkedHashSet<>();
+        private final Set<K> updated = new LinkedHashSet<>();
+        private final Set<K> deleted = new LinkedHashSet<>();
+
+        /**getInserted(): Gathers the keys of new entries. **/
+        public Set<K> getInserted() { return Collections.unmodifiableSet(inserted); }
+        /**getUpdated(): Gathers the keys of entries that existed before and still exist. **/
+        public Set<K> getUpdated() { return Collections.unmodifiableSet(updated); }
+        /**getDeleted(): Gathers the keys of entries that existed before and are gone. **/
+        public Set<K> getDeleted() { return Collections.unmodifiableSet(deleted); }
+
+        /**isEmpty(): Checks whether no entries of this kind changed. **/
+        public boolean isEmpty() {
+            return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+        }
+
+        /**
+         apply(): Merges one change into the set, so each key ends up in at most one of inserted, updated, or deleted.
+         **/
+        void apply(ChangeKind kind, K key) {
+            switch (kind) {
+                case INSERTED:
+                    if (deleted.remove(key)) {
+                        updated.add(key); // Deleted and added back: it existed before and still does
+                    } else {
+                        updated.remove(key);
+                        inserted.add(key);
+                    }
+                    break;
+                case UPDATED:
+                    if (!inserted.contains(key) && !deleted.contains(key)) {
+                        updated.add(key);
+                    }
+                    break;
+                case DELETED:
+                    updated.remove(key);
+                    if (!inserted.remove(key)) { // Added and deleted within the burst: nothing to report
+                        deleted.add(key);
+                    }
+                    break;
+            }
+        }
+
+        void clear() {
+            inserted.clear();
+            updated.clear();
+            deleted.clear();
+        }
+
+        @Override
+        public String toString() {
+            return "+" + inserted + " ~" + updated + " -" + deleted;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: CommandReplay
+
+ Purpose: A load test for the command line. It replays command scripts through the same runCommandLoop() a user types into, in several
+ sessions at once and at full speed, then reports commands per second and the latency of each command, so slow command paths show up
+ before a user finds them.
+
+ - SCRIPTS
+     * A script is the lines a user would type after the file name: a command, then the answers to its prompts, and so on. Start the
+       command line with --record <file> to save a session as a script.
+     * generateScript() writes one instead: a seeded mix of adds, updates, removals, prints and recommendations. It only names
+       categories and components it created itself and concepts already in the library, so it never meets a "did you mean" prompt.
+       Each session uses its own IDs and names, so sessions can share a database without running into each other.
+ - RUNNING
+     * java -cp ConceptBreakdownTool.jar com.conceptbreakdowntool.CommandReplay --db library.db [--sessions 4] [--shared]
+       [--script session.txt | --commands 1000] [--seed 1]
+     * Without --shared every session works on its own copy of the database; with it they all open the same file, as several copies of
+       the application would. What the commands print is thrown away while they run.
+ - METHODS
+     * run(): Runs the sessions and gathers the result.
+     * generateScript(), conceptIds(): Writes a script of a number of commands for one session, against the concepts of a library.
+     * recording(): Copies what is read from an input to a script, after the file name.
+     * main(): Parses the options above, runs the sessions and prints the report.
+ - NESTED CLASSES
+     * Result: The sessions' commands, time, latency table and database errors.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CommandReplay {
+    private static final int SESSION_ID_RANGE = 1_000_000;
+    private static final String[] COMMANDS = {"add", "update", "remove", "print", "recommend", "duplicates", "metrics", "trace", "slow", "footprint", "help", "exit"};
+
+    //Attributes
+    private final Path database;
+    private final int sessions;
+    private final boolean shared;
+
+    /**
+     Constructor: Sets up a replay against a database.
+     * @param database the .db file the sessions start from
+     * @param sessions how many sessions run at once
+     * @param shared whether they all use that file, instead of a copy each
+     **/
+    public CommandReplay(Path database, int sessions, boolean shared) {
+        if (sessions < 1 || sessions > Integer.MAX_VALUE / SESSION_ID_RANGE - 1) {
+            throw new IllegalArgumentException("Sessions must be between 1 and " + (Integer.MAX_VALUE / SESSION_ID_RANGE - 1) + ": " + sessions);
+        }
+        this.database = database;
+        this.sessions = sessions;
+        this.shared = shared;
+    }
+
+    /**
+     run(): Replays one script per session, all at once, and waits for them to finish.
+     * @param scripts the script of each session; there must be one per session
+     * @return what the sessions did and how long it took
+     * @throws IOException if a copy of the database can't be made or loaded
+     * @throws InterruptedException if the wait for the sessions is interrupted
+     **/
+    public Result run(List<String> scripts) throws IOException, InterruptedException {
+        if (scripts.size() != sessions) {
+            throw new IllegalArgumentException("Expected " + sessions + " scripts but got " + scripts.size());
+        }
+        List<Path> files = new ArrayList<>();
+        Path copies = shared ? null : Files.createTempDirectory("replay");
+        for (int i = 0; i < sessions; i++) {
+            files.add(shared ? database : Files.copy(database, copies.resolve("session" + i + ".db")));
+        }
+
+        DataMetrics latencies = new DataMetrics(true); // Its own table, apart from the application's metrics
+        LongAdder commands = new LongAdder();
+        long errorsBefore = databaseErrors();
+        PrintStream console = System.out;
+        ExecutorService pool = Executors.newFixedThreadPool(sessions);
+        long elapsedNanos;
+        try {
+            List<DatabaseManager> managers = new ArrayList<>();
+            for (Path file : files) {
+                DatabaseManager dbManager = new DatabaseManager(file.toString());
+                if (!dbManager.loadDataFromFile(file.toString())) {
+                    throw new IOException("Can't load " + file);
+                }
+                managers.add(dbManager);
+            }
+            System.setOut(new PrintStream(new DiscardingStream()));
+            ConceptBreakdownToolApplication.CommandListener listener = (command, nanos) -> {
+                latencies.operation(isCommand(command) ? command : "(unknown)").recordNanos(nanos);
+                commands.increment();
+            };
+            List<Future<?>> running = new ArrayList<>();
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < sessions; i++) {
+                Scanner scanner = new Scanner(scripts.get(i));
+                DatabaseManager dbManager = managers.get(i);
+                running.add(pool.submit(() -> ConceptBreakdownToolApplication.runCommandLoop(scanner, dbManager, listener)));
+            }
+            for (Future<?> session : running) {
+                try {
+                    session.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A session failed", e.getCause());
+                }
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        } finally {
+            System.setOut(console);
+            pool.shutdownNow();
+            if (copies != null) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(copies);
+            }
+        }
+        return new Result(sessions, shared, commands.sum(), elapsedNanos, latencies.snapshot(), databaseErrors() - errorsBefore);
+    }
+
+    private static boolean isCommand(String command) {
+        for (String known : COMMANDS) {
+            if (known.equals(command)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long databaseErrors() {
+        long errors = 0;
+        for (DataMetrics.OperationStats stats : DataMetrics.get().snapshot().getOperations()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+
+    /**
+     generateScript(): Writes a script for one session. The same arguments always give the same script.
+     * Concepts get their IDs from the database when they are added, which a script can't know, so the concepts it adds are not used
+     * again; components, updates and recommendations go to the concepts that were already in the library.
+     * @param session the session number, which picks the IDs and names it uses
+     * @param conceptIds the IDs of concepts in the library the script runs against; there must be at least one
+     * @param commands how many commands, not counting the final exit
+     * @param seed the random seed
+     * @return the script, one line per input
+     **/
+    public static String generateScript(int session, List<Integer> conceptIds, int commands, long seed) {
+        if (conceptIds.isEmpty()) {
+            throw new IllegalArgumentException("The library needs at least one concept to replay commands against");
+        }
+        Random random = new Random(seed * 31 + session);
+        int base = (session + 1) * SESSION_ID_RANGE;
+        List<Integer> categoryIds = new ArrayList<>();
+        List<String> categoryNames = new ArrayList<>();
+        List<int[]> components = new ArrayList<>(); // {concept ID, number in its topic}
+        int created = 0;
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < commands; i++) {
+            int roll = random.nextInt(100);
+            created++;
+            if (categoryIds.isEmpty() || roll < 10) {
+                String name = "Load " + session + " category " + created;
+                lines(script, "add", "category", base + created, name);
+                categoryIds.add(base + created);
+                categoryNames.add(name);
+            } else if (roll < 25) {
+                lines(script, "add", "concept", "yes", categoryNames.get(random.nextInt(categoryNames.size())), base + created,
+                        "Concept " + created, "Details of concept " + created + " for session " + session);
+            } else if (components.isEmpty() || roll < 50) {
+                int conceptId = conceptIds.get(random.nextInt(conceptIds.size()));
+                lines(script, "add", "component", conceptId, componentTopic(session, created), "Part " + created + " of concept " + conceptId);
+                components.add(new int[]{conceptId, created});
+            } else if (roll < 60) {
+                int conceptId = conceptIds.get(random.nextInt(conceptIds.size()));
+                lines(script, "update", "concept", conceptId, "Concept " + created, "Updated details " + created);
+            } else if (roll < 65) {
+                int index = random.nextInt(categoryIds.size());
+                String name = "Load " + session + " category " + created;
+                lines(script, "update", "category", categoryIds.get(index), name);
+                categoryNames.set(index, name);
+            } else if (roll < 75) {
+                int[] component = components.get(random.nextInt(components.size()));
+                lines(script, "update", "component", component[0], componentTopic(session, component[1]), componentTopic(session, created),
+                        "Updated part " + created);
+                component[1] = created;
+            } else if (roll < 85) {
+                int[] component = components.remove(random.nextInt(components.size()));
+                lines(script, "remove", "component", componentTopic(session, component[1]));
+            } else if (roll < 92) {
+                lines(script, "recommend", "category", categoryIds.get(random.nextInt(categoryIds.size())));
+            } else if (roll < 98) {
+                lines(script, "recommend", "concept", conceptIds.get(random.nextInt(conceptIds.size())));
+            } else {
+                lines(script, "print");
+            }
+        }
+        lines(script, "exit");
+        return script.toString();
+    }
+
+    /**
+     conceptIds(): Gathers the IDs of the concepts in a library, to generate scripts against it.
+     * @param database the .db file
+     * @return the concept IDs
+     * @throws IOException if the library can't be loaded
+     **/
+    public static List<Integer> conceptIds(Path database) throws IOException {
+        DatabaseManager dbManager = new DatabaseManager(database.toString());
+        if (!dbManager.loadDataFromFile(database.toString())) {
+            throw new IOException("Can't load " + database);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Concept concept : dbManager.getConcepts()) {
+            ids.add(concept.getId());
+        }
+        return ids;
+    }
+
+    private static String componentTopic(int session, int number) {
+        return "s" + session + " part " + number;
+    }
+
+    private static void lines(StringBuilder script, Object... inputs) {
+        for (Object input : inputs) {
+            script.append(input).append('\n');
+        }
+    }
+
+    /**
+     recording(): Wraps an input so everything read from it after its first line, the file name, is also written to a script.
+     * @param in the input the command line reads
+     * @param script where the script is written; closing the returned stream closes it
+     * @return the input to read instead
+     **/
+    public static InputStream recording(InputStream in, OutputStream script) {
+        return new FilterInputStream(in) {
+            private boolean pastFileName;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    copy(b);
+                    script.flush();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                for (int i = 0; i < read; i++) {
+                    copy(buffer[offset + i]);
+                }
+                script.flush(); // A script survives the application being closed without 'exit'
+                return read;
+            }
+
+            private void copy(int b) throws IOException {
+                if (pastFileName) {
+                    script.write(b);
+                } else if (b == '\n') {
+                    pastFileName = true;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    script.close();
+                }
+            }
+        };
+    }
+
+
+    /**
+     main(): Runs a replay from the command line and prints its report.
+     **/
+    public static void main(String[] args) throws Exception {
+        Path database = null;
+        Path script = null;
+        int sessions = 4;
+        int commands = 1000;
+        long seed = 1;
+        boolean shared = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--db":
+                        database = Paths.get(args[++i]);
+                        break;
+                    case "--script":
+                        script = Paths.get(args[++i]);
+                        break;
+                    case "--sessions":
+                        sessions = Integer.parseInt(args[++i]);
+                        break;
+                    case "--commands":
+                        commands = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--shared":
+                        shared = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (database == null || !Files.isRegularFile(database)) {
+                throw new IllegalArgumentException("--db must name an existing .db file");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "An option is missing its value" : e.getMessage());
+            System.err.println("Usage: CommandReplay --db <file.db> [--sessions N] [--shared] [--script <file> | --commands N] [--seed S]");
+            System.exit(2);
+            return;
+        }
+
+        List<Integer> conceptIds = script == null ? conceptIds(database) : null;
+        List<String> scripts = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            scripts.add(script != null ? new String(Files.readAllBytes(script), StandardCharsets.UTF_8) : generateScript(i, conceptIds, commands, seed));
+        }
+        Log.setLevel(Log.Level.ERROR); // Warnings from thousands of commands would drown the report
+        System.out.println(new CommandReplay(database, sessions, shared).run(scripts));
+    }
+
+
+    /**
+     Result: What a replay did.
+     **/
+    public static class Result {
+        private final int sessions;
+        private final boolean shared;
+        private final long commands;
+        private final long elapsedNanos;
+        private final DataMetrics.Snapshot latencies;
+        private final long databaseErrors;
+
+        Result(int sessions, boolean shared, long commands, long elapsedNanos, DataMetrics.Snapshot latencies, long databaseErrors) {
+            this.sessions = sessions;
+            this.shared = shared;
+            this.commands = commands;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            this.databaseErrors = databaseErrors;
+        }
+
+        public long getCommands() {
+            return commands;
+        }
+
+        public double getCommandsPerSecond() {
+            return commands / (elapsedNanos / 1e9);
+        }
+
+        /** getLatency(): Gathers the latency of one command, such as "add", or "(unknown)" for lines that were not a command. **/
+        public DataMetrics.OperationStats getLatency(String command) {
+            return latencies.getOperation(command);
+        }
+
+        /** getDatabaseErrors(): Gathers how many data operations failed during the replay, such as writes refused by a locked file. **/
+        public long getDatabaseErrors() {
+            return databaseErrors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sessions (%s), %d commands in %.2f s: %.0f commands/s, %d database errors%n%n",
+                    sessions, shared ? "one shared database" : "a database each", commands, elapsedNanos / 1e9, getCommandsPerSecond(),
+                    databaseErrors) + latencies.toString().replaceFirst("Operation", "Command  ");
+        }
+    }
+
+    /**
+     DiscardingStream: Throws away what the commands print, so printing costs as little as it can.
+     **/
+    private static class DiscardingStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
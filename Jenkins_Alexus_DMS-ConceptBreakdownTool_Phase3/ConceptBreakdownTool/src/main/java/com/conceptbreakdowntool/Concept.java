@@ -51,6 +51,13 @@ public class Concept {
      @return the topic of the concept
      **/
     public String getTopic() { return topic; }
+    /**
+     setTopic(): Sets the topic of the concept.
+     @param topic the new topic
+     **/
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
     /**
      getCategory(): Gets the category to which the concept belongs.
      @return the category name
@@ -66,5 +73,12 @@ public class Concept {
     public String getDetails() {
         return details;
     }
+    /**
+     setDetails(): Sets the detailed information about this concept.
+     @param details the new details
+     **/
+    public void setDetails(String details) {
+        this.details = details;
+    }
 
 }
\ No newline at end of file
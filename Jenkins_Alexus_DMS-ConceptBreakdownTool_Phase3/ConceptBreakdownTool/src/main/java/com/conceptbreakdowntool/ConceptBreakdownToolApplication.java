@@ -2,7 +2,6 @@ package com.conceptbreakdowntool;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 /*
@@ -18,13 +17,22 @@ Name: Alexus Jenkins
 
  Methods:
  main(): Main method that initiates the application, handling user input for managing concept, components, and categories, and providing options such as adding, updating, and removing. Printing the database, recommending diagrams, and displaying concepts in a table format.
- recommendDiagram(): Randomly selects and recommends a diagram type from the 'DIAGRAM_TYPES' array to the user for visualizing concepts.
+   Only the file the user names is read, and every change is written to it.
+ recommendDiagram(): Recommends a diagram type from the 'DIAGRAM_TYPES' array that fits the measured structure of a category or concept, and explains why.
  displayAsTable(): Displays the concepts organized by categories in a tabular format, including the details of components associated with each concept.
  addObjects(): User can add a new concept, component, or category to the database.
  updateObjects(): User can update a concept, component, or category in the database.
  removeObjects(): User can remove a concept, component, or category in the database.
  loadFromFile(): Load concepts, components, and categories from a file into the database.
  printDatabase(): Prints the entire database contents, including categories, concepts, and components, into the console.
+ printDuplicates(): Prints every pair of near-duplicate concepts and components in the library.
+ The "metrics" command prints DataMetrics' snapshot of data operation counts, latencies, and cache statistics.
+ The "trace" command turns SQL tracing on or off; printSlowQueries() prints SqlTrace's slow-query log with each query plan.
+ printFootprint(): Prints HeapFootprint's estimate of the heap the loaded library takes and projects it to a number of concepts.
+ didYouMean(): Offers the closest match to a misspelled name or topic and returns it if the user accepts it.
+ runCommandLoop(): Reads and runs commands until 'exit' or the end of the input, so CommandReplay can drive the same command paths from scripts.
+   Starting main() with --record <file> saves everything typed after the file name as a script CommandReplay can replay.
+ Prompts and results are printed to System.out; diagnostics go through Log to System.err, and the command loop flushes Log before every prompt.
 
  //Getters and Setters: Provides access and allows modification of the concepts and attributes.
  getId(), setID()
@@ -48,12 +56,21 @@ public class ConceptBreakdownToolApplication {
             "Affinity Diagram",
             "Relationship Diagram"
     };
+    private static final Log LOG = Log.get(ConceptBreakdownToolApplication.class);
     private DatabaseManager dbManager;
 
     //main(): Main method that initiates the application, handling user input for managing concept, components, and categories, and providing options such as adding, updating, and removing. Printing the database, recommending diagrams, and displaying concepts in a table format.
     public static void main(String[] args) {
-        DatabaseManager dbManager = new DatabaseManager();
-        Scanner scanner = new Scanner(System.in);
+        InputStream input = System.in;
+        if (args.length == 2 && "--record".equals(args[0])) {
+            try {
+                input = CommandReplay.recording(System.in, new FileOutputStream(args[1]));
+            } catch (FileNotFoundException e) {
+                System.err.println("Can't record to " + args[1] + ": " + e.getMessage());
+                return;
+            }
+        }
+        Scanner scanner = new Scanner(input);
 
         // Loads data from the file
         System.out.println("Welcome to the Concept Breakdown Tool.");
@@ -61,10 +78,13 @@ public class ConceptBreakdownToolApplication {
         String filename = scanner.nextLine().trim();
         File file = new File(filename);
 
+        DatabaseManager dbManager = new DatabaseManager(filename); // Nothing is read until the chosen file is loaded, once
         if (file.exists() && !file.isDirectory()) {
-            System.out.println("Starting file load.");
+            LOG.info("Starting file load.");
+            long startNanos = System.nanoTime();
             loadFromFile(dbManager, filename);
-            System.out.println("File load completed.");
+            LOG.info(() -> "File load completed in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms.");
+            Log.flush();
             displayAsTable(dbManager); // Display data as a table after loading from file
             System.out.println("Type 'help' to see available commands or start entering commands.");
         } else {
@@ -73,15 +93,26 @@ public class ConceptBreakdownToolApplication {
             return; // Exit if file not found to prevent further execution
         }
 
+        runCommandLoop(scanner, dbManager, null);
+        scanner.close(); // Also finishes a recording
+    }
+
+    //runCommandLoop(): Reads and runs commands until 'exit' or the end of the input. main() runs it on System.in; CommandReplay runs it on scripts, timing each command through the listener.
+    static void runCommandLoop(Scanner scanner, DatabaseManager dbManager, CommandListener listener) {
         // User command loop
         // Just before the while loop starts
         System.out.println("\nEntering command loop. Please enter a command:");
 
 
         while (true) {
-            System.out.println("Available Commands: [add, update, remove, print, recommend, help, exit]");
+            Log.flush(); // Show what the last command logged before the next prompt
+            System.out.println("Available Commands: [add, update, remove, print, recommend, duplicates, metrics, trace, slow, footprint, help, exit]");
             System.out.print("Enter command: ");
+            if (!scanner.hasNextLine()) {
+                return; // End of the input or script
+            }
             String command = scanner.nextLine().trim().toLowerCase();
+            long startNanos = System.nanoTime();
 
             try {
                 switch (command) {
@@ -98,7 +129,24 @@ public class ConceptBreakdownToolApplication {
                         displayAsTable(dbManager);
                         break;
                     case "recommend":
-                        recommendDiagram();
+                        recommendDiagram(scanner, dbManager);
+                        break;
+                    case "duplicates":
+                        printDuplicates(dbManager);
+                        break;
+                    case "metrics":
+                        System.out.println(DataMetrics.get().dumpSnapshot());
+                        break;
+                    case "trace":
+                        SqlTrace.setEnabled(!SqlTrace.isEnabled());
+                        System.out.println("SQL tracing is " + (SqlTrace.isEnabled() ? "on; statements slower than "
+                                + SqlTrace.getSlowThresholdMillis() + " ms are explained and added to the slow-query log." : "off."));
+                        break;
+                    case "slow":
+                        printSlowQueries();
+                        break;
+                    case "footprint":
+                        printFootprint(scanner, dbManager);
                         break;
                     case "help":
                         printInstructions();
@@ -114,15 +162,48 @@ public class ConceptBreakdownToolApplication {
                 System.out.println("Invalid number format. Please enter valid numeric values.");
             } catch (Exception e) {
                 System.out.println("An error occurred: " + e.getMessage());
+            } finally {
+                if (listener != null) {
+                    listener.commandFinished(command, System.nanoTime() - startNanos);
+                }
             }
         }
     }
 
-    //recommendDiagram(): Randomly selects and recommends a diagram type from the 'DIAGRAM_TYPES' array to the user for visualizing concepts.
+    //CommandListener: Told how long each command took, including its prompts and answers.
+    interface CommandListener {
+        void commandFinished(String command, long elapsedNanos);
+    }
+
+
+    //recommendDiagram(): Recommends a diagram type for an empty selection, which is where every new category starts.
     public static String recommendDiagram() {
-        Random random = new Random();
-        int index = random.nextInt(DIAGRAM_TYPES.length);
-        return DIAGRAM_TYPES[index]; // Instead of printing, return the type for testing
+        return DiagramRecommender.score(new DiagramRecommender.Features()).getDiagramType(); // Instead of printing, return the type for testing
+    }
+
+    //recommendDiagram(): Asks for a category or concept, then recommends the diagram type that fits its measured structure and explains why.
+    public static void recommendDiagram(Scanner scanner, DatabaseManager dbManager) {
+        System.out.println("Recommend a diagram for a Category or a Concept? (Category/Concept): ");
+        String type = scanner.nextLine().trim().toLowerCase();
+        DiagramRecommender.Recommendation recommendation;
+        switch (type) {
+            case "category":
+                int categoryId = safelyParseInt(scanner, "Enter Category ID: ");
+                recommendation = dbManager.recommendDiagramForCategory(categoryId);
+                break;
+            case "concept":
+                int conceptId = safelyParseInt(scanner, "Enter Concept ID: ");
+                if (dbManager.getConcept(conceptId) == null) {
+                    System.out.println("Concept ID does not exist. Please ensure the concept ID is correct.");
+                    return;
+                }
+                recommendation = dbManager.recommendDiagramForConcept(conceptId);
+                break;
+            default:
+                System.out.println("Invalid type. Please enter 'Category' or 'Concept'.");
+                return;
+        }
+        System.out.println(recommendation.explain());
     }
 
 
@@ -130,28 +211,45 @@ public class ConceptBreakdownToolApplication {
     //displayAsTable(): Displays the concepts organized by categories in a tabular format, including the details of components associated with each concept.
     private static void displayAsTable(DatabaseManager dbManager) {
         System.out.println("\nDatabase Contents:");
-        for (Category category : dbManager.getCategories()) {
-            System.out.println("\nCategory Name: " + category.getTopic());
-            System.out.println("Category ID: " + category.getId());
-            for (Concept concept : dbManager.getConcepts()) {
-                if (concept.getCategory().equals(category.getTopic())) {
-                    System.out.println("Concept ID: " + concept.getId());
-                    System.out.println("Concept Name and Details: " + concept.getTopic() + " | " + concept.getDetails());
-                    if (!concept.getComponents().isEmpty()) {
-                        System.out.println("+------------------------+--------------------------------------------+");
-                        System.out.println("| COMPONENTS             | DESCRIPTION                                |");
-                        System.out.println("+------------------------+--------------------------------------------+");
-                        for (Component component : concept.getComponents()) {
-                            printFormattedComponentRow(component.getTopic(), component.getDetails());
-                        }
-                        // Prints the bottom border after listing all components
-                        System.out.println("+------------------------+--------------------------------------------+");
-                    } else {
-                        System.out.println("No components available for this concept.");
-                    }
+        dbManager.getHierarchy().traverse(new LibraryHierarchy.Visitor() {
+            private boolean hasComponents;
+
+            @Override
+            public boolean visitCategory(Category category) {
+                System.out.println("\nCategory Name: " + category.getTopic());
+                System.out.println("Category ID: " + category.getId());
+                return true;
+            }
+
+            @Override
+            public boolean visitConcept(Category category, Concept concept) {
+                System.out.println("Concept ID: " + concept.getId());
+                System.out.println("Concept Name and Details: " + concept.getTopic() + " | " + concept.getDetails());
+                hasComponents = false;
+                return true;
+            }
+
+            @Override
+            public void visitComponent(Concept concept, Component component) {
+                if (!hasComponents) {
+                    System.out.println("+------------------------+--------------------------------------------+");
+                    System.out.println("| COMPONENTS             | DESCRIPTION                                |");
+                    System.out.println("+------------------------+--------------------------------------------+");
+                    hasComponents = true;
                 }
+                printFormattedComponentRow(component.getTopic(), component.getDetails());
             }
-        }
+
+            @Override
+            public void leaveConcept(Category category, Concept concept) {
+                if (hasComponents) {
+                    // Prints the bottom border after listing all components
+                    System.out.println("+------------------------+--------------------------------------------+");
+                } else {
+                    System.out.println("No components available for this concept.");
+                }
+            }
+        });
     }
 
 
@@ -207,6 +305,12 @@ public class ConceptBreakdownToolApplication {
                         // Ask for the Category Name
                         System.out.println("\nEnter the Category Name: ");
                         String categoryName = scanner.nextLine().trim();
+                        if (dbManager.findCategoryByName(categoryName) == null) {
+                            String suggestion = didYouMean(scanner, dbManager.suggestCategories(categoryName));
+                            if (suggestion != null) {
+                                categoryName = suggestion;
+                            }
+                        }
                         if (dbManager.findCategoryByName(categoryName) == null) {
                             System.out.println("Category does not exist. Please create the category first.");
                             //Redirects to create a category or handle it differently
@@ -300,6 +404,13 @@ public class ConceptBreakdownToolApplication {
                     int componentId = safelyParseInt(scanner, "Enter a valid Component ID: ");
                     System.out.println("Enter old Component Topic:");
                     String oldComponentTopic = scanner.nextLine().trim();
+                    final String typedTopic = oldComponentTopic;
+                    if (dbManager.getComponentsByConceptId(componentId).stream().noneMatch(component -> component.getTopic().equals(typedTopic))) {
+                        String suggestion = didYouMean(scanner, dbManager.suggestComponents(oldComponentTopic, componentId));
+                        if (suggestion != null) {
+                            oldComponentTopic = suggestion;
+                        }
+                    }
                     System.out.println("Enter new Component Topic:");
                     String newComponentTopic = scanner.nextLine().trim();
                     System.out.println("Enter new Component Details:");
@@ -357,6 +468,12 @@ public class ConceptBreakdownToolApplication {
                     // Adjusted to use component Topic for removal
                     System.out.println("Enter Component Topic to remove: ");
                     String componentTopic = scanner.nextLine().trim();
+                    if (dbManager.getComponent(componentTopic) == null) {
+                        String suggestion = didYouMean(scanner, dbManager.suggestComponents(componentTopic));
+                        if (suggestion != null) {
+                            componentTopic = suggestion;
+                        }
+                    }
                     if (dbManager.deleteComponent(componentTopic)) {
                         System.out.println("Component removed.");
                     } else {
@@ -393,32 +510,106 @@ public class ConceptBreakdownToolApplication {
     private static void printDatabase (DatabaseManager dbManager){
         System.out.println("##Database Contents:");
 
-        for (Category category : dbManager.getCategories()) {
-            System.out.println(category.getTopic());
-
-            // Filter concepts by category
-            List<Concept> conceptsInCategory = dbManager.getConcepts().stream()
-                    .filter(concept -> concept.getCategory().equals(category.getTopic()))
-                    .collect(Collectors.toList());
+        dbManager.getHierarchy().traverse(new LibraryHierarchy.Visitor() {
+            @Override
+            public boolean visitCategory(Category category) {
+                System.out.println(category.getTopic());
+                return true;
+            }
 
-            for (Concept concept : conceptsInCategory) {
+            @Override
+            public boolean visitConcept(Category category, Concept concept) {
                 System.out.println("- " + concept.getTopic());
+                return true;
+            }
 
-                // Directly use the getComponents method of Concept
-                for (Component component : concept.getComponents()) {
-                    System.out.println("   - " + component.getTopic());
-                }
+            @Override
+            public void visitComponent(Concept concept, Component component) {
+                System.out.println("   - " + component.getTopic());
             }
+        });
+    }
+
+    //didYouMean(): Offers the closest match to a misspelled name or topic and returns it if the user accepts it.
+    static String didYouMean(Scanner scanner, List<? extends FuzzyIndex.Suggestion<?>> suggestions) {
+        if (suggestions.isEmpty()) {
+            return null;
+        }
+        String best = suggestions.get(0).getText();
+        System.out.println("Did you mean '" + best + "'? (yes/no): ");
+        if ("yes".equals(scanner.nextLine().trim().toLowerCase())) {
+            return best;
+        }
+        if (suggestions.size() > 1) {
+            StringBuilder others = new StringBuilder();
+            for (int i = 1; i < suggestions.size(); i++) {
+                others.append(i > 1 ? ", " : "").append(suggestions.get(i).getText());
+            }
+            System.out.println("Other close matches: " + others);
+        }
+        return null;
+    }
+
+    //printDuplicates(): Prints every pair of near-duplicate concepts and components in the library.
+    private static void printDuplicates(DatabaseManager dbManager) {
+        List<DuplicateIndex.Match> duplicates = dbManager.findDuplicatesReport();
+        if (duplicates.isEmpty()) {
+            System.out.println("No near-duplicate concepts or components found.");
+            return;
+        }
+        System.out.println("\nNear-duplicate entries:");
+        for (DuplicateIndex.Match match : duplicates) {
+            System.out.println("  " + match);
+        }
+    }
+
+    //printSlowQueries(): Prints the slow-query log, each statement followed by its query plan.
+    private static void printSlowQueries() {
+        List<SqlTrace.Query> slowQueries = SqlTrace.getSlowQueries();
+        if (slowQueries.isEmpty()) {
+            System.out.println(SqlTrace.isEnabled() ? "No slow SQL statements yet." : "No slow SQL statements; use 'trace' to start tracing.");
+            return;
+        }
+        System.out.println("\nSlow SQL statements (" + SqlTrace.getSlowThresholdMillis() + " ms or more):");
+        for (SqlTrace.Query query : slowQueries) {
+            System.out.println("  " + query);
+            System.out.println("    " + query.getPlan().replace(System.lineSeparator(), System.lineSeparator() + "    "));
+        }
+    }
+
+    //printFootprint(): Prints the estimated heap per kind of entry and in duplicated strings, then projects it to a number of concepts.
+    private static void printFootprint(Scanner scanner, DatabaseManager dbManager) {
+        HeapFootprint.Report report = HeapFootprint.measure(dbManager);
+        System.out.println();
+        System.out.print(report);
+        System.out.printf("Heap in use after GC: %,d bytes (also holds the caches and the application itself)%n",
+                HeapFootprint.usedHeapAfterGc());
+        System.out.print("Project the footprint for how many concepts? (Enter to skip): ");
+        String target = scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+        if (target.isEmpty()) {
+            return;
+        }
+        long concepts = Long.parseLong(target);
+        if (concepts <= 0) {
+            System.out.println("The number of concepts must be positive.");
+            return;
         }
+        System.out.printf("Estimated footprint for %,d concepts: %,d bytes (%.1f MB)%n", concepts, report.projectForConcepts(concepts),
+                report.projectForConcepts(concepts) / (1024.0 * 1024.0));
     }
 
     private static void printInstructions() {
         System.out.println("\nUsage Instructions:");
         System.out.println("  add - Start the process to add a category, concept, or component.");
         System.out.println("  list - Display all concepts and their components in a table format.");
-        System.out.println("  recommend - Get a random recommendation for a diagram type.");
+        System.out.println("  recommend - Get a diagram type recommendation based on the structure of a category or concept.");
         System.out.println("  load - Load data from a specified file. (Note: This should be done at the start of the application)");
         System.out.println("  print - Display the entire database of categories, concepts, and components in a table format.");
+        System.out.println("  duplicates - List concepts and components that closely match each other.");
+        System.out.println("  metrics - Show how often each data operation ran, how long it took, and cache statistics.");
+        System.out.println("  trace - Turn SQL statement tracing on or off.");
+        System.out.println("  slow - List the slow SQL statements seen while tracing, with their query plans.");
+        System.out.println("  footprint - Estimate the heap the loaded library takes and how it grows with more concepts.");
         System.out.println("  update - Update existing categories, concepts, and components.");
         System.out.println("  remove - Remove existing categories, concepts, and components.");
         System.out.println("  help - Show this list of commands.");
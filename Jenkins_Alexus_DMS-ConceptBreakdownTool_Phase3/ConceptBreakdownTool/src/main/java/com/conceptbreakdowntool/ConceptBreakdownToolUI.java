@@ -7,18 +7,21 @@
  Purpose: A GUI for the Concept Breakdown Tool Application that is designed to manage and organize categories, concepts, and components in a structured database.
 
 - Initialization Methods: Responsible for setting up the initial stage of the application.
-    *Constructor(ConceptBreakdownToolUI): Initializes the main UI frame; Sets up the database manager and application window; Configures the window properties.
+    *Constructor(ConceptBreakdownToolUI): Initializes the main UI frame; Sets up the database manager; Configures the window properties.
     *initComponents(): Sets up the components of the UI (Buttons, Labels, Panels).
+    *getMainWindow(): Builds the application window the first time it is needed, so the start-up frame appears without waiting for it.
 - UI Action Methods: Used to handle user interactions through UI, responding to button clicks and other actions.
     * showInstructions(): Displays the instructions to the user.
     * createFile(): Handles the creation of a new database file (.db).
 - Main Method: Main entry point of the application, handles initial setup before the UI is displayed.
     * main(): Starts the application; Sets up the database connection; Launches the main UI window; Prompts the user for the database file path; Handles database connection initialization.
+      Nothing is read from the database until a file is loaded, and the time until the first window appears is logged.
+      EdtWatchdog is installed before the first window, so any event that stalls the UI is logged with its stack trace.
 - UI and File Handling: Handles direct interactions with the filesystem and user interface controls.
     * initComponents(): Sets up the components of the UI (Buttons, Labels, Panels).
             --instructionsButton(): Displays the application's instructions.
             --createFileButton(): Initiate the database file creation process.
-            --loadFileButton(): Opens a file chooser to load an existing database.
+            --loadFileButton(): Opens a file chooser to load an existing database, then opens the application window.
 
  @author Alexus Jenkins
  @version 5.0
@@ -27,33 +30,52 @@
 package com.conceptbreakdowntool;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 /**
  Initialization Methods: Responsible for setting up the initial stage of the application.
  **/
 public class ConceptBreakdownToolUI extends JFrame {
+    private static final Log LOG = Log.get(ConceptBreakdownToolUI.class);
+
     private DatabaseManager dbManager;
     private MainApplicationWindow mainWindow;
     /**
-    Constructor(ConceptBreakdownToolUI): Initializes the main UI frame; Sets up the database manager and application window; Configures the window properties.
+    Constructor(ConceptBreakdownToolUI): Initializes the main UI frame; Sets up the database manager; Configures the window properties.
+     The application window is only built once a file is loaded (see getMainWindow()).
      * @param dbManager The database manager instance for database operations.
     **/
     public ConceptBreakdownToolUI(DatabaseManager dbManager) {
         this.dbManager = dbManager;  // Assign the passed dbManager to the field
-        this.mainWindow = new MainApplicationWindow(this.dbManager, this); // Use the assigned dbManager
         setTitle("Concept Breakdown Tool");
         setSize(400, 300);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(null);
         initComponents();
     }
+    /**
+     getMainWindow(): Builds the application window the first time it is needed and reuses it afterwards.
+     * @return the application window
+     **/
+    private MainApplicationWindow getMainWindow() {
+        if (mainWindow == null) {
+            long startNanos = System.nanoTime();
+            mainWindow = new MainApplicationWindow(this.dbManager, this); // Use the assigned dbManager
+            LOG.info(() -> "Main window built in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms.");
+        }
+        return mainWindow;
+    }
+
     /**
      initComponents(): Sets up the components of the UI (Buttons, Labels, Panels).
      **/
@@ -89,14 +111,16 @@ public class ConceptBreakdownToolUI extends JFrame {
          **/
         JButton loadFileButton = new JButton("Load File");
         loadFileButton.addActionListener(e -> {
-            if (!mainWindow.isVisible()) {
-                mainWindow.setVisible(true); // Make sure mainWindow is made visible here
-            }
             JFileChooser fileChooser = new JFileChooser();
-            int result = fileChooser.showOpenDialog(mainWindow);
+            fileChooser.setSelectedFile(new File(dbManager.getDataFilePath()).getAbsoluteFile()); // Start from the path entered at start-up
+            int result = fileChooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
                 File selectedFile = fileChooser.getSelectedFile();
-                mainWindow.loadFile(selectedFile); // Correctly passing the selected file to load
+                MainApplicationWindow window = getMainWindow();
+                if (!window.isVisible()) {
+                    window.setVisible(true); // Make sure mainWindow is made visible here
+                }
+                window.loadFile(selectedFile); // The only time the library is read
             }
         });
 
@@ -117,9 +141,6 @@ public class ConceptBreakdownToolUI extends JFrame {
      * @param args The command line arguments.
      * **/
     public static void main(String[] args) {
-        // Create a new DatabaseManager instance
-        DatabaseManager dbManager = new DatabaseManager();
-
         // Prompt the user for the database path
         Scanner scanner = new Scanner(System.in);
         System.out.println("Please enter the path to the database file (please make sure it is within the file directory):");
@@ -130,21 +151,36 @@ public class ConceptBreakdownToolUI extends JFrame {
             System.out.println("No path entered. Exiting the application.");
             return;
         }
+        long startNanos = System.nanoTime(); // Start-up time is measured from here, not from while the prompt waits
 
-        // Set the database file path in DatabaseManager
-        dbManager.setDataFilePath(dbPath);
+        // Create a DatabaseManager for that path; nothing is read until a file is loaded
+        DatabaseManager dbManager = new DatabaseManager(dbPath);
 
         // Attempt to establish a connection to the database
-        if (dbManager.connect() == null) {
+        try (Connection conn = dbManager.connect()) {
+            if (conn == null) {
+                System.out.println("Failed to connect to the database using the provided path. Exiting the application.");
+                return;
+            }
+        } catch (SQLException e) {
             System.out.println("Failed to connect to the database using the provided path. Exiting the application.");
             return;
         }
 
+        EdtWatchdog.install(); // Before any window, so every event dispatched on the EDT is timed
+
         // Continue with the rest of your application logic
         // For example, creating the main application window
         SwingUtilities.invokeLater(() -> {
             // Initialize the main frame of your application
             ConceptBreakdownToolUI frame = new ConceptBreakdownToolUI(dbManager);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    LOG.info(() -> "Startup: first window shown " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms after the path was entered ("
+                            + ManagementFactory.getRuntimeMXBean().getUptime() + " ms since the JVM started).");
+                }
+            });
             frame.setVisible(true); // Make the frame visible
         });
     }
@@ -181,10 +217,13 @@ public class ConceptBreakdownToolUI extends JFrame {
                 "</ul>" +
                 "<h2>Navigation and Buttons</h2>" +
                 "<ul>" +
-                "<li><u>Menu:</u> Click the 'Menu' button and it will show three buttons - 'Add', 'Print', and 'Recommend'.</li>" +
+                "<li><u>Menu:</u> Click the 'Menu' button and it will show six buttons - 'Add', 'Print', 'Recommend', 'Duplicates', 'Find', and 'Browse'.</li>" +
                 "<li><u>Add:</u> It will add a category, concept, and/or component to your .db file. You cannot create a concept without a category and you cannot create a component without a concept.</li>" +
                 "<li><u>Print:</u> Displays a table with all of the content from the .db file.</li>" +
-                "<li><u>Recommend:</u> It will recommend you a diagram to transform your data into a visual aid.</li>" +
+                "<li><u>Recommend:</u> It will recommend you a diagram that fits the structure of the selected category and explain why.</li>" +
+                "<li><u>Duplicates:</u> Lists concepts and components that closely match each other, so repeated entries can be cleaned up.</li>" +
+                "<li><u>Find:</u> Type a name to jump to a category, concept, or component. Small typos are fine; it will suggest the closest matches.</li>" +
+                "<li><u>Browse:</u> Opens a tree of your categories, concepts, and components. Expand a row to see what is inside it, and double-click 'Load more...' to see the next page.</li>" +
                 "<li><u>View:</u> You will join another window where you can view and/or modify concepts and/or components.</li>" +
                 "<li><u>Updates:</u> You will be able to modify the ID, Topic, and Description of a category, concept, and/or component.</li>" +
                 "<li><u>Remove:</u> You will be able to remove a category, concept, or component.</li>" +
@@ -229,6 +268,10 @@ public class ConceptBreakdownToolUI extends JFrame {
                     stmt.execute(sqlCreateCategory);
                     stmt.execute(sqlCreateConcept);
                     stmt.execute(sqlCreateComponent);
+                    stmt.execute(DatabaseManager.SQL_CREATE_RELATION_TABLE);
+                    for (String sqlIndex : DatabaseManager.SQL_CREATE_BROWSE_INDEXES) {
+                        stmt.execute(sqlIndex);
+                    }
                     JOptionPane.showMessageDialog(this, "Tables created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
             }
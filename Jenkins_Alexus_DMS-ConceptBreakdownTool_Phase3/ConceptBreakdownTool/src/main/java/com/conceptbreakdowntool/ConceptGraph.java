@@ -0,0 +1,782 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: ConceptGraph
+
+ Purpose: In-memory adjacency structure for concept relationships. Edges are kept in compressed sparse row (CSR) form using primitive int arrays, so a graph with millions of relationships costs a few bytes per edge instead of one object per edge.
+
+ - STRUCTURE
+     * conceptIds: Sorted concept IDs; the position of an ID in this array is its dense node index.
+     * outOffsets/outTargets/outTypes: Outgoing edges of node i are outTargets[outOffsets[i] .. outOffsets[i + 1]).
+     * inOffsets/inSources/inEdges: Incoming edges, stored the same way, so relationships can be followed in both directions. inEdges
+       holds the outgoing position of each incoming edge, so an edge removed from one end is skipped from the other.
+ - EDITS: A CSR can't grow in place, so single changes go into a small overlay instead of rebuilding it.
+     * addEdge(): Links the edge into per-node lists of added edges; concepts new to the graph get node indexes after the CSR's.
+     * removeEdge(), removeConcept(): Mark CSR edges removed in a bit set, or delete added edges, in time proportional to the degree.
+     * Once the overlay holds more than an eighth of the edges (and at least MIN_COMPACT_EDITS), it is folded into a new CSR, so each
+       edit costs O(log V) amortized and traversals never slow down by more than the overlay's share of the edges.
+     * compactionCount(): Counts how often the overlay has been folded in.
+     * estimateBytes(): Estimates the heap the CSR, the overlay, and the scratch arrays take.
+ - QUERY METHODS
+     * getOutgoing(), getIncoming(), getNeighbors(): Gathers the concepts directly linked to a concept.
+     * expand(): Gathers every concept within k relationship hops of a concept (breadth-first).
+     * shortestPath(): Finds the fewest-hop chain of relationships between two concepts (bidirectional breadth-first).
+ - BUILDER
+     * Builder: Collects edges in growable primitive arrays and produces a ConceptGraph.
+
+ Queries reuse scratch arrays stamped with a visit epoch, so repeated queries don't allocate per-node state. Queries and edits are
+ synchronized on the graph, so one thread can edit it while others read it.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConceptGraph {
+    private static final int[] EMPTY = new int[0];
+    private static final ConceptRelation.RelationType[] TYPES = ConceptRelation.RelationType.values();
+    private static final int MIN_COMPACT_EDITS = 1024;
+    private static final byte DELETED = -1;
+
+    //Attributes: the CSR, replaced whenever the overlay is folded into it
+    private int[] conceptIds;
+    private int[] outOffsets;
+    private int[] outTargets;
+    private byte[] outTypes;
+    private int[] inOffsets;
+    private int[] inSources;
+    private int[] inEdges;
+
+    // Overlay of the edits made since the CSR was built
+    private BitSet removed; // CSR edges removed, by position in outTargets
+    private int removedCount;
+    private final Map<Integer, Integer> addedNodes = new HashMap<>();
+    private int[] addedNodeIds = EMPTY;
+    private int nodeCount; // CSR nodes plus added nodes
+    private int compactionCount;
+    private int[] addedSources = EMPTY;
+    private int[] addedTargets = EMPTY;
+    private byte[] addedTypes = new byte[0];
+    private int[] outNext = EMPTY; // Added edges form one linked list per node and direction
+    private int[] inNext = EMPTY;
+    private int[] outHead = EMPTY;
+    private int[] inHead = EMPTY;
+    private int addedCount;
+    private int edgeCount;
+
+    // Scratch space for traversals, allocated on first use
+    private int[] forwardMarks;
+    private int[] backwardMarks;
+    private int[] forwardParents;
+    private int[] backwardParents;
+    private int[] forwardQueue;
+    private int[] backwardQueue;
+    private int[] adjacent = new int[16];
+    private int epoch;
+
+    /**
+     Constructor(ConceptGraph): Wraps already-built CSR arrays. Use ConceptGraph.Builder to create a graph.
+     **/
+    private ConceptGraph(int[] conceptIds, int[] outOffsets, int[] outTargets, byte[] outTypes, int[] inOffsets, int[] inSources, int[] inEdges) {
+        setCsr(conceptIds, outOffsets, outTargets, outTypes, inOffsets, inSources, inEdges);
+    }
+
+    private void setCsr(int[] conceptIds, int[] outOffsets, int[] outTargets, byte[] outTypes, int[] inOffsets, int[] inSources, int[] inEdges) {
+        this.conceptIds = conceptIds;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outTypes = outTypes;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.inEdges = inEdges;
+        removed = null;
+        removedCount = 0;
+        addedNodes.clear();
+        addedNodeIds = EMPTY;
+        nodeCount = conceptIds.length;
+        addedSources = EMPTY;
+        addedTargets = EMPTY;
+        addedTypes = new byte[0];
+        outNext = EMPTY;
+        inNext = EMPTY;
+        outHead = EMPTY;
+        inHead = EMPTY;
+        addedCount = 0;
+        edgeCount = outTargets.length;
+        forwardMarks = null; // Sized to the new node count on the next traversal
+    }
+
+    /**
+     nodeCount(): Gets the number of concepts the graph has a node for: every concept that has taken part in a relationship since the
+     graph was built or last compacted.
+     * @return the number of nodes in the graph
+     **/
+    public synchronized int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     edgeCount(): Gets the number of relationships in the graph.
+     * @return the number of edges in the graph
+     **/
+    public synchronized int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     compactionCount(): Gets how many times edits have made the graph fold its overlay into a new CSR.
+     * @return the number of compactions since the graph was built
+     **/
+    public synchronized int compactionCount() {
+        return compactionCount;
+    }
+
+    /**
+     estimateBytes(): Estimates the heap the graph takes: the CSR arrays, the overlay's arrays, bit set, and map of added nodes, and
+     the scratch arrays traversals have allocated so far.
+     * @return the estimated bytes
+     **/
+    synchronized long estimateBytes() {
+        long bytes = ints(conceptIds) + ints(outOffsets) + ints(outTargets) + HeapFootprint.arrayBytes(outTypes.length, 1)
+                + ints(inOffsets) + ints(inSources) + ints(inEdges)
+                + ints(addedNodeIds) + ints(addedSources) + ints(addedTargets) + HeapFootprint.arrayBytes(addedTypes.length, 1)
+                + ints(outNext) + ints(inNext) + ints(outHead) + ints(inHead)
+                + HeapFootprint.hashMapBytes(addedNodes.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false)
+                + addedNodes.size() * 2 * HeapFootprint.INTEGER_BYTES
+                + ints(forwardMarks) + ints(backwardMarks) + ints(forwardParents) + ints(backwardParents)
+                + ints(forwardQueue) + ints(backwardQueue) + ints(adjacent);
+        if (removed != null) {
+            bytes += HeapFootprint.align(HeapFootprint.OBJECT_HEADER + 2 * HeapFootprint.INT + 1 + HeapFootprint.REFERENCE) // words, wordsInUse, sizeIsSticky
+                    + HeapFootprint.arrayBytes((removed.size() + 63) / 64, 8);
+        }
+        return bytes;
+    }
+
+    private static long ints(int[] array) {
+        return array == null ? 0 : HeapFootprint.arrayBytes(array.length, HeapFootprint.INT);
+    }
+
+    /**
+     QUERY METHODS
+     **/
+    /**
+     getOutgoing(): Gathers the concepts a concept points to.
+     * @param conceptId the ID of the source concept
+     * @return the IDs of the target concepts, or an empty array if the concept has no relationships
+     **/
+    public int[] getOutgoing(int conceptId) {
+        return getOutgoing(conceptId, null);
+    }
+
+    /**
+     getOutgoing(): Gathers the concepts a concept points to through one type of relationship.
+     * @param conceptId the ID of the source concept
+     * @param type the relationship type to follow, or null for every type
+     * @return the IDs of the target concepts
+     **/
+    public synchronized int[] getOutgoing(int conceptId, ConceptRelation.RelationType type) {
+        int node = indexOf(conceptId);
+        if (node < 0) {
+            return EMPTY;
+        }
+        int count = 0;
+        if (node < conceptIds.length) {
+            for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+                if (!isRemoved(e) && (type == null || outTypes[e] == type.ordinal())) {
+                    count = push(count, outTargets[e]);
+                }
+            }
+        }
+        for (int a = head(outHead, node); a >= 0; a = outNext[a]) {
+            if (addedTypes[a] != DELETED && (type == null || addedTypes[a] == type.ordinal())) {
+                count = push(count, addedTargets[a]);
+            }
+        }
+        return idsOf(count);
+    }
+
+    /**
+     getIncoming(): Gathers the concepts that point to a concept.
+     * @param conceptId the ID of the target concept
+     * @return the IDs of the source concepts
+     **/
+    public synchronized int[] getIncoming(int conceptId) {
+        int node = indexOf(conceptId);
+        if (node < 0) {
+            return EMPTY;
+        }
+        int count = 0;
+        if (node < conceptIds.length) {
+            for (int k = inOffsets[node]; k < inOffsets[node + 1]; k++) {
+                if (!isRemoved(inEdges[k])) {
+                    count = push(count, inSources[k]);
+                }
+            }
+        }
+        for (int a = head(inHead, node); a >= 0; a = inNext[a]) {
+            if (addedTypes[a] != DELETED) {
+                count = push(count, addedSources[a]);
+            }
+        }
+        return idsOf(count);
+    }
+
+    /**
+     getRelationType(): Gets the type of the first relationship from one concept to another.
+     * @param sourceConceptId the ID of the source concept
+     * @param targetConceptId the ID of the target concept
+     * @return the relationship type, or null if the concepts aren't directly linked
+     **/
+    public synchronized ConceptRelation.RelationType getRelationType(int sourceConceptId, int targetConceptId) {
+        int source = indexOf(sourceConceptId);
+        int target = indexOf(targetConceptId);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (source < conceptIds.length) {
+            for (int e = outOffsets[source]; e < outOffsets[source + 1]; e++) {
+                if (outTargets[e] == target && !isRemoved(e)) {
+                    return TYPES[outTypes[e]];
+                }
+            }
+        }
+        for (int a = head(outHead, source); a >= 0; a = outNext[a]) {
+            if (addedTargets[a] == target && addedTypes[a] != DELETED) {
+                return TYPES[addedTypes[a]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     getNeighbors(): Gathers the concepts directly linked to a concept in either direction, without duplicates.
+     * @param conceptId the ID of the concept
+     * @return the IDs of the neighboring concepts
+     **/
+    public synchronized int[] getNeighbors(int conceptId) {
+        int node = indexOf(conceptId);
+        if (node < 0) {
+            return EMPTY;
+        }
+        int stamp = nextEpoch();
+        forwardMarks[node] = stamp;
+        int count = adjacent(node);
+        int[] result = new int[count];
+        int unique = 0;
+        for (int k = 0; k < count; k++) {
+            int other = adjacent[k];
+            if (forwardMarks[other] != stamp) {
+                forwardMarks[other] = stamp;
+                result[unique++] = idOf(other);
+            }
+        }
+        return unique == result.length ? result : Arrays.copyOf(result, unique);
+    }
+
+    /**
+     expand(): Gathers every concept within a number of relationship hops of a concept, following links in either direction.
+     * @param conceptId the ID of the starting concept
+     * @param hops the maximum number of hops to follow
+     * @return the IDs of the reached concepts in breadth-first order, not including the starting concept
+     **/
+    public synchronized int[] expand(int conceptId, int hops) {
+        int node = indexOf(conceptId);
+        if (node < 0 || hops <= 0) {
+            return EMPTY;
+        }
+        int stamp = nextEpoch();
+        int[] queue = forwardQueue;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = node;
+        forwardMarks[node] = stamp;
+
+        for (int depth = 0; depth < hops && head < tail; depth++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int count = adjacent(queue[head++]);
+                for (int k = 0; k < count; k++) {
+                    int other = adjacent[k];
+                    if (forwardMarks[other] != stamp) {
+                        forwardMarks[other] = stamp;
+                        queue[tail++] = other;
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[tail - 1];
+        for (int k = 1; k < tail; k++) {
+            result[k - 1] = idOf(queue[k]);
+        }
+        return result;
+    }
+
+    /**
+     shortestPath(): Finds the fewest-hop chain of relationships between two concepts, following links in either direction.
+     The search grows from both ends at once and always expands the smaller frontier, which keeps it fast on large graphs.
+     * @param fromConceptId the ID of the starting concept
+     * @param toConceptId the ID of the destination concept
+     * @return the IDs along the path, including both ends, or an empty array if the concepts aren't connected
+     **/
+    public synchronized int[] shortestPath(int fromConceptId, int toConceptId) {
+        int from = indexOf(fromConceptId);
+        int to = indexOf(toConceptId);
+        if (from < 0 || to < 0) {
+            return EMPTY;
+        }
+        if (from == to) {
+            return new int[]{fromConceptId};
+        }
+        int stamp = nextEpoch();
+        int forwardHead = 0, forwardTail = 0, backwardHead = 0, backwardTail = 0;
+        forwardQueue[forwardTail++] = from;
+        forwardMarks[from] = stamp;
+        forwardParents[from] = -1;
+        backwardQueue[backwardTail++] = to;
+        backwardMarks[to] = stamp;
+        backwardParents[to] = -1;
+
+        int meeting = -1;
+        while (meeting < 0 && forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (meeting < 0 && forwardHead < levelEnd) {
+                    int current = forwardQueue[forwardHead++];
+                    int count = adjacent(current);
+                    for (int k = 0; meeting < 0 && k < count; k++) {
+                        meeting = visit(adjacent[k], current, stamp, forwardMarks, forwardParents, backwardMarks);
+                        if (meeting == -2) {
+                            meeting = -1;
+                            forwardQueue[forwardTail++] = adjacent[k];
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (meeting < 0 && backwardHead < levelEnd) {
+                    int current = backwardQueue[backwardHead++];
+                    int count = adjacent(current);
+                    for (int k = 0; meeting < 0 && k < count; k++) {
+                        meeting = visit(adjacent[k], current, stamp, backwardMarks, backwardParents, forwardMarks);
+                        if (meeting == -2) {
+                            meeting = -1;
+                            backwardQueue[backwardTail++] = adjacent[k];
+                        }
+                    }
+                }
+            }
+        }
+        if (meeting < 0) {
+            return EMPTY;
+        }
+
+        // Walk back to the start, then forward to the destination
+        int length = 0;
+        for (int n = meeting; n != -1; n = forwardParents[n]) {
+            length++;
+        }
+        for (int n = backwardParents[meeting]; n != -1; n = backwardParents[n]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int k = 0;
+        for (int n = meeting; n != -1; n = forwardParents[n]) {
+            path[k++] = idOf(n);
+        }
+        reverse(path, k);
+        for (int n = backwardParents[meeting]; n != -1; n = backwardParents[n]) {
+            path[k++] = idOf(n);
+        }
+        return path;
+    }
+
+    /**
+     visit(): Visits a node from one side of the bidirectional search.
+     * @return the node if it was already reached from the other side, -2 if it is newly discovered, or -1 if it was already seen from this side
+     **/
+    private static int visit(int node, int parent, int stamp, int[] marks, int[] parents, int[] otherMarks) {
+        if (marks[node] == stamp) {
+            return -1;
+        }
+        marks[node] = stamp;
+        parents[node] = parent;
+        return otherMarks[node] == stamp ? node : -2;
+    }
+
+    private static void reverse(int[] values, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+
+    /**
+     EDITS: Change the graph in place through the overlay; see the class comment.
+     **/
+    /**
+     addEdge(): Adds a relationship, giving either concept a node if it doesn't have one yet.
+     * @param sourceConceptId the ID of the concept the relationship starts from
+     * @param targetConceptId the ID of the concept the relationship points to
+     * @param type the kind of relationship
+     **/
+    public synchronized void addEdge(int sourceConceptId, int targetConceptId, ConceptRelation.RelationType type) {
+        int source = nodeFor(sourceConceptId);
+        int target = nodeFor(targetConceptId);
+        if (addedCount == addedSources.length) {
+            int capacity = Math.max(16, addedCount * 2);
+            addedSources = Arrays.copyOf(addedSources, capacity);
+            addedTargets = Arrays.copyOf(addedTargets, capacity);
+            addedTypes = Arrays.copyOf(addedTypes, capacity);
+            outNext = Arrays.copyOf(outNext, capacity);
+            inNext = Arrays.copyOf(inNext, capacity);
+        }
+        int a = addedCount++;
+        addedSources[a] = source;
+        addedTargets[a] = target;
+        addedTypes[a] = (byte) type.ordinal();
+        outNext[a] = outHead[source];
+        outHead[source] = a;
+        inNext[a] = inHead[target];
+        inHead[target] = a;
+        edgeCount++;
+        compactIfNeeded();
+    }
+
+    /**
+     removeEdge(): Removes one matching relationship, looking only at the source concept's edges.
+     * @return true if a relationship was removed, false otherwise
+     **/
+    public synchronized boolean removeEdge(int sourceConceptId, int targetConceptId, ConceptRelation.RelationType type) {
+        int source = indexOf(sourceConceptId);
+        int target = indexOf(targetConceptId);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        if (source < conceptIds.length) {
+            for (int e = outOffsets[source]; e < outOffsets[source + 1]; e++) {
+                if (outTargets[e] == target && outTypes[e] == type.ordinal() && !isRemoved(e)) {
+                    markRemoved(e);
+                    compactIfNeeded();
+                    return true;
+                }
+            }
+        }
+        for (int a = head(outHead, source); a >= 0; a = outNext[a]) {
+            if (addedTargets[a] == target && addedTypes[a] == type.ordinal()) {
+                addedTypes[a] = DELETED;
+                edgeCount--;
+                compactIfNeeded();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     removeConcept(): Removes every relationship that starts or ends at a concept, in time proportional to the concept's degree.
+     * @param conceptId the ID of the concept being removed
+     * @return the concept at the other end of each removed relationship; a neighbor linked more than once appears more than once
+     **/
+    public synchronized int[] removeConcept(int conceptId) {
+        int node = indexOf(conceptId);
+        if (node < 0) {
+            return EMPTY;
+        }
+        int count = 0;
+        if (node < conceptIds.length) {
+            for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+                if (!isRemoved(e)) {
+                    markRemoved(e);
+                    count = push(count, outTargets[e]);
+                }
+            }
+            for (int k = inOffsets[node]; k < inOffsets[node + 1]; k++) {
+                if (!isRemoved(inEdges[k])) { // A self-loop was already removed as an outgoing edge
+                    markRemoved(inEdges[k]);
+                    count = push(count, inSources[k]);
+                }
+            }
+        }
+        for (int a = head(outHead, node); a >= 0; a = outNext[a]) {
+            if (addedTypes[a] != DELETED) {
+                addedTypes[a] = DELETED;
+                edgeCount--;
+                count = push(count, addedTargets[a]);
+            }
+        }
+        for (int a = head(inHead, node); a >= 0; a = inNext[a]) {
+            if (addedTypes[a] != DELETED) {
+                addedTypes[a] = DELETED;
+                edgeCount--;
+                count = push(count, addedSources[a]);
+            }
+        }
+        int[] neighbors = idsOf(count);
+        compactIfNeeded();
+        return neighbors;
+    }
+
+    /**
+     compactIfNeeded(): Folds the overlay into a new CSR once it holds more than an eighth of the edges, so traversals stay fast and the
+     rebuild's O(E log V) cost is spread over at least E / 8 edits.
+     **/
+    private void compactIfNeeded() {
+        if (addedCount + removedCount <= Math.max(MIN_COMPACT_EDITS, edgeCount / 8)) {
+            return;
+        }
+        Builder builder = new Builder();
+        for (int node = 0; node < conceptIds.length; node++) {
+            for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+                if (!isRemoved(e)) {
+                    builder.addEdge(conceptIds[node], conceptIds[outTargets[e]], TYPES[outTypes[e]]);
+                }
+            }
+        }
+        for (int a = 0; a < addedCount; a++) {
+            if (addedTypes[a] != DELETED) {
+                builder.addEdge(idOf(addedSources[a]), idOf(addedTargets[a]), TYPES[addedTypes[a]]);
+            }
+        }
+        ConceptGraph compacted = builder.build();
+        compactionCount++;
+        setCsr(compacted.conceptIds, compacted.outOffsets, compacted.outTargets, compacted.outTypes, compacted.inOffsets,
+                compacted.inSources, compacted.inEdges);
+    }
+
+    private boolean isRemoved(int edge) {
+        return removedCount > 0 && removed.get(edge);
+    }
+
+    private void markRemoved(int edge) {
+        if (removed == null) {
+            removed = new BitSet(outTargets.length);
+        }
+        removed.set(edge);
+        removedCount++;
+        edgeCount--;
+    }
+
+    /**
+     nodeFor(): Finds a concept's node, adding one after the CSR's nodes if the concept has none yet.
+     **/
+    private int nodeFor(int conceptId) {
+        int node = indexOf(conceptId);
+        if (node >= 0 && node < outHead.length) {
+            return node;
+        }
+        if (node < 0) {
+            node = nodeCount++;
+            addedNodes.put(conceptId, node);
+            int slot = node - conceptIds.length;
+            if (slot == addedNodeIds.length) {
+                addedNodeIds = Arrays.copyOf(addedNodeIds, Math.max(16, slot * 2));
+            }
+            addedNodeIds[slot] = conceptId;
+        }
+        if (outHead.length < nodeCount) { // Every node gets list heads once the first edge is added
+            int capacity = Math.max(nodeCount, outHead.length + outHead.length / 2);
+            int oldLength = outHead.length;
+            outHead = Arrays.copyOf(outHead, capacity);
+            inHead = Arrays.copyOf(inHead, capacity);
+            Arrays.fill(outHead, oldLength, capacity, -1);
+            Arrays.fill(inHead, oldLength, capacity, -1);
+        }
+        return node;
+    }
+
+    private int head(int[] heads, int node) {
+        return node < heads.length ? heads[node] : -1;
+    }
+
+    /**
+     adjacent(): Gathers the nodes linked to a node in either direction into the adjacent scratch array, skipping removed edges.
+     * @return how many entries of adjacent were filled
+     **/
+    private int adjacent(int node) {
+        int count = 0;
+        if (node < conceptIds.length) {
+            for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+                if (!isRemoved(e)) {
+                    count = push(count, outTargets[e]);
+                }
+            }
+            for (int k = inOffsets[node]; k < inOffsets[node + 1]; k++) {
+                if (!isRemoved(inEdges[k])) {
+                    count = push(count, inSources[k]);
+                }
+            }
+        }
+        for (int a = head(outHead, node); a >= 0; a = outNext[a]) {
+            if (addedTypes[a] != DELETED) {
+                count = push(count, addedTargets[a]);
+            }
+        }
+        for (int a = head(inHead, node); a >= 0; a = inNext[a]) {
+            if (addedTypes[a] != DELETED) {
+                count = push(count, addedSources[a]);
+            }
+        }
+        return count;
+    }
+
+    private int push(int count, int node) {
+        if (count == adjacent.length) {
+            adjacent = Arrays.copyOf(adjacent, count * 2);
+        }
+        adjacent[count] = node;
+        return count + 1;
+    }
+
+    private int[] idsOf(int count) {
+        int[] ids = new int[count];
+        for (int k = 0; k < count; k++) {
+            ids[k] = idOf(adjacent[k]);
+        }
+        return ids;
+    }
+
+    /**
+     indexOf(): Finds the dense node index of a concept ID.
+     * @return the node index, or -1 if the concept has no node
+     **/
+    private int indexOf(int conceptId) {
+        int index = Arrays.binarySearch(conceptIds, conceptId);
+        if (index >= 0) {
+            return index;
+        }
+        Integer added = addedNodes.isEmpty() ? null : addedNodes.get(conceptId);
+        return added == null ? -1 : added;
+    }
+
+    private int idOf(int node) {
+        return node < conceptIds.length ? conceptIds[node] : addedNodeIds[node - conceptIds.length];
+    }
+
+    /**
+     nextEpoch(): Starts a new traversal, sizing the scratch arrays to the node count and clearing them only when the stamp wraps around.
+     * @return the stamp that marks nodes visited by the new traversal
+     **/
+    private int nextEpoch() {
+        if (forwardMarks == null || forwardMarks.length < nodeCount) {
+            int n = Math.max(nodeCount, forwardMarks == null ? 0 : forwardMarks.length + forwardMarks.length / 2);
+            forwardMarks = new int[n];
+            backwardMarks = new int[n];
+            forwardParents = new int[n];
+            backwardParents = new int[n];
+            forwardQueue = new int[n];
+            backwardQueue = new int[n];
+            epoch = 0;
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMarks, 0);
+            Arrays.fill(backwardMarks, 0);
+            epoch = 0;
+        }
+        return ++epoch;
+    }
+
+
+    /**
+     BUILDER: Collects edges in growable primitive arrays and produces a ConceptGraph.
+     **/
+    public static class Builder {
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private byte[] types = new byte[16];
+        private int size;
+
+        /**
+         addEdge(): Adds a relationship to the builder.
+         * @param sourceConceptId the ID of the concept the relationship starts from
+         * @param targetConceptId the ID of the concept the relationship points to
+         * @param type the kind of relationship
+         **/
+        public void addEdge(int sourceConceptId, int targetConceptId, ConceptRelation.RelationType type) {
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            sources[size] = sourceConceptId;
+            targets[size] = targetConceptId;
+            types[size] = (byte) type.ordinal();
+            size++;
+        }
+
+        /**
+         clear(): Removes every relationship from the builder.
+         **/
+        public void clear() {
+            size = 0;
+        }
+
+        /**
+         size(): Gets the number of relationships collected so far.
+         * @return the number of relationships
+         **/
+        public int size() {
+            return size;
+        }
+
+        /**
+         build(): Produces a CSR graph from the collected relationships in O(E log V) time. Later changes go to the graph itself.
+         * @return the built graph
+         **/
+        public ConceptGraph build() {
+            // Dense node indexes are positions in the sorted, de-duplicated list of endpoint IDs
+            int[] ids = new int[size * 2];
+            System.arraycopy(sources, 0, ids, 0, size);
+            System.arraycopy(targets, 0, ids, size, size);
+            Arrays.sort(ids);
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[n++] = ids[i];
+                }
+            }
+            int[] conceptIds = Arrays.copyOf(ids, n);
+
+            int[] sourceNodes = new int[size];
+            int[] targetNodes = new int[size];
+            int[] outOffsets = new int[n + 1];
+            int[] inOffsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                sourceNodes[i] = Arrays.binarySearch(conceptIds, sources[i]);
+                targetNodes[i] = Arrays.binarySearch(conceptIds, targets[i]);
+                outOffsets[sourceNodes[i] + 1]++;
+                inOffsets[targetNodes[i] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                outOffsets[i + 1] += outOffsets[i];
+                inOffsets[i + 1] += inOffsets[i];
+            }
+
+            int[] outTargets = new int[size];
+            byte[] outTypes = new byte[size];
+            int[] inSources = new int[size];
+            int[] inEdges = new int[size];
+            int[] outCursor = Arrays.copyOf(outOffsets, n);
+            int[] inCursor = Arrays.copyOf(inOffsets, n);
+            for (int i = 0; i < size; i++) {
+                int out = outCursor[sourceNodes[i]]++;
+                outTargets[out] = targetNodes[i];
+                outTypes[out] = types[i];
+                int in = inCursor[targetNodes[i]]++;
+                inSources[in] = sourceNodes[i];
+                inEdges[in] = out;
+            }
+            return new ConceptGraph(conceptIds, outOffsets, outTargets, outTypes, inOffsets, inSources, inEdges);
+        }
+    }
+}
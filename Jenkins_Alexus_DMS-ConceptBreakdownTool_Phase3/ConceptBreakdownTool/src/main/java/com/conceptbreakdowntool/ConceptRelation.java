@@ -0,0 +1,75 @@
+package com.conceptbreakdowntool;
+/**
+Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th, 2024
+ ClassName: ConceptRelation
+
+ Purpose: Represents a typed, directed relationship between two concepts (a row of the ConceptRelation table).
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+public class ConceptRelation {
+    /**RelationType(Enum): The kinds of relationships that can link two concepts. **/
+    public enum RelationType {
+        RELATED_TO,
+        PREREQUISITE_OF,
+        PART_OF,
+        EXAMPLE_OF,
+        CONTRASTS_WITH;
+
+        /**fromString(): Parses a relation type, accepting any case and spaces instead of underscores.
+         * @param value the stored or typed relation type
+         * @return the matching relation type, or RELATED_TO if the value is not recognized
+         **/
+        public static RelationType fromString(String value) {
+            if (value != null) {
+                String normalized = value.trim().toUpperCase().replace(' ', '_');
+                for (RelationType type : values()) {
+                    if (type.name().equals(normalized)) {
+                        return type;
+                    }
+                }
+            }
+            return RELATED_TO;
+        }
+    }
+
+    private int sourceConceptId;
+    private int targetConceptId;
+    private RelationType type;
+
+    /**Constructor(ConceptRelation): Creates a new relationship between two concepts.
+     * @param sourceConceptId: the ID of the concept the relationship starts from
+     * @param targetConceptId: the ID of the concept the relationship points to
+     * @param type: the kind of relationship
+     **/
+    public ConceptRelation(int sourceConceptId, int targetConceptId, RelationType type) {
+        this.sourceConceptId = sourceConceptId;
+        this.targetConceptId = targetConceptId;
+        this.type = type;
+    }
+
+
+    /**GETTERS **/
+    /**getSourceConceptId(): Gets the concept the relationship starts from.
+     * @return the source concept's id **/
+    public int getSourceConceptId() { return sourceConceptId; }
+
+    /**getTargetConceptId(): Gets the concept the relationship points to.
+     * @return the target concept's id **/
+    public int getTargetConceptId() { return targetConceptId; }
+
+    /**getType(): Gets the kind of relationship.
+     * @return the relationship type **/
+    public RelationType getType() { return type; }
+
+    /**toString(): Returns a readable form of the relationship.
+     * @return the relationship as "source -TYPE-> target" **/
+    @Override
+    public String toString() {
+        return sourceConceptId + " -" + type + "-> " + targetConceptId;
+    }
+}
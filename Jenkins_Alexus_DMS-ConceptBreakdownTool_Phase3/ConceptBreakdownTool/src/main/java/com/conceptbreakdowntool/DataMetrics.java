@@ -0,0 +1,414 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DataMetrics
+
+ Purpose: Counts and times every data operation of the application, along with cache and pool statistics, so what the tool is doing
+ can be seen while it runs: in jconsole (through DataMetricsMXBean), from the command line's "metrics" command, or from snapshot().
+
+ - HOW IT WORKS
+     * Each operation (such as "addConcept") has a call counter, an error counter, and a latency histogram. Counters are LongAdders and
+       the histogram is an array of atomic buckets, so recording never takes a lock and threads don't wait on one another.
+     * The histogram has four buckets per power of two of nanoseconds, so a percentile read from it is within 12.5% of the real value.
+     * Recording costs two clock reads and two atomic additions; the histogram's buckets add up to the call count. The clock reads are
+       most of it (see MetricsBenchmark). When metrics are disabled, start() skips the clock and record() returns at once.
+     * Gauges are values read only when a snapshot is taken, such as a cache's size or a pool's queue length.
+     * Metrics are on unless the application is started with -Dconceptbreakdowntool.metrics=false, and can be turned on or off at any time.
+ - METHODS
+     * get(): Gathers the application's metrics, registering the MBean the first time.
+     * operation(): Gathers the counters of an operation, creating them the first time.
+     * start(): Starts timing a call; pass the result to Operation.record().
+     * registerGauge(), unregisterGauges(): Adds or removes cache and pool statistics.
+     * setEnabled(), isEnabled(), reset(): Turns recording on or off, or clears everything recorded.
+     * snapshot(), dumpSnapshot(): Gathers a copy of everything recorded, as objects or as a text table.
+ - NESTED CLASSES
+     * Operation: The counters and histogram of one operation.
+     * OperationStats: A snapshot of one operation, with latencies in microseconds.
+     * Snapshot: A snapshot of every operation and gauge; toString() is a text table and toJson() is JSON.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import com.google.gson.GsonBuilder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class DataMetrics implements DataMetricsMXBean {
+    public static final String OBJECT_NAME = "com.conceptbreakdowntool:type=DataMetrics";
+    static final long NOT_TIMED = Long.MIN_VALUE; // start() while disabled
+    private static final Log LOG = Log.get(DataMetrics.class);
+    private static final int SUB_BUCKETS = 4; // Per power of two
+    private static final int BUCKETS = SUB_BUCKETS + 61 * SUB_BUCKETS; // Covers every positive long
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private static volatile DataMetrics instance;
+
+    //Attributes
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    DataMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     get(): Gathers the application's metrics. The first call registers them with the platform MBean server.
+     * @return the application's metrics
+     **/
+    public static DataMetrics get() {
+        DataMetrics metrics = instance;
+        if (metrics == null) {
+            synchronized (DataMetrics.class) {
+                metrics = instance;
+                if (metrics == null) {
+                    metrics = new DataMetrics(!"false".equalsIgnoreCase(System.getProperty("conceptbreakdowntool.metrics")));
+                    try {
+                        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+                    } catch (JMException | SecurityException e) {
+                        LOG.warn("Metrics are not available over JMX: " + e.getMessage());
+                    }
+                    instance = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+
+    /**
+     METHODS
+     **/
+    /**
+     operation(): Gathers the counters of an operation, creating them the first time. Keep the result instead of looking it up on every call.
+     * @param name the operation's name, such as "addConcept"
+     * @return the operation's counters
+     **/
+    public Operation operation(String name) {
+        return operations.computeIfAbsent(name, Operation::new);
+    }
+
+    /**
+     start(): Starts timing a call.
+     * @return the value to pass to Operation.record() when the call finishes
+     **/
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     registerGauge(): Adds a statistic read only when a snapshot is taken, replacing any gauge of the same name.
+     * @param name the gauge's name; use a prefix shared by everything one object registers, such as "tasks."
+     * @param gauge reads the current value; it must be safe to call from any thread
+     **/
+    public void registerGauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     unregisterGauges(): Removes every gauge whose name starts with a prefix.
+     **/
+    public void unregisterGauges(String prefix) {
+        gauges.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     reset(): Clears every counter and histogram; gauges are left alone.
+     **/
+    @Override
+    public void reset() {
+        for (Operation operation : operations.values()) {
+            operation.reset();
+        }
+    }
+
+    /**
+     snapshot(): Gathers a copy of every operation's counters and every gauge's current value.
+     * @return the snapshot, with operations sorted by name
+     **/
+    public Snapshot snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (Operation operation : operations.values()) {
+            stats.add(operation.stats());
+        }
+        stats.sort(Comparator.comparing(OperationStats::getName));
+        return new Snapshot(System.currentTimeMillis(), enabled, stats, getGauges());
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        return snapshot().getOperations();
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet()) {
+            try {
+                values.put(gauge.getKey(), gauge.getValue().getAsLong());
+            } catch (RuntimeException e) {
+                values.put(gauge.getKey(), -1L); // A gauge that fails shouldn't hide the others
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String dumpSnapshot() {
+        return snapshot().toString();
+    }
+
+
+    // Four buckets per power of two: 0-3 get a bucket each, then [4,5), [5,6), [6,7), [7,8), [8,10), [10,12), ...
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - 2;
+        int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << shift;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        return bucketLowerBound(bucket) + (1L << shift) - 1;
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    /**
+     Operation: The call counter, error counter, and latency histogram of one operation. Safe to record from any thread.
+     **/
+    public class Operation {
+        private final String name;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         record(): Counts a finished call and adds its time to the histogram.
+         * @param start what start() returned when the call began
+         **/
+        public void record(long start) {
+            if (start == NOT_TIMED) {
+                return;
+            }
+            recordNanos(System.nanoTime() - start);
+        }
+
+        void recordNanos(long nanos) {
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets.incrementAndGet(bucketOf(nanos)); // Also the call count, so there is one counter less to update
+        }
+
+        /**
+         recordError(): Counts a call that failed; the call itself is still counted by record().
+         **/
+        public void recordError() {
+            if (enabled) {
+                errors.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        void reset() {
+            errors.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+        }
+
+        /**
+         stats(): Copies the counters. Calls still being recorded may show up in some numbers and not yet in others.
+         **/
+        OperationStats stats() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long max = maxNanos.get();
+            double mean = total == 0 ? 0 : totalNanos.sum() / (double) total;
+            return new OperationStats(name, total, errors.sum(), mean / NANOS_PER_MICRO,
+                    percentile(counts, total, 0.50, max), percentile(counts, total, 0.90, max),
+                    percentile(counts, total, 0.99, max), max / NANOS_PER_MICRO);
+        }
+
+        // The middle of the bucket holding the percentile, never more than the largest time seen
+        private double percentile(long[] counts, long total, double fraction, long max) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long middle = bucketLowerBound(i) + (bucketUpperBound(i) - bucketLowerBound(i)) / 2;
+                    return Math.min(middle, max) / NANOS_PER_MICRO;
+                }
+            }
+            return max / NANOS_PER_MICRO;
+        }
+    }
+
+    /**
+     OperationStats: A snapshot of one operation; times are in microseconds.
+     **/
+    public static class OperationStats {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+
+        OperationStats(String name, long calls, long errors, double meanMicros, double p50Micros, double p90Micros, double p99Micros, double maxMicros) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getName() { return name; }
+
+        public long getCalls() { return calls; }
+
+        public long getErrors() { return errors; }
+
+        public double getMeanMicros() { return meanMicros; }
+
+        public double getP50Micros() { return p50Micros; }
+
+        public double getP90Micros() { return p90Micros; }
+
+        public double getP99Micros() { return p99Micros; }
+
+        public double getMaxMicros() { return maxMicros; }
+    }
+
+    /**
+     Snapshot: Every operation and gauge at one moment.
+     **/
+    public static class Snapshot {
+        private final long takenAtMillis;
+        private final boolean enabled;
+        private final List<OperationStats> operations;
+        private final Map<String, Long> gauges;
+
+        Snapshot(long takenAtMillis, boolean enabled, List<OperationStats> operations, Map<String, Long> gauges) {
+            this.takenAtMillis = takenAtMillis;
+            this.enabled = enabled;
+            this.operations = Collections.unmodifiableList(operations);
+            this.gauges = Collections.unmodifiableMap(gauges);
+        }
+
+        public long getTakenAtMillis() { return takenAtMillis; }
+
+        public List<OperationStats> getOperations() { return operations; }
+
+        public Map<String, Long> getGauges() { return gauges; }
+
+        /**
+         getOperation(): Gathers one operation's statistics.
+         * @return the statistics, or null if the operation was never registered
+         **/
+        public OperationStats getOperation(String name) {
+            for (OperationStats stats : operations) {
+                if (stats.getName().equals(name)) {
+                    return stats;
+                }
+            }
+            return null;
+        }
+
+        public String toJson() {
+            return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+        }
+
+        /**
+         toString(): Lays the snapshot out as a table of the operations that were called, followed by the gauges.
+         **/
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("%-28s %10s %7s %11s %11s %11s %11s %11s%n",
+                    "Operation", "Calls", "Errors", "Mean (us)", "p50 (us)", "p90 (us)", "p99 (us)", "Max (us)"));
+            for (OperationStats stats : operations) {
+                if (stats.getCalls() == 0 && stats.getErrors() == 0) {
+                    continue;
+                }
+                out.append(String.format("%-28s %10d %7d %11.1f %11.1f %11.1f %11.1f %11.1f%n",
+                        stats.getName(), stats.getCalls(), stats.getErrors(), stats.getMeanMicros(),
+                        stats.getP50Micros(), stats.getP90Micros(), stats.getP99Micros(), stats.getMaxMicros()));
+            }
+            if (!enabled) {
+                out.append("(Metrics are disabled; nothing new is being recorded.)").append(System.lineSeparator());
+            }
+            for (Map.Entry<String, Long> gauge : gauges.entrySet()) {
+                out.append(String.format("%-28s %10d%n", gauge.getKey(), gauge.getValue()));
+            }
+            return out.toString();
+        }
+    }
+}
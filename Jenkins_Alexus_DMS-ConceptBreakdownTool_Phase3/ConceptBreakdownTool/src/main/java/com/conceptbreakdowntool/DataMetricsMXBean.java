@@ -0,0 +1,38 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DataMetricsMXBean
+
+ Purpose: The management interface of DataMetrics, as shown in jconsole or VisualVM under com.conceptbreakdowntool:type=DataMetrics.
+
+ - ATTRIBUTES
+     * Enabled: Whether operations are being timed; can be switched off while the application runs.
+     * Operations: One row per data operation: calls, errors, and latency (mean, p50, p90, p99, max) in microseconds.
+     * Gauges: Cache and pool statistics, read when asked for.
+ - OPERATIONS
+     * dumpSnapshot(): Gathers everything above as a text table.
+     * reset(): Clears every counter and histogram.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DataMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    List<DataMetrics.OperationStats> getOperations();
+
+    Map<String, Long> getGauges();
+
+    String dumpSnapshot();
+
+    void reset();
+}
@@ -8,27 +8,66 @@
 
  - CONSTRUCTOR AND INITIALIZATION: Responsible for storing categories, concepts, and components. Sets up the database connection. Loads data from the database.
      * Constructor(DatabaseManager): Initializes the main window; Sets up the database manager connection; Prepare the UI components.
+     * Constructor(DatabaseManager(String)): Remembers which database file to use without touching it; loadDataFromFile() opens it when it is needed.
      * initializeDatabase(): Ensures the necessary database tables are created if they don't already exist.
-     * loadDataFromDatabase(), loadCategoriesFromDb(), loadConceptsFromDb(), loadComponentsFromDb(): Load existing data from the database into memory.
+     * loadDataFromDatabase(), loadCategories(), loadConcepts(), loadComponents(): Load existing data from the database into memory. A load
+       reads into new lists and swaps them in (installLibrary()) only once everything was read, so a failed load keeps the previous library.
+     * rebuildHierarchy(): Rebuilds the materialized Category -> Concept -> Component tree after a full load; every other change updates it in place.
  - CRUD OPERATIONS: Handles the creation, reading, updating, and deletion of data in the database.
      * addCategory(), addConcept(), addComponent(): Adds new entries to the database tables.
      * updateCategory(), updateConcept(), updateComponent(): Updates existing entries to the database tables.
-     * deleteCategory(), deleteConcept(), deleteComponent(): Removes entries from the database.
+     * deleteCategory(), deleteConcept(), deleteComponent(): Removes entries from the database. A concept's rows go in one transaction, and
+       entries are found through the hierarchy and the topic index; deleted entries leave the flat lists in batches (dropFromLists()).
  - DATA RETRIEVAL METHODS: Used to retrieve data from the database.
      * getCategories(), getConcepts(), getComponents(): Gathers lists from categories, concepts, and components stored in the database.
      * getConcept(), getComponent(), getCategory(), getCategoryById(): Gathers single entries based on IDs.
+     * getHierarchy(): Gathers the materialized Category -> Concept -> Component tree that every view renders from.
  - UTILITY METHODS
      * setUIUpdateListener(): Sets a listener to update the UI when data changes have occurred.
+     * getChangeNotifier(): Gathers the notifier that delivers coalesced change sets (inserted, updated, and deleted IDs) to the views.
      * connect(): Establishes a connection to the database.
      * generateNewComponentId(): Create a new ID for a component.
  - DATA PERSISTENCE METHODS
-    * saveAllData(): Saves the current state of the database to a file.
-    * loadDataFromFile(): Loads data from a file path into the application.
+    * saveAllData(): Saves the current state of the database to a file, or as JSON to a given file.
+    * loadDataFromFile(): Loads data from a file path into the application; that file becomes the database every later query and change uses.
+    * getDataFilePath(): Gathers the database file in use.
  - OBJECT MANIPULATION METHODS: Adds, Updates, and Removes objects from the database in a dynamic way.
     * addObject(), updateObject(), removeObject(): Handles addition, update, or removal of concepts, components, or categories.
  - SPECIALIZED RETRIEVAL AND UPDATE METHODS
     * getConceptsByCategoryId(), getComponentsByConceptId(): Gathers concepts or components by an ID.
     * addComponentToConcept(): Adds a component to a concept.
+ - RELATIONSHIP METHODS: Stores typed concept-to-concept relationships and answers graph queries from an in-memory CSR adjacency structure.
+    * addRelation(), deleteRelation(), getRelationsForConcept(): Adds, removes, and lists rows of the ConceptRelation table.
+    * getNeighborConceptIds(), getConceptIdsWithinHops(), findShortestConceptPath(): Neighbor, k-hop, and shortest path queries.
+    * getConceptGraph(): Gathers the adjacency structure, building it once per load; later relationship edits are applied to it in place.
+ - DUPLICATE DETECTION METHODS: Warns about near-duplicate concepts and components using a MinHash/LSH index of their text.
+    * setDuplicateCheckEnabled(): Turns the warning in addConcept() and addComponent() on or off.
+    * findSimilarConcepts(), findSimilarComponents(): Gathers existing entries that closely match new text.
+    * findDuplicatesReport(): Gathers every near-duplicate pair in the library.
+    * The indexes are rebuilt after each load on the background "index-builder" thread; a lookup made before that finishes waits for it.
+ - DIAGRAM RECOMMENDATION METHODS: Recommends a diagram type from the measured structure of a category or concept.
+    * recommendDiagramForCategory(), recommendDiagramForConcept(): Gathers a cached or freshly scored recommendation.
+    * getCategoryVersion(): Gathers a counter that changes whenever anything inside a category changes, used to invalidate cached results.
+    * getCategoryIdOfConcept(): Resolves the category a concept belongs to.
+ - PAGED BROWSING METHODS: Reads one page of a level of the tree straight from the database, for views that load children only when they are opened.
+    * getCategoryPage(), getConceptPage(), getComponentPage(): Gathers the next page of categories, of a category's concepts, or of a concept's components.
+ - REPORT METHODS: Reads the print report (every concept with its category and components) in blocks, or streams all of it to a file.
+    * getReportRowCount(): Counts the rows of the report.
+    * getReportRows(), getReportRowsAfter(): Gathers one block of report rows, by position or by the key of the row before it.
+    * exportReport(): Writes the whole report as CSV without holding it in memory.
+ - FUZZY LOOKUP METHODS: Typo-tolerant lookup of category names and concept/component topics backed by BK-trees.
+    * suggestCategories(), suggestConcepts(), suggestComponents(): Gathers the closest names or topics for "did you mean" suggestions.
+    * findCategoryByName() also reads from the category name index instead of scanning every category.
+    * The category name index is rebuilt with the hierarchy. The much larger topic indexes are rebuilt after each load on the
+      "index-builder" thread, before the duplicate indexes; a lookup made before that finishes waits for it.
+ - LOGGING: Diagnostics go through Log (errors at ERROR, skipped or refused changes at WARN, routine successes and each new connection at
+   DEBUG), so the hot paths no longer print to the console. The prompts of updateObject() still use System.out.
+ - SQL TRACING: connect() and loadDataFromFile() pass their connections through SqlTrace, which can log every statement with its
+   parameters, rows, and time, and explains the slow ones.
+ - METRICS: Each operation above that reads or changes data records its calls, errors, and latency in DataMetrics (see it in jconsole).
+   Plain getters and setters are left out, as are addObject(), updateObject(), and removeObject(), which forward to operations that record.
+   The sizes of the hierarchy and the indexes, how often the concept graph was built or compacted, and how many connections connect()
+   opened are published as the "library." gauges.
 
  @author Alexus Jenkins
  @version 5.0
@@ -42,13 +81,95 @@ import java.io.*;
 import java.sql.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 
 import static com.conceptbreakdowntool.ConceptBreakdownToolApplication.safelyParseInt;
 
 public class DatabaseManager {
+    static final String SQL_CREATE_CATEGORY_TABLE = "CREATE TABLE IF NOT EXISTS Category (Category_ID INTEGER PRIMARY KEY, Category_Topic TEXT NOT NULL);";
+    static final String SQL_CREATE_CONCEPT_TABLE = "CREATE TABLE IF NOT EXISTS Concept (Concept_ID INTEGER PRIMARY KEY, Concept_Topic TEXT NOT NULL, Category_ID INTEGER NOT NULL, Concept_Details TEXT NOT NULL, FOREIGN KEY(Category_ID) REFERENCES Category(Category_ID));";
+    static final String SQL_CREATE_COMPONENT_TABLE = "CREATE TABLE IF NOT EXISTS Component (Component_Topic TEXT NOT NULL, Component_Description TEXT NOT NULL, Concept_ID INTEGER NOT NULL, FOREIGN KEY(Concept_ID) REFERENCES Concept(Concept_ID));";
+    static final String SQL_CREATE_RELATION_TABLE = "CREATE TABLE IF NOT EXISTS ConceptRelation (Source_Concept_ID INTEGER NOT NULL, Target_Concept_ID INTEGER NOT NULL, Relation_Type TEXT NOT NULL, PRIMARY KEY(Source_Concept_ID, Target_Concept_ID, Relation_Type), FOREIGN KEY(Source_Concept_ID) REFERENCES Concept(Concept_ID), FOREIGN KEY(Target_Concept_ID) REFERENCES Concept(Concept_ID));";
+    // Let the paged browsing queries seek straight to one category's concepts or one concept's components, and deletes find a concept's relationships
+    static final String[] SQL_CREATE_BROWSE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS Concept_Category_Index ON Concept(Category_ID, Concept_ID);",
+            "CREATE INDEX IF NOT EXISTS Component_Concept_Index ON Component(Concept_ID);",
+            // The primary key starts with Source_Concept_ID; this lets deleting a concept find the relationships pointing at it too
+            "CREATE INDEX IF NOT EXISTS ConceptRelation_Target_Index ON ConceptRelation(Target_Concept_ID);"
+    };
+
+    // One row per component, or one row for a concept without components; LEFT JOINs so no concept is left out
+    static final String[] REPORT_COLUMNS = {"ID", "Category", "Concept", "Component", "Details"};
+    private static final String SQL_REPORT_FROM = " FROM Concept c LEFT JOIN Category cat ON cat.Category_ID = c.Category_ID"
+            + " LEFT JOIN Component comp ON comp.Concept_ID = c.Concept_ID";
+    private static final String SQL_REPORT_SELECT = "SELECT c.Concept_ID, cat.Category_Topic, c.Concept_Topic, comp.Component_Topic, comp.Component_Description, comp.rowid"
+            + SQL_REPORT_FROM;
+    private static final String SQL_REPORT_ORDER = " ORDER BY c.Concept_ID, comp.rowid";
+    private static final String SQL_REPORT_ROWS = SQL_REPORT_SELECT + SQL_REPORT_ORDER;
+    // Seeks straight to the row after (Concept_ID, component rowid) through the primary key, instead of reading and skipping OFFSET rows
+    private static final String SQL_REPORT_ROWS_AFTER = SQL_REPORT_SELECT
+            + " WHERE c.Concept_ID >= ? AND (c.Concept_ID > ? OR comp.rowid > ?)" + SQL_REPORT_ORDER + " LIMIT ?";
+    /** Paging key of a report row that has no component; nothing of the same concept follows it. **/
+    static final long NO_COMPONENT_KEY = Long.MAX_VALUE;
+
+    // Calls, errors, and latency of each data operation; see DataMetrics
+    private static final Log LOG = Log.get(DatabaseManager.class);
+    private static final DataMetrics METRICS = DataMetrics.get();
+    private static final DataMetrics.Operation LOAD_DATA_FROM_DATABASE_METRIC = METRICS.operation("loadDataFromDatabase");
+    private static final DataMetrics.Operation ADD_CATEGORY_METRIC = METRICS.operation("addCategory");
+    private static final DataMetrics.Operation ADD_CONCEPT_METRIC = METRICS.operation("addConcept");
+    private static final DataMetrics.Operation ADD_COMPONENT_METRIC = METRICS.operation("addComponent");
+    private static final DataMetrics.Operation UPDATE_CATEGORY_METRIC = METRICS.operation("updateCategory");
+    private static final DataMetrics.Operation UPDATE_CONCEPT_METRIC = METRICS.operation("updateConcept");
+    private static final DataMetrics.Operation UPDATE_COMPONENT_METRIC = METRICS.operation("updateComponent");
+    private static final DataMetrics.Operation DELETE_CATEGORY_METRIC = METRICS.operation("deleteCategory");
+    private static final DataMetrics.Operation DELETE_CONCEPT_METRIC = METRICS.operation("deleteConcept");
+    private static final DataMetrics.Operation DELETE_COMPONENT_METRIC = METRICS.operation("deleteComponent");
+    private static final DataMetrics.Operation GET_CONCEPT_METRIC = METRICS.operation("getConcept");
+    private static final DataMetrics.Operation GET_COMPONENT_METRIC = METRICS.operation("getComponent");
+    private static final DataMetrics.Operation GET_CATEGORY_METRIC = METRICS.operation("getCategory");
+    private static final DataMetrics.Operation GET_CATEGORY_BY_ID_METRIC = METRICS.operation("getCategoryById");
+    private static final DataMetrics.Operation CONNECT_METRIC = METRICS.operation("connect");
+    private static final DataMetrics.Operation GENERATE_NEW_COMPONENT_ID_METRIC = METRICS.operation("generateNewComponentId");
+    private static final DataMetrics.Operation SAVE_ALL_DATA_METRIC = METRICS.operation("saveAllData");
+    private static final DataMetrics.Operation LOAD_DATA_FROM_FILE_METRIC = METRICS.operation("loadDataFromFile");
+    private static final DataMetrics.Operation GET_CONCEPTS_BY_CATEGORY_ID_METRIC = METRICS.operation("getConceptsByCategoryId");
+    private static final DataMetrics.Operation GET_COMPONENTS_BY_CONCEPT_ID_METRIC = METRICS.operation("getComponentsByConceptId");
+    private static final DataMetrics.Operation ADD_COMPONENT_TO_CONCEPT_METRIC = METRICS.operation("addComponentToConcept");
+    private static final DataMetrics.Operation FIND_CATEGORY_BY_NAME_METRIC = METRICS.operation("findCategoryByName");
+    private static final DataMetrics.Operation ADD_RELATION_METRIC = METRICS.operation("addRelation");
+    private static final DataMetrics.Operation DELETE_RELATION_METRIC = METRICS.operation("deleteRelation");
+    private static final DataMetrics.Operation GET_RELATIONS_FOR_CONCEPT_METRIC = METRICS.operation("getRelationsForConcept");
+    private static final DataMetrics.Operation GET_NEIGHBOR_CONCEPT_IDS_METRIC = METRICS.operation("getNeighborConceptIds");
+    private static final DataMetrics.Operation GET_CONCEPT_IDS_WITHIN_HOPS_METRIC = METRICS.operation("getConceptIdsWithinHops");
+    private static final DataMetrics.Operation FIND_SHORTEST_CONCEPT_PATH_METRIC = METRICS.operation("findShortestConceptPath");
+    private static final DataMetrics.Operation FIND_SIMILAR_CONCEPTS_METRIC = METRICS.operation("findSimilarConcepts");
+    private static final DataMetrics.Operation FIND_SIMILAR_COMPONENTS_METRIC = METRICS.operation("findSimilarComponents");
+    private static final DataMetrics.Operation FIND_DUPLICATES_REPORT_METRIC = METRICS.operation("findDuplicatesReport");
+    private static final DataMetrics.Operation BUILD_DUPLICATE_INDEXES_METRIC = METRICS.operation("buildDuplicateIndexes");
+    private static final DataMetrics.Operation BUILD_TOPIC_INDEXES_METRIC = METRICS.operation("buildTopicIndexes");
+    private static final DataMetrics.Operation RECOMMEND_DIAGRAM_FOR_CATEGORY_METRIC = METRICS.operation("recommendDiagramForCategory");
+    private static final DataMetrics.Operation RECOMMEND_DIAGRAM_FOR_CONCEPT_METRIC = METRICS.operation("recommendDiagramForConcept");
+    private static final DataMetrics.Operation GET_CATEGORY_PAGE_METRIC = METRICS.operation("getCategoryPage");
+    private static final DataMetrics.Operation GET_CONCEPT_PAGE_METRIC = METRICS.operation("getConceptPage");
+    private static final DataMetrics.Operation GET_COMPONENT_PAGE_METRIC = METRICS.operation("getComponentPage");
+    private static final DataMetrics.Operation GET_REPORT_ROW_COUNT_METRIC = METRICS.operation("getReportRowCount");
+    private static final DataMetrics.Operation GET_REPORT_ROWS_METRIC = METRICS.operation("getReportRows");
+    private static final DataMetrics.Operation EXPORT_REPORT_METRIC = METRICS.operation("exportReport");
+    private static final DataMetrics.Operation SUGGEST_CATEGORIES_METRIC = METRICS.operation("suggestCategories");
+    private static final DataMetrics.Operation SUGGEST_CONCEPTS_METRIC = METRICS.operation("suggestConcepts");
+    private static final DataMetrics.Operation SUGGEST_COMPONENTS_METRIC = METRICS.operation("suggestComponents");
+
+    static final String DEFAULT_DATA_FILE = "./conceptBreakdownTool.db";
+    private static final byte[] SQLITE_HEADER = "SQLite format 3\0".getBytes(StandardCharsets.US_ASCII);
+    private static final double DUPLICATE_THRESHOLD = 0.6;
+    private static final int MAX_DUPLICATE_WARNINGS = 3;
+    private static final int MIN_DROPPED_ENTRIES = 64;
+
     //Attributes
     private List<Concept> concepts;
     private List<Component> components;
@@ -58,6 +179,27 @@ public class DatabaseManager {
     private Scanner scanner;
     private DatabaseManager dbManager;
     private MainApplicationWindow.UIUpdateListener uiUpdateListener;
+    private ConceptGraph.Builder relationEdges = new ConceptGraph.Builder(); // Loaded edges, until getConceptGraph() first builds them
+    private ConceptGraph conceptGraph; // Built lazily after each load, then edited in place; both fields are guarded by this
+    private final DuplicateIndex conceptDuplicates = new DuplicateIndex(DUPLICATE_THRESHOLD);
+    private final DuplicateIndex componentDuplicates = new DuplicateIndex(DUPLICATE_THRESHOLD);
+    private final Object duplicateLock = new Object(); // Guards duplicateIndexesStale and every change to the duplicate indexes
+    private boolean duplicateIndexesStale = true; // Set by each load; the indexes are rebuilt on first use or by the index-builder thread
+    private boolean duplicateCheckEnabled = true;
+    private final Map<Integer, Integer> categoryVersions = new HashMap<>();
+    private final Set<Object> droppedEntries = Collections.newSetFromMap(new IdentityHashMap<>()); // Deleted, not yet compacted out of the lists
+    private int loadGeneration;
+    private final DiagramRecommender diagramRecommender = new DiagramRecommender(this);
+    private final LibraryHierarchy hierarchy = new LibraryHierarchy();
+    private final FuzzyIndex<Integer> categoryNames = new FuzzyIndex<>();
+    private final FuzzyIndex<Integer> conceptTopics = new FuzzyIndex<>();
+    private final FuzzyIndex<String> componentTopics = new FuzzyIndex<>();
+    private final Object topicLock = new Object(); // Guards topicIndexesStale and every change to conceptTopics and componentTopics
+    private boolean topicIndexesStale = true; // Set by each load; the topic indexes are rebuilt on first use or by the index-builder thread
+    private final ChangeNotifier changeNotifier = new ChangeNotifier();
+    private ChangeNotifier.Listener uiUpdateAdapter;
+    private final LongAdder graphBuilds = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
 
 
 
@@ -72,12 +214,9 @@ public class DatabaseManager {
      Constructor(DatabaseManager): Initializes the main window; Sets up the database manager connection; Prepare the UI components.
      **/
     public DatabaseManager() {
-        this.concepts = new ArrayList<>();
-        this.components = new ArrayList<>();
-        this.categories = new ArrayList<>();
+        this(DEFAULT_DATA_FILE);
 
         // Check if the default data file exists; if not, create it
-        this.dataFilePath = "./conceptBreakdownTool.db";
         if (this.dataFilePath != null) {
             File defaultDataFile = new File(dataFilePath);
             if (!defaultDataFile.exists()) {
@@ -85,10 +224,10 @@ public class DatabaseManager {
                     // Attempt to create the new file
                     boolean fileCreated = defaultDataFile.createNewFile();
                     if (fileCreated) {
-                        System.out.println("New data file created: " + defaultDataFile.getAbsolutePath());
+                        LOG.info("New data file created: " + defaultDataFile.getAbsolutePath());
                     }
                 } catch (IOException e) {
-                    System.err.println("Failed to create default data file: " + e.getMessage());
+                    LOG.error("Failed to create default data file", e);
                 }
             }
         }
@@ -97,83 +236,187 @@ public class DatabaseManager {
         loadDataFromDatabase(); // Load existing data from database
     }
 
+    /**
+     Constructor(DatabaseManager): Remembers which database file to use without creating, opening, or reading it, so the application can start
+     before the file is needed. Call loadDataFromFile() to read it; until then the lists are empty.
+     * @param dataFilePath the database file to use
+     **/
+    public DatabaseManager(String dataFilePath) {
+        this.concepts = new ArrayList<>();
+        this.components = new ArrayList<>();
+        this.categories = new ArrayList<>();
+        this.dataFilePath = dataFilePath;
+        registerGauges();
+    }
+
+    /**
+     registerGauges(): Publishes the sizes of the hierarchy and the indexes, the graph builds, and the connections opened as the
+     "library." gauges of DataMetrics, replacing those of any earlier database manager.
+     **/
+    private void registerGauges() {
+        DataMetrics metrics = DataMetrics.get();
+        metrics.registerGauge("library.categories", hierarchy::getCategoryCount);
+        metrics.registerGauge("library.concepts", hierarchy::getConceptCount);
+        metrics.registerGauge("library.categoryNameIndex", categoryNames::size);
+        metrics.registerGauge("library.conceptTopicIndex", conceptTopics::size);
+        metrics.registerGauge("library.componentTopicIndex", componentTopics::size);
+        metrics.registerGauge("library.conceptDuplicateIndex", conceptDuplicates::size);
+        metrics.registerGauge("library.componentDuplicateIndex", componentDuplicates::size);
+        metrics.registerGauge("library.graphBuilds", graphBuilds::sum);
+        metrics.registerGauge("library.graphCompactions", this::getGraphCompactionCount);
+        metrics.registerGauge("library.connectionsOpened", connectionsOpened::sum);
+    }
+
     /**
      initializeDatabase(): Ensures the necessary database tables are created if they don't already exist.
      **/
     private void initializeDatabase() {
-        String sqlCategory = "CREATE TABLE IF NOT EXISTS Category (Category_ID INTEGER PRIMARY KEY, Category_Topic TEXT NOT NULL);";
-        String sqlConcept = "CREATE TABLE IF NOT EXISTS Concept (Concept_ID INTEGER PRIMARY KEY, Concept_Topic TEXT NOT NULL, Category_ID INTEGER NOT NULL, Concept_Details TEXT NOT NULL, FOREIGN KEY(Category_ID) REFERENCES Category(Category_ID));";
-        String sqlComponent = "CREATE TABLE IF NOT EXISTS Component (Component_Topic TEXT NOT NULL, Component_Description TEXT NOT NULL, Concept_ID INTEGER NOT NULL, FOREIGN KEY(Concept_ID) REFERENCES Concept(Concept_ID));";
+        try (Connection conn = this.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(SQL_CREATE_CATEGORY_TABLE);
+            stmt.execute(SQL_CREATE_CONCEPT_TABLE);
+            stmt.execute(SQL_CREATE_COMPONENT_TABLE);
+            stmt.execute(SQL_CREATE_RELATION_TABLE);
+            for (String sqlIndex : SQL_CREATE_BROWSE_INDEXES) {
+                stmt.execute(sqlIndex);
+            }
+            LOG.debug("Database tables verified/created successfully.");
+        } catch (SQLException e) {
+            LOG.error("Error initializing database", e);
+        }
+    }
 
+    /**
+     loadDataFromDatabase(): Load existing data from the database into memory, replacing whatever was loaded before. If anything can't be
+     read, the previous library stays in place.
+     **/
+    public void loadDataFromDatabase() {
+        long start = METRICS.start();
         try (Connection conn = this.connect();
              Statement stmt = conn.createStatement()) {
-            stmt.execute(sqlCategory);
-            stmt.execute(sqlConcept);
-            stmt.execute(sqlComponent);
-            System.out.println("Database tables verified/created successfully.");
+            List<Category> loadedCategories = loadCategories(stmt);
+            List<Concept> loadedConcepts = loadConcepts(stmt);
+            List<Component> loadedComponents = loadComponents(stmt);
+            ConceptGraph.Builder loadedRelations = loadRelations(stmt);
+            installLibrary(loadedCategories, loadedConcepts, loadedComponents, loadedRelations);
+            changeNotifier.reloaded();
         } catch (SQLException e) {
-            System.err.println("Error initializing database: " + e.getMessage());
+            LOAD_DATA_FROM_DATABASE_METRIC.recordError();
+            LOG.error("Error loading data from the database; keeping the library loaded before", e);
+        } finally {
+            LOAD_DATA_FROM_DATABASE_METRIC.record(start);
         }
     }
 
     /**
-     loadDataFromDatabase(): Load existing data from the database into memory.
+     installLibrary(): Swaps a fully read library in for the one in memory, rebuilds the hierarchy from it, and starts rebuilding the
+     topic and duplicate indexes in the background.
      **/
-    private void loadDataFromDatabase() {
-        loadCategoriesFromDb();
-        loadConceptsFromDb();
-        loadComponentsFromDb();
+    private void installLibrary(List<Category> loadedCategories, List<Concept> loadedConcepts, List<Component> loadedComponents,
+                                ConceptGraph.Builder loadedRelations) {
+        startLoadGeneration();
+        synchronized (droppedEntries) {
+            categories = loadedCategories;
+            concepts = loadedConcepts;
+            components = loadedComponents;
+            droppedEntries.clear();
+        }
+        replaceRelations(loadedRelations);
+        rebuildHierarchy();
+        invalidateIndexes();
+        diagramRecommender.clear();
+    }
+
+    /**
+     rebuildHierarchy(): Rebuilds the materialized Category -> Concept -> Component tree and the category name index from the in-memory
+     lists after a full load. The topic indexes are left to the index-builder thread (see invalidateIndexes()).
+     **/
+    private void rebuildHierarchy() {
+        hierarchy.clear();
+        categoryNames.clear();
+        for (Category category : categories) {
+            hierarchy.addCategory(category);
+            categoryNames.add(category.getId(), category.getTopic());
+        }
+        for (Concept concept : concepts) {
+            hierarchy.addConcept(concept, resolveCategoryId(concept.getCategory()));
+        }
+        for (Component component : components) {
+            hierarchy.addComponent(component);
+        }
     }
 
     /**
-     * loadCategoriesFromDb(): Load existing data from the database into memory.
+     * loadCategories(): Reads every category.
+     * @param stmt an open statement on the database to read from
+     * @return the categories, in table order
      * **/
-    private void loadCategoriesFromDb() {
-        String sql = "SELECT * FROM Category";
-        try (Connection conn = this.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private List<Category> loadCategories(Statement stmt) throws SQLException {
+        List<Category> loaded = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT Category_ID, Category_Topic FROM Category")) {
             while (rs.next()) {
-                this.categories.add(new Category(rs.getInt("Category_ID"), rs.getString("Category_Topic")));
+                loaded.add(new Category(rs.getInt("Category_ID"), rs.getString("Category_Topic")));
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading categories from the database: " + e.getMessage());
         }
+        return loaded;
     }
 
     /**
-     * loadConceptsFromDb(): Load existing data from the database into memory.
+     * loadConcepts(): Reads every concept.
+     * @param stmt an open statement on the database to read from
+     * @return the concepts, in table order
      * **/
-    private void loadConceptsFromDb() {
-        String sql = "SELECT * FROM Concept";
-        try (Connection conn = this.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private List<Concept> loadConcepts(Statement stmt) throws SQLException {
+        List<Concept> loaded = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT Concept_ID, Concept_Topic, Category_ID, Concept_Details FROM Concept")) {
             while (rs.next()) {
-                this.concepts.add(new Concept(rs.getInt("Concept_ID"), rs.getString("Concept_Topic"), rs.getString("Category_ID"), rs.getString("Concept_Details")));
+                loaded.add(new Concept(rs.getInt("Concept_ID"), rs.getString("Concept_Topic"), rs.getString("Category_ID"), rs.getString("Concept_Details")));
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading concepts from the database: " + e.getMessage());
         }
+        return loaded;
     }
 
     /**
-     * loadComponentsFromDb(): Load existing data from the database into memory.
+     * loadComponents(): Reads every component.
+     * @param stmt an open statement on the database to read from
+     * @return the components, in table order
      * **/
-    private void loadComponentsFromDb() {
-        String sql = "SELECT Component_Topic, Component_Description, Concept_ID FROM Component";
-        try (Connection conn = this.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private List<Component> loadComponents(Statement stmt) throws SQLException {
+        List<Component> loaded = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT Component_Topic, Component_Description, Concept_ID FROM Component")) {
             while (rs.next()) {
                 String topic = rs.getString("Component_Topic");
                 String description = rs.getString("Component_Description");
                 int conceptId = rs.getInt("Concept_ID");
-                this.components.add(new Component(topic, description, conceptId));
+                loaded.add(new Component(topic, description, conceptId));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * loadRelations(): Reads the ConceptRelation table into a new adjacency builder, creating the table first for files made before it existed.
+     * @param stmt an open statement on the database to read from
+     * @return the builder holding every relationship in the table
+     * **/
+    private ConceptGraph.Builder loadRelations(Statement stmt) throws SQLException {
+        ConceptGraph.Builder edges = new ConceptGraph.Builder();
+        stmt.execute(SQL_CREATE_RELATION_TABLE);
+        try (ResultSet rs = stmt.executeQuery("SELECT Source_Concept_ID, Target_Concept_ID, Relation_Type FROM ConceptRelation")) {
+            while (rs.next()) {
+                edges.addEdge(rs.getInt(1), rs.getInt(2), ConceptRelation.RelationType.fromString(rs.getString(3)));
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading components from the database: " + e.getMessage());
         }
+        return edges;
+    }
+
+    /**
+     * replaceRelations(): Swaps in freshly loaded relationships; the graph is built from them on the next getConceptGraph().
+     * @param edges the loaded relationships
+     * **/
+    private synchronized void replaceRelations(ConceptGraph.Builder edges) {
+        relationEdges = edges;
+        conceptGraph = null;
     }
 
 
@@ -186,31 +429,38 @@ public class DatabaseManager {
      @return true if the category was added successfully, false otherwise.
      **/
     public boolean addCategory(Category category) {
-        // Check if the category ID already exists
-        if (getCategory(category.getId()) != null) {
-            System.out.println("Category ID " + category.getId() + " already exists.");
-            return false; // ID already exists, do not add the new category
-        }
+        long start = METRICS.start();
+        try {
+            // Check if the category ID already exists
+            if (getCategory(category.getId()) != null) {
+                LOG.warn("Category ID " + category.getId() + " already exists.");
+                return false; // ID already exists, do not add the new category
+            }
 
-        String sql = "INSERT INTO Category (Category_ID, Category_Topic) VALUES (?, ?)";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, category.getId());
-            pstmt.setString(2, category.getTopic());
-            int affectedRows = pstmt.executeUpdate();
-
-            // Check if insert was successful by the number of affected rows
-            if (affectedRows > 0) {
-                categories.add(category); // Add to in-memory list
-                if (uiUpdateListener != null) {
-                    uiUpdateListener.updateUI(); // Update the UI
+            String sql = "INSERT INTO Category (Category_ID, Category_Topic) VALUES (?, ?)";
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, category.getId());
+                pstmt.setString(2, category.getTopic());
+                int affectedRows = pstmt.executeUpdate();
+
+                // Check if insert was successful by the number of affected rows
+                if (affectedRows > 0) {
+                    categories.add(category); // Add to in-memory list
+                    hierarchy.addCategory(category);
+                    categoryNames.add(category.getId(), category.getTopic());
+                    changeNotifier.categoryChanged(ChangeNotifier.ChangeKind.INSERTED, category.getId()); // The UI refreshes once the burst is over
+                    touchCategory(category.getId());
+                    return true; // Insert successful
                 }
-                return true; // Insert successful
+            } catch (SQLException e) {
+                ADD_CATEGORY_METRIC.recordError();
+                LOG.error("SQL Error", e);
             }
-        } catch (SQLException e) {
-            System.err.println("SQL Error: " + e.getMessage());
+            return false; // Insert unsuccessful
+        } finally {
+            ADD_CATEGORY_METRIC.record(start);
         }
-        return false; // Insert unsuccessful
     }
 
     /**
@@ -218,49 +468,60 @@ public class DatabaseManager {
      * @param concept The concept to add. It must be linked to an existing category.
      * **/
     public void addConcept(Concept concept) {
-        // Find the category by name to get the Category_ID
-        Category category = findCategoryByName(concept.getCategory());
-        if (category == null) {
-            System.out.println("Category not found for the concept.");
-            return; // Stop if the category does not exist
-        }
+        long start = METRICS.start();
+        try {
+            // Find the category by name to get the Category_ID
+            Category category = findCategoryByName(concept.getCategory());
+            if (category == null) {
+                LOG.warn("Category not found for the concept.");
+                return; // Stop if the category does not exist
+            }
 
-        // SQL command to insert a new row into the Concept table
-        // Concept_ID is auto-generated by SQLite
-        String sql = "INSERT INTO Concept(Concept_Topic, Category_ID, Concept_Details) VALUES(?,?,?)";
+            if (duplicateCheckEnabled) {
+                warnAboutDuplicates(findSimilarConcepts(concept.getTopic(), concept.getDetails()));
+            }
 
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            // Set the parameters for the prepared statement based on the concept object
-            pstmt.setString(1, concept.getTopic());
-            pstmt.setInt(2, category.getId()); // Use the Category_ID from the found category
-            pstmt.setString(3, concept.getDetails());
-
-            // Execute the insert operation
-            int affectedRows = pstmt.executeUpdate();
-
-            // If the insert was successful, retrieve the generated key for the new concept
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        // Set the ID of the concept object to the generated key
-                        concept.setId(generatedKeys.getInt(1));
-                        // Add the new concept to the in-memory list
-                        this.concepts.add(concept);
-                        System.out.println("Concept added successfully to both the database and in-memory list.");
-                        if (uiUpdateListener != null) {
-                            // Trigger UI update if the listener is set
-                            uiUpdateListener.updateUI();
+            // SQL command to insert a new row into the Concept table
+            // Concept_ID is auto-generated by SQLite
+            String sql = "INSERT INTO Concept(Concept_Topic, Category_ID, Concept_Details) VALUES(?,?,?)";
+
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                // Set the parameters for the prepared statement based on the concept object
+                pstmt.setString(1, concept.getTopic());
+                pstmt.setInt(2, category.getId()); // Use the Category_ID from the found category
+                pstmt.setString(3, concept.getDetails());
+
+                // Execute the insert operation
+                int affectedRows = pstmt.executeUpdate();
+
+                // If the insert was successful, retrieve the generated key for the new concept
+                if (affectedRows > 0) {
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            // Set the ID of the concept object to the generated key
+                            concept.setId(generatedKeys.getInt(1));
+                            // Add the new concept to the in-memory list
+                            this.concepts.add(concept);
+                            hierarchy.addConcept(concept, category.getId());
+                            indexConceptTopic(concept.getId(), concept.getTopic());
+                            touchCategory(category.getId());
+                            indexConceptText(concept.getId(), concept.getTopic(), concept.getDetails());
+                            changeNotifier.conceptChanged(ChangeNotifier.ChangeKind.INSERTED, concept.getId());
+                            LOG.debug("Concept added successfully to both the database and in-memory list.");
+                        } else {
+                            throw new SQLException("Creating concept failed, no ID obtained.");
                         }
-                    } else {
-                        throw new SQLException("Creating concept failed, no ID obtained.");
                     }
                 }
+            } catch (SQLException e) {
+                ADD_CONCEPT_METRIC.recordError();
+                LOG.error("Error adding concept", e);
+                // Handle exceptions appropriately here
             }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
-            // Handle exceptions appropriately here
+        } finally {
+            ADD_CONCEPT_METRIC.record(start);
         }
     }
     /**
@@ -268,22 +529,36 @@ public class DatabaseManager {
      * @param component The component to add.
      * **/
     public void addComponent(Component component) {
-        String sql = "INSERT INTO Component(Component_Topic, Component_Description, Concept_ID) VALUES(?,?,?)";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, component.getTopic());
-            pstmt.setString(2, component.getDetails());
-            pstmt.setInt(3, component.getConceptId());
-
-            int affectedRows = pstmt.executeUpdate();
+        long start = METRICS.start();
+        try {
+            if (duplicateCheckEnabled) {
+                warnAboutDuplicates(findSimilarComponents(component.getTopic(), component.getDetails()));
+            }
 
-            if (affectedRows > 0 && uiUpdateListener != null) {
-                components.add(component);
-                System.out.println("Component added successfully to both the database and in-memory list.");
-                uiUpdateListener.updateUI();
+            String sql = "INSERT INTO Component(Component_Topic, Component_Description, Concept_ID) VALUES(?,?,?)";
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, component.getTopic());
+                pstmt.setString(2, component.getDetails());
+                pstmt.setInt(3, component.getConceptId());
+
+                int affectedRows = pstmt.executeUpdate();
+
+                if (affectedRows > 0) {
+                    touchCategory(getCategoryIdOfConcept(component.getConceptId()));
+                    components.add(component);
+                    indexComponentText(component.getConceptId(), component.getTopic(), component.getDetails());
+                    hierarchy.addComponent(component);
+                    indexComponentTopic(component.getConceptId(), component.getTopic());
+                    changeNotifier.componentChanged(ChangeNotifier.ChangeKind.INSERTED, componentKey(component.getConceptId(), component.getTopic()));
+                    LOG.debug("Component added successfully to both the database and in-memory list.");
+                }
+            } catch (SQLException e) {
+                ADD_COMPONENT_METRIC.recordError();
+                LOG.error("Error adding component", e);
             }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+        } finally {
+            ADD_COMPONENT_METRIC.record(start);
         }
     }
 
@@ -294,33 +569,39 @@ public class DatabaseManager {
      * @return true if the update was successful, false otherwise.
      **/
     public boolean updateCategory(int categoryId, String newTopic) {
-        // SQL statement to update the category name based on its ID
-        String sql = "UPDATE Category SET topic = ? WHERE id = ?";
-
-        try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            // Set the new topic and the category ID for the update
-            pstmt.setString(1, newTopic);
-            pstmt.setInt(2, categoryId);
-
-            // Execute the update
-            int affectedRows = pstmt.executeUpdate();
-
-            // Check if the update was successful by examining affected rows
-            if (affectedRows > 0) {
-                // Additionally, update the in-memory list of categories
-                for (Category category : categories) {
-                    if (category.getId() == categoryId) {
+        long start = METRICS.start();
+        try {
+            // SQL statement to update the category name based on its ID
+            String sql = "UPDATE Category SET Category_Topic = ? WHERE Category_ID = ?";
+
+            try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // Set the new topic and the category ID for the update
+                pstmt.setString(1, newTopic);
+                pstmt.setInt(2, categoryId);
+
+                // Execute the update
+                int affectedRows = pstmt.executeUpdate();
+
+                // Check if the update was successful by examining affected rows
+                if (affectedRows > 0) {
+                    touchCategory(categoryId);
+                    categoryNames.add(categoryId, newTopic);
+                    // Update the in-memory category, which the list and the hierarchy share
+                    Category category = hierarchy.getCategory(categoryId);
+                    if (category != null) {
                         category.setTopic(newTopic);
-                        System.out.println("Category updated successfully in the database and in-memory list.");
-                        return true; // Update successful
+                        LOG.debug("Category updated successfully in the database and in-memory list.");
                     }
+                    return true;
                 }
-                return true; // Database update successful, in-memory update not applicable or failed to find
+            } catch (SQLException e) {
+                UPDATE_CATEGORY_METRIC.recordError();
+                LOG.error("Error updating category", e);
             }
-        } catch (SQLException e) {
-            System.out.println("Error updating category: " + e.getMessage());
+            return false; // Update unsuccessful
+        } finally {
+            UPDATE_CATEGORY_METRIC.record(start);
         }
-        return false; // Update unsuccessful
     }
     /**
      * updateConcept(): Updates existing categories to the database tables.
@@ -330,20 +611,38 @@ public class DatabaseManager {
      * @return true if the update was successful, false otherwise.
      * **/
     public boolean updateConcept(int conceptId, String newTopic, String newDetails) {
-        String sql = "UPDATE Concept SET Concept_Topic = ?, Concept_Details = ? WHERE Concept_ID = ?";
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, newTopic);
-            pstmt.setString(2, newDetails);
-            pstmt.setInt(3, conceptId);
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
-            return false;
+        long start = METRICS.start();
+        try {
+            String sql = "UPDATE Concept SET Concept_Topic = ?, Concept_Details = ? WHERE Concept_ID = ?";
+
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setString(1, newTopic);
+                pstmt.setString(2, newDetails);
+                pstmt.setInt(3, conceptId);
+
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    touchCategory(getCategoryIdOfConcept(conceptId));
+                    indexConceptText(conceptId, newTopic, newDetails);
+                    indexConceptTopic(conceptId, newTopic);
+                    changeNotifier.conceptChanged(ChangeNotifier.ChangeKind.UPDATED, conceptId);
+                    // Update the in-memory concept, which the hierarchy shares
+                    Concept concept = hierarchy.getConcept(conceptId);
+                    if (concept != null) {
+                        concept.setTopic(newTopic);
+                        concept.setDetails(newDetails);
+                    }
+                }
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                UPDATE_CONCEPT_METRIC.recordError();
+                LOG.error("Error updating concept", e);
+                return false;
+            }
+        } finally {
+            UPDATE_CONCEPT_METRIC.record(start);
         }
     }
     /**
@@ -355,36 +654,46 @@ public class DatabaseManager {
      * @return true if the update was successful, false otherwise.
      * **/
     public boolean updateComponent(int conceptId, String oldTopic, String newTopic, String newDetails) {
-        // SQL statement to update a component based on Concept ID and old topic
-        String sql = "UPDATE Component SET Component_Topic = ?, Component_Description = ? WHERE Concept_ID = ? AND Component_Topic = ?";
-
-        try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            // Set parameters for the prepared statement
-            pstmt.setString(1, newTopic);
-            pstmt.setString(2, newDetails);
-            pstmt.setInt(3, conceptId);
-            pstmt.setString(4, oldTopic);
-
-            // Execute the update
-            int affectedRows = pstmt.executeUpdate();
-
-            // Check if the update was successful
-            if (affectedRows > 0) {
-                // Update the in-memory representation
-                for (Component component : components) {
-                    if (component.getConceptId() == conceptId && component.getTopic().equals(oldTopic)) {
-                        component.setTopic(newTopic);
-                        component.setDetails(newDetails);
-                        System.out.println("Component updated successfully in the database and in-memory list.");
-                        return true; // Update successful
+        long start = METRICS.start();
+        try {
+            // SQL statement to update a component based on Concept ID and old topic
+            String sql = "UPDATE Component SET Component_Topic = ?, Component_Description = ? WHERE Concept_ID = ? AND Component_Topic = ?";
+
+            try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // Set parameters for the prepared statement
+                pstmt.setString(1, newTopic);
+                pstmt.setString(2, newDetails);
+                pstmt.setInt(3, conceptId);
+                pstmt.setString(4, oldTopic);
+
+                // Execute the update
+                int affectedRows = pstmt.executeUpdate();
+
+                // Check if the update was successful
+                if (affectedRows > 0) {
+                    touchCategory(getCategoryIdOfConcept(conceptId));
+                    unindexComponentText(conceptId, oldTopic);
+                    indexComponentText(conceptId, newTopic, newDetails);
+                    hierarchy.updateComponent(conceptId, oldTopic, newTopic, newDetails);
+                    unindexComponentTopic(conceptId, oldTopic);
+                    indexComponentTopic(conceptId, newTopic);
+                    if (oldTopic.equals(newTopic)) {
+                        changeNotifier.componentChanged(ChangeNotifier.ChangeKind.UPDATED, componentKey(conceptId, newTopic));
+                    } else { // The key is the topic, so a renamed component shows up as a new one
+                        changeNotifier.componentChanged(ChangeNotifier.ChangeKind.DELETED, componentKey(conceptId, oldTopic));
+                        changeNotifier.componentChanged(ChangeNotifier.ChangeKind.INSERTED, componentKey(conceptId, newTopic));
                     }
+                    LOG.debug("Component updated successfully in the database and in-memory list."); // The list shares the hierarchy's objects
+                    return true;
                 }
-                return true; // Database update successful, in-memory update not applicable or failed
+            } catch (SQLException e) {
+                UPDATE_COMPONENT_METRIC.recordError();
+                LOG.error("Error updating component", e);
             }
-        } catch (SQLException e) {
-            System.out.println("Error updating component: " + e.getMessage());
+            return false; // Update unsuccessful
+        } finally {
+            UPDATE_COMPONENT_METRIC.record(start);
         }
-        return false; // Update unsuccessful
     }
 
     /**
@@ -392,22 +701,34 @@ public class DatabaseManager {
      @param categoryId Removes the category from the database by id
      **/
     public boolean deleteCategory(int categoryId) {
-        // SQL statement adjusted to match table column names
-        String sql = "DELETE FROM Category WHERE Category_ID = ?";
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, categoryId);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                // Logic for handling successful deletion
-                return true;
+        long start = METRICS.start();
+        try {
+            // SQL statement adjusted to match table column names
+            String sql = "DELETE FROM Category WHERE Category_ID = ?";
+
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, categoryId);
+
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    // Logic for handling successful deletion
+                    touchCategory(categoryId);
+                    dropFromLists(hierarchy.getCategory(categoryId));
+                    hierarchy.removeCategory(categoryId);
+                    categoryNames.remove(categoryId);
+                    diagramRecommender.forgetCategory(categoryId);
+                    changeNotifier.categoryChanged(ChangeNotifier.ChangeKind.DELETED, categoryId);
+                    return true;
+                }
+            } catch (SQLException e) {
+                DELETE_CATEGORY_METRIC.recordError();
+                LOG.error("Error deleting category", e);
             }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            DELETE_CATEGORY_METRIC.record(start);
         }
-        return false;
     }
     /**
      deleteConcept(): Removes concept from the database.
@@ -415,29 +736,55 @@ public class DatabaseManager {
       * @return true if the deletion was successful, false otherwise.
      **/
     public boolean deleteConcept(int conceptId) {
-        // SQL statement to delete a concept based on its ID
-        String sql = "DELETE FROM Concept WHERE Concept_ID = ?";
-       deleteComponentsByConceptId(conceptId); // This method would handle deleting components related to the concept.
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            // Set the ID parameter for the delete operation
-            pstmt.setInt(1, conceptId);
+        long start = METRICS.start();
+        try {
+            Concept deleted = hierarchy.getConcept(conceptId);
+            if (deleted == null) {
+                return false; // Nothing to delete, so leave the database and the versions alone
+            }
 
-            // Execute the delete statement
-            int affectedRows = pstmt.executeUpdate();
+            // The concept, its components, and its relationships go together or not at all
+            try (Connection conn = this.connect()) {
+                conn.setAutoCommit(false);
+                int affectedRows;
+                try (PreparedStatement deleteComponents = conn.prepareStatement("DELETE FROM Component WHERE Concept_ID = ?");
+                     PreparedStatement deleteRelations = conn.prepareStatement("DELETE FROM ConceptRelation WHERE Source_Concept_ID = ? OR Target_Concept_ID = ?");
+                     PreparedStatement deleteConcept = conn.prepareStatement("DELETE FROM Concept WHERE Concept_ID = ?")) {
+                    deleteComponents.setInt(1, conceptId);
+                    deleteComponents.executeUpdate();
+                    deleteRelations.setInt(1, conceptId);
+                    deleteRelations.setInt(2, conceptId);
+                    deleteRelations.executeUpdate();
+                    deleteConcept.setInt(1, conceptId);
+                    affectedRows = deleteConcept.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
 
-            // Check if the delete operation was successful
-            if (affectedRows > 0) {
-                // Remove the concept from the in-memory list
-                concepts.removeIf(concept -> concept.getId() == conceptId);
-                return true;
+                // Check if the delete operation was successful
+                if (affectedRows > 0) {
+                    touchCategory(getCategoryIdOfConcept(conceptId));
+                    forgetComponentsOfConcept(conceptId);
+                    forgetRelationsOfConcept(conceptId);
+                    // Remove the concept from the in-memory list
+                    dropFromLists(deleted);
+                    hierarchy.removeConcept(conceptId);
+                    unindexConceptTopic(conceptId);
+                    unindexConceptText(conceptId);
+                    diagramRecommender.forgetConcept(conceptId);
+                    changeNotifier.conceptChanged(ChangeNotifier.ChangeKind.DELETED, conceptId);
+                    return true;
+                }
+            } catch (SQLException e) {
+                DELETE_CONCEPT_METRIC.recordError();
+                LOG.error("Error deleting concept", e);
             }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            return false; // Return false if deletion was unsuccessful
+        } finally {
+            DELETE_CONCEPT_METRIC.record(start);
         }
-        return false; // Return false if deletion was unsuccessful
     }
     /**
      deleteComponent(): Removes component from the database.
@@ -445,43 +792,107 @@ public class DatabaseManager {
       * @return true if the deletion was successful, false otherwise.
      **/
     public boolean deleteComponent(String componentTopic) {
-        String sql = "DELETE FROM Component WHERE Component_Topic = ?";
-
-        try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, componentTopic);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                components.removeIf(component -> component.getTopic().equals(componentTopic));
-                System.out.println("Component deleted successfully from the database and in-memory list.");
-                return true;
+        long start = METRICS.start();
+        try {
+            String sql = "DELETE FROM Component WHERE Component_Topic = ?";
+
+            try (Connection conn = this.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, componentTopic);
+
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    for (Component component : findComponentsByTopic(componentTopic)) {
+                        touchCategory(getCategoryIdOfConcept(component.getConceptId()));
+                        unindexComponentText(component.getConceptId(), componentTopic);
+                        dropFromLists(component);
+                        hierarchy.removeComponent(component.getConceptId(), componentTopic);
+                        unindexComponentTopic(component.getConceptId(), componentTopic);
+                        changeNotifier.componentChanged(ChangeNotifier.ChangeKind.DELETED, componentKey(component.getConceptId(), componentTopic));
+                    }
+                    LOG.debug("Component deleted successfully from the database and in-memory list.");
+                    return true;
+                }
+            } catch (SQLException e) {
+                DELETE_COMPONENT_METRIC.recordError();
+                LOG.error("Error deleting component", e);
             }
-        } catch (SQLException e) {
-            System.out.println("Error deleting component: " + e.getMessage());
+            return false;
+        } finally {
+            DELETE_COMPONENT_METRIC.record(start);
         }
-        return false;
     }
     /**
-     deleteComponentByConceptId(): Removes component(s) by concept id from the database.
-     * @param conceptId The ID of the concept whose components are to be deleted.
+     forgetComponentsOfConcept(): Removes a deleted concept's components from memory; deleteConcept() has already removed their rows.
+     * @param conceptId The ID of the concept whose components were deleted.
      **/
-    private void deleteComponentsByConceptId(int conceptId) {
-        String sql = "DELETE FROM Component WHERE Concept_ID = ?";
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    private void forgetComponentsOfConcept(int conceptId) {
+        for (Component component : hierarchy.getComponents(conceptId)) {
+            unindexComponentText(conceptId, component.getTopic());
+            dropFromLists(component);
+            unindexComponentTopic(conceptId, component.getTopic());
+            changeNotifier.componentChanged(ChangeNotifier.ChangeKind.DELETED, componentKey(conceptId, component.getTopic()));
+        }
+    }
 
-            // Set the Concept_ID parameter for the delete operation
-            pstmt.setInt(1, conceptId);
+    /**
+     forgetRelationsOfConcept(): Removes a deleted concept's relationships from the graph, and marks its neighbors' categories changed.
+     * @param conceptId The ID of the concept whose relationships were deleted.
+     **/
+    private void forgetRelationsOfConcept(int conceptId) {
+        for (int neighborId : getConceptGraph().removeConcept(conceptId)) {
+            touchCategory(getCategoryIdOfConcept(neighborId));
+        }
+    }
 
-            // Execute the delete statement for components
-            pstmt.executeUpdate();
+    /**
+     findComponentsByTopic(): Gathers every component with exactly the given topic, looking them up through the topic index
+     instead of scanning all components.
+     * @param componentTopic the topic to look for
+     * @return the matching components
+     **/
+    private List<Component> findComponentsByTopic(String componentTopic) {
+        ensureTopicIndexes();
+        List<Component> found = new ArrayList<>();
+        for (String key : componentTopics.findExact(componentTopic)) {
+            int conceptId = Integer.parseInt(key.substring(key.indexOf(':') + 1, key.indexOf(':', key.indexOf(':') + 1)));
+            for (Component component : hierarchy.getComponents(conceptId)) {
+                if (component.getTopic().equals(componentTopic)) {
+                    found.add(component);
+                }
+            }
+        }
+        return found;
+    }
 
-            // Optionally, update the in-memory list of components
-            components.removeIf(component -> component.getConceptId() == conceptId);
+    /**
+     dropFromLists(): Marks a deleted entry for removal from the flat lists. Removing from the middle of an ArrayList shifts
+     everything after it, so the lists are compacted in one pass once enough entries are marked or when they are next read.
+     * @param entry the deleted category, concept, or component
+     **/
+    private void dropFromLists(Object entry) {
+        if (entry == null) {
+            return;
+        }
+        synchronized (droppedEntries) {
+            droppedEntries.add(entry);
+            if (droppedEntries.size() > Math.max(MIN_DROPPED_ENTRIES, (categories.size() + concepts.size() + components.size()) / 8)) {
+                compactLists();
+            }
+        }
+    }
 
-        } catch (SQLException e) {
-            System.out.println("Error deleting components for concept ID " + conceptId + ": " + e.getMessage());
+    /**
+     compactLists(): Removes every marked entry from the flat lists in a single pass.
+     **/
+    private void compactLists() {
+        synchronized (droppedEntries) {
+            if (droppedEntries.isEmpty()) {
+                return;
+            }
+            categories.removeIf(droppedEntries::contains);
+            concepts.removeIf(droppedEntries::contains);
+            components.removeIf(droppedEntries::contains);
+            droppedEntries.clear();
         }
     }
 
@@ -494,38 +905,37 @@ public class DatabaseManager {
      * @return a list of all concepts updated from the database.
      **/
     public List<Concept> getConcepts() {
+        compactLists();
         return this.concepts;
     }
     /**
      getCategories(): Gathers lists from categories, concepts, and components stored in the database.
-     * @return a list of all categories updated from the database.
+     * @return a list of all categories, kept in step with the database by every change.
      **/
     public List<Category> getCategories() {
-        List<Category> updatedCategories = new ArrayList<>();
-        String sql = "SELECT * FROM Category";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            while (rs.next()) {
-                // Assuming you have a constructor that accepts id and topic
-                updatedCategories.add(new Category(rs.getInt("Category_ID"), rs.getString("Category_Topic")));
-            }
-            this.categories = updatedCategories; // Update the in-memory list
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
-        }
+        compactLists();
         return this.categories;
     }
+    /**
+     getComponents(): Gathers lists from categories, concepts, and components stored in the database.
+     * @return a list of all components loaded from the database.
+     **/
+    public List<Component> getComponents() {
+        compactLists();
+        return this.components;
+    }
     /**
      getConcept(): Gathers single entries based on IDs.
      * @param conceptId the ID of the concept to retrieve.
      * @return the concept if found, or null if no concept with the given ID exists.
      **/
     public Concept getConcept(int conceptId) {
-        return concepts.stream()
-                .filter(concept -> concept.getId() == conceptId)
-                .findFirst()
-                .orElse(null);
+        long start = METRICS.start();
+        try {
+            return hierarchy.getConcept(conceptId);
+        } finally {
+            GET_CONCEPT_METRIC.record(start);
+        }
     }
 
     /**
@@ -534,10 +944,13 @@ public class DatabaseManager {
      * @return the component if found, or null if no component with the given topic exists.
      **/
     public Component getComponent(String componentTopic) {
-        return components.stream()
-                .filter(component -> component.getTopic().equals(componentTopic))
-                .findFirst()
-                .orElse(null);
+        long start = METRICS.start();
+        try {
+            List<Component> found = findComponentsByTopic(componentTopic);
+            return found.isEmpty() ? null : found.get(0);
+        } finally {
+            GET_COMPONENT_METRIC.record(start);
+        }
     }
     /**
      getCategory(): Gathers single entries based on IDs.
@@ -545,10 +958,12 @@ public class DatabaseManager {
      * @return the category if found, or null if no category with the given ID exists.
      **/
     public Category getCategory(int categoryId) {
-        return categories.stream()
-                .filter(category -> category.getId() == categoryId)
-                .findFirst()
-                .orElse(null);
+        long start = METRICS.start();
+        try {
+            return hierarchy.getCategory(categoryId);
+        } finally {
+            GET_CATEGORY_METRIC.record(start);
+        }
     }
     /**
      getCategoryById(): Gathers single entries based on IDs.
@@ -556,12 +971,20 @@ public class DatabaseManager {
      * @return the found category or null if no category with such ID exists.
      **/
     public Category getCategoryById(int id) {
-        for (Category category : categories) {
-            if (category.getId() == id) {
-                return category;
-            }
+        long start = METRICS.start();
+        try {
+            return hierarchy.getCategory(id);
+        } finally {
+            GET_CATEGORY_BY_ID_METRIC.record(start);
         }
-        return null; // Category not found
+    }
+
+    /**
+     getHierarchy(): Gathers the materialized Category -> Concept -> Component tree. It is updated in place on every change, so views can walk it with traverse() instead of rebuilding it.
+     * @return the hierarchy
+     **/
+    public LibraryHierarchy getHierarchy() {
+        return hierarchy;
     }
 
 
@@ -569,54 +992,84 @@ public class DatabaseManager {
      UTILITY METHODS
      **/
     /**
-     setUIUpdateListener(): Sets a listener to update the UI when data changes have occurred.
+     setUIUpdateListener(): Sets a listener to update the UI when data changes have occurred. It is called once per burst of changes, on the EDT.
      * @param listener the UI update listener to be notified of changes
      **/
     public void setUIUpdateListener(MainApplicationWindow.UIUpdateListener listener) {
+        if (uiUpdateAdapter != null) {
+            changeNotifier.removeListener(uiUpdateAdapter);
+            uiUpdateAdapter = null;
+        }
         this.uiUpdateListener = listener;
+        if (listener != null) {
+            uiUpdateAdapter = changes -> listener.updateUI();
+            changeNotifier.addListener(uiUpdateAdapter);
+        }
+    }
+
+    /**
+     getChangeNotifier(): Gathers the notifier that reports inserted, updated, and deleted entries to the views, one burst at a time.
+     * @return the change notifier
+     **/
+    public ChangeNotifier getChangeNotifier() {
+        return changeNotifier;
     }
     /**
-     connect(): Establishes a connection to the database.
+     connect(): Establishes a connection to the database, traced by SqlTrace while tracing is on.
      * @return a connection to the database
      **/
     public Connection connect() {
-        if (dataFilePath == null || dataFilePath.isEmpty()) {
-            throw new IllegalStateException("Database file path is not set.");
-        }
-        String url = "jdbc:sqlite:" + this.dataFilePath;
-        Connection conn = null;
+        long start = METRICS.start();
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection(url);
-            System.out.println("Connection to SQLite has been established.");
-        } catch (SQLException e) {
-            System.out.println("Connection failed: " + e.getMessage());
-        } catch (ClassNotFoundException e) {
-            System.out.println("SQLite JDBC Driver not found: " + e.getMessage());
+            if (dataFilePath == null || dataFilePath.isEmpty()) {
+                throw new IllegalStateException("Database file path is not set.");
+            }
+            String url = "jdbc:sqlite:" + this.dataFilePath;
+            Connection conn = null;
+            try {
+                Class.forName("org.sqlite.JDBC");
+                conn = SqlTrace.wrap(DriverManager.getConnection(url));
+                connectionsOpened.increment();
+                LOG.debug("Connection to SQLite has been established.");
+            } catch (SQLException e) {
+                CONNECT_METRIC.recordError();
+                LOG.error("Connection failed", e);
+            } catch (ClassNotFoundException e) {
+                CONNECT_METRIC.recordError();
+                LOG.error("SQLite JDBC Driver not found", e);
+            }
+            return conn;
+        } finally {
+            CONNECT_METRIC.record(start);
         }
-        return conn;
     }
     /**
      generateNewComponentId(): Create a new ID for a component.
      * @return the newly generated unique component ID
      **/
     public int generateNewComponentId() {
-        String sql = "SELECT MAX(Component_ID) as maxId FROM Component";
-        int id = 0;
+        long start = METRICS.start();
+        try {
+            String sql = "SELECT MAX(rowid) as maxId FROM Component"; // Component has no ID column; rowid identifies its rows
+            int id = 0;
 
-        try (Connection conn = this.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = this.connect();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
 
-            // Get the highest ID and increment it
-            if (rs.next()) {
-                id = rs.getInt("maxId") + 1;
+                // Get the highest ID and increment it
+                if (rs.next()) {
+                    id = rs.getInt("maxId") + 1;
+                }
+            } catch (SQLException e) {
+                GENERATE_NEW_COMPONENT_ID_METRIC.recordError();
+                LOG.error("Error generating new component ID", e);
             }
-        } catch (SQLException e) {
-            System.err.println("Error generating new component ID: " + e.getMessage());
-        }
 
-        return id;
+            return id;
+        } finally {
+            GENERATE_NEW_COMPONENT_ID_METRIC.record(start);
+        }
     }
 
 
@@ -624,113 +1077,153 @@ public class DatabaseManager {
      DATA PERSISTENCE METHODS
      **/
     /**
-     saveAllData(): Saves the current state of the database to a file.
+     saveAllData(): Saves the current state of the database to a file. Every change is already written to a SQLite database as it is made,
+     so a database file is left alone; only a JSON data file is rewritten.
      **/
     public void saveAllData() {
-        if (this.dataFilePath == null || this.dataFilePath.isEmpty()) {
-            System.err.println("Data file path is not specified. Data not saved.");
-            return;
-        }
+        saveAllData(this.dataFilePath);
+    }
 
-        // Backup the existing file before overwriting
-        File file = new File(this.dataFilePath);
-        File backupFile = new File(this.dataFilePath + ".bak");
-        if (file.exists()) {
-            try {
-                Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException e) {
-                System.err.println("Failed to create backup file: " + e.getMessage());
-                return; // Stop the save operation if backup fails
+    /**
+     saveAllData(): Saves the current state as JSON to the given file, keeping a .bak copy of what it replaces. A SQLite database is left alone.
+     * @param filePath the JSON file to write
+     **/
+    public void saveAllData(String filePath) {
+        long start = METRICS.start();
+        try {
+            if (filePath == null || filePath.isEmpty()) {
+                LOG.error("Data file path is not specified. Data not saved.");
+                return;
             }
-        }
 
-        // Check that data is not null
-        if (concepts == null || components == null || categories == null) {
-            System.err.println("Attempted to save null data. Operation aborted.");
-            return; // Don't overwrite existing data with null
-        }
+            // Never write JSON over the database itself
+            File file = new File(filePath);
+            if (isSqliteDatabase(file)) {
+                LOG.info("All changes are already saved in " + file.getName() + ".");
+                return;
+            }
+
+            // Backup the existing file before overwriting
+            File backupFile = new File(filePath + ".bak");
+            if (file.exists()) {
+                try {
+                    Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    SAVE_ALL_DATA_METRIC.recordError();
+                    LOG.error("Failed to create backup file", e);
+                    return; // Stop the save operation if backup fails
+                }
+            }
 
-        // Proceed with saving data
-        Gson gson = new Gson();
-        Map<String, Object> allData = new HashMap<>();
-        allData.put("concepts", concepts);
-        allData.put("components", components);
-        allData.put("categories", categories);
+            // Check that data is not null
+            if (concepts == null || components == null || categories == null) {
+                LOG.error("Attempted to save null data. Operation aborted.");
+                return; // Don't overwrite existing data with null
+            }
 
-        try (Writer writer = new FileWriter(this.dataFilePath)) {
-            gson.toJson(allData, writer);
-        } catch (IOException e) {
-            System.err.println("Error saving data to file: " + e.getMessage());
-            // Attempt to restore from backup
-            try {
-                Files.copy(backupFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                System.err.println("Data restored from backup due to save failure.");
-            } catch (IOException ex) {
-                System.err.println("Failed to restore data from backup: " + ex.getMessage());
+            // Proceed with saving data
+            Gson gson = new Gson();
+            Map<String, Object> allData = new HashMap<>();
+            allData.put("concepts", concepts);
+            allData.put("components", components);
+            allData.put("categories", categories);
+
+            try (Writer writer = new FileWriter(filePath)) {
+                gson.toJson(allData, writer);
+            } catch (IOException e) {
+                SAVE_ALL_DATA_METRIC.recordError();
+                LOG.error("Error saving data to file", e);
+                // Attempt to restore from backup
+                try {
+                    Files.copy(backupFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    LOG.warn("Data restored from backup due to save failure.");
+                } catch (IOException ex) {
+                    SAVE_ALL_DATA_METRIC.recordError();
+                    LOG.error("Failed to restore data from backup", ex);
+                }
+            }
+        } finally {
+            SAVE_ALL_DATA_METRIC.record(start);
+        }
+    }
+    /**
+     isSqliteDatabase(): Checks whether a file starts with the SQLite database header.
+     **/
+    private static boolean isSqliteDatabase(File file) {
+        byte[] header = new byte[SQLITE_HEADER.length];
+        try (InputStream in = new FileInputStream(file)) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
             }
+            return Arrays.equals(header, SQLITE_HEADER);
+        } catch (IOException e) {
+            return false;
         }
     }
+
+    /**
+     getDataFilePath(): Gathers the database file that queries and changes go to.
+     * @return the path of the database file
+     **/
+    public String getDataFilePath() {
+        return dataFilePath;
+    }
+
     /**
-     loadDataFromFile(): Loads data from a file path into the application.
+     loadDataFromFile(): Loads data from a file path into the application. Once it has loaded, the file becomes the database that every
+     later query and change uses, so the lists in memory and the database always describe the same library.
      * @param filepath the path to the file from which data is to be loaded
      * @return true if data loading is successful, false otherwise
      **/
     public boolean loadDataFromFile(String filepath) {
-        Connection conn = null;
-        Statement stmt = null;
-        boolean isSuccess = true;
-
+        long start = METRICS.start();
         try {
-            // Establish the connection to the database
-            String url = "jdbc:sqlite:" + filepath;
-            conn = DriverManager.getConnection(url);
-            stmt = conn.createStatement();
-
-            // Clear the current lists to avoid duplication
-            categories.clear();
-            concepts.clear();
-            components.clear();
-
-            // Load categories from the database file
-            ResultSet rsCategories = stmt.executeQuery("SELECT * FROM Category");
-            while (rsCategories.next()) {
-                categories.add(new Category(rsCategories.getInt("Category_ID"), rsCategories.getString("Category_Topic")));
-            }
-            rsCategories.close();
-
-            // Load concepts from the database file
-            ResultSet rsConcepts = stmt.executeQuery("SELECT * FROM Concept");
-            while (rsConcepts.next()) {
-                concepts.add(new Concept(rsConcepts.getInt("Concept_ID"), rsConcepts.getString("Concept_Topic"),
-                        rsConcepts.getString("Category_ID"), rsConcepts.getString("Concept_Details")));
-            }
-            rsConcepts.close();
+            Connection conn = null;
+            Statement stmt = null;
+            boolean isSuccess = true;
 
-            // Load components from the database file
-            ResultSet rsComponents = stmt.executeQuery("SELECT * FROM Component");
-            while (rsComponents.next()) {
-                components.add(new Component(rsComponents.getString("Component_Topic"),
-                        rsComponents.getString("Component_Description"), rsComponents.getInt("Concept_ID")));
+            try {
+                // Establish the connection to the database
+                String url = "jdbc:sqlite:" + filepath;
+                conn = SqlTrace.wrap(DriverManager.getConnection(url));
+                stmt = conn.createStatement();
+
+                // Read everything into new lists first, so a file that can't be read leaves the current library untouched
+                List<Category> loadedCategories = loadCategories(stmt);
+                List<Concept> loadedConcepts = loadConcepts(stmt);
+                List<Component> loadedComponents = loadComponents(stmt);
+                ConceptGraph.Builder loadedRelations = loadRelations(stmt);
+                for (String sqlIndex : SQL_CREATE_BROWSE_INDEXES) {
+                    stmt.execute(sqlIndex);
+                }
+                installLibrary(loadedCategories, loadedConcepts, loadedComponents, loadedRelations);
+                this.dataFilePath = filepath;
+
+                // Tell the listeners (including the UI update listener) that everything changed
+                changeNotifier.reloaded();
+            } catch (SQLException e) {
+                LOAD_DATA_FROM_FILE_METRIC.recordError();
+                LOG.error("Error loading data from " + filepath, e);
+                isSuccess = false; // Set isSuccess to false if any exception is caught
+            } finally {
+                try {
+                    if (stmt != null) stmt.close();
+                    if (conn != null) conn.close();
+                } catch (SQLException ex) {
+                    LOAD_DATA_FROM_FILE_METRIC.recordError();
+                    LOG.error("Error closing the connection to " + filepath, ex);
+                }
             }
-            rsComponents.close();
 
-            // Notify UI update listener if available
-            if (uiUpdateListener != null) {
-                uiUpdateListener.updateUI();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            isSuccess = false; // Set isSuccess to false if any exception is caught
+            return isSuccess;
         } finally {
-            try {
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+            LOAD_DATA_FROM_FILE_METRIC.record(start);
         }
-
-        return isSuccess;
     }
 
 
@@ -757,7 +1250,7 @@ public class DatabaseManager {
                 addCategory(new Category((Integer) params[0], (String) params[1]));
                 break;
             default:
-                System.out.println("Invalid object type for addition.");
+                LOG.warn("Invalid object type for addition.");
         }
     }
     /**
@@ -792,7 +1285,7 @@ public class DatabaseManager {
                 updateCategory((Integer) params[0], (String) params[1]);
                 break;
             default:
-                System.out.println("Invalid object type for update.");
+                LOG.warn("Invalid object type for update.");
         }
     }
     /**
@@ -813,7 +1306,7 @@ public class DatabaseManager {
                 deleteCategory((Integer) params[0]);
                 break;
             default:
-                System.out.println("Invalid object type for removal.");
+                LOG.warn("Invalid object type for removal.");
         }
     }
 
@@ -827,24 +1320,12 @@ public class DatabaseManager {
      * @return a list of concepts belonging to the specified category
      **/
     public List<Concept> getConceptsByCategoryId(int categoryId) {
-        List<Concept> concepts = new ArrayList<>();
-        String sql = "SELECT * FROM Concept WHERE Category_ID = ?";
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, categoryId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Concept concept = new Concept(rs.getInt("Concept_ID"), rs.getString("Concept_Topic"), rs.getString("Category_ID"), rs.getString("Concept_Details"));
-                concepts.add(concept);
-            }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+        long start = METRICS.start();
+        try {
+            return hierarchy.getConcepts(categoryId);
+        } finally {
+            GET_CONCEPTS_BY_CATEGORY_ID_METRIC.record(start);
         }
-
-        return concepts;
     }
     /**
      getComponentsByConceptId(): Gathers concepts or components by an ID.
@@ -852,25 +1333,12 @@ public class DatabaseManager {
      * @return a list of components belonging to the specified concept
      **/
     public List<Component> getComponentsByConceptId(int conceptId) {
-        List<Component> componentsList = new ArrayList<>();
-        String sql = "SELECT Component_Topic, Component_Description FROM Component WHERE Concept_ID = ?";
-
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, conceptId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                String topic = rs.getString("Component_Topic");
-                String description = rs.getString("Component_Description");
-                Component component = new Component(topic, description, conceptId);
-                componentsList.add(component);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading components by concept ID: " + e.getMessage());
+        long start = METRICS.start();
+        try {
+            return hierarchy.getComponents(conceptId);
+        } finally {
+            GET_COMPONENTS_BY_CONCEPT_ID_METRIC.record(start);
         }
-
-        return componentsList;
     }
     /**
      addComponentToConcept(): Adds a component to a concept.
@@ -878,11 +1346,16 @@ public class DatabaseManager {
      * @param component the component to be added to the concept
      **/
     public void addComponentToConcept(int conceptId, Component component) {
-        Concept concept = getConcept(conceptId);
-        if (concept != null) {
-            addComponent(component);
-        } else {
-            System.out.println("Concept with ID " + conceptId + " does not exist.");
+        long start = METRICS.start();
+        try {
+            Concept concept = getConcept(conceptId);
+            if (concept != null) {
+                addComponent(component);
+            } else {
+                LOG.warn("Concept with ID " + conceptId + " does not exist.");
+            }
+        } finally {
+            ADD_COMPONENT_TO_CONCEPT_METRIC.record(start);
         }
     }
 
@@ -892,12 +1365,854 @@ public class DatabaseManager {
      * @return the found category, or null if no such category exists
      **/
     public Category findCategoryByName(String name) {
-        for (Category category : categories) {
-            if (category.getTopic().equalsIgnoreCase(name)) {
-                return category; // Return the category if found
+        long start = METRICS.start();
+        try {
+            for (Integer categoryId : categoryNames.findExact(name)) {
+                Category category = hierarchy.getCategory(categoryId);
+                if (category != null) {
+                    return category; // Return the category if found
+                }
+            }
+            return null; // Return null if the category is not found
+        } finally {
+            FIND_CATEGORY_BY_NAME_METRIC.record(start);
+        }
+    }
+
+
+    /**
+     RELATIONSHIP METHODS: Stores typed concept-to-concept relationships and answers graph queries from an in-memory CSR adjacency structure.
+     **/
+    /**
+     addRelation(): Adds a relationship between two existing concepts.
+     * @param relation the relationship to add
+     * @return true if the relationship was added, false if a concept is missing or the relationship already exists
+     **/
+    public boolean addRelation(ConceptRelation relation) {
+        long start = METRICS.start();
+        try {
+            if (getConcept(relation.getSourceConceptId()) == null || getConcept(relation.getTargetConceptId()) == null) {
+                LOG.warn("Both concepts must exist before they can be related.");
+                return false;
+            }
+
+            String sql = "INSERT INTO ConceptRelation (Source_Concept_ID, Target_Concept_ID, Relation_Type) VALUES (?, ?, ?)";
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, relation.getSourceConceptId());
+                pstmt.setInt(2, relation.getTargetConceptId());
+                pstmt.setString(3, relation.getType().name());
+
+                if (pstmt.executeUpdate() > 0) {
+                    getConceptGraph().addEdge(relation.getSourceConceptId(), relation.getTargetConceptId(), relation.getType());
+                    touchCategory(getCategoryIdOfConcept(relation.getSourceConceptId()));
+                    touchCategory(getCategoryIdOfConcept(relation.getTargetConceptId()));
+                    return true;
+                }
+            } catch (SQLException e) {
+                ADD_RELATION_METRIC.recordError();
+                LOG.error("Error adding relationship", e);
+            }
+            return false;
+        } finally {
+            ADD_RELATION_METRIC.record(start);
+        }
+    }
+
+    /**
+     deleteRelation(): Removes a relationship between two concepts.
+     * @param sourceConceptId the ID of the concept the relationship starts from
+     * @param targetConceptId the ID of the concept the relationship points to
+     * @param type the kind of relationship to remove
+     * @return true if the relationship was removed, false otherwise
+     **/
+    public boolean deleteRelation(int sourceConceptId, int targetConceptId, ConceptRelation.RelationType type) {
+        long start = METRICS.start();
+        try {
+            String sql = "DELETE FROM ConceptRelation WHERE Source_Concept_ID = ? AND Target_Concept_ID = ? AND Relation_Type = ?";
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, sourceConceptId);
+                pstmt.setInt(2, targetConceptId);
+                pstmt.setString(3, type.name());
+
+                if (pstmt.executeUpdate() > 0) {
+                    getConceptGraph().removeEdge(sourceConceptId, targetConceptId, type);
+                    touchCategory(getCategoryIdOfConcept(sourceConceptId));
+                    touchCategory(getCategoryIdOfConcept(targetConceptId));
+                    return true;
+                }
+            } catch (SQLException e) {
+                DELETE_RELATION_METRIC.recordError();
+                LOG.error("Error deleting relationship", e);
+            }
+            return false;
+        } finally {
+            DELETE_RELATION_METRIC.record(start);
+        }
+    }
+
+    /**
+     getRelationsForConcept(): Gathers the relationships that start or end at a concept.
+     * @param conceptId the ID of the concept
+     * @return a list of the concept's relationships
+     **/
+    public List<ConceptRelation> getRelationsForConcept(int conceptId) {
+        long start = METRICS.start();
+        try {
+            List<ConceptRelation> relations = new ArrayList<>();
+            String sql = "SELECT Source_Concept_ID, Target_Concept_ID, Relation_Type FROM ConceptRelation WHERE Source_Concept_ID = ? OR Target_Concept_ID = ?";
+
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, conceptId);
+                pstmt.setInt(2, conceptId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        relations.add(new ConceptRelation(rs.getInt(1), rs.getInt(2), ConceptRelation.RelationType.fromString(rs.getString(3))));
+                    }
+                }
+            } catch (SQLException e) {
+                GET_RELATIONS_FOR_CONCEPT_METRIC.recordError();
+                LOG.error("Error loading relationships by concept ID", e);
+            }
+            return relations;
+        } finally {
+            GET_RELATIONS_FOR_CONCEPT_METRIC.record(start);
+        }
+    }
+
+    /**
+     getConceptGraph(): Gathers the adjacency structure, building it from the loaded relationships the first time it is needed after a load.
+     Relationship edits are applied to the returned graph in place, so it is never rebuilt for a single change.
+     * @return the current concept graph
+     **/
+    public synchronized ConceptGraph getConceptGraph() {
+        if (conceptGraph == null) {
+            conceptGraph = relationEdges.build();
+            relationEdges = null; // The graph owns the edges from here on
+            graphBuilds.increment();
+        }
+        return conceptGraph;
+    }
+
+    private synchronized long getGraphCompactionCount() {
+        return conceptGraph == null ? 0 : conceptGraph.compactionCount();
+    }
+
+    /**
+     getNeighborConceptIds(): Gathers the concepts directly related to a concept, in either direction.
+     * @param conceptId the ID of the concept
+     * @return the IDs of the related concepts
+     **/
+    public int[] getNeighborConceptIds(int conceptId) {
+        long start = METRICS.start();
+        try {
+            return getConceptGraph().getNeighbors(conceptId);
+        } finally {
+            GET_NEIGHBOR_CONCEPT_IDS_METRIC.record(start);
+        }
+    }
+
+    /**
+     getConceptIdsWithinHops(): Gathers every concept reachable within a number of relationship hops.
+     * @param conceptId the ID of the starting concept
+     * @param hops the maximum number of relationships to follow
+     * @return the IDs of the reached concepts, nearest first
+     **/
+    public int[] getConceptIdsWithinHops(int conceptId, int hops) {
+        long start = METRICS.start();
+        try {
+            return getConceptGraph().expand(conceptId, hops);
+        } finally {
+            GET_CONCEPT_IDS_WITHIN_HOPS_METRIC.record(start);
+        }
+    }
+
+    /**
+     findShortestConceptPath(): Finds the shortest chain of relationships linking two concepts.
+     * @param fromConceptId the ID of the starting concept
+     * @param toConceptId the ID of the destination concept
+     * @return the concept IDs along the path, including both ends, or an empty array if they aren't connected
+     **/
+    public int[] findShortestConceptPath(int fromConceptId, int toConceptId) {
+        long start = METRICS.start();
+        try {
+            return getConceptGraph().shortestPath(fromConceptId, toConceptId);
+        } finally {
+            FIND_SHORTEST_CONCEPT_PATH_METRIC.record(start);
+        }
+    }
+
+
+    /**
+     DUPLICATE DETECTION METHODS: Warns about near-duplicate concepts and components using a MinHash/LSH index of their text.
+     **/
+    /**
+     setDuplicateCheckEnabled(): Turns the near-duplicate warning in addConcept() and addComponent() on or off.
+     * @param enabled true to check new entries against the existing library
+     **/
+    public void setDuplicateCheckEnabled(boolean enabled) {
+        this.duplicateCheckEnabled = enabled;
+    }
+
+    /**
+     isDuplicateCheckEnabled(): Checks whether new entries are compared against the existing library.
+     * @return true if the near-duplicate warning is on
+     **/
+    public boolean isDuplicateCheckEnabled() {
+        return duplicateCheckEnabled;
+    }
+
+    /**
+     findSimilarConcepts(): Gathers existing concepts whose topic and details closely match the given text.
+     * @param topic the topic of the new or edited concept
+     * @param details the details of the new or edited concept
+     * @return the matching concepts, most similar first
+     **/
+    public List<DuplicateIndex.Match> findSimilarConcepts(String topic, String details) {
+        long start = METRICS.start();
+        try {
+            ensureDuplicateIndexes();
+            return conceptDuplicates.findSimilar(topic + " " + details, null);
+        } finally {
+            FIND_SIMILAR_CONCEPTS_METRIC.record(start);
+        }
+    }
+
+    /**
+     findSimilarComponents(): Gathers existing components whose topic and description closely match the given text.
+     * @param topic the topic of the new or edited component
+     * @param details the description of the new or edited component
+     * @return the matching components, most similar first
+     **/
+    public List<DuplicateIndex.Match> findSimilarComponents(String topic, String details) {
+        long start = METRICS.start();
+        try {
+            ensureDuplicateIndexes();
+            return componentDuplicates.findSimilar(topic + " " + details, null);
+        } finally {
+            FIND_SIMILAR_COMPONENTS_METRIC.record(start);
+        }
+    }
+
+    /**
+     findDuplicatesReport(): Gathers every near-duplicate pair of concepts, then of components, across the whole library.
+     * @return the near-duplicate pairs
+     **/
+    public List<DuplicateIndex.Match> findDuplicatesReport() {
+        long start = METRICS.start();
+        try {
+            ensureDuplicateIndexes();
+            List<DuplicateIndex.Match> report = new ArrayList<>(conceptDuplicates.findAllDuplicates());
+            report.addAll(componentDuplicates.findAllDuplicates());
+            return report;
+        } finally {
+            FIND_DUPLICATES_REPORT_METRIC.record(start);
+        }
+    }
+
+    /**
+     invalidateIndexes(): Marks the topic and duplicate indexes out of date after a full load and rebuilds them on a background thread,
+     topics first, so the load itself doesn't wait for every topic to be filed and every text to be hashed.
+     **/
+    private void invalidateIndexes() {
+        synchronized (topicLock) {
+            topicIndexesStale = true;
+        }
+        synchronized (duplicateLock) {
+            duplicateIndexesStale = true;
+        }
+        Thread builder = new Thread(() -> {
+            ensureTopicIndexes();
+            ensureDuplicateIndexes();
+        }, "index-builder");
+        builder.setDaemon(true);
+        builder.setPriority(Thread.MIN_PRIORITY);
+        builder.start();
+    }
+
+    /**
+     awaitIndexes(): Waits until the topic and duplicate indexes of the last load are built, for callers that time something else.
+     **/
+    void awaitIndexes() {
+        ensureTopicIndexes();
+        ensureDuplicateIndexes();
+    }
+
+    /**
+     estimateTopicIndexBytes(), estimateDuplicateIndexBytes(): Estimate the heap the topic and duplicate indexes take, waiting for
+     them to be built first if a load has happened since.
+     * @return the estimated bytes of the three topic indexes, or of the two duplicate indexes
+     **/
+    long estimateTopicIndexBytes() {
+        ensureTopicIndexes();
+        return categoryNames.estimateBytes() + conceptTopics.estimateBytes() + componentTopics.estimateBytes();
+    }
+
+    long estimateDuplicateIndexBytes() {
+        ensureDuplicateIndexes();
+        return conceptDuplicates.estimateBytes() + componentDuplicates.estimateBytes();
+    }
+
+    /**
+     ensureTopicIndexes(): Re-files every concept and component topic if a load has happened since the topic indexes were last built.
+     Callers wait for a rebuild already running on the index-builder thread instead of starting another.
+     **/
+    private void ensureTopicIndexes() {
+        synchronized (topicLock) {
+            if (!topicIndexesStale) {
+                return;
+            }
+            topicIndexesStale = false;
+            long start = METRICS.start();
+            conceptTopics.clear();
+            componentTopics.clear();
+            for (Concept concept : new ArrayList<>(getConcepts())) {
+                conceptTopics.add(concept.getId(), concept.getTopic());
+            }
+            for (Component component : new ArrayList<>(getComponents())) {
+                componentTopics.add(componentKey(component.getConceptId(), component.getTopic()), component.getTopic());
+            }
+            BUILD_TOPIC_INDEXES_METRIC.record(start);
+        }
+    }
+
+    /**
+     indexConceptTopic(), unindexConceptTopic(), indexComponentTopic(), unindexComponentTopic(): Keep the topic indexes in step with
+     single changes. While the indexes are out of date the change is skipped; the next rebuild reads it from the in-memory lists.
+     **/
+    private void indexConceptTopic(int conceptId, String topic) {
+        synchronized (topicLock) {
+            if (!topicIndexesStale) {
+                conceptTopics.add(conceptId, topic);
+            }
+        }
+    }
+
+    private void unindexConceptTopic(int conceptId) {
+        synchronized (topicLock) {
+            if (!topicIndexesStale) {
+                conceptTopics.remove(conceptId);
+            }
+        }
+    }
+
+    private void indexComponentTopic(int conceptId, String topic) {
+        synchronized (topicLock) {
+            if (!topicIndexesStale) {
+                componentTopics.add(componentKey(conceptId, topic), topic);
+            }
+        }
+    }
+
+    private void unindexComponentTopic(int conceptId, String topic) {
+        synchronized (topicLock) {
+            if (!topicIndexesStale) {
+                componentTopics.remove(componentKey(conceptId, topic));
+            }
+        }
+    }
+
+    /**
+     ensureDuplicateIndexes(): Re-indexes every concept and component if a load has happened since the indexes were last built.
+     Callers wait for a rebuild already running on the index-builder thread instead of starting another.
+     **/
+    private void ensureDuplicateIndexes() {
+        synchronized (duplicateLock) {
+            if (!duplicateIndexesStale) {
+                return;
+            }
+            duplicateIndexesStale = false;
+            long start = METRICS.start();
+            conceptDuplicates.clear();
+            componentDuplicates.clear();
+            for (Concept concept : new ArrayList<>(getConcepts())) {
+                conceptDuplicates.add(conceptKey(concept.getId()), conceptLabel(concept.getId(), concept.getTopic()), concept.getTopic() + " " + concept.getDetails());
+            }
+            for (Component component : new ArrayList<>(getComponents())) {
+                componentDuplicates.add(componentKey(component.getConceptId(), component.getTopic()), componentLabel(component.getConceptId(), component.getTopic()), component.getTopic() + " " + component.getDetails());
+            }
+            BUILD_DUPLICATE_INDEXES_METRIC.record(start);
+        }
+    }
+
+    /**
+     indexConceptText(), unindexConceptText(), indexComponentText(), unindexComponentText(): Keep the duplicate indexes in step with
+     single changes. While the indexes are out of date the change is skipped; the next rebuild reads it from the in-memory lists.
+     **/
+    private void indexConceptText(int conceptId, String topic, String details) {
+        synchronized (duplicateLock) {
+            if (!duplicateIndexesStale) {
+                conceptDuplicates.add(conceptKey(conceptId), conceptLabel(conceptId, topic), topic + " " + details);
+            }
+        }
+    }
+
+    private void unindexConceptText(int conceptId) {
+        synchronized (duplicateLock) {
+            if (!duplicateIndexesStale) {
+                conceptDuplicates.remove(conceptKey(conceptId));
+            }
+        }
+    }
+
+    private void indexComponentText(int conceptId, String topic, String details) {
+        synchronized (duplicateLock) {
+            if (!duplicateIndexesStale) {
+                componentDuplicates.add(componentKey(conceptId, topic), componentLabel(conceptId, topic), topic + " " + details);
+            }
+        }
+    }
+
+    private void unindexComponentText(int conceptId, String topic) {
+        synchronized (duplicateLock) {
+            if (!duplicateIndexesStale) {
+                componentDuplicates.remove(componentKey(conceptId, topic));
+            }
+        }
+    }
+
+    /**
+     warnAboutDuplicates(): Logs a warning for the closest few matches found before an insert, and how many more there were.
+     Texts too short to compare (under DuplicateIndex's minimum shingle count) never produce matches, so they never warn.
+     * @param matches the close matches, most similar first
+     **/
+    private void warnAboutDuplicates(List<DuplicateIndex.Match> matches) {
+        int shown = Math.min(matches.size(), MAX_DUPLICATE_WARNINGS);
+        for (int i = 0; i < shown; i++) {
+            LOG.warn("This closely matches existing " + matches.get(i));
+        }
+        if (matches.size() > shown) {
+            LOG.warn("... and " + (matches.size() - shown) + " more close matches; see the duplicates report.");
+        }
+    }
+
+    private static String conceptKey(int conceptId) {
+        return "concept:" + conceptId;
+    }
+
+    private static String conceptLabel(int conceptId, String topic) {
+        return "concept '" + topic + "' (ID " + conceptId + ")";
+    }
+
+    static String componentKey(int conceptId, String topic) {
+        return "component:" + conceptId + ":" + topic;
+    }
+
+    private static String componentLabel(int conceptId, String topic) {
+        return "component '" + topic + "' (Concept ID " + conceptId + ")";
+    }
+
+
+    /**
+     DIAGRAM RECOMMENDATION METHODS: Recommends a diagram type from the measured structure of a category or concept.
+     **/
+    /**
+     recommendDiagramForCategory(): Recommends a diagram type for a category from its measured structure.
+     * @param categoryId the ID of the category
+     * @return the recommendation with its reasoning
+     **/
+    public DiagramRecommender.Recommendation recommendDiagramForCategory(int categoryId) {
+        long start = METRICS.start();
+        try {
+            return diagramRecommender.recommendForCategory(categoryId);
+        } finally {
+            RECOMMEND_DIAGRAM_FOR_CATEGORY_METRIC.record(start);
+        }
+    }
+
+    /**
+     recommendDiagramForConcept(): Recommends a diagram type for a concept from its measured structure.
+     * @param conceptId the ID of the concept
+     * @return the recommendation with its reasoning
+     **/
+    public DiagramRecommender.Recommendation recommendDiagramForConcept(int conceptId) {
+        long start = METRICS.start();
+        try {
+            return diagramRecommender.recommendForConcept(conceptId);
+        } finally {
+            RECOMMEND_DIAGRAM_FOR_CONCEPT_METRIC.record(start);
+        }
+    }
+
+    /**
+     getCategoryVersion(): Gathers a counter that changes whenever the category, its concepts, components, or relationships change.
+     * @param categoryId the ID of the category
+     * @return the category's current version
+     **/
+    public synchronized long getCategoryVersion(int categoryId) {
+        return ((long) loadGeneration << 32) | categoryVersions.getOrDefault(categoryId, 0);
+    }
+
+    /**
+     startLoadGeneration(): Starts a new load generation, which changes every category's version at once.
+     **/
+    private synchronized void startLoadGeneration() {
+        loadGeneration++;
+        categoryVersions.clear();
+    }
+
+    /**
+     getCategoryIdOfConcept(): Resolves the category a concept belongs to from the hierarchy.
+     * @param conceptId the ID of the concept
+     * @return the category's ID, or -1 if the concept can't be found
+     **/
+    public int getCategoryIdOfConcept(int conceptId) {
+        return hierarchy.getCategoryIdOfConcept(conceptId);
+    }
+
+    /**
+     resolveCategoryId(): Resolves a concept's stored category. Concepts added in this session remember the category name, while concepts loaded from the database remember its ID, so both are accepted.
+     * @param category the category name or ID text
+     * @return the category's ID, or -1 if it can't be resolved
+     **/
+    private int resolveCategoryId(String category) {
+        if (category == null) {
+            return -1;
+        }
+        Category found = findCategoryByName(category);
+        if (found != null) {
+            return found.getId();
+        }
+        try {
+            return Integer.parseInt(category.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     touchCategory(): Marks a category as changed so cached results about it are recomputed and views redraw its row.
+     * @param categoryId the ID of the changed category
+     **/
+    private synchronized void touchCategory(int categoryId) {
+        if (categoryId >= 0) {
+            categoryVersions.merge(categoryId, 1, Integer::sum);
+            changeNotifier.categoryChanged(ChangeNotifier.ChangeKind.UPDATED, categoryId);
+        }
+    }
+
+
+    /**
+     PAGED BROWSING METHODS: Reads one page of a level of the tree straight from the database. Categories and concepts are paged by ID
+     (WHERE ID > last seen), which uses the primary key or Concept_Category_Index to seek to the page instead of skipping rows.
+     **/
+    /**
+     getCategoryPage(): Gathers the next page of categories in ID order.
+     * @param afterCategoryId the last category ID of the previous page, or Integer.MIN_VALUE for the first page
+     * @param limit the largest number of categories to return
+     * @return the categories, empty if there are no more
+     **/
+    public List<Category> getCategoryPage(int afterCategoryId, int limit) {
+        long start = METRICS.start();
+        try {
+            String sql = "SELECT Category_ID, Category_Topic FROM Category WHERE Category_ID > ? ORDER BY Category_ID LIMIT ?";
+            List<Category> page = new ArrayList<>();
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, afterCategoryId);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(new Category(rs.getInt(1), rs.getString(2)));
+                    }
+                }
+            } catch (SQLException e) {
+                GET_CATEGORY_PAGE_METRIC.recordError();
+                LOG.error("Error loading a page of categories", e);
             }
+            return page;
+        } finally {
+            GET_CATEGORY_PAGE_METRIC.record(start);
+        }
+    }
+
+    /**
+     getConceptPage(): Gathers the next page of a category's concepts in ID order.
+     * @param categoryId the ID of the category
+     * @param afterConceptId the last concept ID of the previous page, or Integer.MIN_VALUE for the first page
+     * @param limit the largest number of concepts to return
+     * @return the concepts, empty if there are no more
+     **/
+    public List<Concept> getConceptPage(int categoryId, int afterConceptId, int limit) {
+        long start = METRICS.start();
+        try {
+            String sql = "SELECT Concept_ID, Concept_Topic, Category_ID, Concept_Details FROM Concept WHERE Category_ID = ? AND Concept_ID > ? ORDER BY Concept_ID LIMIT ?";
+            List<Concept> page = new ArrayList<>();
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, categoryId);
+                pstmt.setInt(2, afterConceptId);
+                pstmt.setInt(3, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(new Concept(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+                    }
+                }
+            } catch (SQLException e) {
+                GET_CONCEPT_PAGE_METRIC.recordError();
+                LOG.error("Error loading a page of concepts", e);
+            }
+            return page;
+        } finally {
+            GET_CONCEPT_PAGE_METRIC.record(start);
+        }
+    }
+
+    /**
+     getComponentPage(): Gathers the next page of a concept's components in the order they were added.
+     Components have no ID of their own, so they are paged by position; a concept only has a handful of them.
+     * @param conceptId the ID of the concept
+     * @param offset the number of components already loaded
+     * @param limit the largest number of components to return
+     * @return the components, empty if there are no more
+     **/
+    public List<Component> getComponentPage(int conceptId, int offset, int limit) {
+        long start = METRICS.start();
+        try {
+            String sql = "SELECT Component_Topic, Component_Description, Concept_ID FROM Component WHERE Concept_ID = ? ORDER BY rowid LIMIT ? OFFSET ?";
+            List<Component> page = new ArrayList<>();
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, conceptId);
+                pstmt.setInt(2, limit);
+                pstmt.setInt(3, offset);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(new Component(rs.getString(1), rs.getString(2), rs.getInt(3)));
+                    }
+                }
+            } catch (SQLException e) {
+                GET_COMPONENT_PAGE_METRIC.recordError();
+                LOG.error("Error loading a page of components", e);
+            }
+            return page;
+        } finally {
+            GET_COMPONENT_PAGE_METRIC.record(start);
+        }
+    }
+
+
+    /**
+     REPORT METHODS: The print report has one row per component, plus one row for each concept without components, ordered by concept ID.
+     Views read it a block at a time; exportReport() streams it row by row.
+     **/
+    /**
+     getReportRowCount(): Counts the rows of the report.
+     * @return the number of rows, or 0 if the database can't be read
+     **/
+    public int getReportRowCount() {
+        long start = METRICS.start();
+        try {
+            try (Connection conn = this.connect();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*)" + SQL_REPORT_FROM)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            } catch (SQLException e) {
+                GET_REPORT_ROW_COUNT_METRIC.recordError();
+                LOG.error("Error counting the report rows", e);
+                return 0;
+            }
+        } finally {
+            GET_REPORT_ROW_COUNT_METRIC.record(start);
+        }
+    }
+
+    /**
+     getReportRows(): Gathers one block of report rows by position. SQLite still reads and skips every row before the offset,
+     so views use this only to jump to a block whose previous row's key they don't know; see getReportRowsAfter().
+     * @param offset the index of the first row
+     * @param limit the largest number of rows to return
+     * @return the rows, each holding the columns named in REPORT_COLUMNS followed by the row's paging key (see reportRowKey())
+     **/
+    public List<Object[]> getReportRows(int offset, int limit) {
+        long start = METRICS.start();
+        try {
+            return readReportPage(SQL_REPORT_ROWS + " LIMIT ? OFFSET ?", limit, offset);
+        } finally {
+            GET_REPORT_ROWS_METRIC.record(start);
+        }
+    }
+
+    /**
+     getReportRowsAfter(): Gathers the block of report rows that follows a given row, seeking to it by key, so reading block n costs
+     the same as reading the first block.
+     * @param afterConceptId the concept ID of the row before the block, or Integer.MIN_VALUE for the first block
+     * @param afterKey the paging key of the row before the block (see reportRowKey()), or Long.MIN_VALUE for the first block
+     * @param limit the largest number of rows to return
+     * @return the rows, each holding the columns named in REPORT_COLUMNS followed by the row's paging key
+     **/
+    public List<Object[]> getReportRowsAfter(int afterConceptId, long afterKey, int limit) {
+        long start = METRICS.start();
+        try {
+            return readReportPage(SQL_REPORT_ROWS_AFTER, afterConceptId, afterConceptId, afterKey, limit);
+        } finally {
+            GET_REPORT_ROWS_METRIC.record(start);
+        }
+    }
+
+    /**
+     reportRowKey(): Gathers the paging key of a row returned by getReportRows() or getReportRowsAfter(). Together with the
+     concept ID in the first column it identifies the row's place in the report.
+     * @param row the report row
+     * @return the component's rowid, or NO_COMPONENT_KEY for a concept without components
+     **/
+    static long reportRowKey(Object[] row) {
+        return (Long) row[REPORT_COLUMNS.length];
+    }
+
+    private List<Object[]> readReportPage(String sql, Object... parameters) {
+        List<Object[]> rows = new ArrayList<>();
+        try (Connection conn = this.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Object[] row = Arrays.copyOf(readReportRow(rs), REPORT_COLUMNS.length + 1);
+                    long key = rs.getLong(6);
+                    row[REPORT_COLUMNS.length] = rs.wasNull() ? NO_COMPONENT_KEY : key;
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            GET_REPORT_ROWS_METRIC.recordError();
+            LOG.error("Error loading a block of report rows", e);
+        }
+        return rows;
+    }
+
+    /**
+     exportReport(): Writes the whole report as CSV, one row at a time, so even a very large library never sits in memory.
+     * @param out where the report is written; the caller closes it
+     * @param progress reports how many rows have been written; the export stops early if it is cancelled
+     * @return the number of rows written
+     * @throws SQLException if the database can't be read
+     * @throws IOException if the report can't be written
+     **/
+    public int exportReport(Writer out, TaskRunner.Progress progress) throws SQLException, IOException {
+        long start = METRICS.start();
+        try {
+            int total = Math.max(1, getReportRowCount());
+            int written = 0;
+            try (Connection conn = this.connect();
+                 Statement stmt = conn.createStatement()) {
+                stmt.setFetchSize(500);
+                try (ResultSet rs = stmt.executeQuery(SQL_REPORT_ROWS)) {
+                    writeCsvRow(out, REPORT_COLUMNS);
+                    while (rs.next() && !progress.isCancelled()) {
+                        writeCsvRow(out, readReportRow(rs));
+                        if (++written % 1000 == 0) {
+                            progress.update(Math.min(100, written * 100 / total), "Exported " + written + " of " + total + " rows...");
+                        }
+                    }
+                }
+            }
+            out.flush();
+            return written;
+        } catch (SQLException | IOException e) {
+            EXPORT_REPORT_METRIC.recordError();
+            throw e;
+        } finally {
+            EXPORT_REPORT_METRIC.record(start);
+        }
+    }
+
+    private static Object[] readReportRow(ResultSet rs) throws SQLException {
+        return new Object[]{rs.getInt(1), nullToEmpty(rs.getString(2)), rs.getString(3), nullToEmpty(rs.getString(4)), nullToEmpty(rs.getString(5))};
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     writeCsvRow(): Writes one CSV line, quoting fields that contain a comma, quote, or line break.
+     **/
+    private static void writeCsvRow(Writer out, Object[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = String.valueOf(fields[i]);
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write(System.lineSeparator());
+    }
+
+
+    /**
+     FUZZY LOOKUP METHODS: Typo-tolerant lookup of category names and concept/component topics backed by BK-trees.
+     **/
+    /**
+     suggestCategories(): Gathers the category names closest to a possibly misspelled name.
+     * @param name the name the user typed
+     * @return up to five suggestions within a few typos, closest first; each suggestion's keys are category IDs
+     **/
+    public List<FuzzyIndex.Suggestion<Integer>> suggestCategories(String name) {
+        long start = METRICS.start();
+        try {
+            return categoryNames.search(name);
+        } finally {
+            SUGGEST_CATEGORIES_METRIC.record(start);
+        }
+    }
+
+    /**
+     suggestConcepts(): Gathers the concept topics closest to a possibly misspelled topic.
+     * @param topic the topic the user typed
+     * @return up to five suggestions within a few typos, closest first; each suggestion's keys are concept IDs
+     **/
+    public List<FuzzyIndex.Suggestion<Integer>> suggestConcepts(String topic) {
+        long start = METRICS.start();
+        try {
+            ensureTopicIndexes();
+            return conceptTopics.search(topic);
+        } finally {
+            SUGGEST_CONCEPTS_METRIC.record(start);
+        }
+    }
+
+    /**
+     suggestComponents(): Gathers the component topics closest to a possibly misspelled topic.
+     * @param topic the topic the user typed
+     * @return up to five suggestions within a few typos, closest first
+     **/
+    public List<FuzzyIndex.Suggestion<String>> suggestComponents(String topic) {
+        long start = METRICS.start();
+        try {
+            ensureTopicIndexes();
+            return componentTopics.search(topic);
+        } finally {
+            SUGGEST_COMPONENTS_METRIC.record(start);
+        }
+    }
+
+    /**
+     suggestComponents(): Gathers the closest component topics among the components of one concept.
+     * @param topic the topic the user typed
+     * @param conceptId the ID of the concept the component should belong to
+     * @return the suggestions that belong to the concept, closest first
+     **/
+    public List<FuzzyIndex.Suggestion<String>> suggestComponents(String topic, int conceptId) {
+        long start = METRICS.start();
+        try {
+            String keyPrefix = componentKey(conceptId, "");
+            ensureTopicIndexes();
+            List<FuzzyIndex.Suggestion<String>> suggestions = componentTopics.search(topic);
+            suggestions.removeIf(suggestion -> suggestion.getKeys().stream().noneMatch(key -> key.startsWith(keyPrefix)));
+            return suggestions;
+        } finally {
+            SUGGEST_COMPONENTS_METRIC.record(start);
         }
-        return null; // Return null if the category is not found
     }
 
 }
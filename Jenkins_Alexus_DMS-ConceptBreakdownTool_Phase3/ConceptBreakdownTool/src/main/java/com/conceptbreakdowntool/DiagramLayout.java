@@ -0,0 +1,585 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DiagramLayout
+
+ Purpose: Works out where to draw each node of a diagram, so the recommended "Mind Map", "Concept Map", or "Relationship Diagram"
+ can actually be shown. A category is the root, its concepts hang off it, and their components hang off them; relationships between
+ concepts are drawn as extra edges.
+
+ - LAYOUT STYLES
+     * RADIAL (Mind Map): The root sits in the middle and every level is a ring around it. Each subtree gets a slice of its ring in
+       proportion to how many leaves it has, so nothing overlaps. This takes one pass over the tree.
+     * FORCE_DIRECTED (Concept Map, Relationship Diagram): Nodes push each other apart and edges pull their ends together until the
+       layout settles (Fruchterman-Reingold). It starts from the radial layout, so related nodes start close and the result is the
+       same every time.
+ - HOW THE FORCE LAYOUT SCALES
+     * Each step works out every node's push and pull in parallel across the CPU cores; every node only writes its own displacement,
+       so the result doesn't depend on how the work is split.
+     * Up to BARNES_HUT_THRESHOLD nodes every pair is compared. Above that, nodes are put in a quadtree and a far-away group of nodes
+       pushes as one (Barnes-Hut), so a step costs O(n log n) instead of O(n^2).
+     * Positions are kept in arrays and each node's neighbors in its own growing array, both updated as nodes and edges are added,
+       so a pass never copies every position or walks every edge before it starts.
+     * addNodeIncrementally() places a new node next to its parent and runs a short, cool pass that only moves the new node, its
+       neighbors, and the leaves hanging off those (such as its sibling components), so the rest of the diagram stays put. The nodes that stay put go into one quadtree for the
+       whole pass, and the few that move push each other directly, so the pass costs about as much as the moving nodes' forces.
+ - LAYOUT METHODS
+     * forCategory(): Builds and lays out the diagram of a category.
+     * addNode(), addEdge(): Builds a diagram by hand.
+     * layout(): Lays out every node from scratch.
+     * addNodeIncrementally(): Adds one node to a diagram that was already laid out.
+     * getNodes(), getEdges(), getBounds(): Gathers what to draw.
+ - NESTED CLASSES
+     * Style(Enum), NodeKind(Enum): The layout style, and what a node stands for.
+     * Node, Edge: One node with its position, and one line between two nodes.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class DiagramLayout {
+    static final int BARNES_HUT_THRESHOLD = 500;
+    static final double THETA = 0.8; // Barnes-Hut accuracy: a group this far away (size / distance) pushes as one node
+    static final double RING_SPACING = 140;
+    static final double IDEAL_DISTANCE = 90;
+    static final int ITERATIONS = 250;
+    static final int INCREMENTAL_ITERATIONS = 40;
+    private static final double GRAVITY = 0.02; // Keeps unconnected parts of the diagram from drifting away
+    private static final double MIN_DISTANCE = 0.01;
+
+    //Attributes
+    private final Style style;
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+    private double[] x = new double[16]; // Node positions by index; the nodes' own fields are updated from these after each pass
+    private double[] y = new double[16];
+
+    /**
+     Constructor(DiagramLayout): Creates an empty diagram.
+     * @param style how the diagram is laid out
+     **/
+    public DiagramLayout(Style style) {
+        this.style = style;
+    }
+
+    /**
+     LAYOUT METHODS
+     **/
+    /**
+     forCategory(): Builds the diagram of a category (its concepts, their components, and the relationships between its concepts) and lays it out.
+     * @param dbManager the database manager holding the library
+     * @param categoryId the ID of the category
+     * @param style how the diagram is laid out
+     * @return the laid out diagram; empty if the category doesn't exist
+     **/
+    public static DiagramLayout forCategory(DatabaseManager dbManager, int categoryId, Style style) {
+        DiagramLayout diagram = new DiagramLayout(style);
+        LibraryHierarchy hierarchy = dbManager.getHierarchy();
+        Category category = hierarchy.getCategory(categoryId);
+        if (category == null) {
+            return diagram;
+        }
+        int root = diagram.addNode(NodeKind.CATEGORY, category.getId(), category.getTopic(), -1);
+        Map<Integer, Integer> conceptNodes = new HashMap<>();
+        for (Concept concept : hierarchy.getConcepts(categoryId)) {
+            int conceptNode = diagram.addNode(NodeKind.CONCEPT, concept.getId(), concept.getTopic(), root);
+            conceptNodes.put(concept.getId(), conceptNode);
+            for (Component component : hierarchy.getComponents(concept.getId())) {
+                diagram.addNode(NodeKind.COMPONENT, concept.getId(), component.getTopic(), conceptNode);
+            }
+        }
+        ConceptGraph graph = dbManager.getConceptGraph();
+        for (Map.Entry<Integer, Integer> entry : conceptNodes.entrySet()) {
+            for (int targetId : graph.getOutgoing(entry.getKey())) {
+                Integer target = conceptNodes.get(targetId);
+                if (target != null) {
+                    diagram.addEdge(entry.getValue(), target); // Relationships leaving the category aren't drawn
+                }
+            }
+        }
+        diagram.layout();
+        return diagram;
+    }
+
+    /**
+     addNode(): Adds a node and the edge to its parent. Call layout() once every node has been added.
+     * @param kind what the node stands for
+     * @param id the ID of the category or concept it stands for (a component's concept ID)
+     * @param label the text drawn on the node
+     * @param parent the index of the parent node, or -1 for a root
+     * @return the index of the new node
+     **/
+    public int addNode(NodeKind kind, int id, String label, int parent) {
+        if (parent >= nodes.size()) {
+            throw new IllegalArgumentException("No node " + parent + " to attach to.");
+        }
+        Node node = new Node(kind, id, label, parent);
+        nodes.add(node);
+        int index = nodes.size() - 1;
+        if (index == x.length) {
+            x = Arrays.copyOf(x, index * 2);
+            y = Arrays.copyOf(y, index * 2);
+        }
+        x[index] = 0;
+        y[index] = 0;
+        if (parent >= 0) {
+            nodes.get(parent).children.add(index);
+            link(parent, index, false);
+        }
+        return index;
+    }
+
+    /**
+     addEdge(): Adds a relationship edge between two nodes that aren't parent and child.
+     * @param from the index of one node
+     * @param to the index of the other node
+     **/
+    public void addEdge(int from, int to) {
+        if (from != to) {
+            link(from, to, true);
+        }
+    }
+
+    private void link(int from, int to, boolean relation) {
+        edges.add(new Edge(from, to, relation));
+        nodes.get(from).addNeighbor(to);
+        nodes.get(to).addNeighbor(from);
+    }
+
+    /**
+     layout(): Lays out every node from scratch.
+     **/
+    public void layout() {
+        layoutRadial();
+        if (style == Style.FORCE_DIRECTED) {
+            runForces(IDEAL_DISTANCE * Math.sqrt(nodes.size()) / 2, ITERATIONS, null);
+        }
+    }
+
+    /**
+     addNodeIncrementally(): Adds one node to a diagram that was already laid out. A radial diagram is laid out again (one pass);
+     a force-directed one places the node beside its parent and runs a short, cool pass that only moves the node, its neighbors, and
+     the leaves hanging off them, which make room for it. Nodes with more neighbors of their own, such as the root, stay put.
+     * @param kind what the node stands for
+     * @param id the ID of the category or concept it stands for
+     * @param label the text drawn on the node
+     * @param parent the index of the parent node, or -1 for a root
+     * @return the index of the new node
+     **/
+    public int addNodeIncrementally(NodeKind kind, int id, String label, int parent) {
+        int index = addNode(kind, id, label, parent);
+        if (style == Style.RADIAL) {
+            layoutRadial();
+            return index;
+        }
+        if (parent >= 0) {
+            double angle = index * 2.399963; // Golden angle, so siblings added one by one don't land on each other
+            setPosition(index, x[parent] + Math.cos(angle) * IDEAL_DISTANCE, y[parent] + Math.sin(angle) * IDEAL_DISTANCE);
+        }
+        runForces(IDEAL_DISTANCE / 2, INCREMENTAL_ITERATIONS, neighborhood(index));
+        return index;
+    }
+
+    /**
+     getNodes(): Gathers the nodes in the order they were added.
+     * @return the nodes
+     **/
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     getEdges(): Gathers the parent-child and relationship edges.
+     * @return the edges
+     **/
+    public List<Edge> getEdges() {
+        return Collections.unmodifiableList(edges);
+    }
+
+    /**
+     getStyle(): Gathers how the diagram is laid out.
+     * @return the layout style
+     **/
+    public Style getStyle() {
+        return style;
+    }
+
+    /**
+     getBounds(): Gathers the smallest rectangle holding every node's center.
+     * @return the bounds, or an empty rectangle at the origin if there are no nodes
+     **/
+    public Rectangle2D.Double getBounds() {
+        if (nodes.isEmpty()) {
+            return new Rectangle2D.Double();
+        }
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Node node : nodes) {
+            minX = Math.min(minX, node.x);
+            minY = Math.min(minY, node.y);
+            maxX = Math.max(maxX, node.x);
+            maxY = Math.max(maxY, node.y);
+        }
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+
+
+    /**
+     layoutRadial(): Puts the roots in the middle and every level on a ring, giving each subtree a slice of its ring in proportion to its leaves.
+     Several roots share the middle ring as if they hung off one hidden root.
+     **/
+    private void layoutRadial() {
+        int[] leaves = new int[nodes.size()];
+        for (int i = nodes.size() - 1; i >= 0; i--) { // Children are always added after their parent
+            Node node = nodes.get(i);
+            leaves[i] = Math.max(1, leaves[i]);
+            if (node.parent >= 0) {
+                leaves[node.parent] += leaves[i];
+            }
+        }
+        List<Integer> roots = new ArrayList<>();
+        int rootLeaves = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).parent < 0) {
+                roots.add(i);
+                rootLeaves += leaves[i];
+            }
+        }
+        if (roots.size() == 1) {
+            placeSubtree(roots.get(0), 0, 2 * Math.PI, 0, leaves);
+        } else {
+            placeChildren(roots, 0, 2 * Math.PI, 1, rootLeaves, leaves);
+        }
+    }
+
+    private void placeSubtree(int index, double startAngle, double endAngle, int depth, int[] leaves) {
+        double angle = (startAngle + endAngle) / 2;
+        setPosition(index, Math.cos(angle) * depth * RING_SPACING, Math.sin(angle) * depth * RING_SPACING);
+        placeChildren(nodes.get(index).children, startAngle, endAngle, depth + 1, leaves[index], leaves);
+    }
+
+    private void placeChildren(List<Integer> children, double startAngle, double endAngle, int depth, int totalLeaves, int[] leaves) {
+        double angle = startAngle;
+        for (int child : children) {
+            double slice = (endAngle - startAngle) * leaves[child] / totalLeaves;
+            placeSubtree(child, angle, angle + slice, depth, leaves);
+            angle += slice;
+        }
+    }
+
+    private void setPosition(int index, double px, double py) {
+        x[index] = px;
+        y[index] = py;
+        nodes.get(index).x = px;
+        nodes.get(index).y = py;
+    }
+
+    /**
+     neighborhood(): Gathers a node, its neighbors, and the nodes whose only neighbor is one of those, each once.
+     **/
+    private int[] neighborhood(int index) {
+        Set<Integer> found = new LinkedHashSet<>();
+        found.add(index);
+        Node node = nodes.get(index);
+        for (int a = 0; a < node.degree; a++) {
+            Node neighbor = nodes.get(node.neighbors[a]);
+            found.add(node.neighbors[a]);
+            for (int b = 0; b < neighbor.degree; b++) {
+                if (nodes.get(neighbor.neighbors[b]).degree == 1) {
+                    found.add(neighbor.neighbors[b]);
+                }
+            }
+        }
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     runForces(): Moves the nodes by their push and pull for a number of steps. No node moves further than the temperature in one step,
+     and the temperature cools to nothing, so the layout settles. When every node moves, a large diagram's quadtree is built again
+     each step; when only some move, the others are put in one quadtree for the whole pass and the moving nodes push each other directly.
+     * @param movable the indexes of the nodes allowed to move, or null for every node
+     **/
+    private void runForces(double startTemperature, int iterations, int[] movable) {
+        int n = nodes.size();
+        if (n < 2) {
+            return;
+        }
+        int[] all = IntStream.range(0, n).toArray();
+        int[] moving = movable != null ? movable : all;
+        QuadTree still = null;
+        if (movable != null && n > BARNES_HUT_THRESHOLD) {
+            boolean[] isMoving = new boolean[n];
+            for (int i : moving) {
+                isMoving[i] = true;
+            }
+            still = QuadTree.build(x, y, n, isMoving);
+        }
+        // The nodes whose push is worked out pair by pair: all of them in a small diagram, only the moving ones next to the still tree
+        int[] direct = n <= BARNES_HUT_THRESHOLD ? all : still != null ? moving : null;
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+        double k2 = IDEAL_DISTANCE * IDEAL_DISTANCE;
+
+        for (int step = 0; step < iterations; step++) {
+            double temperature = startTemperature * (1 - (double) step / iterations);
+            QuadTree tree = still != null ? still : direct == null ? QuadTree.build(x, y, n, null) : null;
+            IntStream.of(moving).parallel().forEach(i -> {
+                double fx = 0;
+                double fy = 0;
+                // Push away from every other node
+                if (tree != null) {
+                    double[] force = new double[2];
+                    tree.repulse(i, x[i], y[i], k2, force);
+                    fx = force[0];
+                    fy = force[1];
+                }
+                if (direct != null) {
+                    for (int j : direct) {
+                        if (j != i) {
+                            double ddx = x[i] - x[j];
+                            double ddy = y[i] - y[j];
+                            double d2 = Math.max(ddx * ddx + ddy * ddy, MIN_DISTANCE);
+                            fx += ddx * k2 / d2; // (k^2 / d) along the unit vector
+                            fy += ddy * k2 / d2;
+                        }
+                    }
+                }
+                // Pull toward the nodes it shares an edge with
+                Node node = nodes.get(i);
+                for (int e = 0; e < node.degree; e++) {
+                    int j = node.neighbors[e];
+                    double ddx = x[j] - x[i];
+                    double ddy = y[j] - y[i];
+                    double d = Math.sqrt(ddx * ddx + ddy * ddy);
+                    fx += ddx * d / IDEAL_DISTANCE; // (d^2 / k) along the unit vector
+                    fy += ddy * d / IDEAL_DISTANCE;
+                }
+                dx[i] = fx - x[i] * GRAVITY;
+                dy[i] = fy - y[i] * GRAVITY;
+            });
+            for (int i : moving) {
+                double length = Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+                if (length > 0) {
+                    double move = Math.min(length, temperature);
+                    x[i] += dx[i] / length * move;
+                    y[i] += dy[i] / length * move;
+                }
+            }
+        }
+        for (int i : moving) {
+            nodes.get(i).x = x[i];
+            nodes.get(i).y = y[i];
+        }
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    /**
+     Style(Enum): How a diagram is laid out.
+     **/
+    public enum Style {
+        RADIAL,
+        FORCE_DIRECTED;
+
+        /**
+         forDiagramType(): Picks the layout for a recommended diagram type.
+         * @param diagramType one of ConceptBreakdownToolApplication.DIAGRAM_TYPES
+         * @return the layout style, or null if that type of diagram can't be drawn yet
+         **/
+        public static Style forDiagramType(String diagramType) {
+            switch (diagramType) {
+                case "Mind Map":
+                    return RADIAL;
+                case "Concept Map":
+                case "Relationship Diagram":
+                    return FORCE_DIRECTED;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     NodeKind(Enum): What a node stands for.
+     **/
+    public enum NodeKind {
+        CATEGORY,
+        CONCEPT,
+        COMPONENT
+    }
+
+    /**
+     Node: One node of the diagram and where its center is.
+     **/
+    public static class Node {
+        private final NodeKind kind;
+        private final int id;
+        private final String label;
+        private final int parent;
+        private final List<Integer> children = new ArrayList<>();
+        private int[] neighbors = new int[2]; // The nodes it shares an edge with; the first degree entries are used
+        private int degree;
+        private double x;
+        private double y;
+
+        Node(NodeKind kind, int id, String label, int parent) {
+            this.kind = kind;
+            this.id = id;
+            this.label = label;
+            this.parent = parent;
+        }
+
+        private void addNeighbor(int other) {
+            if (degree == neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, degree * 2);
+            }
+            neighbors[degree++] = other;
+        }
+
+        /**getKind(): Gathers what the node stands for. **/
+        public NodeKind getKind() { return kind; }
+        /**getId(): Gathers the ID of the category or concept the node stands for. **/
+        public int getId() { return id; }
+        /**getLabel(): Gathers the text drawn on the node. **/
+        public String getLabel() { return label; }
+        /**getParent(): Gathers the index of the parent node, or -1 for a root. **/
+        public int getParent() { return parent; }
+        /**getX(), getY(): Gathers the position of the node's center. **/
+        public double getX() { return x; }
+        public double getY() { return y; }
+    }
+
+    /**
+     Edge: A line between two nodes, either from a parent to its child or for a relationship between concepts.
+     **/
+    public static class Edge {
+        private final int from;
+        private final int to;
+        private final boolean relation;
+
+        Edge(int from, int to, boolean relation) {
+            this.from = from;
+            this.to = to;
+            this.relation = relation;
+        }
+
+        /**getFrom(), getTo(): Gathers the indexes of the nodes at either end. **/
+        public int getFrom() { return from; }
+        public int getTo() { return to; }
+        /**isRelation(): Checks whether the edge is a relationship rather than a parent-child link. **/
+        public boolean isRelation() { return relation; }
+    }
+
+    /**
+     QuadTree: Barnes-Hut quadtree over the node positions. Each cell knows how many nodes it holds and their center, so a cell that is
+     far enough away pushes like one heavy node. It is only read while the forces are worked out, so many threads can share it.
+     **/
+    static class QuadTree {
+        private final double centerX;
+        private final double centerY;
+        private final double half;
+        private QuadTree[] quadrants;
+        private int body = -1; // The only node in a leaf cell
+        private int count;
+        private double sumX;
+        private double sumY;
+
+        private QuadTree(double centerX, double centerY, double half) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.half = half;
+        }
+
+        /**
+         build(): Builds the tree over the first n positions.
+         * @param skip the nodes to leave out, or null to put every node in
+         **/
+        static QuadTree build(double[] x, double[] y, int n, boolean[] skip) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            double half = Math.max(maxX - minX, maxY - minY) / 2 + 1;
+            QuadTree root = new QuadTree((minX + maxX) / 2, (minY + maxY) / 2, half);
+            for (int i = 0; i < n; i++) {
+                if (skip == null || !skip[i]) {
+                    root.insert(i, x, y);
+                }
+            }
+            return root;
+        }
+
+        private void insert(int i, double[] x, double[] y) {
+            count++;
+            sumX += x[i];
+            sumY += y[i];
+            if (quadrants == null) {
+                if (count == 1) {
+                    body = i;
+                    return;
+                }
+                if (half < MIN_DISTANCE) {
+                    return; // Nodes on top of each other stay together as one heavy node
+                }
+                quadrants = new QuadTree[4];
+                int previous = body;
+                body = -1;
+                child(x[previous], y[previous]).insert(previous, x, y);
+            }
+            child(x[i], y[i]).insert(i, x, y);
+        }
+
+        private QuadTree child(double px, double py) {
+            int quadrant = (px < centerX ? 0 : 1) + (py < centerY ? 0 : 2);
+            if (quadrants[quadrant] == null) {
+                double quarter = half / 2;
+                quadrants[quadrant] = new QuadTree(centerX + (px < centerX ? -quarter : quarter), centerY + (py < centerY ? -quarter : quarter), quarter);
+            }
+            return quadrants[quadrant];
+        }
+
+        /**
+         repulse(): Adds up the push on node i from every other node, treating far-away cells as one node.
+         **/
+        void repulse(int i, double px, double py, double k2, double[] force) {
+            if (count == 0 || (quadrants == null && body == i && count == 1)) {
+                return;
+            }
+            double massX = sumX / count;
+            double massY = sumY / count;
+            double ddx = px - massX;
+            double ddy = py - massY;
+            double d2 = ddx * ddx + ddy * ddy;
+            if (quadrants == null || (2 * half) * (2 * half) < THETA * THETA * d2) {
+                int mass = quadrants == null && body == i ? count - 1 : count; // A stack of nodes doesn't push on itself
+                d2 = Math.max(d2, MIN_DISTANCE);
+                force[0] += ddx * k2 * mass / d2;
+                force[1] += ddy * k2 * mass / d2;
+                return;
+            }
+            for (QuadTree quadrant : quadrants) {
+                if (quadrant != null) {
+                    quadrant.repulse(i, px, py, k2, force);
+                }
+            }
+        }
+    }
+}
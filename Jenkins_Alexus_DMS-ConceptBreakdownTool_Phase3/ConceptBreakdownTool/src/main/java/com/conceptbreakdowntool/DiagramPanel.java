@@ -0,0 +1,257 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DiagramPanel
+
+ Purpose: Draws a laid out diagram in a Swing window that can be zoomed and panned, or straight into an image without a window.
+
+ - HOW IT WORKS
+     * The diagram is drawn in its own coordinates through one transform; zooming and panning only change the transform.
+     * Only the nodes and edges that fall inside the visible area are drawn, so a zoomed-in view of a large diagram stays fast.
+     * Mouse wheel: zoom around the pointer. Drag: pan. Double-click: fit the whole diagram again.
+ - DRAWING METHODS
+     * fitToView(): Zooms and pans so the whole diagram fits the panel.
+     * renderImage(): Draws a diagram into a new image, without a window; works on headless machines.
+     * paintDiagram(): Draws the nodes and edges; shared by the panel and renderImage().
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public class DiagramPanel extends JPanel {
+    private static final int MAX_LABEL_LENGTH = 24;
+    private static final int NODE_PADDING = 6;
+    private static final double MARGIN = 60; // Room around the outermost nodes for their labels
+    private static final double MIN_SCALE = 0.02;
+    private static final double MAX_SCALE = 8;
+    private static final Color CATEGORY_COLOR = new Color(0xF4B183);
+    private static final Color CONCEPT_COLOR = new Color(0x9DC3E6);
+    private static final Color COMPONENT_COLOR = new Color(0xC5E0B4);
+    private static final Color TREE_EDGE_COLOR = new Color(0x909090);
+    private static final Color RELATION_EDGE_COLOR = new Color(0x2F5597);
+    private static final Stroke RELATION_STROKE = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{6f, 4f}, 0f);
+
+    //Attributes
+    private final DiagramLayout diagram;
+    private final AffineTransform view = new AffineTransform();
+    private boolean fitted;
+    private Point dragStart;
+
+    /**
+     Constructor(DiagramPanel): Creates a panel showing a laid out diagram.
+     * @param diagram the diagram to draw
+     **/
+    public DiagramPanel(DiagramLayout diagram) {
+        this.diagram = diagram;
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(800, 600));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStart != null) {
+                    AffineTransform pan = AffineTransform.getTranslateInstance(e.getX() - dragStart.x, e.getY() - dragStart.y);
+                    view.preConcatenate(pan);
+                    dragStart = e.getPoint();
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    fitToView();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(1.1, -e.getPreciseWheelRotation());
+                double scale = view.getScaleX() * factor;
+                if (scale < MIN_SCALE || scale > MAX_SCALE) {
+                    return;
+                }
+                // Zoom around the pointer, so the point under it stays where it is
+                AffineTransform zoom = new AffineTransform();
+                zoom.translate(e.getX(), e.getY());
+                zoom.scale(factor, factor);
+                zoom.translate(-e.getX(), -e.getY());
+                view.preConcatenate(zoom);
+                repaint();
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     DRAWING METHODS
+     **/
+    /**
+     fitToView(): Zooms and pans so the whole diagram fits the panel.
+     **/
+    public void fitToView() {
+        view.setTransform(fitTransform(diagram, getWidth(), getHeight()));
+        fitted = true;
+        repaint();
+    }
+
+    /**
+     renderImage(): Draws a diagram into a new image scaled to fit it. Needs no window, so it also works on headless machines.
+     * @param diagram the diagram to draw
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @return the image
+     **/
+    public static BufferedImage renderImage(DiagramLayout diagram, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            paintDiagram(g, diagram, fitTransform(diagram, width, height), new Rectangle(0, 0, width, height));
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     paintDiagram(): Draws the edges, then the nodes with their labels, skipping whatever lies outside the clip.
+     * @param g where to draw
+     * @param diagram the diagram to draw
+     * @param view the transform from diagram coordinates to pixels
+     * @param clip the area being drawn, in pixels
+     **/
+    static void paintDiagram(Graphics2D g, DiagramLayout diagram, AffineTransform view, Rectangle clip) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle2D visible = visibleArea(view, clip);
+        List<DiagramLayout.Node> nodes = diagram.getNodes();
+
+        // Edges are drawn in pixels, so lines keep the same width at every zoom level
+        double[] ends = new double[4];
+        Line2D.Double line = new Line2D.Double();
+        Stroke treeStroke = new BasicStroke(1f);
+        for (DiagramLayout.Edge edge : diagram.getEdges()) {
+            DiagramLayout.Node from = nodes.get(edge.getFrom());
+            DiagramLayout.Node to = nodes.get(edge.getTo());
+            line.setLine(from.getX(), from.getY(), to.getX(), to.getY());
+            if (!line.intersects(visible)) {
+                continue;
+            }
+            ends[0] = from.getX();
+            ends[1] = from.getY();
+            ends[2] = to.getX();
+            ends[3] = to.getY();
+            view.transform(ends, 0, ends, 0, 2);
+            g.setColor(edge.isRelation() ? RELATION_EDGE_COLOR : TREE_EDGE_COLOR);
+            g.setStroke(edge.isRelation() ? RELATION_STROKE : treeStroke);
+            line.setLine(ends[0], ends[1], ends[2], ends[3]);
+            g.draw(line);
+        }
+
+        g.setStroke(treeStroke);
+        FontMetrics metrics = g.getFontMetrics();
+        double[] center = new double[2];
+        for (DiagramLayout.Node node : nodes) {
+            if (!visible.contains(node.getX(), node.getY())) {
+                continue;
+            }
+            center[0] = node.getX();
+            center[1] = node.getY();
+            view.transform(center, 0, center, 0, 1);
+            String label = shorten(node.getLabel());
+            int width = metrics.stringWidth(label) + 2 * NODE_PADDING;
+            int height = metrics.getHeight() + NODE_PADDING;
+            int x = (int) Math.round(center[0]) - width / 2;
+            int y = (int) Math.round(center[1]) - height / 2;
+            g.setColor(colorOf(node.getKind()));
+            g.fillRoundRect(x, y, width, height, height, height);
+            g.setColor(Color.DARK_GRAY);
+            g.drawRoundRect(x, y, width, height, height, height);
+            g.setColor(Color.BLACK);
+            g.drawString(label, x + NODE_PADDING, y + NODE_PADDING / 2 + metrics.getAscent());
+        }
+    }
+
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+        if (!fitted && getWidth() > 0 && getHeight() > 0) {
+            view.setTransform(fitTransform(diagram, getWidth(), getHeight()));
+            fitted = true;
+        }
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            Rectangle clip = g.getClipBounds();
+            paintDiagram(g, diagram, view, clip != null ? clip : new Rectangle(0, 0, getWidth(), getHeight()));
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     fitTransform(): Builds the transform that centers the diagram in an area and scales it to fit, leaving room for the labels.
+     **/
+    private static AffineTransform fitTransform(DiagramLayout diagram, int width, int height) {
+        Rectangle2D bounds = diagram.getBounds();
+        double scale = Math.min(width / (bounds.getWidth() + 2 * MARGIN), height / (bounds.getHeight() + 2 * MARGIN));
+        scale = Math.max(MIN_SCALE, Math.min(1.5, scale));
+        AffineTransform fit = new AffineTransform();
+        fit.translate(width / 2.0, height / 2.0);
+        fit.scale(scale, scale);
+        fit.translate(-bounds.getCenterX(), -bounds.getCenterY());
+        return fit;
+    }
+
+    /**
+     visibleArea(): Works out which part of the diagram the clip shows, widened a little so labels of nodes just outside it are still drawn.
+     **/
+    private static Rectangle2D visibleArea(AffineTransform view, Rectangle clip) {
+        try {
+            Rectangle2D area = view.createInverse().createTransformedShape(clip).getBounds2D();
+            double margin = 2 * MARGIN / Math.max(MIN_SCALE, view.getScaleX());
+            return new Rectangle2D.Double(area.getX() - margin, area.getY() - margin, area.getWidth() + 2 * margin, area.getHeight() + 2 * margin);
+        } catch (NoninvertibleTransformException e) {
+            return new Rectangle2D.Double(-Double.MAX_VALUE / 2, -Double.MAX_VALUE / 2, Double.MAX_VALUE, Double.MAX_VALUE);
+        }
+    }
+
+    private static String shorten(String label) {
+        return label.length() <= MAX_LABEL_LENGTH ? label : label.substring(0, MAX_LABEL_LENGTH - 3) + "...";
+    }
+
+    private static Color colorOf(DiagramLayout.NodeKind kind) {
+        switch (kind) {
+            case CATEGORY:
+                return CATEGORY_COLOR;
+            case CONCEPT:
+                return CONCEPT_COLOR;
+            default:
+                return COMPONENT_COLOR;
+        }
+    }
+}
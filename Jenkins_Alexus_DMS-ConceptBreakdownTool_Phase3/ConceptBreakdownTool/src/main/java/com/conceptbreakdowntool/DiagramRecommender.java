@@ -0,0 +1,433 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DiagramRecommender
+
+ Purpose: Recommends the diagram type that best fits the measured structure of a category or concept, instead of picking one at random, and explains why.
+
+ - FEATURE EXTRACTION: Measures a category or concept in a single streaming pass over its rows.
+     * measureCategory(), measureConcept(): Streams the Concept/Component rows of the selection once and accumulates counts,
+       fan-out, and word overlap, then reads relationship counts from the in-memory concept graph.
+ - SCORING
+     * recommendForCategory(), recommendForConcept(): Returns the cached recommendation if the selection hasn't changed since it was made; otherwise measures and scores it.
+     * score(): Scores every type in DIAGRAM_TYPES from a set of features and keeps the reasons behind the winner.
+     * The cache keeps the MAX_CACHED most recently used recommendations; forgetCategory(), forgetConcept(), and clear() drop entries
+       for deleted or reloaded selections. Its size, hits, and misses are published as the "recommendations." gauges of DataMetrics.
+ - NESTED CLASSES
+     * Features: The measured structure of a selection.
+     * Recommendation: The chosen diagram type, every type's score, and the reasoning.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DiagramRecommender {
+    private static final Log LOG = Log.get(DiagramRecommender.class);
+    private static final int MIN_WORD_LENGTH = 4;
+    static final int MAX_CACHED = 256;
+
+    //Attributes
+    private final DatabaseManager dbManager;
+    private final Map<String, Recommendation> cache = new LinkedHashMap<String, Recommendation>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Recommendation> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     Constructor(DiagramRecommender): Creates a recommender that reads from the given database manager.
+     * @param dbManager the database manager holding the library
+     **/
+    public DiagramRecommender(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        DataMetrics metrics = DataMetrics.get();
+        metrics.registerGauge("recommendations.cached", this::getCacheSize);
+        metrics.registerGauge("recommendations.hits", hits::sum);
+        metrics.registerGauge("recommendations.misses", misses::sum);
+    }
+
+    synchronized long getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     forgetCategory(): Drops the cached recommendation of a deleted category.
+     * @param categoryId the ID of the category
+     **/
+    public synchronized void forgetCategory(int categoryId) {
+        cache.remove("category:" + categoryId);
+    }
+
+    /**
+     forgetConcept(): Drops the cached recommendation of a deleted concept.
+     * @param conceptId the ID of the concept
+     **/
+    public synchronized void forgetConcept(int conceptId) {
+        cache.remove("concept:" + conceptId);
+    }
+
+    /**
+     clear(): Drops every cached recommendation, such as after the library is reloaded.
+     **/
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     SCORING
+     **/
+    /**
+     recommendForCategory(): Recommends a diagram type for a whole category.
+     * @param categoryId the ID of the category
+     * @return the recommendation, served from the cache when the category hasn't changed
+     **/
+    public synchronized Recommendation recommendForCategory(int categoryId) {
+        String key = "category:" + categoryId;
+        long version = dbManager.getCategoryVersion(categoryId);
+        Recommendation cached = cache.get(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Recommendation recommendation = score(measureCategory(categoryId));
+        recommendation.version = version;
+        cache.put(key, recommendation);
+        return recommendation;
+    }
+
+    /**
+     recommendForConcept(): Recommends a diagram type for a single concept and its components.
+     * @param conceptId the ID of the concept
+     * @return the recommendation, served from the cache when the concept's category hasn't changed
+     **/
+    public synchronized Recommendation recommendForConcept(int conceptId) {
+        String key = "concept:" + conceptId;
+        long version = dbManager.getCategoryVersion(dbManager.getCategoryIdOfConcept(conceptId));
+        Recommendation cached = cache.get(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Recommendation recommendation = score(measureConcept(conceptId));
+        recommendation.version = version;
+        cache.put(key, recommendation);
+        return recommendation;
+    }
+
+    /**
+     score(): Scores every diagram type from a set of features and keeps the reasons behind the winner.
+     * @param f the measured features
+     * @return the best-scoring recommendation
+     **/
+    public static Recommendation score(Features f) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        Map<String, List<String>> reasons = new HashMap<>();
+        for (String type : ConceptBreakdownToolApplication.DIAGRAM_TYPES) {
+            scores.put(type, 0.0);
+            reasons.put(type, new ArrayList<>());
+        }
+
+        double relationsPerConcept = f.conceptCount == 0 ? 0 : (double) f.relationCount / f.conceptCount;
+        double avgFanOut = f.averageFanOut();
+
+        // Sequential prerequisites read best as a flow
+        add(scores, reasons, "Flowchart", 0.6 * f.share(f.prerequisiteCount),
+                f.prerequisiteCount + " of " + f.relationCount + " relationships are prerequisites, which suggests a sequence");
+        add(scores, reasons, "Flowchart", between(f.conceptCount, 3, 15) ? 0.15 : 0,
+                f.conceptCount + " concepts is a readable number of steps");
+
+        // Two or three overlapping or contrasting groups
+        add(scores, reasons, "Venn Diagram", 0.5 * f.share(f.contrastCount),
+                f.contrastCount + " relationships contrast concepts with each other");
+        add(scores, reasons, "Venn Diagram", 0.35 * f.textOverlap,
+                percent(f.textOverlap) + " of the vocabulary is shared between entries");
+        add(scores, reasons, "Venn Diagram", between(f.conceptCount, 2, 3) ? 0.25 : 0,
+                "only " + f.conceptCount + " concepts to compare");
+
+        // Structured part/whole models
+        add(scores, reasons, "UML Diagram", 0.45 * f.share(f.partOfCount),
+                f.partOfCount + " part-of relationships describe a structure");
+        add(scores, reasons, "UML Diagram", f.depth >= 3 && between(avgFanOut, 2, 8) ? 0.2 : 0,
+                "three full levels with " + round(avgFanOut) + " components per concept on average");
+
+        // Deep, branching trees without many cross-links
+        add(scores, reasons, "Mind Map", f.depth >= 3 ? 0.25 : 0,
+                "the selection has " + f.depth + " populated levels");
+        add(scores, reasons, "Mind Map", 0.3 * Math.min(1.0, f.maxFanOut / 8.0),
+                "up to " + f.maxFanOut + " branches from a single node");
+        add(scores, reasons, "Mind Map", f.relationCount == 0 ? 0.15 : 0.15 * (1 - Math.min(1.0, f.density * 4)),
+                "few cross-links between concepts, so a tree stays readable");
+
+        // Several causes, each with a few contributing factors
+        add(scores, reasons, "Fishbone Diagram", between(f.conceptCount, 4, 8) && avgFanOut >= 2 ? 0.45 : 0,
+                f.conceptCount + " concepts with about " + round(avgFanOut) + " components each fit the bones of a fishbone");
+
+        // Densely linked ideas
+        add(scores, reasons, "Concept Map", 0.5 * Math.min(1.0, f.density * 3),
+                "relationship density of " + percent(f.density) + " between concepts");
+        add(scores, reasons, "Concept Map", 0.1 * f.relationTypeCount,
+                f.relationTypeCount + " different kinds of relationships to label");
+
+        // Many small, similar ideas to group
+        add(scores, reasons, "Affinity Diagram", 0.4 * Math.min(1.0, f.componentCount / 40.0),
+                f.componentCount + " components to sort into groups");
+        add(scores, reasons, "Affinity Diagram", 0.3 * f.textOverlap,
+                percent(f.textOverlap) + " word overlap hints at natural clusters");
+
+        // Many relationships per concept
+        add(scores, reasons, "Relationship Diagram", 0.4 * Math.min(1.0, relationsPerConcept / 2.0),
+                round(relationsPerConcept) + " relationships per concept");
+        add(scores, reasons, "Relationship Diagram", 0.3 * Math.min(1.0, f.density * 2),
+                "concepts are interlinked (" + percent(f.density) + " of possible links)");
+
+        String best = null;
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            if (best == null || entry.getValue() > scores.get(best)) {
+                best = entry.getKey();
+            }
+        }
+        if (scores.get(best) == 0) {
+            best = "Mind Map";
+            reasons.get(best).add("there is not enough structure yet, so start by branching ideas out from the topic");
+        }
+        return new Recommendation(best, scores, reasons.get(best), f);
+    }
+
+    /**
+     FEATURE EXTRACTION
+     **/
+    /**
+     measureCategory(): Measures a category by streaming its concepts and components once.
+     * @param categoryId the ID of the category
+     * @return the measured features
+     **/
+    Features measureCategory(int categoryId) {
+        String sql = "SELECT c.Concept_ID, c.Concept_Topic, c.Concept_Details, comp.Component_Topic, comp.Component_Description " +
+                "FROM Concept c LEFT JOIN Component comp ON comp.Concept_ID = c.Concept_ID " +
+                "WHERE c.Category_ID = ? ORDER BY c.Concept_ID";
+        return measure(sql, categoryId);
+    }
+
+    /**
+     measureConcept(): Measures a single concept, its components, and its relationships.
+     * @param conceptId the ID of the concept
+     * @return the measured features
+     **/
+    Features measureConcept(int conceptId) {
+        String sql = "SELECT c.Concept_ID, c.Concept_Topic, c.Concept_Details, comp.Component_Topic, comp.Component_Description " +
+                "FROM Concept c LEFT JOIN Component comp ON comp.Concept_ID = c.Concept_ID " +
+                "WHERE c.Concept_ID = ?";
+        return measure(sql, conceptId);
+    }
+
+    private Features measure(String sql, int id) {
+        Features f = new Features();
+        Map<String, Integer> wordDocuments = new HashMap<>();
+        Set<String> entryWords = new HashSet<>();
+        List<Integer> conceptIds = new ArrayList<>();
+        int currentConcept = -1;
+        int currentFanOut = 0;
+
+        try (Connection conn = dbManager.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int conceptId = rs.getInt(1);
+                    if (conceptId != currentConcept) {
+                        f.maxFanOut = Math.max(f.maxFanOut, currentFanOut);
+                        currentConcept = conceptId;
+                        currentFanOut = 0;
+                        conceptIds.add(conceptId);
+                        f.conceptCount++;
+                        countWords(rs.getString(2) + " " + rs.getString(3), entryWords, wordDocuments);
+                    }
+                    String componentTopic = rs.getString(4);
+                    if (componentTopic != null) {
+                        currentFanOut++;
+                        f.componentCount++;
+                        countWords(componentTopic + " " + rs.getString(5), entryWords, wordDocuments);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error measuring diagram features", e);
+        }
+        f.maxFanOut = Math.max(f.maxFanOut, currentFanOut);
+        f.maxFanOut = Math.max(f.maxFanOut, f.conceptCount > 1 ? f.conceptCount : 0);
+        f.depth = 1 + (f.conceptCount > 0 ? 1 : 0) + (f.componentCount > 0 ? 1 : 0);
+
+        int sharedWords = 0;
+        for (int documents : wordDocuments.values()) {
+            if (documents > 1) {
+                sharedWords++;
+            }
+        }
+        f.textOverlap = wordDocuments.isEmpty() ? 0 : (double) sharedWords / wordDocuments.size();
+
+        measureRelations(f, conceptIds);
+        return f;
+    }
+
+    /**
+     measureRelations(): Counts the relationships that start at the measured concepts, by type, using the in-memory graph.
+     For a whole category only links between its own concepts count towards density; a single concept counts all of its links.
+     **/
+    private void measureRelations(Features f, List<Integer> conceptIds) {
+        ConceptGraph graph = dbManager.getConceptGraph();
+        Set<Integer> inScope = new HashSet<>(conceptIds);
+        boolean singleConcept = conceptIds.size() == 1;
+        boolean[] typesSeen = new boolean[ConceptRelation.RelationType.values().length];
+        for (int conceptId : conceptIds) {
+            for (ConceptRelation.RelationType type : ConceptRelation.RelationType.values()) {
+                for (int target : graph.getOutgoing(conceptId, type)) {
+                    if (!singleConcept && !inScope.contains(target)) {
+                        continue;
+                    }
+                    f.relationCount++;
+                    typesSeen[type.ordinal()] = true;
+                    if (type == ConceptRelation.RelationType.PREREQUISITE_OF) {
+                        f.prerequisiteCount++;
+                    } else if (type == ConceptRelation.RelationType.PART_OF) {
+                        f.partOfCount++;
+                    } else if (type == ConceptRelation.RelationType.CONTRASTS_WITH) {
+                        f.contrastCount++;
+                    }
+                }
+            }
+            if (singleConcept) {
+                f.relationCount += graph.getIncoming(conceptId).length;
+            }
+        }
+        for (boolean seen : typesSeen) {
+            f.relationTypeCount += seen ? 1 : 0;
+        }
+        if (singleConcept) {
+            f.density = Math.min(1.0, f.relationCount / 5.0);
+        } else if (f.conceptCount > 1) {
+            f.density = (double) f.relationCount / ((long) f.conceptCount * (f.conceptCount - 1));
+        }
+    }
+
+    /**
+     countWords(): Counts each distinct word of an entry once towards the number of entries that use it.
+     **/
+    private static void countWords(String text, Set<String> entryWords, Map<String, Integer> wordDocuments) {
+        entryWords.clear();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() >= MIN_WORD_LENGTH && entryWords.add(word)) {
+                wordDocuments.merge(word, 1, Integer::sum);
+            }
+        }
+    }
+
+    private static void add(Map<String, Double> scores, Map<String, List<String>> reasons, String type, double points, String reason) {
+        if (points > 0) {
+            scores.put(type, scores.get(type) + points);
+            reasons.get(type).add(reason);
+        }
+    }
+
+    private static boolean between(double value, double min, double max) {
+        return value >= min && value <= max;
+    }
+
+    private static String percent(double value) {
+        return Math.round(value * 100) + "%";
+    }
+
+    private static String round(double value) {
+        return String.valueOf(Math.round(value * 10) / 10.0);
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    /**
+     Features: The measured structure of a category or concept.
+     **/
+    public static class Features {
+        int conceptCount;
+        int componentCount;
+        int depth = 1;
+        int maxFanOut;
+        double textOverlap;
+        int relationCount;
+        int relationTypeCount;
+        int prerequisiteCount;
+        int partOfCount;
+        int contrastCount;
+        double density;
+
+        double averageFanOut() {
+            return conceptCount == 0 ? 0 : (double) componentCount / conceptCount;
+        }
+
+        double share(int count) {
+            return relationCount == 0 ? 0 : (double) count / relationCount;
+        }
+
+        /**toString(): Summarizes the measured features.
+         * @return the features as one line of text **/
+        @Override
+        public String toString() {
+            return conceptCount + " concepts, " + componentCount + " components, depth " + depth
+                    + ", max fan-out " + maxFanOut + ", " + percent(textOverlap) + " word overlap, "
+                    + relationCount + " relationships (" + percent(density) + " density)";
+        }
+    }
+
+    /**
+     Recommendation: The chosen diagram type, every type's score, and the reasoning behind the choice.
+     **/
+    public static class Recommendation {
+        private final String diagramType;
+        private final Map<String, Double> scores;
+        private final List<String> reasons;
+        private final Features features;
+        private long version;
+
+        Recommendation(String diagramType, Map<String, Double> scores, List<String> reasons, Features features) {
+            this.diagramType = diagramType;
+            this.scores = Collections.unmodifiableMap(scores);
+            this.reasons = Collections.unmodifiableList(reasons);
+            this.features = features;
+        }
+
+        /**getDiagramType(): Gets the recommended diagram type. **/
+        public String getDiagramType() { return diagramType; }
+        /**getScores(): Gets the score of every diagram type, in DIAGRAM_TYPES order. **/
+        public Map<String, Double> getScores() { return scores; }
+        /**getReasons(): Gets the reasons the recommended type scored highest. **/
+        public List<String> getReasons() { return reasons; }
+        /**getFeatures(): Gets the measured features the recommendation was based on. **/
+        public Features getFeatures() { return features; }
+
+        /**explain(): Builds a readable explanation of the recommendation.
+         * @return the recommended type, the reasons, and the measured features **/
+        public String explain() {
+            StringBuilder text = new StringBuilder("Recommended diagram type: " + diagramType + "\nWhy:\n");
+            for (String reason : reasons) {
+                text.append("  - ").append(reason).append('\n');
+            }
+            text.append("Measured: ").append(features);
+            return text.toString();
+        }
+    }
+}
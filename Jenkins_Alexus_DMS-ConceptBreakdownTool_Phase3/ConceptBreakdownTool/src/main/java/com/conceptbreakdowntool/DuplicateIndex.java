@@ -0,0 +1,450 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: DuplicateIndex
+
+ Purpose: Locality-sensitive hash index used to spot near-duplicate concepts and components without comparing every pair of entries.
+
+ - HOW IT WORKS
+     * Each text is normalized and broken into overlapping 4-character shingles, so small typos and re-wordings still share most shingles.
+     * A MinHash signature of SIGNATURE_SIZE values summarizes the shingle set; the share of equal signature values estimates Jaccard similarity.
+     * The signature is split into BANDS bands of ROWS_PER_BAND values, and each band is hashed into a bucket. Texts that share any bucket become candidates,
+       so only candidates are ever compared, which keeps lookups close to constant time and the full report sub-quadratic.
+     * Entries are numbered with int IDs and buckets hold those IDs. A pair is compared only in the first band whose bucket holds both, so no
+       set of compared pairs is needed, and a bucket stops taking entries at MAX_BUCKET_SIZE so one common band can't make the report quadratic.
+     * Texts with fewer than MIN_SHINGLES shingles are left out; they are too short for the estimate to mean anything.
+ - INDEX MAINTENANCE
+     * add(), remove(), clear(): Keeps the index in step with the database.
+     * estimateBytes(): Estimates the heap the signatures, buckets, keys, and labels take.
+ - QUERY METHODS
+     * findSimilar(): Gathers indexed entries that closely match a piece of text.
+     * findAllDuplicates(): Gathers every pair of indexed entries that closely match each other.
+ - NESTED CLASSES
+     * Match: One near-duplicate pair with its estimated similarity.
+     * Bucket: The IDs of the entries whose signatures hash to one band value.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.*;
+
+public class DuplicateIndex {
+    private static final int SHINGLE_LENGTH = 4;
+    private static final int MIN_SHINGLES = 5;
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS_PER_BAND;
+    private static final int MAX_BUCKET_SIZE = 64;
+    private static final int[] SEEDS = createSeeds();
+
+    //Attributes: entry i is keys[i], labels[i], signatures[i]; bandMasks[i] has a bit set for each band bucket that holds i
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private String[] keys = new String[16];
+    private String[] labels = new String[16];
+    private int[][] signatures = new int[16][];
+    private int[] bandMasks = new int[16];
+    private int[] freeIds = new int[16]; // IDs of removed entries, reused before new ones
+    private int freeCount;
+    private int nextId;
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private double threshold;
+
+    /**
+     Constructor(DuplicateIndex): Creates an empty index.
+     * @param threshold the estimated similarity (0 to 1) at or above which two texts count as near-duplicates
+     **/
+    public DuplicateIndex(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     INDEX MAINTENANCE
+     **/
+    /**
+     add(): Adds or replaces an entry in the index.
+     * @param key a unique key for the entry, such as "concept:12"
+     * @param label the readable name shown in reports
+     * @param text the text to compare against other entries
+     **/
+    public synchronized void add(String key, String label, String text) {
+        remove(key);
+        int[] signature = signatureOf(text);
+        if (signature == null) {
+            return; // Too little comparable text
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : allocateId();
+        idsByKey.put(key, id);
+        keys[id] = key;
+        labels[id] = label;
+        signatures[id] = signature;
+        int mask = 0;
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.computeIfAbsent(bandKey(signature, band), k -> new Bucket());
+            if (bucket.size < MAX_BUCKET_SIZE) {
+                bucket.add(id);
+                mask |= 1 << band;
+            }
+        }
+        bandMasks[id] = mask;
+    }
+
+    /**
+     remove(): Removes an entry from the index.
+     * @param key the key the entry was added with
+     **/
+    public synchronized void remove(String key) {
+        Integer id = idsByKey.remove(key);
+        if (id == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            if ((bandMasks[id] & (1 << band)) != 0) {
+                long bucketKey = bandKey(signatures[id], band);
+                Bucket bucket = buckets.get(bucketKey);
+                bucket.remove(id);
+                if (bucket.size == 0) {
+                    buckets.remove(bucketKey);
+                }
+            }
+        }
+        keys[id] = null;
+        labels[id] = null;
+        signatures[id] = null;
+        bandMasks[id] = 0;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     clear(): Removes every entry from the index.
+     **/
+    public synchronized void clear() {
+        idsByKey.clear();
+        Arrays.fill(keys, 0, nextId, null);
+        Arrays.fill(labels, 0, nextId, null);
+        Arrays.fill(signatures, 0, nextId, null);
+        Arrays.fill(bandMasks, 0, nextId, 0);
+        freeCount = 0;
+        nextId = 0;
+        buckets.clear();
+    }
+
+    /**
+     size(): Gets the number of indexed entries.
+     * @return the number of entries
+     **/
+    public synchronized int size() {
+        return idsByKey.size();
+    }
+
+    /**
+     estimateBytes(): Estimates the heap the index takes: per entry its key and label, a boxed ID, and a signature of SIGNATURE_SIZE
+     ints; per bucket a boxed band key and its array of IDs, which holds a slot for each of the BANDS buckets an entry is in.
+     * @return the estimated bytes
+     **/
+    synchronized long estimateBytes() {
+        long bytes = HeapFootprint.hashMapBytes(idsByKey.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false)
+                + HeapFootprint.hashMapBytes(buckets.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false)
+                + 3 * HeapFootprint.arrayBytes(keys.length, HeapFootprint.REFERENCE) // keys, labels, signatures
+                + HeapFootprint.arrayBytes(bandMasks.length, HeapFootprint.INT) + HeapFootprint.arrayBytes(freeIds.length, HeapFootprint.INT);
+        for (int id = 0; id < nextId; id++) {
+            if (keys[id] != null) {
+                bytes += HeapFootprint.stringBytes(keys[id]) + HeapFootprint.stringBytes(labels[id]) + HeapFootprint.INTEGER_BYTES
+                        + HeapFootprint.arrayBytes(SIGNATURE_SIZE, HeapFootprint.INT);
+            }
+        }
+        for (Bucket bucket : buckets.values()) {
+            bytes += HeapFootprint.LONG_BYTES + Bucket.BYTES + HeapFootprint.arrayBytes(bucket.ids.length, HeapFootprint.INT);
+        }
+        return bytes;
+    }
+
+    /**
+     QUERY METHODS
+     **/
+    /**
+     findSimilar(): Gathers indexed entries that closely match a piece of text.
+     * @param text the text to check
+     * @param excludeKey a key to leave out of the results (the entry being edited), or null
+     * @return the matches, most similar first
+     **/
+    public synchronized List<Match> findSimilar(String text, String excludeKey) {
+        List<Match> matches = new ArrayList<>();
+        int[] signature = signatureOf(text);
+        if (signature == null) {
+            return matches;
+        }
+        long[] bandKeys = bandKeysOf(signature);
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.get(bandKeys[band]);
+            if (bucket == null) {
+                continue;
+            }
+            for (int k = 0; k < bucket.size; k++) {
+                int id = bucket.ids[k];
+                if (sharesEarlierBand(bandKeys, -1, id, band) || keys[id].equals(excludeKey)) {
+                    continue; // Already compared in an earlier band
+                }
+                double similarity = estimateSimilarity(signature, signatures[id]);
+                if (similarity >= threshold) {
+                    matches.add(new Match(keys[id], labels[id], null, null, similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed());
+        return matches;
+    }
+
+    /**
+     findAllDuplicates(): Gathers every pair of indexed entries that closely match each other.
+     Only entries that share an LSH bucket are compared, and each pair only once, so the cost grows with the number of candidate pairs
+     (at most MAX_BUCKET_SIZE per entry and band) rather than with the square of the library size.
+     * @return the near-duplicate pairs, most similar first
+     **/
+    public synchronized List<Match> findAllDuplicates() {
+        List<Match> matches = new ArrayList<>();
+        for (int id = 0; id < nextId; id++) {
+            if (signatures[id] == null) {
+                continue;
+            }
+            long[] bandKeys = bandKeysOf(signatures[id]);
+            for (int band = 0; band < BANDS; band++) {
+                if ((bandMasks[id] & (1 << band)) == 0) {
+                    continue;
+                }
+                Bucket bucket = buckets.get(bandKeys[band]);
+                for (int k = 0; k < bucket.size; k++) {
+                    int other = bucket.ids[k];
+                    if (other <= id || sharesEarlierBand(bandKeys, bandMasks[id], other, band)) {
+                        continue; // Each pair is compared once, by its lower ID, in the first bucket holding both
+                    }
+                    double similarity = estimateSimilarity(signatures[id], signatures[other]);
+                    if (similarity >= threshold) {
+                        matches.add(new Match(keys[id], labels[id], keys[other], labels[other], similarity));
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed());
+        return matches;
+    }
+
+    /**
+     getThreshold(): Gets the similarity at or above which texts count as near-duplicates.
+     * @return the similarity threshold
+     **/
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     setThreshold(): Sets the similarity at or above which texts count as near-duplicates.
+     * @param threshold the new threshold, between 0 and 1
+     **/
+    public synchronized void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+
+    private int allocateId() {
+        if (nextId == keys.length) {
+            int capacity = nextId * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            signatures = Arrays.copyOf(signatures, capacity);
+            bandMasks = Arrays.copyOf(bandMasks, capacity);
+        }
+        return nextId++;
+    }
+
+    /**
+     sharesEarlierBand(): Checks whether an entry sits in the same bucket as a signature in a band before the given one.
+     * @param bandKeys the bucket keys of the signature
+     * @param bandMask the bands whose buckets hold the signature, or -1 when the signature isn't an indexed entry
+     * @param id the entry to check
+     * @param band the band in which the entry was found
+     * @return true if the pair already met in an earlier band
+     **/
+    private boolean sharesEarlierBand(long[] bandKeys, int bandMask, int id, int band) {
+        int earlier = bandMask & bandMasks[id] & ((1 << band) - 1);
+        for (int b = 0; b < band; b++) {
+            if ((earlier & (1 << b)) != 0 && bandKey(signatures[id], b) == bandKeys[b]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     signatureOf(): Builds the MinHash signature of a text's character shingles.
+     * @param text the text to summarize
+     * @return the signature, or null if the text has fewer than MIN_SHINGLES shingles
+     **/
+    static int[] signatureOf(String text) {
+        String normalized = normalize(text);
+        int shingles = normalized.length() - SHINGLE_LENGTH + 1;
+        if (shingles < MIN_SHINGLES) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int start = 0; start < shingles; start++) {
+            int shingle = 0;
+            for (int i = start; i < start + SHINGLE_LENGTH; i++) {
+                shingle = shingle * 31 + normalized.charAt(i);
+            }
+            for (int h = 0; h < SIGNATURE_SIZE; h++) {
+                int value = mix(shingle ^ SEEDS[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     normalize(): Lower-cases a text and collapses everything that isn't a letter or digit into single spaces.
+     **/
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static double estimateSimilarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    private static long[] bandKeysOf(int[] signature) {
+        long[] bandKeys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            bandKeys[band] = bandKey(signature, band);
+        }
+        return bandKeys;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        int hash = 1;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            hash = hash * 31 + signature[row];
+        }
+        return ((long) band << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    /**
+     mix(): Murmur3 finalizer; turns each seeded shingle hash into an independent-looking hash function.
+     **/
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int[] createSeeds() {
+        Random random = new Random(0x5EED);
+        int[] seeds = new int[SIGNATURE_SIZE];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextInt();
+        }
+        return seeds;
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    /**
+     Bucket: The IDs of the entries whose signatures hash to one band value.
+     **/
+    private static class Bucket {
+        static final long BYTES = HeapFootprint.align(HeapFootprint.OBJECT_HEADER + HeapFootprint.REFERENCE + HeapFootprint.INT); // ids, size
+
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            for (int k = 0; k < size; k++) {
+                if (ids[k] == id) {
+                    ids[k] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     Match: One near-duplicate pair with its estimated similarity. For findSimilar() results only the first entry is set.
+     **/
+    public static class Match {
+        private final String key;
+        private final String label;
+        private final String otherKey;
+        private final String otherLabel;
+        private final double similarity;
+
+        Match(String key, String label, String otherKey, String otherLabel, double similarity) {
+            this.key = key;
+            this.label = label;
+            this.otherKey = otherKey;
+            this.otherLabel = otherLabel;
+            this.similarity = similarity;
+        }
+
+        /**getKey(): Gets the index key of the matched entry. **/
+        public String getKey() { return key; }
+        /**getLabel(): Gets the readable name of the matched entry. **/
+        public String getLabel() { return label; }
+        /**getOtherKey(): Gets the index key of the second entry of a pair, or null. **/
+        public String getOtherKey() { return otherKey; }
+        /**getOtherLabel(): Gets the readable name of the second entry of a pair, or null. **/
+        public String getOtherLabel() { return otherLabel; }
+        /**getSimilarity(): Gets the estimated similarity between 0 and 1. **/
+        public double getSimilarity() { return similarity; }
+
+        /**toString(): Returns a readable form of the match.
+         * @return the matched name(s) and similarity percentage **/
+        @Override
+        public String toString() {
+            String percent = Math.round(similarity * 100) + "% similar";
+            return otherLabel == null ? label + " (" + percent + ")" : label + "  <->  " + otherLabel + " (" + percent + ")";
+        }
+    }
+}
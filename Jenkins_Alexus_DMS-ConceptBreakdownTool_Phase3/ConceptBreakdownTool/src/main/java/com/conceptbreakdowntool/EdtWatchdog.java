@@ -0,0 +1,258 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: EdtWatchdog
+
+ Purpose: Watches the Event Dispatch Thread for stalls, so every place the windows do slow work on it can be found from data instead of
+ by waiting for the UI to freeze.
+
+ - HOW IT WORKS
+     * install() pushes an EdtWatchdog onto the system event queue; from then on every event dispatched on the EDT is timed.
+     * A daemon "edt-watchdog" thread looks at the event being dispatched several times per threshold (200 ms unless the application is
+       started with -Dconceptbreakdowntool.edt.stallMillis). Once a dispatch has run past the threshold it takes the EDT's stack trace
+       right then, while the EDT is still stuck, so the trace shows the slow code and not what ran after it.
+     * When the stalled dispatch ends it is logged at WARN with its duration, the event, and that stack trace, and kept in the list of
+       recent stalls. A dispatch still stuck after STUCK_MILLIS is logged straight away, since it may never end.
+     * Modal dialogs dispatch events from inside the event that opened them; the time spent in such a nested loop is not counted
+       against the event that opened the dialog, so waiting on a dialog is not a stall.
+     * DataMetrics shows every dispatch under edt.dispatch and every stall under edt.stall, with counts and latency percentiles.
+     * -Dconceptbreakdowntool.edt.watchdog=false leaves the event queue alone.
+ - METHODS
+     * install(): Starts watching the EDT, once.
+     * getStallCount(), getRecentStalls(): Gathers how many stalls were seen, or the most recent ones with their stack traces.
+     * shutdown(): Stops the watchdog thread.
+ - NESTED CLASSES
+     * Stall: One stalled dispatch: the event, how long it took, and where the EDT was when it was caught.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EdtWatchdog extends EventQueue {
+    static final int MAX_RECENT_STALLS = 20;
+    static final long STUCK_MILLIS = 5000;
+    private static final int CHECKS_PER_THRESHOLD = 4;
+    private static final Log LOG = Log.get(EdtWatchdog.class);
+    private static final DataMetrics METRICS = DataMetrics.get();
+    private static final DataMetrics.Operation DISPATCH_METRIC = METRICS.operation("edt.dispatch");
+    private static final DataMetrics.Operation STALL_METRIC = METRICS.operation("edt.stall");
+    private static EdtWatchdog installed; // Guarded by EdtWatchdog.class
+
+    //Attributes
+    private final long thresholdNanos;
+    private final Thread watchdog;
+    private final Deque<Dispatch> dispatches = new ArrayDeque<>(); // Only touched on the EDT; nested when a modal dialog is open
+    private volatile Dispatch current; // Read by the watchdog thread
+    private final Deque<Stall> recentStalls = new ArrayDeque<>(); // Guarded by itself
+    private final LongAdder stallCount = new LongAdder();
+
+    /**
+     Constructor: Starts the watchdog thread; install() is what puts the queue in use.
+     * @param thresholdMillis how long a dispatch may take before it counts as a stall
+     **/
+    EdtWatchdog(long thresholdMillis) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("The stall threshold must be positive: " + thresholdMillis);
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.watchdog = new Thread(this::watch, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /**
+     install(): Puts a watchdog in front of the system event queue, unless watching is turned off or one is already installed.
+     * @return the installed watchdog, or null if watching is turned off
+     **/
+    public static synchronized EdtWatchdog install() {
+        if (installed == null && !"false".equalsIgnoreCase(System.getProperty("conceptbreakdowntool.edt.watchdog"))) {
+            installed = new EdtWatchdog(Long.getLong("conceptbreakdowntool.edt.stallMillis", 200));
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+        }
+        return installed;
+    }
+
+    public long getStallCount() {
+        return stallCount.sum();
+    }
+
+    /**
+     getRecentStalls(): Gathers the most recent stalls.
+     * @return up to MAX_RECENT_STALLS stalls, oldest first
+     **/
+    public List<Stall> getRecentStalls() {
+        synchronized (recentStalls) {
+            return new ArrayList<>(recentStalls);
+        }
+    }
+
+    public void shutdown() {
+        watchdog.interrupt();
+    }
+
+
+    /**
+     dispatchEvent(): Times each event, setting aside the time spent in any nested loop that the event starts.
+     **/
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long now = System.nanoTime();
+        Dispatch outer = dispatches.peek();
+        if (outer != null) {
+            outer.pause(now);
+        }
+        Dispatch dispatch = new Dispatch(event, Thread.currentThread(), now);
+        dispatches.push(dispatch);
+        current = dispatch;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            now = System.nanoTime();
+            dispatches.pop();
+            finish(dispatch, dispatch.busyNanos(now));
+            if (outer != null) {
+                outer.resume(now);
+            }
+            current = outer;
+        }
+    }
+
+    private void finish(Dispatch dispatch, long busyNanos) {
+        if (METRICS.isEnabled()) {
+            DISPATCH_METRIC.recordNanos(busyNanos);
+        }
+        if (busyNanos < thresholdNanos) {
+            return;
+        }
+        if (METRICS.isEnabled()) {
+            STALL_METRIC.recordNanos(busyNanos);
+        }
+        stallCount.increment();
+        Stall stall = new Stall(dispatch.describe(), busyNanos, dispatch.stack);
+        synchronized (recentStalls) {
+            if (recentStalls.size() == MAX_RECENT_STALLS) {
+                recentStalls.removeFirst();
+            }
+            recentStalls.addLast(stall);
+        }
+        LOG.warn(stall::toString);
+    }
+
+    /**
+     watch(): Runs on the watchdog thread; catches the EDT's stack trace while a dispatch is over the threshold.
+     **/
+    private void watch() {
+        long pollMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / CHECKS_PER_THRESHOLD);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            Dispatch dispatch = current;
+            if (dispatch == null) {
+                continue;
+            }
+            long busyNanos = dispatch.busyNanos(System.nanoTime());
+            if (busyNanos >= thresholdNanos && dispatch.stack == null) {
+                dispatch.stack = dispatch.thread.getStackTrace();
+            }
+            if (busyNanos >= TimeUnit.MILLISECONDS.toNanos(STUCK_MILLIS) && !dispatch.reportedStuck) {
+                dispatch.reportedStuck = true;
+                LOG.warn(() -> "The EDT has been stuck for " + TimeUnit.NANOSECONDS.toMillis(busyNanos) + " ms dispatching "
+                        + dispatch.describe() + Stall.format(dispatch.thread.getStackTrace()));
+            }
+        }
+    }
+
+
+    /**
+     Dispatch: One event being dispatched. Only the EDT writes its times; the watchdog thread reads them.
+     **/
+    private static class Dispatch {
+        final AWTEvent event;
+        final Thread thread;
+        volatile long segmentStart; // 0 while a nested loop runs
+        volatile long busyBefore;
+        volatile StackTraceElement[] stack; // Written once by the watchdog
+        volatile boolean reportedStuck;
+
+        Dispatch(AWTEvent event, Thread thread, long start) {
+            this.event = event;
+            this.thread = thread;
+            this.segmentStart = start;
+        }
+
+        void pause(long now) {
+            busyBefore += now - segmentStart;
+            segmentStart = 0;
+        }
+
+        void resume(long now) {
+            segmentStart = now;
+        }
+
+        long busyNanos(long now) {
+            long start = segmentStart;
+            return busyBefore + (start == 0 ? 0 : now - start);
+        }
+
+        String describe() {
+            return event.getClass().getSimpleName() + "[" + event.paramString() + "] on " + event.getSource();
+        }
+    }
+
+    /**
+     Stall: One dispatch that took longer than the threshold.
+     **/
+    public static class Stall {
+        private final String event;
+        private final long durationNanos;
+        private final StackTraceElement[] stack;
+
+        Stall(String event, long durationNanos, StackTraceElement[] stack) {
+            this.event = event;
+            this.durationNanos = durationNanos;
+            this.stack = stack == null ? new StackTraceElement[0] : stack;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        /** getStack(): Gathers where the EDT was once the stall passed the threshold; empty if it ended before the watchdog looked. **/
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "EDT stall of " + getDurationMillis() + " ms dispatching " + event + format(stack);
+        }
+
+        static String format(StackTraceElement[] stack) {
+            StringBuilder text = new StringBuilder();
+            for (StackTraceElement element : stack) {
+                text.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+            return text.toString();
+        }
+    }
+}
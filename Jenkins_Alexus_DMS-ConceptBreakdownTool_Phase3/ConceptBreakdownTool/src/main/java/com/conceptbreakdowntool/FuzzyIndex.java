@@ -0,0 +1,342 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: FuzzyIndex
+
+ Purpose: Typo-tolerant lookup of names and topics. Finds the entries within a small edit distance of what the user typed,
+ so prompts can offer "did you mean" suggestions instead of making the user re-enter everything.
+
+ - HOW IT WORKS
+     * Entries live in a BK-tree keyed by their lower-cased text. Each node's children are filed by their Levenshtein distance to the node,
+       so by the triangle inequality a search for distance k only has to visit children filed between d - k and d + k,
+       which skips most of the tree instead of comparing against every entry.
+     * Entries that share the same text share a node. Removing the last entry of a node leaves it behind as an empty placeholder
+       that keeps the tree valid; the tree is rebuilt once placeholders outnumber live nodes.
+     * A hash map from each lower-cased text to its node makes exact lookups, removals, and repeated texts constant time;
+       only fuzzy searches and new texts walk the tree.
+ - INDEX MAINTENANCE
+     * add(), remove(), clear(): Keeps the index in step with the database.
+     * estimateBytes(): Estimates the heap the tree and its maps take.
+ - QUERY METHODS
+     * findExact(): Gathers the keys whose text matches, ignoring case.
+     * search(): Gathers the closest entries within an edit distance, best first.
+     * defaultMaxDistance(): The number of typos tolerated for a piece of text of a given length.
+ - NESTED CLASSES
+     * Suggestion: One matching text, its edit distance, and the keys filed under it.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.*;
+
+public class FuzzyIndex<K> {
+    private static final int DEFAULT_LIMIT = 5;
+
+    //Attributes
+    private Node<K> root;
+    private final Map<String, Node<K>> nodesByTerm = new HashMap<>();
+    private final Map<K, String> keyTerms = new HashMap<>();
+    private int nodeCount;
+    private int emptyNodeCount;
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+
+    /**
+     INDEX MAINTENANCE
+     **/
+    /**
+     add(): Adds or replaces an entry in the index.
+     * @param key the entry's key, such as a category ID
+     * @param text the name or topic to match against
+     **/
+    public synchronized void add(K key, String text) {
+        remove(key);
+        String term = normalize(text);
+        if (term.isEmpty()) {
+            return;
+        }
+        Node<K> node = insert(term);
+        if (node.entries.isEmpty()) {
+            emptyNodeCount--;
+        }
+        node.entries.put(key, text.trim());
+        keyTerms.put(key, term);
+    }
+
+    /**
+     remove(): Removes an entry from the index.
+     * @param key the key the entry was added with
+     **/
+    public synchronized void remove(K key) {
+        String term = keyTerms.remove(key);
+        if (term == null) {
+            return;
+        }
+        Node<K> node = find(term);
+        if (node != null && node.entries.remove(key) != null && node.entries.isEmpty()) {
+            emptyNodeCount++;
+            if (emptyNodeCount > nodeCount / 2) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     clear(): Removes every entry from the index.
+     **/
+    public synchronized void clear() {
+        root = null;
+        nodesByTerm.clear();
+        keyTerms.clear();
+        nodeCount = 0;
+        emptyNodeCount = 0;
+    }
+
+    /**
+     size(): Gets the number of indexed entries.
+     * @return the number of entries
+     **/
+    public synchronized int size() {
+        return keyTerms.size();
+    }
+
+    /**
+     estimateBytes(): Estimates the heap the index takes: per node its lower-cased term, its map of entries, and its map of children;
+     per entry its key and the lower-cased term it is filed under. The original texts are shared with the entries and not counted,
+     nor are the distances the children are filed by, which are small enough to be cached Integers.
+     * @return the estimated bytes
+     **/
+    synchronized long estimateBytes() {
+        long bytes = HeapFootprint.hashMapBytes(nodesByTerm.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false)
+                + HeapFootprint.hashMapBytes(keyTerms.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false)
+                + HeapFootprint.arrayBytes(previousRow.length, HeapFootprint.INT) + HeapFootprint.arrayBytes(currentRow.length, HeapFootprint.INT);
+        for (Node<K> node : nodesByTerm.values()) {
+            bytes += Node.BYTES + HeapFootprint.stringBytes(node.term) + HeapFootprint.hashMapBytes(node.entries.size(), 2, true);
+            if (node.children != null) {
+                bytes += HeapFootprint.hashMapBytes(node.children.size(), 4, false);
+            }
+        }
+        for (Map.Entry<K, String> entry : keyTerms.entrySet()) {
+            K key = entry.getKey();
+            bytes += (key instanceof String ? HeapFootprint.stringBytes((String) key) : HeapFootprint.INTEGER_BYTES)
+                    + HeapFootprint.stringBytes(entry.getValue());
+        }
+        return bytes;
+    }
+
+
+    /**
+     QUERY METHODS
+     **/
+    /**
+     findExact(): Gathers the keys whose text matches, ignoring case and surrounding spaces, in constant time through the term map.
+     * @param text the text to look up
+     * @return the matching keys, empty if there are none
+     **/
+    public synchronized List<K> findExact(String text) {
+        Node<K> node = find(normalize(text));
+        return node == null ? new ArrayList<>() : new ArrayList<>(node.entries.keySet());
+    }
+
+    /**
+     search(): Gathers the closest entries within the default number of typos for the query's length.
+     * @param query the text the user typed
+     * @return up to five suggestions, closest first
+     **/
+    public List<Suggestion<K>> search(String query) {
+        return search(query, defaultMaxDistance(query), DEFAULT_LIMIT);
+    }
+
+    /**
+     search(): Gathers the closest entries within an edit distance.
+     * @param query the text the user typed
+     * @param maxDistance the largest number of inserted, deleted, or changed characters to allow
+     * @param limit the largest number of suggestions to return
+     * @return the suggestions, closest first, then alphabetically
+     **/
+    public synchronized List<Suggestion<K>> search(String query, int maxDistance, int limit) {
+        List<Suggestion<K>> suggestions = new ArrayList<>();
+        String term = normalize(query);
+        if (root == null || term.isEmpty()) {
+            return suggestions;
+        }
+        Deque<Node<K>> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node<K> node = pending.pop();
+            int distance = distance(term, node.term);
+            if (distance <= maxDistance && !node.entries.isEmpty()) {
+                suggestions.add(new Suggestion<>(node.entries.values().iterator().next(), distance, new ArrayList<>(node.entries.keySet())));
+            }
+            if (node.children != null) {
+                for (Map.Entry<Integer, Node<K>> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        }
+        suggestions.sort(Comparator.<Suggestion<K>>comparingInt(Suggestion::getDistance).thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER));
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    /**
+     defaultMaxDistance(): The number of typos tolerated for a piece of text: one for short words, two for medium ones, three for long names.
+     * @param text the text the user typed
+     * @return the edit distance to allow
+     **/
+    public static int defaultMaxDistance(String text) {
+        int length = normalize(text).length();
+        return length <= 4 ? 1 : length <= 10 ? 2 : 3;
+    }
+
+
+    private Node<K> insert(String term) {
+        Node<K> existing = nodesByTerm.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        if (root == null) {
+            root = new Node<>(term);
+            nodesByTerm.put(term, root);
+            nodeCount = 1;
+            emptyNodeCount = 1;
+            return root;
+        }
+        Node<K> node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return node;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node<K> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(term);
+                node.children.put(distance, child);
+                nodesByTerm.put(term, child);
+                nodeCount++;
+                emptyNodeCount++;
+                return child;
+            }
+            node = child;
+        }
+    }
+
+    private Node<K> find(String term) {
+        return nodesByTerm.get(term);
+    }
+
+    /**
+     rebuild(): Re-inserts the live entries into a fresh tree, dropping the empty placeholders.
+     **/
+    private void rebuild() {
+        List<Node<K>> live = new ArrayList<>();
+        Deque<Node<K>> pending = new ArrayDeque<>();
+        if (root != null) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            Node<K> node = pending.pop();
+            if (!node.entries.isEmpty()) {
+                live.add(node);
+            }
+            if (node.children != null) {
+                pending.addAll(node.children.values());
+            }
+        }
+        root = null;
+        nodesByTerm.clear();
+        nodeCount = 0;
+        emptyNodeCount = 0;
+        for (Node<K> old : live) {
+            Node<K> node = insert(old.term);
+            node.entries.putAll(old.entries);
+            emptyNodeCount--;
+        }
+    }
+
+    /**
+     distance(): Levenshtein distance between two terms, using two reusable rows instead of a full matrix.
+     **/
+    private int distance(String a, String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+        int n = b.length();
+        if (previousRow.length <= n) {
+            previousRow = new int[n + 1];
+            currentRow = new int[n + 1];
+        }
+        for (int j = 0; j <= n; j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            currentRow[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                int substitution = previousRow[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                currentRow[j] = Math.min(substitution, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+            }
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[n];
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase();
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    private static class Node<K> {
+        static final long BYTES = HeapFootprint.align(HeapFootprint.OBJECT_HEADER + 3 * HeapFootprint.REFERENCE); // term, entries, children
+
+        final String term;
+        final Map<K, String> entries = new LinkedHashMap<>(2);
+        Map<Integer, Node<K>> children;
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+
+    /**
+     Suggestion: One matching text, how many edits away it is, and the keys filed under it.
+     **/
+    public static class Suggestion<K> {
+        private final String text;
+        private final int distance;
+        private final List<K> keys;
+
+        Suggestion(String text, int distance, List<K> keys) {
+            this.text = text;
+            this.distance = distance;
+            this.keys = keys;
+        }
+
+        /**getText(): Gets the matching name or topic as it was entered. **/
+        public String getText() { return text; }
+        /**getDistance(): Gets the number of edits between the query and the text. **/
+        public int getDistance() { return distance; }
+        /**getKeys(): Gets the keys of every entry with this text. **/
+        public List<K> getKeys() { return keys; }
+
+        /**toString(): Returns the matching text, so suggestions can be listed directly in dialogs.
+         * @return the matching text **/
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: HeapFootprint
+
+ Purpose: Estimates how much heap a loaded library takes, per kind of entry and in duplicated strings, and projects it to a larger
+ library, so heap settings can be planned and memory changes to the model can be checked.
+
+ - HOW IT WORKS
+     * measure() walks the categories, concepts, and components a DatabaseManager holds and adds up the size of each object from the
+       JVM's object layout: a 12-byte header with compressed references (16 without), 4-byte references (8 without), every object
+       padded to 8 bytes. Whether references are compressed and strings are compact (one byte per character when they can be) is
+       read from the running JVM.
+     * A string is counted where it is first found, so one instance shared by many entries is counted once. Equal strings that are
+       separate instances are counted each time and reported as duplicated strings, with what keeping one copy of each would save.
+     * A concept's components list and the DatabaseManager's own lists are counted with the capacity an ArrayList has after growing
+       one element at a time, which is how they are filled.
+     * The hierarchy, the topic indexes (BK-trees), the duplicate indexes (a MinHash signature and a slot in each band's bucket per entry),
+       and the relationship graph's arrays are estimated by each structure from the same layout, with hash maps counted as their
+       table plus one node per entry. The caches and the UI are not estimated; usedHeapAfterGc() gives the whole heap in use to compare with.
+ - METHODS
+     * measure(): Estimates the footprint of what a DatabaseManager has loaded, and of the structures it keeps over it.
+     * arrayBytes(), arrayListBytes(), hashMapBytes(): Sizes of the collections the structures are built from.
+     * usedHeapAfterGc(): Asks for a garbage collection and gathers the heap still in use.
+ - NESTED CLASSES
+     * Report: Bytes and counts per kind of entry, the duplicated strings, and project() for a library of another size.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HeapFootprint {
+    static final boolean COMPRESSED_OOPS = vmOption("UseCompressedOops", true);
+    static final boolean COMPACT_STRINGS = vmOption("CompactStrings", false); // Not an option before Java 9, where strings are never compact
+    static final int OBJECT_HEADER = COMPRESSED_OOPS ? 12 : 16;
+    static final int ARRAY_HEADER = COMPRESSED_OOPS ? 16 : 24;
+    static final int REFERENCE = COMPRESSED_OOPS ? 4 : 8;
+    private static final int ALIGNMENT = 8;
+    static final int INT = 4;
+    static final int HASH_MAP_DEFAULT_CAPACITY = 16;
+    private static final int ARRAY_LIST_DEFAULT_CAPACITY = 10;
+    private static final int TOP_DUPLICATES = 5;
+
+    // Shallow sizes of the model's objects; each adds up its fields
+    static final long CATEGORY_BYTES = align(OBJECT_HEADER + INT + REFERENCE); // id, topic
+    static final long CONCEPT_BYTES = align(OBJECT_HEADER + INT + 4 * REFERENCE); // id, topic, category, components, details
+    static final long COMPONENT_BYTES = align(OBJECT_HEADER + 2 * REFERENCE + INT); // topic, details, conceptId
+    static final long ARRAY_LIST_BYTES = align(OBJECT_HEADER + 2 * INT + REFERENCE); // size, modCount, elementData
+    static final long INTEGER_BYTES = align(OBJECT_HEADER + INT);
+    static final long LONG_BYTES = align(OBJECT_HEADER + 8);
+    static final long HASH_MAP_BYTES = align(OBJECT_HEADER + 4 * REFERENCE + 4 * INT); // table, entrySet, keySet, values, size, modCount, threshold, loadFactor
+    static final long LINKED_HASH_MAP_BYTES = align(OBJECT_HEADER + 6 * REFERENCE + 4 * INT + 1); // plus head, tail, accessOrder
+    static final long HASH_MAP_NODE_BYTES = align(OBJECT_HEADER + INT + 3 * REFERENCE); // hash, key, value, next
+    static final long LINKED_HASH_MAP_NODE_BYTES = align(OBJECT_HEADER + INT + 5 * REFERENCE); // plus before, after
+    static final long STRING_BYTES = COMPACT_STRINGS
+            ? align(OBJECT_HEADER + REFERENCE + INT + 2) // value, hash, coder, hashIsZero
+            : align(OBJECT_HEADER + REFERENCE + INT); // value, hash
+
+    //Attributes
+    private final IdentityHashMap<String, Boolean> counted = new IdentityHashMap<>();
+    private final Map<String, Integer> instancesByValue = new HashMap<>();
+
+    private HeapFootprint() {
+    }
+
+    /**
+     measure(): Estimates the heap taken by the entries a DatabaseManager has loaded, and by its hierarchy, indexes, and graph. Indexes
+     still being built after a load are waited for, and the graph is built if it hasn't been yet.
+     * @param dbManager the manager whose categories, concepts, and components are measured
+     * @return the estimate
+     **/
+    public static Report measure(DatabaseManager dbManager) {
+        HeapFootprint footprint = new HeapFootprint();
+        long categoryBytes = 0;
+        for (Category category : dbManager.getCategories()) {
+            categoryBytes += CATEGORY_BYTES + footprint.string(category.getTopic());
+        }
+        long conceptBytes = 0;
+        for (Concept concept : dbManager.getConcepts()) {
+            conceptBytes += CONCEPT_BYTES + footprint.string(concept.getTopic()) + footprint.string(concept.getCategory())
+                    + footprint.string(concept.getDetails()) + arrayListBytes(concept.getComponents().size());
+        }
+        long componentBytes = 0;
+        for (Component component : dbManager.getComponents()) {
+            componentBytes += COMPONENT_BYTES + footprint.string(component.getTopic()) + footprint.string(component.getDetails());
+        }
+        long listBytes = arrayListBytes(dbManager.getCategories().size()) + arrayListBytes(dbManager.getConcepts().size())
+                + arrayListBytes(dbManager.getComponents().size());
+        return new Report(dbManager.getCategories().size(), categoryBytes, dbManager.getConcepts().size(), conceptBytes,
+                dbManager.getComponents().size(), componentBytes, listBytes, dbManager.getHierarchy().estimateBytes(),
+                dbManager.estimateTopicIndexBytes(), dbManager.estimateDuplicateIndexBytes(), dbManager.getConceptGraph().estimateBytes(),
+                footprint.duplicates());
+    }
+
+    /**
+     usedHeapAfterGc(): Asks the JVM to collect garbage, then gathers how much heap is still in use. The collection is only a request,
+     so the figure is an upper bound of what is reachable.
+     * @return the bytes of heap in use
+     **/
+    public static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+
+    /**
+     string(): Gathers the size of a string and its characters, or 0 if this instance was already counted.
+     **/
+    private long string(String text) {
+        if (text == null || counted.put(text, Boolean.TRUE) != null) {
+            return 0;
+        }
+        instancesByValue.merge(text, 1, Integer::sum);
+        return stringBytes(text);
+    }
+
+    static long stringBytes(String text) {
+        return STRING_BYTES + align(ARRAY_HEADER + (long) text.length() * (COMPACT_STRINGS && isLatin1(text) ? 1 : 2));
+    }
+
+    private static boolean isLatin1(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     arrayListBytes(): Gathers the size of an ArrayList filled one element at a time: nothing for its array while it is empty, then a
+     capacity of 10 that grows by half whenever it is full.
+     **/
+    static long arrayListBytes(int size) {
+        if (size == 0) {
+            return ARRAY_LIST_BYTES; // Shares the empty array every new ArrayList starts with
+        }
+        return arrayListBytes(size, ARRAY_LIST_DEFAULT_CAPACITY);
+    }
+
+    /**
+     arrayListBytes(): Gathers the size of an ArrayList created with an initial capacity and filled one element at a time; it grows by
+     half, and by at least one, whenever it is full.
+     **/
+    static long arrayListBytes(int size, int initialCapacity) {
+        long capacity = initialCapacity;
+        while (capacity < size) {
+            capacity += Math.max(1, capacity >> 1);
+        }
+        return ARRAY_LIST_BYTES + arrayBytes(capacity, REFERENCE);
+    }
+
+    /**
+     arrayBytes(): Gathers the size of an array.
+     * @param elementBytes the size of one element: REFERENCE for objects, INT for ints, 1 for bytes
+     **/
+    static long arrayBytes(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    /**
+     hashMapBytes(): Gathers the size of a HashMap or LinkedHashMap without its keys and values: the map, its table, and one node per
+     entry. The table is allocated on the first put at the initial capacity, rounded up to a power of two, and doubles whenever it
+     is more than three quarters full.
+     **/
+    static long hashMapBytes(int size, int initialCapacity, boolean linked) {
+        long bytes = linked ? LINKED_HASH_MAP_BYTES : HASH_MAP_BYTES;
+        if (size == 0) {
+            return bytes;
+        }
+        long capacity = Integer.highestOneBit(Math.max(1, initialCapacity - 1) << 1);
+        while (capacity * 3 / 4 < size) {
+            capacity *= 2;
+        }
+        return bytes + arrayBytes(capacity, REFERENCE) + size * (linked ? LINKED_HASH_MAP_NODE_BYTES : HASH_MAP_NODE_BYTES);
+    }
+
+    private List<DuplicateString> duplicates() {
+        List<DuplicateString> duplicates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : instancesByValue.entrySet()) {
+            if (entry.getValue() > 1) {
+                duplicates.add(new DuplicateString(entry.getKey(), entry.getValue()));
+            }
+        }
+        duplicates.sort(Comparator.comparingLong(DuplicateString::getWastedBytes).reversed());
+        return duplicates;
+    }
+
+    static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static boolean vmOption(String name, boolean fallback) {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Boolean.parseBoolean(hotSpot.getVMOption(name).getValue());
+        } catch (RuntimeException | LinkageError e) {
+            return fallback; // Not HotSpot, or no such option in this version
+        }
+    }
+
+
+    /**
+     DuplicateString: One string value held by several separate instances.
+     **/
+    public static class DuplicateString {
+        private final String value;
+        private final int instances;
+
+        DuplicateString(String value, int instances) {
+            this.value = value;
+            this.instances = instances;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getInstances() {
+            return instances;
+        }
+
+        /** getWastedBytes(): Gathers what sharing one instance of the value would save. **/
+        public long getWastedBytes() {
+            return (instances - 1) * stringBytes(value);
+        }
+    }
+
+    /**
+     Report: The estimate for one library.
+     **/
+    public static class Report {
+        private final int categories;
+        private final long categoryBytes;
+        private final int concepts;
+        private final long conceptBytes;
+        private final int components;
+        private final long componentBytes;
+        private final long listBytes;
+        private final long hierarchyBytes;
+        private final long topicIndexBytes;
+        private final long duplicateIndexBytes;
+        private final long graphBytes;
+        private final List<DuplicateString> duplicates;
+
+        Report(int categories, long categoryBytes, int concepts, long conceptBytes, int components, long componentBytes, long listBytes,
+               long hierarchyBytes, long topicIndexBytes, long duplicateIndexBytes, long graphBytes, List<DuplicateString> duplicates) {
+            this.categories = categories;
+            this.categoryBytes = categoryBytes;
+            this.concepts = concepts;
+            this.conceptBytes = conceptBytes;
+            this.components = components;
+            this.componentBytes = componentBytes;
+            this.listBytes = listBytes;
+            this.hierarchyBytes = hierarchyBytes;
+            this.topicIndexBytes = topicIndexBytes;
+            this.duplicateIndexBytes = duplicateIndexBytes;
+            this.graphBytes = graphBytes;
+            this.duplicates = duplicates;
+        }
+
+        /** getCategoryBytes(), getConceptBytes(), getComponentBytes(): Gathers the bytes of each kind of entry, with its strings. **/
+        public long getCategoryBytes() {
+            return categoryBytes;
+        }
+
+        public long getConceptBytes() {
+            return conceptBytes;
+        }
+
+        public long getComponentBytes() {
+            return componentBytes;
+        }
+
+        /** getListBytes(): Gathers the bytes of the lists DatabaseManager keeps every entry in. **/
+        public long getListBytes() {
+            return listBytes;
+        }
+
+        /**
+         getHierarchyBytes(), getTopicIndexBytes(), getDuplicateIndexBytes(), getGraphBytes(): Gathers the bytes of each structure kept
+         over the entries, without the entries themselves.
+         **/
+        public long getHierarchyBytes() {
+            return hierarchyBytes;
+        }
+
+        public long getTopicIndexBytes() {
+            return topicIndexBytes;
+        }
+
+        public long getDuplicateIndexBytes() {
+            return duplicateIndexBytes;
+        }
+
+        public long getGraphBytes() {
+            return graphBytes;
+        }
+
+        public long getIndexBytes() {
+            return hierarchyBytes + topicIndexBytes + duplicateIndexBytes + graphBytes;
+        }
+
+        public long getTotalBytes() {
+            return categoryBytes + conceptBytes + componentBytes + listBytes + getIndexBytes();
+        }
+
+        /** getDuplicates(): Gathers every duplicated string value, most wasteful first. **/
+        public List<DuplicateString> getDuplicates() {
+            return duplicates;
+        }
+
+        public long getDuplicateBytes() {
+            long wasted = 0;
+            for (DuplicateString duplicate : duplicates) {
+                wasted += duplicate.getWastedBytes();
+            }
+            return wasted;
+        }
+
+        /**
+         project(): Estimates the footprint of a library of another size, from the average size of each kind of entry here. A kind of
+         entry this library has none of is counted with its object alone. The hierarchy, indexes, and graph are projected from their
+         average per entry, so a library with no entries projects none of them.
+         * @return the projected bytes
+         **/
+        public long project(long targetCategories, long targetConcepts, long targetComponents) {
+            long targetEntries = targetCategories + targetConcepts + targetComponents;
+            return Math.round(targetCategories * average(categoryBytes, categories, CATEGORY_BYTES)
+                    + targetConcepts * average(conceptBytes, concepts, CONCEPT_BYTES)
+                    + targetComponents * average(componentBytes, components, COMPONENT_BYTES)
+                    + targetEntries * REFERENCE * 1.25 // Lists are 1 to 1.5 times full
+                    + targetEntries * average(getIndexBytes(), categories + concepts + components, 0));
+        }
+
+        /**
+         projectForConcepts(): Estimates the footprint of a library with a number of concepts, keeping this library's categories and
+         components per concept.
+         **/
+        public long projectForConcepts(long targetConcepts) {
+            double scale = concepts == 0 ? 0 : (double) targetConcepts / concepts;
+            return project(Math.round(categories * scale), targetConcepts, Math.round(components * scale));
+        }
+
+        private static double average(long bytes, int count, long fallback) {
+            return count == 0 ? fallback : (double) bytes / count;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Heap footprint estimate (%s references, %s strings)%n",
+                    COMPRESSED_OOPS ? "compressed" : "uncompressed", COMPACT_STRINGS ? "compact" : "UTF-16"));
+            out.append(String.format("%-12s %10s %14s %12s%n", "Entries", "Count", "Bytes", "Bytes each"));
+            row(out, "Categories", categories, categoryBytes);
+            row(out, "Concepts", concepts, conceptBytes);
+            row(out, "Components", components, componentBytes);
+            out.append(String.format("%-12s %10s %,14d%n", "Lists", "", listBytes));
+            out.append(String.format("%-12s %10s %,14d%n", "Hierarchy", "", hierarchyBytes));
+            out.append(String.format("%-12s %10s %,14d%n", "Topic index", "", topicIndexBytes));
+            out.append(String.format("%-12s %10s %,14d%n", "Dup. index", "", duplicateIndexBytes));
+            out.append(String.format("%-12s %10s %,14d%n", "Graph", "", graphBytes));
+            out.append(String.format("%-12s %10s %,14d%n", "Total", "", getTotalBytes()));
+            long wasted = getDuplicateBytes();
+            int extraCopies = 0;
+            for (DuplicateString duplicate : duplicates) {
+                extraCopies += duplicate.getInstances() - 1;
+            }
+            out.append(String.format("%nDuplicated strings: %,d extra copies of %,d values, %,d bytes (%.1f%% of the total)%n",
+                    extraCopies, duplicates.size(), wasted, getTotalBytes() == 0 ? 0.0 : 100.0 * wasted / getTotalBytes()));
+            for (DuplicateString duplicate : duplicates.subList(0, Math.min(TOP_DUPLICATES, duplicates.size()))) {
+                String value = duplicate.getValue().length() > 40 ? duplicate.getValue().substring(0, 40) + "..." : duplicate.getValue();
+                out.append(String.format("  '%s' x %,d: %,d bytes%n", value, duplicate.getInstances(), duplicate.getWastedBytes()));
+            }
+            return out.toString();
+        }
+
+        private static void row(StringBuilder out, String name, int count, long bytes) {
+            out.append(String.format("%-12s %,10d %,14d %12.1f%n", name, count, bytes, count == 0 ? 0.0 : (double) bytes / count));
+        }
+    }
+}
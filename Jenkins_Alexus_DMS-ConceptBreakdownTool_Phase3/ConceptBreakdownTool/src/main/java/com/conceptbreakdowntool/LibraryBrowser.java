@@ -0,0 +1,305 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: LibraryBrowser
+
+ Purpose: Tree view of the library (Category -> Concept -> Component) that loads each level only when it is opened,
+ so even a library with hundreds of thousands of components opens straight away.
+
+ - HOW IT WORKS
+     * Only the first page of categories is read when the browser opens. A category or concept that hasn't been expanded has no child
+       nodes at all; expanding it reads one page of its children from the database on the task thread.
+     * A page holds PAGE_SIZE entries. If there are more, a "Load more..." node is added; double-clicking it (or pressing Enter) reads the next page.
+     * Collapsing a node throws its children away again, so memory only grows with what is open on screen.
+     * Each node counts how many times it has been reset. A page that arrives after its node was collapsed or reloaded is ignored.
+     * Selecting a concept or component shows its details below the tree.
+ - BROWSER METHODS
+     * reload(): Throws away everything that was loaded and reads the first page of categories again.
+ - NESTED CLASSES
+     * BrowserNode: A tree node that remembers what it stands for and how far its children have been loaded.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+public class LibraryBrowser extends JPanel {
+    static final int PAGE_SIZE = 200;
+
+    //Attributes
+    private final DatabaseManager dbManager;
+    private final TaskRunner tasks;
+    private final BrowserNode root = new BrowserNode(NodeType.ROOT, 0, "Library", null);
+    private final DefaultTreeModel treeModel = new DefaultTreeModel(root, true); // Unopened nodes have no children but can still be expanded
+    private final JTree tree = new JTree(treeModel);
+    private final JTextArea detailsArea = new JTextArea(4, 30);
+
+    /**
+     Constructor(LibraryBrowser): Builds the tree and the details area. Call reload() to read the first page.
+     * @param dbManager the database manager the pages are read from
+     * @param tasks the task runner the pages are read on
+     **/
+    public LibraryBrowser(DatabaseManager dbManager, TaskRunner tasks) {
+        super(new BorderLayout());
+        this.dbManager = dbManager;
+        this.tasks = tasks;
+
+        tree.setRootVisible(false);
+        tree.setShowsRootHandles(true);
+        tree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent event) {
+                BrowserNode node = (BrowserNode) event.getPath().getLastPathComponent();
+                if (node.getChildCount() == 0) {
+                    loadNextPage(node);
+                }
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent event) {
+            }
+        });
+        tree.addTreeExpansionListener(new TreeExpansionListener() {
+            @Override
+            public void treeExpanded(TreeExpansionEvent event) {
+            }
+
+            @Override
+            public void treeCollapsed(TreeExpansionEvent event) {
+                unload((BrowserNode) event.getPath().getLastPathComponent());
+            }
+        });
+        tree.addTreeSelectionListener(e -> showDetails(selectedNode()));
+        tree.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    TreePath path = tree.getPathForLocation(e.getX(), e.getY());
+                    if (path != null) {
+                        loadMore((BrowserNode) path.getLastPathComponent());
+                    }
+                }
+            }
+        });
+        tree.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    loadMore(selectedNode());
+                }
+            }
+        });
+
+        detailsArea.setEditable(false);
+        detailsArea.setLineWrap(true);
+        detailsArea.setWrapStyleWord(true);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(tree), new JScrollPane(detailsArea));
+        splitPane.setResizeWeight(0.8);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    /**
+     BROWSER METHODS
+     **/
+    /**
+     reload(): Throws away everything that was loaded and reads the first page of categories again. Must be called on the EDT.
+     **/
+    public void reload() {
+        unload(root);
+        detailsArea.setText("");
+        loadNextPage(root);
+    }
+
+
+    /**
+     loadMore(): Reads the next page of the parent's children when a "Load more..." node is activated.
+     **/
+    private void loadMore(BrowserNode node) {
+        if (node != null && node.type == NodeType.MORE) {
+            loadNextPage((BrowserNode) node.getParent());
+        }
+    }
+
+    /**
+     loadNextPage(): Reads the next page of a node's children on the task thread; a "Loading..." node stands in until it arrives.
+     **/
+    private void loadNextPage(BrowserNode node) {
+        if (node.loading || !node.getAllowsChildren()) {
+            return;
+        }
+        node.loading = true;
+        removeStatusNode(node);
+        BrowserNode loadingNode = new BrowserNode(NodeType.LOADING, 0, "Loading...", null);
+        treeModel.insertNodeInto(loadingNode, node, node.getChildCount());
+
+        int generation = node.generation;
+        NodeType type = node.type;
+        int id = node.id;
+        int cursor = node.cursor;
+        tasks.submit("Loading " + node.getUserObject(), progress -> readPage(type, id, cursor), page -> showPage(node, generation, page), e -> {
+            if (node.generation == generation) {
+                node.loading = false;
+                removeStatusNode(node);
+                detailsArea.setText("Could not load " + node.getUserObject() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     readPage(): Reads one page of children from the database. Runs on the task thread, so it only uses the values copied from the node.
+     One extra row is read to find out whether there is another page.
+     **/
+    private List<?> readPage(NodeType type, int id, int cursor) {
+        switch (type) {
+            case ROOT:
+                return dbManager.getCategoryPage(cursor, PAGE_SIZE + 1);
+            case CATEGORY:
+                return dbManager.getConceptPage(id, cursor, PAGE_SIZE + 1);
+            case CONCEPT:
+                return dbManager.getComponentPage(id, cursor, PAGE_SIZE + 1);
+            default:
+                throw new IllegalArgumentException("Nodes of type " + type + " have no children.");
+        }
+    }
+
+    /**
+     showPage(): Adds a page of children to a node, unless the node was collapsed or reloaded while the page was being read.
+     **/
+    private void showPage(BrowserNode node, int generation, List<?> page) {
+        if (node.generation != generation) {
+            return; // Stale page
+        }
+        node.loading = false;
+        removeStatusNode(node);
+
+        int shown = Math.min(page.size(), PAGE_SIZE);
+        int firstIndex = node.getChildCount();
+        for (int i = 0; i < shown; i++) {
+            Object entity = page.get(i);
+            if (entity instanceof Category) {
+                Category category = (Category) entity;
+                node.add(new BrowserNode(NodeType.CATEGORY, category.getId(), category.getTopic(), category));
+                node.cursor = category.getId();
+            } else if (entity instanceof Concept) {
+                Concept concept = (Concept) entity;
+                node.add(new BrowserNode(NodeType.CONCEPT, concept.getId(), concept.getTopic(), concept));
+                node.cursor = concept.getId();
+            } else {
+                Component component = (Component) entity;
+                BrowserNode componentNode = new BrowserNode(NodeType.COMPONENT, 0, component.getTopic(), component);
+                componentNode.setAllowsChildren(false);
+                node.add(componentNode);
+                node.cursor++;
+            }
+        }
+        if (page.size() > PAGE_SIZE) {
+            node.add(new BrowserNode(NodeType.MORE, 0, "Load more...", null));
+        }
+
+        if (node.getChildCount() == 0 && node != root) {
+            node.setAllowsChildren(false); // Nothing underneath; show it as a leaf
+            treeModel.nodeStructureChanged(node);
+        } else if (node.getChildCount() > firstIndex) {
+            int[] indices = new int[node.getChildCount() - firstIndex];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = firstIndex + i;
+            }
+            treeModel.nodesWereInserted(node, indices);
+        }
+    }
+
+    /**
+     unload(): Throws away a node's children so they are read again the next time it is expanded.
+     **/
+    private void unload(BrowserNode node) {
+        node.generation++;
+        node.loading = false;
+        node.cursor = node.type == NodeType.CONCEPT ? 0 : Integer.MIN_VALUE;
+        if (node.getChildCount() > 0) {
+            node.removeAllChildren();
+            treeModel.nodeStructureChanged(node);
+        }
+    }
+
+    /**
+     removeStatusNode(): Removes a trailing "Loading..." or "Load more..." node.
+     **/
+    private void removeStatusNode(BrowserNode node) {
+        if (node.getChildCount() > 0) {
+            BrowserNode last = (BrowserNode) node.getLastChild();
+            if (last.type == NodeType.LOADING || last.type == NodeType.MORE) {
+                treeModel.removeNodeFromParent(last);
+            }
+        }
+    }
+
+    private BrowserNode selectedNode() {
+        TreePath path = tree.getSelectionPath();
+        return path == null ? null : (BrowserNode) path.getLastPathComponent();
+    }
+
+    /**
+     showDetails(): Shows the details of the selected concept or component; they were read with the node, so no query is needed.
+     **/
+    private void showDetails(BrowserNode node) {
+        if (node == null || node.entity == null) {
+            detailsArea.setText("");
+        } else if (node.entity instanceof Concept) {
+            detailsArea.setText(((Concept) node.entity).getDetails());
+        } else if (node.entity instanceof Component) {
+            detailsArea.setText(((Component) node.entity).getDetails());
+        } else {
+            detailsArea.setText("Category ID: " + node.id);
+        }
+        detailsArea.setCaretPosition(0);
+    }
+
+
+    /**
+     NESTED CLASSES
+     **/
+    enum NodeType {
+        ROOT,
+        CATEGORY,
+        CONCEPT,
+        COMPONENT,
+        LOADING,
+        MORE
+    }
+
+    /**
+     BrowserNode: A tree node that remembers what it stands for and how far its children have been loaded.
+     **/
+    static class BrowserNode extends DefaultMutableTreeNode {
+        final NodeType type;
+        final int id;
+        final Object entity;
+        int cursor; // Last category/concept ID read, or the number of components read
+        int generation; // Bumped whenever the children are thrown away
+        boolean loading;
+
+        BrowserNode(NodeType type, int id, String label, Object entity) {
+            super(label, type != NodeType.LOADING && type != NodeType.MORE);
+            this.type = type;
+            this.id = id;
+            this.entity = entity;
+            this.cursor = type == NodeType.CONCEPT ? 0 : Integer.MIN_VALUE;
+        }
+    }
+}
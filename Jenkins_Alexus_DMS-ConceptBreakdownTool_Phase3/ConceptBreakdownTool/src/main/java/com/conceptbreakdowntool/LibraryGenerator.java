@@ -0,0 +1,458 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: LibraryGenerator
+
+ Purpose: Generates realistic synthetic libraries of any size for scale testing, either from code or from the command line. The same
+ seed and settings always produce the same library, in every format.
+
+ - HOW IT WORKS
+     * Every category, concept, and component is generated from its own ID and the seed, never from what was generated before it, so
+       any entry can be produced on its own and the writers stream entry by entry. Memory use doesn't grow with the size of the library.
+     * Category i holds concepts (i - 1) * conceptsPerCategory + 1 through i * conceptsPerCategory; every concept has componentsPerConcept components.
+     * Topics and details are built from a fixed vocabulary in which a few words are common and most are rare, as in real text.
+       Detail lengths fall between a minimum and maximum number of words and are mostly short, with a long tail. No text contains a
+       comma, so every entry fits the concepts.txt format.
+ - COMMAND LINE
+     * mvn -q exec:java -Dexec.mainClass=com.conceptbreakdowntool.LibraryGenerator -Dexec.args="--categories 1000 --concepts-per-category 100 library.db"
+     * The output format follows the file extension: .db (SQLite), .json (the saveAllData() format), or .txt (the concepts.txt format).
+ - SETTINGS
+     * setCategoryCount(), setConceptsPerCategory(), setComponentsPerConcept(): Sets the shape of the library.
+     * setDetailWords(): Sets the shortest and longest details, in words.
+     * getConceptCount(), getComponentCount(): Gathers the size of the library.
+ - GENERATION METHODS
+     * getCategory(), getConcept(): Generates one category, or one concept with its components.
+ - WRITER METHODS
+     * writeDatabase(): Writes a new SQLite database with the application's tables, in batched inserts inside one transaction.
+     * writeJson(): Streams the library as JSON in the layout saveAllData() writes.
+     * writeText(): Streams the library in the concepts.txt format.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Random;
+
+public class LibraryGenerator {
+    public static final long DEFAULT_SEED = 42;
+    private static final int BATCH_SIZE = 10_000;
+
+    // Separate the random streams of the different kinds of entries
+    private static final long CATEGORY_STREAM = 1;
+    private static final long CONCEPT_STREAM = 2;
+
+    // Ordered from most to least common; words are drawn with a bias towards the front of the list
+    private static final String[] WORDS = {
+            "design", "system", "user", "data", "model", "process", "structure", "pattern", "interface", "flow",
+            "research", "layout", "content", "testing", "navigation", "network", "analysis", "method", "feedback", "component",
+            "strategy", "prototype", "usability", "architecture", "information", "interaction", "visual", "storage", "query", "service",
+            "security", "performance", "accessibility", "workflow", "hierarchy", "typography", "framework", "algorithm", "schema", "protocol",
+            "wireframe", "persona", "journey", "heuristic", "taxonomy", "metadata", "iteration", "deployment", "latency", "caching",
+            "indexing", "validation", "rendering", "scheduling", "migration", "encryption", "refactoring", "concurrency", "abstraction", "inheritance",
+            "polymorphism", "normalization", "replication", "partitioning", "serialization", "authentication", "orchestration", "observability", "idempotency", "throughput",
+            "affordance", "gestalt", "cognition", "ergonomics", "semantics", "ontology", "topology", "heuristics", "provenance", "telemetry"
+    };
+
+    //Attributes
+    private final long seed;
+    private int categoryCount = 10;
+    private int conceptsPerCategory = 10;
+    private int componentsPerConcept = 3;
+    private int minDetailWords = 3;
+    private int maxDetailWords = 20;
+    private final Gson gson = new Gson();
+
+    /**
+     Constructor(LibraryGenerator): Creates a generator whose libraries are all derived from the seed.
+     * @param seed the seed; the same seed and settings always produce the same library
+     **/
+    public LibraryGenerator(long seed) {
+        this.seed = seed;
+    }
+
+
+    /**
+     SETTINGS
+     **/
+    /**
+     setCategoryCount(): Sets how many categories the library has.
+     **/
+    public void setCategoryCount(int categoryCount) {
+        checkSize(categoryCount, conceptsPerCategory);
+        this.categoryCount = categoryCount;
+    }
+
+    /**
+     setConceptsPerCategory(): Sets how many concepts each category holds.
+     **/
+    public void setConceptsPerCategory(int conceptsPerCategory) {
+        checkSize(categoryCount, conceptsPerCategory);
+        this.conceptsPerCategory = conceptsPerCategory;
+    }
+
+    /**
+     setComponentsPerConcept(): Sets how many components each concept has.
+     **/
+    public void setComponentsPerConcept(int componentsPerConcept) {
+        if (componentsPerConcept < 0) {
+            throw new IllegalArgumentException("Components per concept can't be negative: " + componentsPerConcept);
+        }
+        this.componentsPerConcept = componentsPerConcept;
+    }
+
+    /**
+     setDetailWords(): Sets the shortest and longest details, in words; most details are close to the shortest.
+     **/
+    public void setDetailWords(int minWords, int maxWords) {
+        if (minWords < 1 || maxWords < minWords) {
+            throw new IllegalArgumentException("Detail lengths must satisfy 1 <= min <= max: " + minWords + "-" + maxWords);
+        }
+        this.minDetailWords = minWords;
+        this.maxDetailWords = maxWords;
+    }
+
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    public int getConceptCount() {
+        return categoryCount * conceptsPerCategory;
+    }
+
+    public long getComponentCount() {
+        return (long) getConceptCount() * componentsPerConcept;
+    }
+
+    // Concept IDs are ints, so the library can't have more concepts than that
+    private static void checkSize(int categoryCount, int conceptsPerCategory) {
+        if (categoryCount < 1 || conceptsPerCategory < 1) {
+            throw new IllegalArgumentException("A library needs at least one category and one concept per category");
+        }
+        if ((long) categoryCount * conceptsPerCategory >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A library must have fewer than " + Integer.MAX_VALUE + " concepts");
+        }
+    }
+
+
+    /**
+     GENERATION METHODS
+     **/
+    /**
+     getCategory(): Generates a category; its name ends with its ID, so names never repeat.
+     * @param categoryId from 1 to getCategoryCount()
+     * @return the category
+     **/
+    public Category getCategory(int categoryId) {
+        Random random = random(CATEGORY_STREAM, categoryId);
+        return new Category(categoryId, title(random, 2, 2) + " " + categoryId);
+    }
+
+    /**
+     getConcept(): Generates a concept with its components; its category is given by name, as in the JSON and text formats.
+     * @param conceptId from 1 to getConceptCount()
+     * @return the concept
+     **/
+    public Concept getConcept(int conceptId) {
+        Random random = random(CONCEPT_STREAM, conceptId);
+        int categoryId = (conceptId - 1) / conceptsPerCategory + 1;
+        Concept concept = new Concept(conceptId, title(random, 2, 4), getCategory(categoryId).getTopic(), details(random));
+        for (int i = 0; i < componentsPerConcept; i++) {
+            concept.getComponents().add(new Component(title(random, 1, 3), details(random), conceptId));
+        }
+        return concept;
+    }
+
+    private Random random(long stream, long id) {
+        return new Random(mix(seed ^ mix(stream * 0x9E3779B97F4A7C15L + id)));
+    }
+
+    // SplitMix64's finalizer: neighbouring IDs get unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String word(Random random) {
+        double r = random.nextDouble();
+        return WORDS[(int) (r * r * WORDS.length)];
+    }
+
+    private static String title(Random random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = word(random);
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.toString();
+    }
+
+    private String details(Random random) {
+        double r = random.nextDouble();
+        int words = minDetailWords + (int) (r * r * r * (maxDetailWords - minDetailWords + 1));
+        StringBuilder details = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = word(random);
+            if (i == 0) {
+                details.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                details.append(' ').append(word);
+            }
+        }
+        return details.append('.').toString();
+    }
+
+
+    /**
+     WRITER METHODS
+     **/
+    /**
+     writeDatabase(): Writes the library to a new SQLite database with the application's tables and indexes.
+     * @param filePath the database to create; it must not exist yet
+     **/
+    public void writeDatabase(String filePath) throws IOException, SQLException {
+        refuseToOverwrite(filePath);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + filePath);
+             Statement stmt = conn.createStatement()) {
+            // A half-written file is thrown away anyway, so skip the rollback journal and the syncs
+            stmt.execute("PRAGMA journal_mode = OFF");
+            stmt.execute("PRAGMA synchronous = OFF");
+            stmt.execute(DatabaseManager.SQL_CREATE_CATEGORY_TABLE);
+            stmt.execute(DatabaseManager.SQL_CREATE_CONCEPT_TABLE);
+            stmt.execute(DatabaseManager.SQL_CREATE_COMPONENT_TABLE);
+            stmt.execute(DatabaseManager.SQL_CREATE_RELATION_TABLE);
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement insertCategory = conn.prepareStatement("INSERT INTO Category (Category_ID, Category_Topic) VALUES (?, ?)")) {
+                for (int categoryId = 1; categoryId <= categoryCount; categoryId++) {
+                    insertCategory.setInt(1, categoryId);
+                    insertCategory.setString(2, getCategory(categoryId).getTopic());
+                    insertCategory.addBatch();
+                    if (categoryId % BATCH_SIZE == 0) {
+                        insertCategory.executeBatch();
+                    }
+                }
+                insertCategory.executeBatch();
+            }
+
+            try (PreparedStatement insertConcept = conn.prepareStatement("INSERT INTO Concept (Concept_ID, Concept_Topic, Category_ID, Concept_Details) VALUES (?, ?, ?, ?)");
+                 PreparedStatement insertComponent = conn.prepareStatement("INSERT INTO Component (Component_Topic, Component_Description, Concept_ID) VALUES (?, ?, ?)")) {
+                int pendingComponents = 0;
+                for (int conceptId = 1; conceptId <= getConceptCount(); conceptId++) {
+                    Concept concept = getConcept(conceptId);
+                    insertConcept.setInt(1, conceptId);
+                    insertConcept.setString(2, concept.getTopic());
+                    insertConcept.setInt(3, (conceptId - 1) / conceptsPerCategory + 1);
+                    insertConcept.setString(4, concept.getDetails());
+                    insertConcept.addBatch();
+                    for (Component component : concept.getComponents()) {
+                        insertComponent.setString(1, component.getTopic());
+                        insertComponent.setString(2, component.getDetails());
+                        insertComponent.setInt(3, conceptId);
+                        insertComponent.addBatch();
+                        pendingComponents++;
+                    }
+                    if (conceptId % BATCH_SIZE == 0 || pendingComponents >= BATCH_SIZE) {
+                        insertConcept.executeBatch();
+                        insertComponent.executeBatch();
+                        pendingComponents = 0;
+                    }
+                }
+                insertConcept.executeBatch();
+                insertComponent.executeBatch();
+            }
+
+            // Building the indexes once at the end is much faster than keeping them up to date row by row
+            for (String sqlIndex : DatabaseManager.SQL_CREATE_BROWSE_INDEXES) {
+                stmt.execute(sqlIndex);
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     writeJson(): Streams the library as JSON in the layout saveAllData() writes: concepts (with their components), components, categories.
+     * @param filePath the file to create; it must not exist yet
+     **/
+    public void writeJson(String filePath) throws IOException {
+        refuseToOverwrite(filePath);
+        try (JsonWriter json = new JsonWriter(Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("concepts").beginArray();
+            for (int conceptId = 1; conceptId <= getConceptCount(); conceptId++) {
+                gson.toJson(getConcept(conceptId), Concept.class, json);
+            }
+            json.endArray();
+
+            // Generated a second time rather than kept from the first pass, so memory stays flat
+            json.name("components").beginArray();
+            for (int conceptId = 1; conceptId <= getConceptCount(); conceptId++) {
+                for (Component component : getConcept(conceptId).getComponents()) {
+                    gson.toJson(component, Component.class, json);
+                }
+            }
+            json.endArray();
+
+            json.name("categories").beginArray();
+            for (int categoryId = 1; categoryId <= categoryCount; categoryId++) {
+                gson.toJson(getCategory(categoryId), Category.class, json);
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+
+    /**
+     writeText(): Streams the library in the concepts.txt format: every category first, then each concept followed by its components.
+     * @param filePath the file to create; it must not exist yet
+     **/
+    public void writeText(String filePath) throws IOException {
+        refuseToOverwrite(filePath);
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            for (int categoryId = 1; categoryId <= categoryCount; categoryId++) {
+                writer.write("Category: " + categoryId + "," + getCategory(categoryId).getTopic());
+                writer.newLine();
+            }
+            for (int conceptId = 1; conceptId <= getConceptCount(); conceptId++) {
+                Concept concept = getConcept(conceptId);
+                writer.write("Concept: " + conceptId + ", " + concept.getTopic() + ", " + concept.getCategory() + ", " + concept.getDetails());
+                writer.newLine();
+                for (Component component : concept.getComponents()) {
+                    writer.write("Component: " + component.getTopic() + ", " + component.getDetails());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private static void refuseToOverwrite(String filePath) throws IOException {
+        if (Files.exists(Paths.get(filePath))) {
+            throw new FileAlreadyExistsException(filePath);
+        }
+    }
+
+
+    /**
+     COMMAND LINE
+     **/
+    /**
+     main(): Generates a library from command line options and writes it to the file named last.
+     **/
+    public static void main(String[] args) {
+        long seed = DEFAULT_SEED;
+        Integer categories = null;
+        Integer conceptsPerCategory = null;
+        Integer componentsPerConcept = null;
+        int[] detailWords = null;
+        String output = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    output = arg;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--categories":
+                        categories = Integer.parseInt(value);
+                        break;
+                    case "--concepts-per-category":
+                        conceptsPerCategory = Integer.parseInt(value);
+                        break;
+                    case "--components-per-concept":
+                        componentsPerConcept = Integer.parseInt(value);
+                        break;
+                    case "--detail-words":
+                        String[] range = value.split("-", 2);
+                        detailWords = new int[]{Integer.parseInt(range[0].trim()), Integer.parseInt(range[range.length - 1].trim())};
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("No output file given");
+            }
+
+            LibraryGenerator generator = new LibraryGenerator(seed);
+            if (categories != null) {
+                generator.setCategoryCount(categories);
+            }
+            if (conceptsPerCategory != null) {
+                generator.setConceptsPerCategory(conceptsPerCategory);
+            }
+            if (componentsPerConcept != null) {
+                generator.setComponentsPerConcept(componentsPerConcept);
+            }
+            if (detailWords != null) {
+                generator.setDetailWords(detailWords[0], detailWords[1]);
+            }
+
+            long start = System.nanoTime();
+            generator.write(output);
+            System.out.printf(Locale.ROOT, "Wrote %d categories, %d concepts, and %d components to %s in %.1f s.%n",
+                    generator.getCategoryCount(), generator.getConceptCount(), generator.getComponentCount(), output,
+                    (System.nanoTime() - start) / 1e9);
+        } catch (IllegalArgumentException e) { // Including NumberFormatException
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error generating library: " + e);
+            System.exit(1);
+        }
+    }
+
+    // Picks the format from the file extension
+    private void write(String filePath) throws IOException, SQLException {
+        String name = filePath.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) {
+            writeJson(filePath);
+        } else if (name.endsWith(".txt")) {
+            writeText(filePath);
+        } else if (name.endsWith(".db") || name.endsWith(".sqlite")) {
+            writeDatabase(filePath);
+        } else {
+            throw new IllegalArgumentException("Unknown format for " + filePath + "; use .db, .json, or .txt");
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: LibraryGenerator [options] <output.db|output.json|output.txt>");
+        System.err.println("  --seed N                    Seed for the library (default " + DEFAULT_SEED + ")");
+        System.err.println("  --categories N              Number of categories (default 10)");
+        System.err.println("  --concepts-per-category N   Concepts in each category (default 10)");
+        System.err.println("  --components-per-concept N  Components of each concept (default 3)");
+        System.err.println("  --detail-words MIN-MAX      Length of details in words (default 3-20)");
+    }
+}
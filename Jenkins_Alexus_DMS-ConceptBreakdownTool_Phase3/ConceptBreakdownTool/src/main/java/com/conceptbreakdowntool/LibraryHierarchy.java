@@ -0,0 +1,324 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: LibraryHierarchy
+
+ Purpose: Materialized Category -> Concept -> Component tree owned by DatabaseManager. It is updated in place on every change,
+ so views walk it in one ordered pass instead of matching every concept against every category.
+
+ - HOW IT WORKS
+     * Categories and concepts are held in insertion-ordered hash maps, so adding, renaming, or removing one is constant time and the order is stable.
+     * Each concept node keeps its own component list; component changes only scan the components of that one concept.
+     * A concept whose category isn't known yet (or was deleted) waits in a detached category node. It is hidden from traversals
+       and re-appears as soon as a category with that ID is added.
+ - MAINTENANCE METHODS
+     * addCategory(), removeCategory(): Adds or removes a category node.
+     * addConcept(), removeConcept(): Adds or removes a concept node under its category.
+     * addComponent(), updateComponent(), removeComponent(): Keeps a concept's components in step with the database.
+     * clear(): Empties the tree before a full reload.
+ - QUERY METHODS
+     * traverse(): Walks categories, their concepts, and their components in display order.
+     * getCategory(), getConcept(), getCategoryIdOfConcept(): Constant-time lookups.
+     * getConcepts(), getComponents(): Gathers the children of a category or concept.
+     * estimateBytes(): Estimates the heap the tree's nodes and maps take.
+ - NESTED INTERFACES
+     * Visitor: Receives each node of a traversal.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.*;
+
+public class LibraryHierarchy {
+    //Attributes
+    private final Map<Integer, CategoryNode> categoryNodes = new LinkedHashMap<>();
+    private final Map<Integer, ConceptNode> conceptNodes = new HashMap<>();
+    private int attachedCategoryCount;
+
+    /**
+     MAINTENANCE METHODS
+     **/
+    /**
+     addCategory(): Adds a category node, or attaches a category to the concepts that were already waiting for it.
+     * @param category the category to add
+     **/
+    public synchronized void addCategory(Category category) {
+        CategoryNode node = categoryNodes.computeIfAbsent(category.getId(), CategoryNode::new);
+        if (node.category == null) {
+            attachedCategoryCount++;
+        }
+        node.category = category;
+    }
+
+    /**
+     removeCategory(): Removes a category. Its concepts stay in the tree, detached, because the database keeps them.
+     * @param categoryId the ID of the category to remove
+     **/
+    public synchronized void removeCategory(int categoryId) {
+        CategoryNode node = categoryNodes.get(categoryId);
+        if (node == null || node.category == null) {
+            return;
+        }
+        attachedCategoryCount--;
+        if (node.concepts.isEmpty()) {
+            categoryNodes.remove(categoryId);
+        } else {
+            node.category = null;
+        }
+    }
+
+    /**
+     addConcept(): Adds a concept node under a category.
+     * @param concept the concept to add
+     * @param categoryId the ID of the category it belongs to
+     **/
+    public synchronized void addConcept(Concept concept, int categoryId) {
+        removeConcept(concept.getId());
+        ConceptNode node = new ConceptNode(concept, categoryId);
+        conceptNodes.put(concept.getId(), node);
+        categoryNodes.computeIfAbsent(categoryId, CategoryNode::new).concepts.put(concept.getId(), node);
+    }
+
+    /**
+     removeConcept(): Removes a concept node and its components.
+     * @param conceptId the ID of the concept to remove
+     **/
+    public synchronized void removeConcept(int conceptId) {
+        ConceptNode node = conceptNodes.remove(conceptId);
+        if (node == null) {
+            return;
+        }
+        CategoryNode parent = categoryNodes.get(node.categoryId);
+        if (parent != null) {
+            parent.concepts.remove(conceptId);
+            if (parent.category == null && parent.concepts.isEmpty()) {
+                categoryNodes.remove(node.categoryId);
+            }
+        }
+    }
+
+    /**
+     addComponent(): Adds a component under its concept. Components of unknown concepts are ignored.
+     * @param component the component to add
+     **/
+    public synchronized void addComponent(Component component) {
+        ConceptNode node = conceptNodes.get(component.getConceptId());
+        if (node != null) {
+            node.components.add(component);
+        }
+    }
+
+    /**
+     updateComponent(): Renames and re-describes the components of a concept that have a given topic.
+     * @param conceptId the ID of the concept the component belongs to
+     * @param oldTopic the component's current topic
+     * @param newTopic the new topic
+     * @param newDetails the new details
+     **/
+    public synchronized void updateComponent(int conceptId, String oldTopic, String newTopic, String newDetails) {
+        ConceptNode node = conceptNodes.get(conceptId);
+        if (node == null) {
+            return;
+        }
+        for (Component component : node.components) {
+            if (component.getTopic().equals(oldTopic)) {
+                component.setTopic(newTopic);
+                component.setDetails(newDetails);
+            }
+        }
+    }
+
+    /**
+     removeComponent(): Removes the components of a concept that have a given topic.
+     * @param conceptId the ID of the concept the component belongs to
+     * @param topic the topic of the component to remove
+     **/
+    public synchronized void removeComponent(int conceptId, String topic) {
+        ConceptNode node = conceptNodes.get(conceptId);
+        if (node != null) {
+            node.components.removeIf(component -> component.getTopic().equals(topic));
+        }
+    }
+
+    /**
+     clear(): Empties the tree before a full reload.
+     **/
+    public synchronized void clear() {
+        categoryNodes.clear();
+        conceptNodes.clear();
+        attachedCategoryCount = 0;
+    }
+
+
+    /**
+     QUERY METHODS
+     **/
+    /**
+     traverse(): Walks every category, then each of its concepts, then each concept's components, in display order.
+     Detached concepts (whose category is missing) are skipped.
+     * @param visitor receives each node; returning false from visitCategory() or visitConcept() skips that node's children
+     **/
+    public synchronized void traverse(Visitor visitor) {
+        for (CategoryNode categoryNode : categoryNodes.values()) {
+            if (categoryNode.category == null || !visitor.visitCategory(categoryNode.category)) {
+                continue;
+            }
+            for (ConceptNode conceptNode : categoryNode.concepts.values()) {
+                if (!visitor.visitConcept(categoryNode.category, conceptNode.concept)) {
+                    continue;
+                }
+                for (Component component : conceptNode.components) {
+                    visitor.visitComponent(conceptNode.concept, component);
+                }
+                visitor.leaveConcept(categoryNode.category, conceptNode.concept);
+            }
+        }
+    }
+
+    /**
+     getCategories(): Gathers the categories in display order.
+     * @return a new list of the categories
+     **/
+    public synchronized List<Category> getCategories() {
+        List<Category> result = new ArrayList<>(attachedCategoryCount);
+        for (CategoryNode node : categoryNodes.values()) {
+            if (node.category != null) {
+                result.add(node.category);
+            }
+        }
+        return result;
+    }
+
+    /**
+     getCategory(): Gathers a category by ID.
+     * @param categoryId the ID of the category
+     * @return the category, or null if it isn't in the tree
+     **/
+    public synchronized Category getCategory(int categoryId) {
+        CategoryNode node = categoryNodes.get(categoryId);
+        return node == null ? null : node.category;
+    }
+
+    /**
+     getConcept(): Gathers a concept by ID.
+     * @param conceptId the ID of the concept
+     * @return the concept, or null if it isn't in the tree
+     **/
+    public synchronized Concept getConcept(int conceptId) {
+        ConceptNode node = conceptNodes.get(conceptId);
+        return node == null ? null : node.concept;
+    }
+
+    /**
+     getCategoryIdOfConcept(): Gathers the ID of the category a concept is filed under.
+     * @param conceptId the ID of the concept
+     * @return the category ID, or -1 if the concept isn't in the tree
+     **/
+    public synchronized int getCategoryIdOfConcept(int conceptId) {
+        ConceptNode node = conceptNodes.get(conceptId);
+        return node == null ? -1 : node.categoryId;
+    }
+
+    /**
+     getConcepts(): Gathers the concepts of a category in display order.
+     * @param categoryId the ID of the category
+     * @return a new list of the concepts, empty if the category has none
+     **/
+    public synchronized List<Concept> getConcepts(int categoryId) {
+        CategoryNode node = categoryNodes.get(categoryId);
+        List<Concept> result = new ArrayList<>(node == null ? 0 : node.concepts.size());
+        if (node != null) {
+            for (ConceptNode conceptNode : node.concepts.values()) {
+                result.add(conceptNode.concept);
+            }
+        }
+        return result;
+    }
+
+    /**
+     getComponents(): Gathers the components of a concept in display order.
+     * @param conceptId the ID of the concept
+     * @return a new list of the components, empty if the concept has none
+     **/
+    public synchronized List<Component> getComponents(int conceptId) {
+        ConceptNode node = conceptNodes.get(conceptId);
+        return node == null ? new ArrayList<>() : new ArrayList<>(node.components);
+    }
+
+    /**
+     getCategoryCount(), getConceptCount(): Gathers the size of the tree.
+     **/
+    public synchronized int getCategoryCount() {
+        return attachedCategoryCount;
+    }
+
+    public synchronized int getConceptCount() {
+        return conceptNodes.size();
+    }
+
+    /**
+     estimateBytes(): Estimates the heap the tree takes on top of its entries: the two maps, a boxed ID key and a node per category
+     and concept, each category's map of concepts, and each concept's component list. The entries are counted by HeapFootprint.
+     * @return the estimated bytes
+     **/
+    synchronized long estimateBytes() {
+        long bytes = HeapFootprint.hashMapBytes(categoryNodes.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, true)
+                + HeapFootprint.hashMapBytes(conceptNodes.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, false);
+        for (CategoryNode node : categoryNodes.values()) {
+            bytes += HeapFootprint.INTEGER_BYTES + CategoryNode.BYTES
+                    + HeapFootprint.hashMapBytes(node.concepts.size(), HeapFootprint.HASH_MAP_DEFAULT_CAPACITY, true)
+                    + node.concepts.size() * HeapFootprint.INTEGER_BYTES;
+        }
+        for (ConceptNode node : conceptNodes.values()) {
+            bytes += HeapFootprint.INTEGER_BYTES + ConceptNode.BYTES + HeapFootprint.arrayListBytes(node.components.size(), 2);
+        }
+        return bytes;
+    }
+
+
+    /**
+     NESTED INTERFACES/CLASSES
+     **/
+    /**
+     Visitor(Interface): Receives each node of a traversal. Only the callbacks a view needs have to be implemented.
+     **/
+    public interface Visitor {
+        /**visitCategory(): Called for each category. @return false to skip its concepts **/
+        default boolean visitCategory(Category category) { return true; }
+        /**visitConcept(): Called for each concept of the current category. @return false to skip its components **/
+        default boolean visitConcept(Category category, Concept concept) { return true; }
+        /**visitComponent(): Called for each component of the current concept. **/
+        default void visitComponent(Concept concept, Component component) { }
+        /**leaveConcept(): Called after the last component of a concept whose components were visited. **/
+        default void leaveConcept(Category category, Concept concept) { }
+    }
+
+    private static class CategoryNode {
+        static final long BYTES = HeapFootprint.align(HeapFootprint.OBJECT_HEADER + HeapFootprint.INT + 2 * HeapFootprint.REFERENCE); // categoryId, category, concepts
+
+        final int categoryId;
+        Category category; // null while detached
+        final Map<Integer, ConceptNode> concepts = new LinkedHashMap<>();
+
+        CategoryNode(int categoryId) {
+            this.categoryId = categoryId;
+        }
+    }
+
+    private static class ConceptNode {
+        static final long BYTES = HeapFootprint.align(HeapFootprint.OBJECT_HEADER + 2 * HeapFootprint.REFERENCE + HeapFootprint.INT); // concept, categoryId, components
+
+        final Concept concept;
+        final int categoryId;
+        final List<Component> components = new ArrayList<>(2);
+
+        ConceptNode(Concept concept, int categoryId) {
+            this.concept = concept;
+            this.categoryId = categoryId;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: Log
+
+ Purpose: A small logging facade for diagnostic messages, so they can be turned down by level and never make the thread that logs them
+ wait on the console. Prompts and results meant for the user still go to System.out directly.
+
+ - HOW IT WORKS
+     * Each class gets its own Log with Log.get(SomeClass.class). A message is written only if its level is at or above the current
+       level (INFO unless the application is started with -Dconceptbreakdowntool.log.level=DEBUG, WARN, ...).
+     * A message below the level costs one comparison. Messages that take work to build should be passed as a Supplier, such as
+       LOG.debug(() -> "Loaded " + list.size() + " rows"), which is only called when the message will be written.
+     * Messages that pass go into a ring buffer (a fixed-size ArrayBlockingQueue) and a background "log-writer" thread writes them to
+       System.err in batches. Logging never blocks: when the buffer is full the message is dropped, and the number dropped is logged
+       once there is room again.
+     * flush() waits until everything logged so far is written; the command line calls it before each prompt so messages appear in order.
+       Whatever is still buffered when the application exits is written by a shutdown hook.
+     * -Dconceptbreakdowntool.log.async=false writes every message on the logging thread instead, which can help when debugging a crash.
+ - LOGGING METHODS
+     * debug(), info(), warn(), error(): Logs a message, or a Supplier of one, at that level. error() can include an exception, whose
+       stack trace is always written with it.
+     * isEnabled(): Checks whether a level would be written.
+ - SETTINGS
+     * setLevel(), getLevel(): Sets or gathers the lowest level that is written.
+     * setSink(): Sends log lines to another stream than System.err.
+     * flush(), getDroppedCount(): Waits for the buffer to be written, or gathers how many messages it has dropped.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class Log {
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    static final int BUFFER_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final long FLUSH_TIMEOUT_MILLIS = 2000;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static volatile Level level = parseLevel(System.getProperty("conceptbreakdowntool.log.level"), Level.INFO);
+    private static volatile PrintStream sink = System.err;
+    private static final boolean ASYNC = !"false".equalsIgnoreCase(System.getProperty("conceptbreakdowntool.log.async"));
+    private static final BlockingQueue<Entry> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong queued = new AtomicLong();
+    private static final Object writtenLock = new Object();
+    private static long written; // Guarded by writtenLock
+    private static Thread writer; // Guarded by Log.class
+
+    //Attributes
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    /**
+     get(): Gathers the log of a class; keep it in a static final field.
+     * @param owner the class whose messages it writes
+     * @return the log
+     **/
+    public static Log get(Class<?> owner) {
+        return new Log(owner.getSimpleName());
+    }
+
+
+    /**
+     LOGGING METHODS
+     **/
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0;
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            append(Level.DEBUG, message, null);
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            append(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            append(Level.INFO, message, null);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            append(Level.INFO, message.get(), null);
+        }
+    }
+
+    public void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            append(Level.WARN, message, null);
+        }
+    }
+
+    public void warn(Supplier<String> message) {
+        if (isEnabled(Level.WARN)) {
+            append(Level.WARN, message.get(), null);
+        }
+    }
+
+    public void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            append(Level.ERROR, message, null);
+        }
+    }
+
+    /**
+     error(): Logs a failure with its exception's message (or its class, for exceptions without one, such as most
+     NullPointerExceptions) followed by its stack trace.
+     **/
+    public void error(String message, Throwable cause) {
+        if (isEnabled(Level.ERROR)) {
+            append(Level.ERROR, message + ": " + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName()), cause);
+        }
+    }
+
+
+    /**
+     SETTINGS
+     **/
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     setSink(): Sends log lines to another stream; lines already buffered go to the new one.
+     **/
+    public static void setSink(PrintStream newSink) {
+        sink = newSink;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     flush(): Waits, for at most a couple of seconds, until every message logged before the call has been written.
+     **/
+    public static void flush() {
+        long target = queued.get();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        synchronized (writtenLock) {
+            while (written < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    writtenLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+
+    static Level parseLevel(String text, Level fallback) {
+        if (text == null) {
+            return fallback;
+        }
+        try {
+            return Level.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    private void append(Level messageLevel, String message, Throwable cause) {
+        Entry entry = new Entry(System.currentTimeMillis(), messageLevel, Thread.currentThread().getName(), name, message, cause);
+        if (!ASYNC) {
+            synchronized (Log.class) {
+                write(sink, entry);
+                sink.flush();
+            }
+            return;
+        }
+        startWriter();
+        if (buffer.offer(entry)) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static void startWriter() {
+        if (writer != null) { // Racy read; startWriter() checks again under the lock
+            return;
+        }
+        synchronized (Log.class) {
+            if (writer == null) {
+                writer = new Thread(Log::writeLoop, "log-writer");
+                writer.setDaemon(true);
+                writer.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(Log::drain, "log-shutdown"));
+            }
+        }
+    }
+
+    /**
+     writeLoop(): Writes buffered messages in batches, flushing the sink once per batch instead of once per line.
+     **/
+    private static void writeLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            PrintStream out = sink;
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                write(out, new Entry(System.currentTimeMillis(), Level.WARN, "log-writer", "Log",
+                        (drops - reportedDrops) + " log messages were dropped because the log buffer was full", null));
+                reportedDrops = drops;
+            }
+            for (Entry entry : batch) {
+                write(out, entry);
+            }
+            out.flush();
+            synchronized (writtenLock) {
+                written += batch.size();
+                writtenLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     drain(): Writes what is left in the buffer when the application exits, so the last messages before a crash are not lost.
+     **/
+    private static void drain() {
+        List<Entry> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        PrintStream out = sink;
+        for (Entry entry : rest) {
+            write(out, entry);
+        }
+        out.flush();
+    }
+
+    private static void write(PrintStream out, Entry entry) {
+        out.println(TIME_FORMAT.format(Instant.ofEpochMilli(entry.timeMillis)) + " " + entry.level + " [" + entry.thread + "] "
+                + entry.logger + ": " + entry.message);
+        if (entry.cause != null) {
+            entry.cause.printStackTrace(out);
+        }
+    }
+
+
+    /**
+     Entry: One message waiting in the buffer; the time and thread are taken when it was logged, not when it is written.
+     **/
+    private static class Entry {
+        final long timeMillis;
+        final Level level;
+        final String thread;
+        final String logger;
+        final String message;
+        final Throwable cause;
+
+        Entry(long timeMillis, Level level, String thread, String logger, String message, Throwable cause) {
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.thread = thread;
+            this.logger = logger;
+            this.message = message;
+            this.cause = cause;
+        }
+    }
+}
@@ -11,34 +11,44 @@
      *initComponents(): Sets up the components of the UI (Buttons, Labels, Panels).
  - UI COMPONENTS SETUP: Configures the main table, label at the bottom of the window, and the buttons.
      * setupDataTable(): Configures the main table to display data with action buttons.
-     * setupFeedbackLabel(): Initializes a label at the bottom of the window to provide feedback to the user.
+     * setupFeedbackLabel(): Initializes a status bar at the bottom of the window to provide feedback to the user.
      * setupTableButtons(): Configured buttons within the table cells for actions like view, update, and delete.
+     * dispatchCategoryAction(): Runs the View/Update/Remove action clicked in a row of the category table.
+     * showTaskStatus(), showTaskError(): Show background task progress and failures in the status bar.
+ - BACKGROUND TASKS: Every action writes the database through a TaskRunner, so the window stays responsive during disk I/O.
+     * Dialogs gather input on the EDT, the database work runs on the task thread, and the result is shown back on the EDT.
+     * Views and edit dialogs read the in-memory hierarchy, which any thread may read, straight from the EDT, so they open without waiting behind
+       saves and loads in the task queue. Searches and reports that do real work still run as tasks.
+     * While tasks run, the status bar shows their progress and a Cancel button.
  - ACTION HANDLERS: Handles multiple options that allows data to load, display, and print onto the main window frame.
      * loadFile(): Loads data from a selected file into the application.
      * showAddOptionsDialog(): Displays a dialog for selecting whether to add a category, concept, or component.
      * showAddCategoryDialog(): Dialogues for adding a category.
      * showAddConceptDialog(): Dialogues for adding a concept.
      * showAddComponentDialog(): Dialogues for adding a component.
-     * showPrintDialog(): Shows a dialog with printable content from the database.
-     * recommendDiagram: Randomly recommends a diagram type.
+     * showPrintDialog(): Shows the print report, reading its rows a block at a time as the table scrolls.
+     * exportReport(): Streams the whole print report to a CSV file in the background.
+     * recommendDiagram: Recommends a diagram type from the measured structure of a category and explains why.
+     * showDiagram(): Lays out and draws a category as a mind map or concept map in a zoomable window.
+     * showDuplicatesDialog(): Lists near-duplicate concepts and components.
+     * confirmDespiteDuplicates(): Asks the user to confirm an addition that closely matches existing entries.
+     * showFindDialog(): Finds a category, concept, or component by name, suggesting close matches when the name is misspelled.
+     * showBrowseDialog(): Opens a tree of categories, concepts, and components that loads each level as it is expanded.
      * showInstructions(): Displays instructions for using the application.
  - DATA MANIPULATION METHODS: Updates the database and GUI.
-    * updateDataTable(): Refreshes and updates the data shown in the main table.
-    * refreshTableData(): Refreshes the data in the table.
-    * updateUI(): Updates the UI elements, primarily the data table, to ensure they reflect the current state of data within the database.
+    * refreshTableData(): Fills the table with every category; only used when the window opens.
+    * libraryChanged(): Applies each change set from the database to just the table rows it touches, keeping the selection and scroll position.
     * modifyConceptDetails(): Allows updating the details of a selected concept.
 - ENTITY ACTION METHODS: Handles action specific to categorises, concepts, and components.
     * viewCategoryAction(), viewConceptAction(), viewComponentAction(): Methods to view categories, concepts, and components.
     * updateCategoryAction(), updateConceptAction(), updateComponentAction(): Updates the categories, concepts, and components.
     * deleteCategoryAction(), deleteConceptAction(), deleteComponentAction(): Deletes the categories, concepts, and components.
- - UTILITY CLASSES
-    * ButtonPanelRenderer: Customizes the cell rendered for embedding buttons within table cells.
-    * ButtonPanelEditor: Customizes the cell editor for embedding buttons within table cells.
  - DIALOG AND DETAIL VIEWING
     * viewConceptDetails(): Opens a detailed view for a specific concept, including its components.
  - NESTED INTERFACES/CLASSES
     * EntityType(Enum): Defines types of entities to streamline handling in UI components.
     * UIUpdateListener(Interface): Provides an interface for updating the GUI.
+    * FindMatches: Holds the matches gathered in the background until they are shown.
 
  @author Alexus Jenkins
  @version 5.0
@@ -46,27 +56,32 @@
 
 package com.conceptbreakdowntool;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumn;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import javax.swing.JOptionPane;
-import java.util.Random;
 
 
 public class MainApplicationWindow extends JFrame {
+    private static final Log LOG = Log.get(MainApplicationWindow.class);
+
     private ConceptBreakdownToolUI startupUI;
     private DatabaseManager dbManager;
     private JTable dataTable;
+    private CategoryTableModel tableModel;
     private JLabel feedbackLabel;
+    private JProgressBar progressBar;
+    private JButton cancelButton;
     private JPanel panel;
+    private final TaskRunner tasks = new TaskRunner(this::showTaskStatus, this::showTaskError);
 
     /**
      CONSTRUCTOR AND INITIALIZATION: Responsible for setting up the main window, database connection, and UI Components.
@@ -79,7 +94,7 @@ public class MainApplicationWindow extends JFrame {
     public MainApplicationWindow(DatabaseManager dbManager, ConceptBreakdownToolUI startupUI) {
         this.startupUI = startupUI;
         this.dbManager = dbManager;
-        this.dbManager.setUIUpdateListener(this::updateUI);
+        this.dbManager.getChangeNotifier().addListener(this::libraryChanged);
 
         setTitle("Concept Breakdown Tool");
         setSize(1000, 600);
@@ -100,9 +115,15 @@ public class MainApplicationWindow extends JFrame {
         JMenuItem addMenuItem = new JMenuItem("Add");
         JMenuItem printMenuItem = new JMenuItem("Print");
         JMenuItem recommendMenuItem = new JMenuItem("Recommend");
+        JMenuItem duplicatesMenuItem = new JMenuItem("Duplicates");
+        JMenuItem findMenuItem = new JMenuItem("Find");
+        JMenuItem browseMenuItem = new JMenuItem("Browse");
         menuPopup.add(addMenuItem);
         menuPopup.add(printMenuItem);
         menuPopup.add(recommendMenuItem);
+        menuPopup.add(duplicatesMenuItem);
+        menuPopup.add(findMenuItem);
+        menuPopup.add(browseMenuItem);
 
         menuButton.addActionListener(e -> menuPopup.show(menuButton, menuButton.getWidth() / 2, menuButton.getHeight() / 2));
 
@@ -127,12 +148,12 @@ public class MainApplicationWindow extends JFrame {
         this.setLayout(new BorderLayout());
         this.add(topPanel, BorderLayout.NORTH);
 
-        addMenuItem.addActionListener(e -> {
-            showAddOptionsDialog();
-            refreshTableData(); // Refresh table data after adding a category
-        });
+        addMenuItem.addActionListener(e -> showAddOptionsDialog()); // Each addition refreshes the table once it is saved
         printMenuItem.addActionListener(e -> showPrintDialog());
         recommendMenuItem.addActionListener(e -> recommendDiagram());
+        duplicatesMenuItem.addActionListener(e -> showDuplicatesDialog());
+        findMenuItem.addActionListener(e -> showFindDialog());
+        browseMenuItem.addActionListener(e -> showBrowseDialog());
         backToStartupButton.addActionListener(e -> {
             this.setVisible(false); // Hide the MainApplicationWindow
             startupUI.setVisible(true); // Show the ConceptBreakdownToolUI
@@ -147,56 +168,97 @@ public class MainApplicationWindow extends JFrame {
      setupDataTable(): Configures the main table to display data with action buttons.
      **/
     private void setupDataTable() {
-        dataTable = new JTable(new DefaultTableModel(new Object[]{"ID", "Category Name", "Actions"}, 0) {
-            @Override
-            public Class<?> getColumnClass(int column) {
-                return (column == 2) ? JPanel.class : String.class;
-            }
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 2; // Only the button column should be editable
-            }
-        });
-
-        TableColumn actionColumn = dataTable.getColumnModel().getColumn(2);
-        actionColumn.setCellRenderer(new ButtonPanelRenderer());
+        // The model only holds category IDs; names and buttons are looked up and drawn when a row is painted
+        tableModel = new CategoryTableModel(dbManager);
+        dataTable = new JTable(tableModel);
 
         JScrollPane scrollPane = new JScrollPane(dataTable);
         add(scrollPane, BorderLayout.CENTER);
         dataTable.setRowHeight(40); // Adjust row height to accommodate buttons
 
         setupTableButtons();
-        refreshTableData(); // This method should call updateDataTable() method
+        refreshTableData(); // Later changes arrive through libraryChanged()
     }
 
     /**
-     setupFeedbackLabel(): Initializes a label at the bottom of the window to provide feedback to the user.
+     setupFeedbackLabel(): Initializes a status bar at the bottom of the window: a feedback label, plus a progress bar and Cancel button shown while background tasks run.
      **/
     private void setupFeedbackLabel() {
         feedbackLabel = new JLabel("Ready.", SwingConstants.CENTER);
-        add(feedbackLabel, BorderLayout.SOUTH);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setPreferredSize(new Dimension(150, 16));
+        cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> tasks.cancelAll());
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
+
+        JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelButton);
+
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.add(feedbackLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     showTaskStatus(): Shows the latest background task status in the status bar. Called on the EDT by the task runner.
+     * @param message the status message
+     * @param percent how far along the task is, or TaskRunner.INDETERMINATE
+     * @param runningCount the number of unfinished tasks
+     **/
+    private void showTaskStatus(String message, int percent, int runningCount) {
+        feedbackLabel.setText(message);
+        boolean busy = runningCount > 0;
+        progressBar.setVisible(busy);
+        cancelButton.setVisible(busy);
+        progressBar.setIndeterminate(busy && percent == TaskRunner.INDETERMINATE);
+        if (percent != TaskRunner.INDETERMINATE) {
+            progressBar.setValue(percent);
+        }
+    }
+
+    /**
+     showTaskError(): Reports a background task that failed with an exception. Called on the EDT by the task runner.
+     * @param e the exception the task threw
+     **/
+    private void showTaskError(Exception e) {
+        LOG.error("Background task failed", e);
+        JOptionPane.showMessageDialog(this, "General Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
      setupTableButtons(): Configured buttons within the table cells for actions like view, update, and delete.
      **/
     private void setupTableButtons() {
-        int actionColumnIndex = 2;
-        TableColumn actionColumn = dataTable.getColumnModel().getColumn(actionColumnIndex);
+        TableColumn actionColumn = dataTable.getColumnModel().getColumn(CategoryTableModel.ACTIONS_COLUMN);
 
-        actionColumn.setCellRenderer(new TableCellRenderer() {
-            @Override
-            public java.awt.Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-                if (value instanceof JPanel) {
-                    return (JPanel) value;
-                } else {
-                    return new JLabel("Not a Panel");
-                }
-            }
-        });
+        // One renderer/editor instance serves every row; the cell value is the category ID
+        ActionButtonCell actionCell = new ActionButtonCell(this::dispatchCategoryAction, "View", "Update", "Remove");
+        actionColumn.setCellRenderer(actionCell);
+        actionColumn.setCellEditor(actionCell);
+    }
 
-        // Set the custom editor for the action column
-        actionColumn.setCellEditor(new ButtonPanelEditor(new JCheckBox()));
+    /**
+     dispatchCategoryAction(): Runs the action clicked in a row of the category table.
+     * @param action the clicked button's label
+     * @param categoryId the ID of the row's category
+     **/
+    private void dispatchCategoryAction(String action, int categoryId) {
+        switch (action) {
+            case "View":
+                viewCategoryAction(categoryId);
+                break;
+            case "Update":
+                updateCategoryAction(categoryId);
+                break;
+            case "Remove":
+                deleteCategoryAction(categoryId);
+                break;
+            default:
+                break;
+        }
     }
 
 
@@ -209,17 +271,17 @@ public class MainApplicationWindow extends JFrame {
      * @param selectedFile the file selected by the user to load
      **/
     public void loadFile(File selectedFile) {
-        try {
-            boolean loaded = dbManager.loadDataFromFile(selectedFile.getAbsolutePath());
+        String path = selectedFile.getAbsolutePath();
+        tasks.submit("Loading " + selectedFile.getName(), progress -> dbManager.loadDataFromFile(path), loaded -> {
             if (loaded) {
-                refreshTableData();
+                feedbackLabel.setText("Data loaded."); // The reload reaches the table through libraryChanged()
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to load data from file.", "Load Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, e -> {
+            LOG.error("Failed to load " + path, e);
             JOptionPane.showMessageDialog(this, "General Error: " + e.getMessage(), "Load Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     /**
@@ -266,12 +328,21 @@ public class MainApplicationWindow extends JFrame {
             try {
                 int id = Integer.parseInt(idField.getText().trim()); // Add validation as necessary
                 String topic = topicField.getText().trim();
-                boolean success = dbManager.addCategory(new Category(id, topic)); // Assuming this method exists in your DatabaseManager
-                if (success) {
-                    refreshTableData(); // Refresh data to reflect changes
-                } else {
-                    JOptionPane.showMessageDialog(this, "Category ID already exists.", "Error", JOptionPane.ERROR_MESSAGE); // Moved inside the else block
-                }
+                tasks.submit("Checking category names", progress -> dbManager.suggestCategories(topic), similar -> {
+                    if (!similar.isEmpty() && similar.get(0).getDistance() > 0) {
+                        int choice = JOptionPane.showConfirmDialog(this,
+                                "A category named '" + similar.get(0).getText() + "' already exists. Did you mean that one?\nChoose 'No' to add '" + topic + "' anyway.",
+                                "Did You Mean", JOptionPane.YES_NO_OPTION);
+                        if (choice != JOptionPane.NO_OPTION) {
+                            return;
+                        }
+                    }
+                    tasks.submit("Adding category", progress -> dbManager.addCategory(new Category(id, topic)), success -> {
+                        if (!success) {
+                            JOptionPane.showMessageDialog(this, "Category ID already exists.", "Error", JOptionPane.ERROR_MESSAGE); // Moved inside the else block
+                        }
+                    });
+                });
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid number for the category ID.", "Input Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -282,13 +353,21 @@ public class MainApplicationWindow extends JFrame {
      showAddConceptDialog(): Dialogues for adding a concept.
      **/
     private void showAddConceptDialog() {
+        showAddConceptDialog(dbManager.getHierarchy().getCategories());
+    }
+
+    /**
+     showAddConceptDialog(): Dialogues for adding a concept, given the categories to choose from.
+     * @param categories the existing categories
+     **/
+    private void showAddConceptDialog(List<Category> categories) {
         JTextField idField = new JTextField();
         JTextField topicField = new JTextField();
         JTextField detailsField = new JTextField();
         JComboBox<String> categoryComboBox = new JComboBox<>();
 
         // Fill the JComboBox with existing categories
-        for (Category category : dbManager.getCategories()) {
+        for (Category category : categories) {
             categoryComboBox.addItem(category.getTopic());
         }
 
@@ -305,10 +384,12 @@ public class MainApplicationWindow extends JFrame {
             String topic = topicField.getText().trim();
             String categoryName = (String) categoryComboBox.getSelectedItem();
             String details = detailsField.getText().trim();
-
-            // As addConcept() now doesn't return a boolean, no need to check for a return value
-            dbManager.addConcept(new Concept(id, topic, categoryName, details));
-            // updateUI() method will now be called within the addConcept method if necessary
+            confirmThenRun(progress -> dbManager.findSimilarConcepts(topic, details), () ->
+                    // As addConcept() now doesn't return a boolean, no need to check for a return value
+                    tasks.submit("Adding concept", progress -> {
+                        dbManager.addConcept(new Concept(id, topic, categoryName, details));
+                        return null;
+                    }, null));
         }
     }
 
@@ -316,13 +397,21 @@ public class MainApplicationWindow extends JFrame {
      showAddComponentDialog(): Dialogues for adding a component.
      **/
     private void showAddComponentDialog() {
+        showAddComponentDialog(new ArrayList<>(dbManager.getConcepts()));
+    }
+
+    /**
+     showAddComponentDialog(): Dialogues for adding a component, given the concepts to choose from.
+     * @param concepts the existing concepts
+     **/
+    private void showAddComponentDialog(List<Concept> concepts) {
         JTextField topicField = new JTextField();
         JTextArea detailsField = new JTextArea(5, 20); // Provides more space for details
         JScrollPane detailsScrollPane = new JScrollPane(detailsField); // Make the TextArea scrollable
 
         JComboBox<Concept> conceptComboBox = new JComboBox<>();
         // Fill the JComboBox with existing concepts
-        for (Concept concept : dbManager.getConcepts()) {
+        for (Concept concept : concepts) {
             conceptComboBox.addItem(concept);
         }
 
@@ -350,87 +439,296 @@ public class MainApplicationWindow extends JFrame {
             String details = detailsField.getText().trim();
             Concept selectedConcept = (Concept) conceptComboBox.getSelectedItem();
             if (selectedConcept != null) {
-                int newComponentId = dbManager.generateNewComponentId(); // Generate a new ID for the component
-                dbManager.addComponent(new Component(topic, details, selectedConcept.getId()));
-                // Assuming addComponent updates the UI, no need to explicitly call updateUI here
+                confirmThenRun(progress -> dbManager.findSimilarComponents(topic, details), () ->
+                        tasks.submit("Adding component", progress -> {
+                            int newComponentId = dbManager.generateNewComponentId(); // Generate a new ID for the component
+                            dbManager.addComponent(new Component(topic, details, selectedConcept.getId()));
+                            return null;
+                        }, null));
             }
         }
     }
 
     /**
-     showPrintDialog(): Shows a dialog with printable content from the database.
+     showPrintDialog(): Shows the print report straight away; its rows are read from the database a block at a time as the table scrolls to them.
      **/
     private void showPrintDialog() {
         // Create a new JDialog
         JDialog printDialog = new JDialog(this, "Print Data", true);
         printDialog.setLayout(new BorderLayout());
 
-        // Set up the table model
-        DefaultTableModel tableModel = new DefaultTableModel();
-        tableModel.addColumn("ID");
-        tableModel.addColumn("Category");
-        tableModel.addColumn("Concept");
-        tableModel.addColumn("Details");
-
-        // Fetch data from the database
-        String sql = "SELECT c.Concept_ID, cat.Category_Topic, c.Concept_Topic, comp.Component_Description " +
-                "FROM Concept c " +
-                "JOIN Category cat ON c.Category_ID = cat.Category_ID " +
-                "JOIN Component comp ON c.Concept_ID = comp.Concept_ID";
-
-        try (Connection conn = dbManager.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                // Add rows to the table model
-                tableModel.addRow(new Object[]{
-                        rs.getInt("Concept_ID"),
-                        rs.getString("Category_Topic"),
-                        rs.getString("Concept_Topic"),
-                        rs.getString("Component_Description")
-                });
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading print data: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            return; // Exit the method if there's an error
-        }
-
-        // Create the table
-        JTable dataTable = new JTable(tableModel);
+        // The model starts empty and fills in the blocks the table asks for
+        ReportTableModel reportModel = new ReportTableModel(dbManager, tasks);
+        JTable dataTable = new JTable(reportModel);
         JScrollPane scrollPane = new JScrollPane(dataTable); // Make table scrollable
-        dataTable.setPreferredScrollableViewportSize(new Dimension(500, 70));
+        dataTable.setPreferredScrollableViewportSize(new Dimension(700, 300));
         dataTable.setFillsViewportHeight(true);
 
         // Add table to dialog
         printDialog.add(scrollPane, BorderLayout.CENTER);
+        JButton exportButton = new JButton("Export Report...");
+        exportButton.addActionListener(e -> exportReport(printDialog));
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(exportButton);
+        printDialog.add(buttonPanel, BorderLayout.SOUTH);
+        printDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                reportModel.dispose(); // Drop the cached rows
+            }
+        });
+        printDialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
 
         // Configure and display the dialog
+        reportModel.open();
         printDialog.pack();
         printDialog.setLocationRelativeTo(this); // Center the dialog
         printDialog.setVisible(true);
     }
 
-    private static final String[] DIAGRAM_TYPES = {
-            "Flowchart",
-            "Venn Diagram",
-            "UML Diagram",
-            "Mind Map",
-            "Fishbone Diagram",
-            "Concept Map",
-            "Affinity Diagram",
-            "Relationship Diagram"
-    };
+    /**
+     exportReport(): Asks for a file and writes the whole print report to it as CSV in the background, streaming it row by row.
+     * @param parent the dialog the file chooser and messages belong to
+     **/
+    private void exportReport(JDialog parent) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("report.csv"));
+        if (fileChooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        tasks.submit("Exporting report", progress -> {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                return dbManager.exportReport(out, progress);
+            }
+        }, rows -> JOptionPane.showMessageDialog(parent, "Exported " + rows + " rows to " + file.getName() + ".", "Export Complete", JOptionPane.INFORMATION_MESSAGE));
+    }
 
     /**
-     recommendDiagram: Randomly recommends a diagram type.
+     recommendDiagram: Recommends a diagram type for the selected category (or one picked from a list) from its measured structure, and explains why.
      **/
     private void recommendDiagram() {
-        Random random = new Random();
-        int index = random.nextInt(DIAGRAM_TYPES.length);
-        String recommendedDiagram = DIAGRAM_TYPES[index];
-        JOptionPane.showMessageDialog(this, "Recommended diagram type: " + recommendedDiagram, "Diagram Recommendation", JOptionPane.INFORMATION_MESSAGE);
+        int selectedRow = dataTable.getSelectedRow();
+        if (selectedRow >= 0) {
+            recommendDiagram((Integer) dataTable.getValueAt(selectedRow, 0));
+            return;
+        }
+        List<Category> categories = dbManager.getHierarchy().getCategories();
+        JComboBox<Category> categoryComboBox = new JComboBox<>(categories.toArray(new Category[0]));
+        categoryComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public java.awt.Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof Category) {
+                    setText(((Category) value).getTopic());
+                }
+                return this;
+            }
+        });
+        if (categoryComboBox.getItemCount() == 0) {
+            JOptionPane.showMessageDialog(this, "Add a category first.", "Diagram Recommendation", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        int option = JOptionPane.showConfirmDialog(this, new Object[]{"Category:", categoryComboBox}, "Diagram Recommendation", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION) {
+            recommendDiagram(((Category) categoryComboBox.getSelectedItem()).getId());
+        }
+    }
+
+    /**
+     recommendDiagram(): Measures a category in the background and shows the recommended diagram with its explanation.
+     * @param categoryId the ID of the category
+     **/
+    private void recommendDiagram(int categoryId) {
+        tasks.submit("Measuring category", progress -> dbManager.recommendDiagramForCategory(categoryId), recommendation -> {
+            DiagramLayout.Style style = DiagramLayout.Style.forDiagramType(recommendation.getDiagramType());
+            if (style == null) {
+                JOptionPane.showMessageDialog(this, recommendation.explain(), "Diagram Recommendation", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            String[] options = {"Draw Diagram", "OK"};
+            int choice = JOptionPane.showOptionDialog(this, recommendation.explain(), "Diagram Recommendation", JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.INFORMATION_MESSAGE, null, options, options[1]);
+            if (choice == 0) {
+                showDiagram(categoryId, recommendation.getDiagramType(), style);
+            }
+        });
+    }
+
+    /**
+     showDiagram(): Lays out a category in the background and shows it in a window that can be zoomed with the mouse wheel and panned by dragging.
+     * @param categoryId the ID of the category
+     * @param diagramType the name of the diagram, for the title
+     * @param style the layout to use
+     **/
+    private void showDiagram(int categoryId, String diagramType, DiagramLayout.Style style) {
+        tasks.submit("Laying out " + diagramType, progress -> DiagramLayout.forCategory(dbManager, categoryId, style), diagram -> {
+            JDialog diagramDialog = new JDialog(this, diagramType, false);
+            diagramDialog.setLayout(new BorderLayout());
+            DiagramPanel diagramPanel = new DiagramPanel(diagram);
+            diagramDialog.add(diagramPanel, BorderLayout.CENTER);
+
+            JButton fitButton = new JButton("Fit");
+            fitButton.addActionListener(e -> diagramPanel.fitToView());
+            JButton saveButton = new JButton("Save Image...");
+            saveButton.addActionListener(e -> {
+                JFileChooser fileChooser = new JFileChooser();
+                fileChooser.setSelectedFile(new File("diagram.png"));
+                if (fileChooser.showSaveDialog(diagramDialog) == JFileChooser.APPROVE_OPTION) {
+                    File file = fileChooser.getSelectedFile();
+                    tasks.submit("Saving image", progress -> ImageIO.write(DiagramPanel.renderImage(diagram, 1600, 1200), "png", file), null);
+                }
+            });
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            buttonPanel.add(fitButton);
+            buttonPanel.add(saveButton);
+            diagramDialog.add(buttonPanel, BorderLayout.SOUTH);
+
+            diagramDialog.pack();
+            diagramDialog.setLocationRelativeTo(this);
+            diagramDialog.setVisible(true);
+        });
+    }
+
+    /**
+     showFindDialog(): Finds a category, concept, or component by name. An exact match opens straight away; otherwise the closest matches are offered as "did you mean" choices.
+     **/
+    private void showFindDialog() {
+        String query = JOptionPane.showInputDialog(this, "Enter a category, concept, or component name:", "Find", JOptionPane.QUESTION_MESSAGE);
+        if (query == null || query.trim().isEmpty()) {
+            return;
+        }
+        tasks.submit("Searching", progress -> findMatches(query), matches -> showFindResults(query, matches));
+    }
+
+    /**
+     findMatches(): Gathers the categories, concepts, and components close to a query, off the EDT.
+     * @param query the name the user typed
+     * @return the labels to list and the view action for each
+     **/
+    private FindMatches findMatches(String query) {
+        FindMatches matches = new FindMatches();
+        for (FuzzyIndex.Suggestion<Integer> suggestion : dbManager.suggestCategories(query)) {
+            for (Integer categoryId : suggestion.getKeys()) {
+                matches.labels.add("Category: " + suggestion.getText() + " (ID " + categoryId + ")");
+                matches.actions.add(() -> viewCategoryAction(categoryId));
+            }
+            matches.exact |= suggestion.getDistance() == 0;
+        }
+        for (FuzzyIndex.Suggestion<Integer> suggestion : dbManager.suggestConcepts(query)) {
+            for (Integer conceptId : suggestion.getKeys()) {
+                matches.labels.add("Concept: " + suggestion.getText() + " (ID " + conceptId + ")");
+                matches.actions.add(() -> viewConceptAction(conceptId));
+            }
+            matches.exact |= suggestion.getDistance() == 0;
+        }
+        for (FuzzyIndex.Suggestion<String> suggestion : dbManager.suggestComponents(query)) {
+            matches.labels.add("Component: " + suggestion.getText());
+            matches.actions.add(() -> viewComponentAction(suggestion.getText()));
+            matches.exact |= suggestion.getDistance() == 0;
+        }
+        return matches;
+    }
+
+    /**
+     showFindResults(): Opens the only exact match straight away, or lets the user pick from the closest matches.
+     * @param query the name the user typed
+     * @param matches the matches gathered by findMatches()
+     **/
+    private void showFindResults(String query, FindMatches matches) {
+        List<String> labels = matches.labels;
+        List<Runnable> actions = matches.actions;
+        boolean exact = matches.exact;
+        if (labels.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Nothing close to '" + query.trim() + "' was found.", "Find", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        if (exact && labels.size() == 1) {
+            actions.get(0).run();
+            return;
+        }
+        Object choice = JOptionPane.showInputDialog(this, exact ? "Matches:" : "Did you mean:", "Find",
+                JOptionPane.QUESTION_MESSAGE, null, labels.toArray(), labels.get(0));
+        if (choice != null) {
+            actions.get(labels.indexOf(choice)).run();
+        }
+    }
+
+    /**
+     showBrowseDialog(): Opens a tree of categories, concepts, and components that loads each level from the database as it is expanded.
+     **/
+    private void showBrowseDialog() {
+        JDialog browseDialog = new JDialog(this, "Browse Library", false);
+        browseDialog.setLayout(new BorderLayout());
+        browseDialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        LibraryBrowser browser = new LibraryBrowser(dbManager, tasks);
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> browser.reload());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(refreshButton);
+
+        browseDialog.add(browser, BorderLayout.CENTER);
+        browseDialog.add(buttonPanel, BorderLayout.SOUTH);
+        browseDialog.setSize(450, 550);
+        browseDialog.setLocationRelativeTo(this);
+        browseDialog.setVisible(true);
+        browser.reload();
+    }
+
+    /**
+     showDuplicatesDialog(): Lists near-duplicate concepts and components.
+     **/
+    private void showDuplicatesDialog() {
+        tasks.submit("Looking for duplicates", progress -> dbManager.findDuplicatesReport(), this::showDuplicatesDialog);
+    }
+
+    /**
+     showDuplicatesDialog(): Shows the near-duplicate concepts and components that were found.
+     * @param duplicates the near-duplicate pairs
+     **/
+    private void showDuplicatesDialog(List<DuplicateIndex.Match> duplicates) {
+        if (duplicates.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No near-duplicate concepts or components found.", "Duplicates", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        for (DuplicateIndex.Match match : duplicates) {
+            report.append(match).append('\n');
+        }
+        JTextArea reportArea = new JTextArea(report.toString(), 15, 60);
+        reportArea.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(reportArea), "Duplicates", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     confirmThenRun(): Looks for close matches in the background, then runs an addition once the user has confirmed any that were found.
+     * @param check the background lookup of close matches
+     * @param addition the addition to run if there are no matches or the user chose to add anyway
+     **/
+    private void confirmThenRun(TaskRunner.Task<List<DuplicateIndex.Match>> check, Runnable addition) {
+        tasks.submit("Checking for duplicates", check, matches -> {
+            if (confirmDespiteDuplicates(matches)) {
+                addition.run();
+            }
+        });
+    }
+
+    /**
+     confirmDespiteDuplicates(): Asks the user to confirm an addition that closely matches existing entries.
+     * @param matches the close matches for the new entry
+     * @return true if there are no matches or the user chose to add anyway
+     **/
+    private boolean confirmDespiteDuplicates(List<DuplicateIndex.Match> matches) {
+        if (matches.isEmpty()) {
+            return true;
+        }
+        StringBuilder message = new StringBuilder("This closely matches:\n");
+        for (int i = 0; i < Math.min(5, matches.size()); i++) {
+            message.append("  - ").append(matches.get(i)).append('\n');
+        }
+        message.append("Add it anyway?");
+        return JOptionPane.showConfirmDialog(this, message.toString(), "Possible Duplicate", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION;
     }
 
     /**
@@ -459,10 +757,13 @@ public class MainApplicationWindow extends JFrame {
                 "</ul>" +
                 "<h2>Navigation and Buttons</h2>" +
                 "<ul>" +
-                "<li><u>Menu:</u> Click the 'Menu' button and it will show three buttons - 'Add', 'Print', and 'Recommend'.</li>" +
+                "<li><u>Menu:</u> Click the 'Menu' button and it will show six buttons - 'Add', 'Print', 'Recommend', 'Duplicates', 'Find', and 'Browse'.</li>" +
                 "<li><u>Add:</u> It will add a category, concept, and/or component to your .db file. You cannot create a concept without a category and you cannot create a component without a concept.</li>" +
                 "<li><u>Print:</u> Displays a table with all of the content from the .db file.</li>" +
-                "<li><u>Recommend:</u> It will recommend you a diagram to transform your data into a visual aid.</li>" +
+                "<li><u>Recommend:</u> It will recommend you a diagram that fits the structure of the selected category and explain why.</li>" +
+                "<li><u>Duplicates:</u> Lists concepts and components that closely match each other, so repeated entries can be cleaned up.</li>" +
+                "<li><u>Find:</u> Type a name to jump to a category, concept, or component. Small typos are fine; it will suggest the closest matches.</li>" +
+                "<li><u>Browse:</u> Opens a tree of your categories, concepts, and components. Expand a row to see what is inside it, and double-click 'Load more...' to see the next page.</li>" +
                 "<li><u>View:</u> You will join another window where you can view and/or modify concepts and/or components.</li>" +
                 "<li><u>Updates:</u> You will be able to modify the ID, Topic, and Description of a category, concept, and/or component.</li>" +
                 "<li><u>Remove:</u> You will be able to remove a category, concept, or component.</li>" +
@@ -480,55 +781,24 @@ public class MainApplicationWindow extends JFrame {
      DATA MANIPULATION METHODS: Updates the database and GUI.
      **/
     /**
-     updateDataTable(): Refreshes and updates the data shown in the main table.
-     **/
-    private void updateDataTable() {
-        DefaultTableModel model = (DefaultTableModel) dataTable.getModel();
-        model.setRowCount(0); // Clear existing data
-
-        for (Category category : dbManager.getCategories()) {
-            JPanel buttonPanel = createButtonPanel(category.getId(), EntityType.CATEGORY, category.getTopic());
-            model.addRow(new Object[]{category.getId(), category.getTopic(), buttonPanel});
-        }
-
-        dataTable.setModel(model);
-        System.out.println("Table data refreshed.");
-    }
-
-    /**
-     refreshTableData(): Refreshes the data in the table.
+     refreshTableData(): Fills the table with every category. Only used when the window opens; after that the table follows
+     libraryChanged(), so edits don't rebuild it.
      **/
     private void refreshTableData() {
         SwingUtilities.invokeLater(() -> {
-            DefaultTableModel model = (DefaultTableModel) dataTable.getModel();
-            model.setRowCount(0); // Clear existing rows
-
             // Load only categories into the table
-            for (Category category : dbManager.getCategories()) {
-                model.addRow(new Object[]{
-                        category.getId(),
-                        category.getTopic(),
-                        createButtonPanel(category.getId(), EntityType.CATEGORY, category.getTopic())
-                });
-            }
-
-            dataTable.setModel(model);
-            System.out.println("Table data refreshed.");
+            tableModel.reload();
             feedbackLabel.setText("Data loaded.");
         });
     }
 
     /**
-     updateUI(): Updates the UI elements, primarily the data table, to ensure they reflect the current state of data within the database.
+     libraryChanged(): Applies a change set to the table. Only the inserted, updated, or deleted rows are redrawn, so the selection
+     and scroll position survive every add, update, and delete. Called on the EDT by the change notifier.
+     * @param changes what changed since the last change set
      **/
-    private void updateUI() {
-        // SwingUtilities.invokeLater is used to update the table in the Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> {
-            // Make sure the method updateDataTable() updates the data model and UI accordingly
-            updateDataTable();
-            dataTable.revalidate();
-            dataTable.repaint();
-        });
+    private void libraryChanged(ChangeNotifier.ChangeSet changes) {
+        tableModel.applyChanges(changes);
     }
 
     /**
@@ -536,7 +806,15 @@ public class MainApplicationWindow extends JFrame {
      * @param conceptId the ID of the concept to be updated
      **/
     private void modifyConceptDetails(int conceptId) {
-        Concept concept = dbManager.getConcept(conceptId);
+        modifyConceptDetails(conceptId, dbManager.getConcept(conceptId));
+    }
+
+    /**
+     modifyConceptDetails(): Shows the concept for editing and saves the changes in the background.
+     * @param conceptId the ID of the concept to be updated
+     * @param concept the concept, or null if it wasn't found
+     **/
+    private void modifyConceptDetails(int conceptId, Concept concept) {
         if (concept != null) {
             JTextField topicField = new JTextField(concept.getTopic());
             JTextArea detailsArea = new JTextArea(5, 20); // Set rows and columns to make the text area larger
@@ -560,13 +838,14 @@ public class MainApplicationWindow extends JFrame {
                 String newTopic = topicField.getText().trim();
                 String newDetails = detailsArea.getText().trim();
 
-                boolean updated = dbManager.updateConcept(conceptId, newTopic, newDetails);
-                if (updated) {
-                    JOptionPane.showMessageDialog(this, "Concept updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
-                    // Refresh your UI here if necessary
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update the concept.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                tasks.submit("Updating concept", progress -> dbManager.updateConcept(conceptId, newTopic, newDetails), updated -> {
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this, "Concept updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
+                        // Refresh your UI here if necessary
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to update the concept.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         } else {
             JOptionPane.showMessageDialog(this, "Concept not found.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -578,11 +857,22 @@ public class MainApplicationWindow extends JFrame {
      ENTITY ACTION METHODS: Handles action specific to categorises, concepts, and components.
      **/
     /**
-     viewCategoryAction(): Methods to view categories, concepts, and components.
+     viewCategoryAction(): Methods to view categories, concepts, and components. The category and its concepts come from the in-memory
+     hierarchy, so the view opens straight away instead of waiting behind saves and loads in the task queue.
      * @param categoryId the ID of the category to view
      **/
     private void viewCategoryAction(int categoryId) {
         Category category = dbManager.getCategoryById(categoryId);
+        viewCategoryAction(categoryId, category, category == null ? null : dbManager.getConceptsByCategoryId(categoryId));
+    }
+
+    /**
+     viewCategoryAction(): Shows a category with a row of View/Update/Remove buttons for each of its concepts.
+     * @param categoryId the ID of the category to view
+     * @param category the category, or null if it wasn't found
+     * @param concepts the category's concepts
+     **/
+    private void viewCategoryAction(int categoryId, Category category, List<Concept> concepts) {
         if (category == null) {
             JOptionPane.showMessageDialog(this, "Category with ID " + categoryId + " not found.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -594,7 +884,6 @@ public class MainApplicationWindow extends JFrame {
         JPanel conceptsPanel = new JPanel();
         conceptsPanel.setLayout(new BoxLayout(conceptsPanel, BoxLayout.Y_AXIS));
 
-        List<Concept> concepts = dbManager.getConceptsByCategoryId(categoryId);
         if (concepts.isEmpty()) {
             conceptsPanel.add(new JLabel("No concepts found for this category."));
         } else {
@@ -662,7 +951,15 @@ public class MainApplicationWindow extends JFrame {
      **/
     private void updateCategoryAction(int categoryId) {
         // Fetch the current category details
-        Category category = dbManager.getCategoryById(categoryId);
+        updateCategoryAction(categoryId, dbManager.getCategoryById(categoryId));
+    }
+
+    /**
+     updateCategoryAction(): Shows a category for editing and saves the changes in the background.
+     * @param categoryId the ID of the category to update
+     * @param category the category, or null if it wasn't found
+     **/
+    private void updateCategoryAction(int categoryId, Category category) {
         if (category == null) {
             JOptionPane.showMessageDialog(this, "Category with ID " + categoryId + " not found.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -682,20 +979,22 @@ public class MainApplicationWindow extends JFrame {
                 int newId = Integer.parseInt(idField.getText().trim());
                 String newName = nameField.getText().trim();
 
-                // Check if the ID has changed and if so, validate it
-                if (newId != categoryId && dbManager.getCategoryById(newId) != null) {
-                    JOptionPane.showMessageDialog(this, "Category ID already exists.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-
-                // Now update the category in the database
-                boolean updated = dbManager.updateCategory(newId, newName);
-                if (updated) {
-                    JOptionPane.showMessageDialog(this, "Category updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
-                    refreshTableData(); // Refresh data to show updated values
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update the category.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                tasks.submit("Updating category", progress -> {
+                    // Check if the ID has changed and if so, validate it; null means the new ID is taken
+                    if (newId != categoryId && dbManager.getCategoryById(newId) != null) {
+                        return null;
+                    }
+                    // Now update the category in the database
+                    return dbManager.updateCategory(newId, newName);
+                }, updated -> {
+                    if (updated == null) {
+                        JOptionPane.showMessageDialog(this, "Category ID already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (updated) {
+                        JOptionPane.showMessageDialog(this, "Category updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to update the category.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid number for category ID.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
             }
@@ -738,8 +1037,7 @@ public class MainApplicationWindow extends JFrame {
             String newDetails = JOptionPane.showInputDialog(this, "Enter new details for the component:", component.getDetails());
             if (newDetails != null && !newDetails.isEmpty()) {
                 // Assume there is a method in dbManager to update the component's details.
-                dbManager.updateComponent(component.getConceptId(), componentTopic, componentTopic, newDetails);
-                refreshTableData(); // Refresh table to show the updated details
+                tasks.submit("Updating component", progress -> dbManager.updateComponent(component.getConceptId(), componentTopic, componentTopic, newDetails), null);
             }
         } else {
             JOptionPane.showMessageDialog(this, "Component with topic " + componentTopic + " not found.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -753,13 +1051,13 @@ public class MainApplicationWindow extends JFrame {
     private void deleteCategoryAction(int categoryId) {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete the category with ID: " + categoryId + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = dbManager.deleteCategory(categoryId);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Category deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
-                refreshTableData(); // Refresh table to remove the deleted category
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete the category.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            tasks.submit("Deleting category", progress -> dbManager.deleteCategory(categoryId), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Category deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete the category.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -770,13 +1068,13 @@ public class MainApplicationWindow extends JFrame {
     private void deleteConceptAction(int conceptId) {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete the concept with ID: " + conceptId + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = dbManager.deleteConcept(conceptId);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Concept deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
-                refreshTableData(); // Refresh table to remove the deleted concept
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete the concept.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            tasks.submit("Deleting concept", progress -> dbManager.deleteConcept(conceptId), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Concept deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete the concept.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -789,57 +1087,13 @@ public class MainApplicationWindow extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete the component with topic: " + componentTopic + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
             // Assume dbManager has a method to delete a component by topic.
-            boolean success = dbManager.deleteComponent(componentTopic);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Component deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
-                refreshTableData(); // Refresh table to remove the deleted component
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete the component.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    /**
-     UTILITY CLASSES
-     **/
-    /**
-     ButtonPanelRenderer: Customizes the cell rendered for embedding buttons within table cells.**/
-    class ButtonPanelRenderer implements TableCellRenderer {
-        @Override
-        public java.awt.Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-            System.out.println("Rendering row: " + row + ", column: " + column); // Debug print
-            System.out.println("Value class: " + value.getClass().getName()); // Check the class of the value
-
-            if (value instanceof JPanel) {
-                return (JPanel) value;
-            } else {
-                return new JLabel("Not a Panel");
-            }
-        }
-    }
-
-    /**
-     ButtonPanelEditor: Customizes the cell editor for embedding buttons within table cells.**/
-    class ButtonPanelEditor extends DefaultCellEditor {
-        protected JPanel panel;
-
-        public ButtonPanelEditor(JCheckBox checkBox) {
-            super(checkBox);
-            this.clickCountToStart = 1; // This makes the editor immediately active on a single click
-        }
-
-        @Override
-        public java.awt.Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
-            if (value instanceof JPanel) {
-                this.panel = (JPanel) value;
-                return this.panel;
-            }
-            return super.getTableCellEditorComponent(table, value, isSelected, row, column);
-        }
-
-        @Override
-        public Object getCellEditorValue() {
-            return this.panel;
+            tasks.submit("Deleting component", progress -> dbManager.deleteComponent(componentTopic), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Component deleted successfully.", "Deletion Successful", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete the component.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -851,6 +1105,15 @@ public class MainApplicationWindow extends JFrame {
      * @param concept the Concept object whose details are to be displayed
      **/
     private void viewConceptDetails(Concept concept) {
+        viewConceptDetails(concept, dbManager.getComponentsByConceptId(concept.getId()));
+    }
+
+    /**
+     viewConceptDetails(): Shows a concept with its components.
+     * @param concept the Concept object whose details are to be displayed
+     * @param components the concept's components
+     **/
+    private void viewConceptDetails(Concept concept, List<Component> components) {
         JDialog detailsDialog = new JDialog(this, "Concept Details", true);
         detailsDialog.setLayout(new BorderLayout(10, 10)); // Margins between components
 
@@ -878,7 +1141,6 @@ public class MainApplicationWindow extends JFrame {
         componentsTable.setFillsViewportHeight(true);
 
         // Fill the table with component data
-        List<Component> components = dbManager.getComponentsByConceptId(concept.getId());
         for (Component comp : components) {
             model.addRow(new Object[]{comp.getTopic(), comp.getDetails()});
         }
@@ -908,63 +1170,38 @@ public class MainApplicationWindow extends JFrame {
         COMPONENT
     }
 
-    /**
-     createButtonPanel(): Creates a JPanel with buttons based on category, concept, or component.
-     * @param id the entity ID
-     * @param type the EntityType (CATEGORY, CONCEPT, COMPONENT)
-     * @param topic the topic of the entity (used for COMPONENT)
-     * @return JPanel containing action buttons
-     **/
-    private JPanel createButtonPanel(int id, EntityType type, String topic) { // Added 'topic' parameter for COMPONENT case
-        System.out.println("Creating button panel for " + type + " ID: " + id);
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        JButton viewButton = new JButton("View");
-        JButton updateButton = new JButton("Update");
-        JButton deleteButton = new JButton("Remove");
-
-        // Set action listeners based on the type of entity
-        if (type == EntityType.CATEGORY) {
-            viewButton.addActionListener(e -> viewCategoryAction(id));
-            updateButton.addActionListener(e -> updateCategoryAction(id));
-            deleteButton.addActionListener(e -> deleteCategoryAction(id));
-        } else if (type == EntityType.CONCEPT) {
-            viewButton.addActionListener(e -> viewConceptAction(id));
-            updateButton.addActionListener(e -> updateConceptAction(id));
-            deleteButton.addActionListener(e -> deleteConceptAction(id));
-        } else if (type == EntityType.COMPONENT) {
-            // Use the passed 'topic' for COMPONENT actions
-            viewButton.addActionListener(e -> viewComponentAction(topic));
-            updateButton.addActionListener(e -> updateComponentAction(topic));
-            deleteButton.addActionListener(e -> deleteComponentAction(topic));
-        }
-
-        panel.add(viewButton);
-        panel.add(updateButton);
-        panel.add(deleteButton);
-
-        return panel;
-    }
-
-
     /**UIUpdateListener():Provides an interface for updating the GUI. **/
     public interface UIUpdateListener {
         void updateUI();
     }
 
+    /**
+     FindMatches: The labels and view actions gathered in the background for the Find dialog.
+     **/
+    private static class FindMatches {
+        final List<String> labels = new ArrayList<>();
+        final List<Runnable> actions = new ArrayList<>();
+        boolean exact;
+    }
+
     /**
      updateComponentForConcept(): Displays a dialog that will allow the user to update component based on concept ID.
      * @param conceptId The ID of the concept whose components are to be updated.
      **/
     private void updateComponentForConcept(int conceptId) {
-        // Fetch the Concept to get its Components
-        Concept concept = dbManager.getConcept(conceptId);
-        if (concept == null) {
+        // Fetch the Concept's Components; null means the Concept itself wasn't found
+        selectComponentToUpdate(dbManager.getConcept(conceptId) == null ? null : dbManager.getComponentsByConceptId(conceptId));
+    }
+
+    /**
+     selectComponentToUpdate(): Lets the user pick which of a concept's components to update.
+     * @param components the concept's components, or null if the concept wasn't found
+     **/
+    private void selectComponentToUpdate(List<Component> components) {
+        if (components == null) {
             JOptionPane.showMessageDialog(this, "Concept not found.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-
-        // Get the list of Components for this Concept
-        List<Component> components = dbManager.getComponentsByConceptId(conceptId);
         if (components.isEmpty()) {
             JOptionPane.showMessageDialog(this, "This Concept has no Components to update.", "Info", JOptionPane.INFORMATION_MESSAGE);
             return;
@@ -1011,13 +1248,13 @@ public class MainApplicationWindow extends JFrame {
             String newTopic = topicField.getText().trim();
             String newDetails = detailsArea.getText().trim();
 
-            boolean updated = dbManager.updateComponent(component.getConceptId(), component.getTopic(), newTopic, newDetails);
-            if (updated) {
-                JOptionPane.showMessageDialog(this, "Component updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
-                refreshTableData(); // Refresh the table to show the updated data
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to update the component.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            tasks.submit("Updating component", progress -> dbManager.updateComponent(component.getConceptId(), component.getTopic(), newTopic, newDetails), updated -> {
+                if (updated) {
+                    JOptionPane.showMessageDialog(this, "Component updated successfully.", "Update Successful", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to update the component.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     /**
@@ -1051,39 +1288,54 @@ public class MainApplicationWindow extends JFrame {
                     JOptionPane.YES_NO_OPTION
             );
             if (confirm == JOptionPane.YES_OPTION) {
-                boolean removed = dbManager.deleteConcept(concept.getId());
-                if (removed) {
-                    conceptsPanel.remove(conceptPanel);
-                    conceptsPanel.revalidate();
-                    conceptsPanel.repaint();
-                    JOptionPane.showMessageDialog(dialog, "Concept removed successfully.", "Removal Successful", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Failed to remove the concept.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                tasks.submit("Removing concept", progress -> dbManager.deleteConcept(concept.getId()), removed -> {
+                    if (removed) {
+                        conceptsPanel.remove(conceptPanel);
+                        conceptsPanel.revalidate();
+                        conceptsPanel.repaint();
+                        JOptionPane.showMessageDialog(dialog, "Concept removed successfully.", "Removal Successful", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Failed to remove the concept.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         } else if (response == JOptionPane.NO_OPTION) {
             // Confirm and delete a component
-            List<Component> componentList = dbManager.getComponentsByConceptId(concept.getId());
-            Component[] componentsArray = componentList.toArray(new Component[0]);
-            Component selectedComponent = (Component) JOptionPane.showInputDialog(
+            removeComponentOfConcept(dialog, dbManager.getComponentsByConceptId(concept.getId()), categoryId);
+        }
+    }
+
+    /**
+     removeComponentOfConcept(): Lets the user pick one of a concept's components and removes it in the background.
+     * @param dialog The parent dialog from which the action was triggered.
+     * @param componentList The concept's components.
+     * @param categoryId The ID of the category whose view is reopened after the removal.
+     **/
+    private void removeComponentOfConcept(JDialog dialog, List<Component> componentList, int categoryId) {
+        if (componentList.isEmpty()) {
+            JOptionPane.showMessageDialog(dialog, "This Concept has no Components to remove.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        Component[] componentsArray = componentList.toArray(new Component[0]);
+        Component selectedComponent = (Component) JOptionPane.showInputDialog(
+                dialog,
+                "Select the Component to delete:",
+                "Select Component",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                componentsArray,
+                componentsArray[0]
+        );
+
+        if (selectedComponent != null) {
+            int confirm = JOptionPane.showConfirmDialog(
                     dialog,
-                    "Select the Component to delete:",
-                    "Select Component",
-                    JOptionPane.QUESTION_MESSAGE,
-                    null,
-                    componentsArray,
-                    componentsArray[0]
+                    "Are you sure you want to delete the component: " + selectedComponent.getTopic() + "?",
+                    "Confirm Component Deletion",
+                    JOptionPane.YES_NO_OPTION
             );
-
-            if (selectedComponent != null) {
-                int confirm = JOptionPane.showConfirmDialog(
-                        dialog,
-                        "Are you sure you want to delete the component: " + selectedComponent.getTopic() + "?",
-                        "Confirm Component Deletion",
-                        JOptionPane.YES_NO_OPTION
-                );
-                if (confirm == JOptionPane.YES_OPTION) {
-                    boolean removed = dbManager.deleteComponent(selectedComponent.getTopic());
+            if (confirm == JOptionPane.YES_OPTION) {
+                tasks.submit("Removing component", progress -> dbManager.deleteComponent(selectedComponent.getTopic()), removed -> {
                     if (removed) {
                         JOptionPane.showMessageDialog(dialog, "Component removed successfully.", "Removal Successful", JOptionPane.INFORMATION_MESSAGE);
                         // Refresh the concept panel to remove the component.
@@ -1091,7 +1343,7 @@ public class MainApplicationWindow extends JFrame {
                     } else {
                         JOptionPane.showMessageDialog(dialog, "Failed to remove the component.", "Error", JOptionPane.ERROR_MESSAGE);
                     }
-                }
+                });
             }
         }
     }
@@ -0,0 +1,215 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: ReportTableModel
+
+ Purpose: Table model for the print report that reads rows from the database only when the table scrolls to them, so the report
+ opens straight away however large the library is.
+
+ - HOW IT WORKS
+     * Opening the report only counts its rows. The table then asks for the cells on screen; a cell whose block hasn't been read yet
+       shows "Loading..." and queues that block (BLOCK_SIZE rows) on the task thread.
+     * A block is read by seeking past the key of the last row of the block before it, when that block has been read, so scrolling
+       down costs the same at the end of the report as at the start. Jumping further falls back to reading by position.
+     * The task thread is shared with every edit, so when the user scrolls on, blocks still queued more than KEEP_PENDING_BLOCKS away
+       from the one just asked for are cancelled rather than read.
+     * When a block arrives only its rows are repainted. At most MAX_CACHED_BLOCKS blocks are kept; the least recently used is
+       dropped first and read again if the user scrolls back to it.
+     * dispose() (or a new open()) makes blocks that are still on their way be ignored.
+ - DATA METHODS
+     * open(): Counts the rows and starts showing the report.
+     * dispose(): Drops the cached rows when the report is closed.
+     * getCachedBlockCount(): Gathers how many blocks are held in memory.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReportTableModel extends AbstractTableModel {
+    static final int BLOCK_SIZE = 100;
+    static final int MAX_CACHED_BLOCKS = 50;
+    static final int KEEP_PENDING_BLOCKS = 2;
+    private static final String LOADING = "Loading...";
+    private static final Log LOG = Log.get(ReportTableModel.class);
+
+    //Attributes
+    private final DatabaseManager dbManager;
+    private final TaskRunner tasks;
+    private final Map<Integer, List<Object[]>> blocks = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private final Map<Integer, TaskRunner.Handle> requested = new HashMap<>(); // Block -> its task, or null until it is submitted
+    private final Map<Integer, Object[]> lastRows = new HashMap<>(); // Block -> its last row, whose key the next block is read after
+    private int rowCount;
+    private int generation; // Bumped by open() and dispose(), so blocks read for an older report are ignored
+
+    /**
+     Constructor(ReportTableModel): Creates an empty model. Call open() to count the rows and start showing them.
+     * @param dbManager the database manager the report is read from
+     * @param tasks the task runner the blocks are read on
+     **/
+    public ReportTableModel(DatabaseManager dbManager, TaskRunner tasks) {
+        this.dbManager = dbManager;
+        this.tasks = tasks;
+    }
+
+    /**
+     DATA METHODS
+     **/
+    /**
+     open(): Counts the rows of the report on the task thread and shows that many (still empty) rows. Must be called on the EDT.
+     **/
+    public void open() {
+        int openedGeneration = clear();
+        tasks.submit("Counting report rows", progress -> dbManager.getReportRowCount(), count -> {
+            if (generation == openedGeneration) {
+                rowCount = count;
+                fireTableDataChanged();
+            }
+        });
+    }
+
+    /**
+     dispose(): Drops the cached rows and ignores blocks still being read. Must be called on the EDT.
+     **/
+    public void dispose() {
+        clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     getCachedBlockCount(): Gathers how many blocks of rows are held in memory.
+     * @return the number of cached blocks
+     **/
+    public int getCachedBlockCount() {
+        return blocks.size();
+    }
+
+
+    private int clear() {
+        generation++;
+        for (TaskRunner.Handle handle : requested.values()) {
+            if (handle != null) {
+                handle.cancel();
+            }
+        }
+        blocks.clear();
+        requested.clear();
+        lastRows.clear();
+        rowCount = 0;
+        return generation;
+    }
+
+    /**
+     requestBlock(): Reads a block on the task thread, once, and repaints its rows when it arrives. The task is queued after the current
+     paint has finished, since submitting updates the status bar. A block whose task was cancelled is asked for again. Blocks still
+     queued far from this one are cancelled first.
+     **/
+    private void requestBlock(int block) {
+        if (requested.containsKey(block)) {
+            TaskRunner.Handle handle = requested.get(block);
+            if (handle == null || !handle.isDone()) {
+                return; // Already on its way
+            }
+        }
+        cancelDistantBlocks(block);
+        requested.put(block, null);
+        int requestedGeneration = generation;
+        SwingUtilities.invokeLater(() -> {
+            if (generation != requestedGeneration || !requested.containsKey(block)) {
+                return; // Stale, or cancelled before it was submitted
+            }
+            Object[] previous = block == 0 ? null : lastRows.get(block - 1);
+            TaskRunner.Task<List<Object[]>> read;
+            if (block == 0) {
+                read = progress -> dbManager.getReportRowsAfter(Integer.MIN_VALUE, Long.MIN_VALUE, BLOCK_SIZE);
+            } else if (previous != null) {
+                int afterConceptId = (Integer) previous[0];
+                long afterKey = DatabaseManager.reportRowKey(previous);
+                read = progress -> dbManager.getReportRowsAfter(afterConceptId, afterKey, BLOCK_SIZE);
+            } else {
+                read = progress -> dbManager.getReportRows(block * BLOCK_SIZE, BLOCK_SIZE);
+            }
+            TaskRunner.Handle handle = tasks.submit("Loading report rows", read, rows -> {
+                if (generation != requestedGeneration) {
+                    return; // Stale block
+                }
+                requested.remove(block);
+                blocks.put(block, rows);
+                if (rows.size() == BLOCK_SIZE) {
+                    lastRows.put(block, rows.get(BLOCK_SIZE - 1));
+                }
+                int firstRow = block * BLOCK_SIZE;
+                int lastRow = Math.min(rowCount, firstRow + BLOCK_SIZE) - 1;
+                if (lastRow >= firstRow) {
+                    fireTableRowsUpdated(firstRow, lastRow);
+                }
+            }, e -> {
+                if (generation == requestedGeneration) {
+                    requested.remove(block); // Let the next paint try again
+                }
+                LOG.error("Error loading report rows", e);
+            });
+            requested.put(block, handle);
+        });
+    }
+
+    /**
+     cancelDistantBlocks(): Cancels the blocks still waiting more than KEEP_PENDING_BLOCKS away from the one being asked for, so the
+     task thread isn't kept busy with rows the user has scrolled past.
+     **/
+    private void cancelDistantBlocks(int block) {
+        Iterator<Map.Entry<Integer, TaskRunner.Handle>> it = requested.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, TaskRunner.Handle> entry = it.next();
+            if (Math.abs(entry.getKey() - block) > KEEP_PENDING_BLOCKS) {
+                if (entry.getValue() != null) {
+                    entry.getValue().cancel();
+                }
+                it.remove();
+            }
+        }
+    }
+
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return DatabaseManager.REPORT_COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return DatabaseManager.REPORT_COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int block = row / BLOCK_SIZE;
+        List<Object[]> rows = blocks.get(block);
+        if (rows == null) {
+            requestBlock(block);
+            return column == 0 ? "" : LOADING;
+        }
+        int index = row % BLOCK_SIZE;
+        return index < rows.size() ? rows.get(index)[column] : ""; // The report shrank since it was counted
+    }
+}
@@ -0,0 +1,377 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: SqlTrace
+
+ Purpose: Optional tracing of every SQL statement DatabaseManager runs, including the print report's blocks, so a slow screen can be
+ traced to the statement behind it.
+
+ - HOW IT WORKS
+     * DatabaseManager passes each connection it opens through wrap(). While tracing is off (the default) the connection is returned
+       as it is and nothing else happens. Turn it on with -Dconceptbreakdowntool.sql.trace=true, setEnabled(), or the "trace" command.
+     * While it is on, the connection and the statements it creates are wrapped in proxies that record the SQL, its bind parameters, the
+       rows returned (or changed), and the time from execution until the results are closed, since SQLite does much of a query's work
+       while the rows are read. Each statement is logged at INFO.
+     * A statement that takes at least the slow threshold (100 ms unless -Dconceptbreakdowntool.sql.slowMillis says otherwise) is run
+       again as EXPLAIN QUERY PLAN with the same parameters, then logged at WARN with its plan and kept in the slow-query log, so a
+       "SCAN" over a whole table stands out. The most recent MAX_SLOW_QUERIES are kept.
+     * DataMetrics shows how many statements were traced and how many were slow, under the gauges sql.traced and sql.slow.
+ - METHODS
+     * wrap(): Wraps a connection for tracing, or returns it unchanged while tracing is off.
+     * isEnabled(), setEnabled(): Gathers or sets whether new connections are traced.
+     * getSlowThresholdMillis(), setSlowThresholdMillis(): Gathers or sets how long a statement takes before it counts as slow.
+     * getSlowQueries(), clearSlowQueries(): Gathers the slow-query log, oldest first, or empties it.
+ - NESTED CLASSES
+     * Query: One traced statement: SQL, parameters, rows, elapsed time, and for slow ones the query plan.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SqlTrace {
+    static final int MAX_SLOW_QUERIES = 50;
+    private static final int MAX_PARAMETER_LENGTH = 40;
+    private static final Log LOG = Log.get(SqlTrace.class);
+
+    private static volatile boolean enabled = Boolean.getBoolean("conceptbreakdowntool.sql.trace");
+    private static volatile long slowThresholdMillis = Long.getLong("conceptbreakdowntool.sql.slowMillis", 100);
+    private static final Deque<Query> slowQueries = new ArrayDeque<>(); // Guarded by itself
+    private static final LongAdder traced = new LongAdder();
+    private static final LongAdder slow = new LongAdder();
+
+    static {
+        DataMetrics.get().registerGauge("sql.traced", traced::sum);
+        DataMetrics.get().registerGauge("sql.slow", slow::sum);
+    }
+
+    private SqlTrace() {
+    }
+
+    /**
+     wrap(): Wraps a connection so the statements it runs are traced.
+     * @param connection the connection just opened, or null if opening it failed
+     * @return the traced connection, or the same connection while tracing is off
+     **/
+    public static Connection wrap(Connection connection) {
+        if (!enabled || connection == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(SqlTrace.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean traceStatements) {
+        enabled = traceStatements;
+    }
+
+    public static long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public static void setSlowThresholdMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("The slow query threshold can't be negative: " + millis);
+        }
+        slowThresholdMillis = millis;
+    }
+
+    /**
+     getSlowQueries(): Gathers the slow-query log.
+     * @return the most recent slow statements, oldest first
+     **/
+    public static List<Query> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public static void clearSlowQueries() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+
+    /**
+     finish(): Records a statement once its results are closed, explaining it first if it was slow.
+     **/
+    private static void finish(Connection connection, Query query) {
+        if (query == null || query.elapsedNanos >= 0) {
+            return; // Already recorded
+        }
+        query.elapsedNanos = System.nanoTime() - query.startNanos;
+        traced.increment();
+        if (query.elapsedNanos < TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis)) {
+            LOG.info(query::toString);
+            return;
+        }
+        query.plan = explain(connection, query);
+        slow.increment();
+        synchronized (slowQueries) {
+            if (slowQueries.size() == MAX_SLOW_QUERIES) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(query);
+        }
+        LOG.warn(() -> "Slow query, " + query + System.lineSeparator() + query.plan);
+    }
+
+    /**
+     explain(): Runs EXPLAIN QUERY PLAN for a statement with its parameters, indenting each step under its parent.
+     **/
+    private static String explain(Connection connection, Query query) {
+        if (query.sql == null || query.sql.trim().toUpperCase().startsWith("EXPLAIN")) {
+            return "";
+        }
+        StringBuilder plan = new StringBuilder("QUERY PLAN");
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + query.sql)) {
+            for (Map.Entry<Integer, Object> parameter : query.parameters.entrySet()) {
+                pstmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            Map<Integer, Integer> depths = new HashMap<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int depth = depths.getOrDefault(rs.getInt("parent"), 0) + 1;
+                    depths.put(rs.getInt("id"), depth);
+                    plan.append(System.lineSeparator());
+                    for (int i = 0; i < depth; i++) {
+                        plan.append("  ");
+                    }
+                    plan.append(rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            return "QUERY PLAN unavailable: " + e.getMessage();
+        }
+        return plan.length() == "QUERY PLAN".length() ? "QUERY PLAN (none)" : plan.toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object objectMethod(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        return invoke(target, method, args);
+    }
+
+
+    /**
+     ConnectionHandler: Wraps the statements a traced connection creates.
+     **/
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, connection, method, args);
+            }
+            Object result = SqlTrace.invoke(connection, method, args);
+            Class<?> type = method.getReturnType();
+            if (type != Statement.class && type != PreparedStatement.class) {
+                return result;
+            }
+            String sql = type == PreparedStatement.class ? (String) args[0] : null;
+            return Proxy.newProxyInstance(SqlTrace.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(connection, (Statement) result, sql));
+        }
+    }
+
+    /**
+     StatementHandler: Remembers a statement's parameters and times each execution until its results are closed.
+     **/
+    private static class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+        private final Statement statement;
+        private final String preparedSql;
+        private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+        private int batchSize;
+        private Query open; // Executed, results not yet closed
+
+        StatementHandler(Connection connection, Statement statement, String preparedSql) {
+            this.connection = connection;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, statement, method, args);
+            }
+            String name = method.getName();
+            if (name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("close")) {
+                finish(connection, open);
+                open = null;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return SqlTrace.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finish(connection, open); // Running a statement again closes its last results
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Query query = new Query(sql, new TreeMap<>(parameters), batchSize);
+            batchSize = 0;
+            Object result = SqlTrace.invoke(statement, method, args);
+            if (result instanceof ResultSet) {
+                open = query;
+                return Proxy.newProxyInstance(SqlTrace.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler(connection, (ResultSet) result, query));
+            }
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    query.rows += Math.max(count, 0);
+                }
+            } else if (result instanceof Number) {
+                query.rows = ((Number) result).longValue();
+            } else if (Boolean.FALSE.equals(result)) {
+                query.rows = Math.max(statement.getUpdateCount(), 0);
+            }
+            finish(connection, query);
+            return result;
+        }
+    }
+
+    /**
+     ResultSetHandler: Counts the rows read and records the query when the results are closed.
+     **/
+    private static class ResultSetHandler implements InvocationHandler {
+        private final Connection connection;
+        private final ResultSet resultSet;
+        private final Query query;
+
+        ResultSetHandler(Connection connection, ResultSet resultSet, Query query) {
+            this.connection = connection;
+            this.resultSet = resultSet;
+            this.query = query;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, resultSet, method, args);
+            }
+            Object result = SqlTrace.invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                query.rows++;
+            } else if (method.getName().equals("close")) {
+                finish(connection, query);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     Query: One traced statement.
+     **/
+    public static class Query {
+        private final String sql;
+        private final TreeMap<Integer, Object> parameters;
+        private final int batchSize;
+        private final long startNanos = System.nanoTime();
+        private long elapsedNanos = -1;
+        private long rows;
+        private String plan = "";
+
+        Query(String sql, TreeMap<Integer, Object> parameters, int batchSize) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /** getParameters(): Gathers the bound parameters by their index; for a batch, those of its last row. **/
+        public Map<Integer, Object> getParameters() {
+            return parameters;
+        }
+
+        /** getRows(): Gathers the rows read from a query, or changed by an update or batch. **/
+        public long getRows() {
+            return rows;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /** getPlan(): Gathers the EXPLAIN QUERY PLAN output of a slow statement, or "" for one that wasn't slow. **/
+        public String getPlan() {
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%.1f ms, %d rows: %s", elapsedNanos / 1e6, rows, sql));
+            if (batchSize > 0) {
+                text.append(" (batch of ").append(batchSize).append(')');
+            }
+            if (!parameters.isEmpty()) {
+                text.append(" [");
+                String separator = "";
+                for (Object value : parameters.values()) {
+                    text.append(separator).append(describe(value));
+                    separator = ", ";
+                }
+                text.append(']');
+            }
+            return text.toString();
+        }
+
+        private static String describe(Object value) {
+            if (!(value instanceof String)) {
+                return String.valueOf(value);
+            }
+            String text = (String) value;
+            return "'" + (text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text) + "'";
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: TaskRunner
+
+ Purpose: Runs database work for the Swing windows in the background, so the Event Dispatch Thread (EDT) never waits on disk I/O.
+ Each task reports progress while it runs, can be cancelled, and hands its result back to the EDT when it finishes.
+
+ - HOW IT WORKS
+     * Each task is wrapped in a SwingWorker and queued on one background thread. DatabaseManager isn't safe to call from two threads
+       at once, so running tasks one after another keeps its lists and connections consistent without extra locking.
+     * progress.update() publishes the percent and message; the status listener receives them on the EDT, coalesced by SwingWorker.
+     * Cancelling a queued task drops it before it starts. A running task keeps going until it checks progress.isCancelled(),
+       but its result is discarded either way, so success callbacks never run for a cancelled task.
+     * Success and failure callbacks always run on the EDT, where they can safely open dialogs and refresh tables.
+ - TASK METHODS
+     * submit(): Queues a task with callbacks for its result and for a failure.
+     * cancelAll(): Cancels every task that hasn't finished.
+     * getRunningCount(): Gathers how many tasks are queued or running.
+     * shutdown(): Cancels everything and stops the background thread.
+     * The thread's queued, active, and completed task counts are published as the "tasks." gauges of DataMetrics until shutdown().
+ - NESTED INTERFACES/CLASSES
+     * Task(Interface): The background work; gets a Progress to report through.
+     * Progress(Interface): Lets a task report how far along it is and check whether it was cancelled.
+     * StatusListener(Interface): Receives the latest status on the EDT, for a label or progress bar.
+     * Handle: Lets the caller cancel one task or check whether it is done.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class TaskRunner {
+    /** Percent value meaning "still working, amount unknown". **/
+    public static final int INDETERMINATE = -1;
+
+    //Attributes
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "database-tasks");
+        thread.setDaemon(true);
+        return thread;
+    }); // Single threaded, like Executors.newSingleThreadExecutor(), but it can report its queue
+    private final Set<Worker<?>> running = new LinkedHashSet<>(); // Only touched on the EDT
+    private final StatusListener statusListener;
+    private final Consumer<Exception> defaultFailureHandler;
+
+    /**
+     Constructor(TaskRunner): Creates a runner with one background thread.
+     * @param statusListener receives status updates on the EDT; may be null
+     * @param defaultFailureHandler handles failures of tasks submitted without their own failure callback
+     **/
+    public TaskRunner(StatusListener statusListener, Consumer<Exception> defaultFailureHandler) {
+        this.statusListener = statusListener;
+        this.defaultFailureHandler = defaultFailureHandler;
+
+        DataMetrics metrics = DataMetrics.get();
+        metrics.registerGauge("tasks.queued", () -> executor.getQueue().size());
+        metrics.registerGauge("tasks.active", executor::getActiveCount);
+        metrics.registerGauge("tasks.completed", executor::getCompletedTaskCount);
+    }
+
+    /**
+     TASK METHODS
+     **/
+    /**
+     submit(): Queues a task; failures go to the default failure handler. Must be called on the EDT.
+     * @param description a short description shown while the task runs, such as "Loading file"
+     * @param task the background work
+     * @param onSuccess receives the task's result on the EDT
+     * @return a handle for cancelling the task
+     **/
+    public <T> Handle submit(String description, Task<T> task, Consumer<? super T> onSuccess) {
+        return submit(description, task, onSuccess, defaultFailureHandler);
+    }
+
+    /**
+     submit(): Queues a task. Must be called on the EDT.
+     * @param description a short description shown while the task runs, such as "Loading file"
+     * @param task the background work
+     * @param onSuccess receives the task's result on the EDT
+     * @param onFailure receives the exception the task threw, on the EDT
+     * @return a handle for cancelling the task
+     **/
+    public <T> Handle submit(String description, Task<T> task, Consumer<? super T> onSuccess, Consumer<Exception> onFailure) {
+        Worker<T> worker = new Worker<>(description, task, onSuccess, onFailure);
+        running.add(worker);
+        reportStatus(description + "...", INDETERMINATE);
+        executor.execute(worker);
+        return worker.handle;
+    }
+
+    /**
+     cancelAll(): Cancels every task that hasn't finished. Must be called on the EDT.
+     **/
+    public void cancelAll() {
+        for (Worker<?> worker : new ArrayList<>(running)) {
+            worker.cancel(false);
+        }
+    }
+
+    /**
+     getRunningCount(): Gathers how many tasks are queued or running. Must be called on the EDT.
+     * @return the number of unfinished tasks
+     **/
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     shutdown(): Cancels everything and stops the background thread once the current task returns.
+     **/
+    public void shutdown() {
+        cancelAll();
+        executor.shutdown();
+        DataMetrics.get().unregisterGauges("tasks.");
+    }
+
+
+    private void reportStatus(String message, int percent) {
+        if (statusListener != null) {
+            statusListener.taskStatus(message, percent, running.size());
+        }
+    }
+
+    /**
+     finished(): Removes a worker from the running set and reports what is still going on.
+     **/
+    private void finished(Worker<?> worker, String message) {
+        running.remove(worker);
+        if (running.isEmpty()) {
+            reportStatus(message, 100);
+        } else {
+            reportStatus(running.iterator().next().description + "...", INDETERMINATE);
+        }
+    }
+
+
+    /**
+     NESTED INTERFACES/CLASSES
+     **/
+    /**
+     Task(Interface): Work to run off the EDT. It must not touch Swing components.
+     **/
+    public interface Task<T> {
+        /**run(): Does the work. @param progress for reporting progress and checking for cancellation @return the result handed to onSuccess **/
+        T run(Progress progress) throws Exception;
+    }
+
+    /**
+     Progress(Interface): Lets a task report how far along it is and check whether it was cancelled.
+     **/
+    public interface Progress {
+        /**update(): Reports progress. @param percent 0-100, or INDETERMINATE @param message a short status message **/
+        void update(int percent, String message);
+        /**isCancelled(): Checks whether the task was cancelled; long tasks should stop early when it is. **/
+        boolean isCancelled();
+    }
+
+    /**
+     StatusListener(Interface): Receives the latest status on the EDT.
+     **/
+    public interface StatusListener {
+        /**taskStatus(): @param message the status message @param percent 0-100, or INDETERMINATE @param runningCount the number of unfinished tasks **/
+        void taskStatus(String message, int percent, int runningCount);
+    }
+
+    /**
+     Handle: Lets the caller cancel one task or check whether it is done.
+     **/
+    public static class Handle {
+        private final SwingWorker<?, ?> worker;
+
+        private Handle(SwingWorker<?, ?> worker) {
+            this.worker = worker;
+        }
+
+        /**cancel(): Cancels the task; its callbacks won't run. **/
+        public void cancel() {
+            worker.cancel(false);
+        }
+
+        /**isDone(): Checks whether the task finished, failed, or was cancelled. **/
+        public boolean isDone() {
+            return worker.isDone();
+        }
+    }
+
+    private class Worker<T> extends SwingWorker<T, Object[]> implements Progress {
+        private final String description;
+        private final Task<T> task;
+        private final Consumer<? super T> onSuccess;
+        private final Consumer<Exception> onFailure;
+        private final Handle handle = new Handle(this);
+
+        Worker(String description, Task<T> task, Consumer<? super T> onSuccess, Consumer<Exception> onFailure) {
+            this.description = description;
+            this.task = task;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            return task.run(this);
+        }
+
+        @Override
+        public void update(int percent, String message) {
+            if (percent != INDETERMINATE) {
+                setProgress(Math.max(0, Math.min(100, percent)));
+            }
+            publish(new Object[]{percent, message});
+        }
+
+        @Override
+        protected void process(List<Object[]> chunks) {
+            if (isDone()) {
+                return; // done() reports the final status
+            }
+            Object[] latest = chunks.get(chunks.size() - 1); // Only the newest update matters
+            reportStatus((String) latest[1], (Integer) latest[0]);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                finished(this, description + " cancelled.");
+                return;
+            }
+            T result;
+            try {
+                result = get();
+            } catch (CancellationException e) {
+                finished(this, description + " cancelled.");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finished(this, description + " interrupted.");
+                return;
+            } catch (ExecutionException e) {
+                finished(this, description + " failed.");
+                Throwable cause = e.getCause();
+                if (onFailure != null) {
+                    onFailure.accept(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+                }
+                return;
+            }
+            finished(this, "Ready.");
+            if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }
+    }
+}
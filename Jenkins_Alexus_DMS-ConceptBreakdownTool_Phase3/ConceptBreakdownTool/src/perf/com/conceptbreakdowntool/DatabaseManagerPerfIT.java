@@ -0,0 +1,253 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseManagerPerfIT {
+    private static final int SMALL = 10_000;
+    private static final int LARGE = 100_000;
+    private static final int CONCEPTS_PER_CATEGORY = 100;
+    private static final int LOOKUP_IDS = 1_000; // The same number of distinct IDs at every size, so the CPU caches hold the same amount
+    private static final int LOOKUP_ROUNDS = 200;
+    private static final int ADDS = 50;
+    private static final int EDITS = 20; // Per timed run of the delete and update budgets
+    private static final int EDIT_RUNS = 1 + 5; // A warm-up run and the timed runs, each on entries of its own
+    private static final int FIRST_BUDGET_CATEGORY_ID = 1_000_000; // Past every generated category
+
+    @TempDir
+    static Path tempDir;
+
+    private static Log.Level logLevel;
+    private static Path smallLibrary;
+    private static Path largeLibrary;
+    private static DatabaseManager small; // Opened on copies, so the adds below don't change what the load test reads
+    private static DatabaseManager large;
+
+    @BeforeAll
+    static void openLibraries() throws Exception {
+        logLevel = Log.getLevel();
+        Log.setLevel(Log.Level.ERROR); // The near-duplicate warnings of the adds would be measured with them
+        smallLibrary = write("small.db", SMALL);
+        largeLibrary = write("large.db", LARGE);
+        small = open(Files.copy(smallLibrary, tempDir.resolve("small-working.db")));
+        large = open(Files.copy(largeLibrary, tempDir.resolve("large-working.db")));
+        small.awaitIndexes();
+        large.awaitIndexes();
+    }
+
+    @AfterAll
+    static void restoreLogLevel() {
+        Log.setLevel(logLevel);
+    }
+
+    private static Path write(String name, int concepts) throws Exception {
+        Path path = tempDir.resolve(name);
+        LibraryGenerator generator = new LibraryGenerator(LibraryGenerator.DEFAULT_SEED);
+        generator.setCategoryCount(concepts / CONCEPTS_PER_CATEGORY);
+        generator.setConceptsPerCategory(CONCEPTS_PER_CATEGORY);
+        generator.setComponentsPerConcept(2);
+        generator.writeDatabase(path.toString());
+        return path;
+    }
+
+    private static DatabaseManager open(Path library) {
+        DatabaseManager dbManager = new DatabaseManager(library.toString());
+        assertTrue(dbManager.loadDataFromFile(library.toString()));
+        return dbManager;
+    }
+
+    @Test
+    void testLoadingIsLinearAndOneHundredThousandConceptsLoadInBudget() throws Exception {
+        long smallNanos = bestLoad(1, 3, smallLibrary);
+        long largeNanos = bestLoad(0, 2, largeLibrary); // Already compiled by the small loads
+
+        PerfBudget.assertScales("loadDataFromFile() per concept", SMALL, (double) smallNanos / SMALL, LARGE, (double) largeNanos / LARGE,
+                2.0, "Loading should take time in proportion to the library; a step that compares every entry with every other, "
+                        + "or looks entries up by scanning a list, makes each concept cost more the larger the library is.");
+        PerfBudget.assertWithin("loadDataFromFile() of 100,000 concepts and 200,000 components", largeNanos, 2_500);
+    }
+
+    @Test
+    void testGetConceptIsConstantTime() throws Exception {
+        double smallNanos = perLookup(small, SMALL, DatabaseManager::getConcept);
+        double largeNanos = perLookup(large, LARGE, DatabaseManager::getConcept);
+
+        PerfBudget.assertScales("getConcept()", SMALL, smallNanos, LARGE, largeNanos, 2.0,
+                "getConcept() reads the hierarchy's map by ID; it must not search the concepts list or query the database.");
+    }
+
+    @Test
+    void testGetComponentsByConceptIdIsConstantTime() throws Exception {
+        double smallNanos = perLookup(small, SMALL, DatabaseManager::getComponentsByConceptId);
+        double largeNanos = perLookup(large, LARGE, DatabaseManager::getComponentsByConceptId);
+
+        PerfBudget.assertScales("getComponentsByConceptId()", SMALL, smallNanos, LARGE, largeNanos, 2.0,
+                "getComponentsByConceptId() copies the components the hierarchy keeps under the concept; it must not filter every component.");
+    }
+
+    @Test
+    void testAddingAConceptDoesNotGrowWithTheLibrary() throws Exception {
+        double smallNanos = perAdd(small);
+        double largeNanos = perAdd(large);
+
+        PerfBudget.assertScales("addConcept() with the duplicate check", SMALL, smallNanos, LARGE, largeNanos, 3.0,
+                "Adding a concept updates the hierarchy and the indexes in place and looks for near-duplicates through the index; "
+                        + "rebuilding or scanning anything the size of the library on every add breaks this.");
+        PerfBudget.assertWithin("addConcept() into 100,000 concepts", Math.round(largeNanos), 50);
+    }
+
+    @Test
+    void testDeletingAConceptDoesNotGrowWithTheLibrary() throws Exception {
+        double smallNanos = perDeleteConcept(small);
+        double largeNanos = perDeleteConcept(large);
+
+        PerfBudget.assertScales("deleteConcept() with its components", SMALL, smallNanos, LARGE, largeNanos, 3.0,
+                "Deleting a concept removes it, its components, and its relationships from the hierarchy, the indexes, and the graph "
+                        + "in place; removing it from a list by scanning, or rebuilding anything, makes each delete cost more the larger the library is.");
+        PerfBudget.assertWithin("deleteConcept() from 100,000 concepts", Math.round(largeNanos), 10);
+    }
+
+    @Test
+    void testDeletingACategoryDoesNotGrowWithTheLibrary() throws Exception {
+        double smallNanos = perDeleteCategory(small);
+        double largeNanos = perDeleteCategory(large);
+
+        PerfBudget.assertScales("deleteCategory()", SMALL, smallNanos, LARGE, largeNanos, 3.0,
+                "Deleting a category removes it from the hierarchy and the name index in place; it must not scan the concepts.");
+        PerfBudget.assertWithin("deleteCategory() from 1,000 categories", Math.round(largeNanos), 10);
+    }
+
+    @Test
+    void testUpdatingACategoryDoesNotGrowWithTheLibrary() throws Exception {
+        double smallNanos = perUpdateCategory(small);
+        double largeNanos = perUpdateCategory(large);
+
+        PerfBudget.assertScales("updateCategory()", SMALL, smallNanos, LARGE, largeNanos, 3.0,
+                "Renaming a category changes the one object the list and the hierarchy share and re-files it in the name index; "
+                        + "it must not look the category up by scanning or touch its concepts.");
+        PerfBudget.assertWithin("updateCategory() in 1,000 categories", Math.round(largeNanos), 10);
+    }
+
+    /**
+     bestLoad(): Times opening a library like PerfBudget.best(), letting each opened library finish indexing in the background before
+     the next run starts, so that work isn't billed to the next load.
+     **/
+    private static long bestLoad(int warmups, int runs, Path library) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < warmups + runs; i++) {
+            long start = System.nanoTime();
+            DatabaseManager dbManager = open(library);
+            long nanos = System.nanoTime() - start;
+            if (i >= warmups) {
+                best = Math.min(best, nanos);
+            }
+            dbManager.awaitIndexes();
+        }
+        return best;
+    }
+
+    /**
+     perLookup(): Times looking up the same seeded sample of IDs, spread over the whole library, many times over.
+     **/
+    private static double perLookup(DatabaseManager dbManager, int concepts, Lookup lookup) throws Exception {
+        int[] ids = new Random(7).ints(LOOKUP_IDS, 1, concepts + 1).toArray();
+        long nanos = PerfBudget.best(5, 7, () -> {
+            int found = 0;
+            for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+                for (int id : ids) {
+                    found += lookup.find(dbManager, id) == null ? 0 : 1;
+                }
+            }
+            assertEquals(LOOKUP_IDS * LOOKUP_ROUNDS, found);
+        });
+        return (double) nanos / (LOOKUP_IDS * LOOKUP_ROUNDS);
+    }
+
+    /**
+     perAdd(): Times adding concepts, each to the next category in turn.
+     **/
+    private static double perAdd(DatabaseManager dbManager) throws Exception {
+        List<Category> categories = dbManager.getCategories();
+        int before = dbManager.getConcepts().size();
+        int[] added = {0};
+        long nanos = PerfBudget.best(1, 5, () -> {
+            for (int i = 0; i < ADDS; i++) {
+                String category = categories.get(added[0] % categories.size()).getTopic();
+                dbManager.addConcept(new Concept(0, "Budget Concept " + added[0]++, category, "Added by the performance budget test"));
+            }
+        });
+        assertEquals(before + added[0], dbManager.getConcepts().size());
+        return (double) nanos / ADDS;
+    }
+
+    /**
+     perDeleteConcept(): Adds concepts with a component each, untimed, then times deleting them. The generated concepts are left
+     alone, so the lookup budgets find every ID they look for whatever order the tests run in.
+     **/
+    private static double perDeleteConcept(DatabaseManager dbManager) throws Exception {
+        String category = dbManager.getCategories().get(0).getTopic();
+        int[] conceptIds = new int[EDITS * EDIT_RUNS];
+        for (int i = 0; i < conceptIds.length; i++) {
+            Concept concept = new Concept(0, "Doomed Concept " + i, category, "Deleted by the performance budget test");
+            dbManager.addConcept(concept);
+            dbManager.addComponent(new Component("Doomed Component " + i, "Deleted with its concept", concept.getId()));
+            conceptIds[i] = concept.getId();
+        }
+        int before = dbManager.getConcepts().size();
+        int[] next = {0};
+        long nanos = PerfBudget.best(1, EDIT_RUNS - 1, () -> {
+            for (int i = 0; i < EDITS; i++) {
+                assertTrue(dbManager.deleteConcept(conceptIds[next[0]++]));
+            }
+        });
+        assertEquals(before - conceptIds.length, dbManager.getConcepts().size());
+        return (double) nanos / EDITS;
+    }
+
+    /**
+     perDeleteCategory(): Adds empty categories, untimed, then times deleting them.
+     **/
+    private static double perDeleteCategory(DatabaseManager dbManager) throws Exception {
+        int before = dbManager.getCategories().size();
+        for (int i = 0; i < EDITS * EDIT_RUNS; i++) {
+            assertTrue(dbManager.addCategory(new Category(FIRST_BUDGET_CATEGORY_ID + i, "Doomed Category " + i)));
+        }
+        int[] next = {FIRST_BUDGET_CATEGORY_ID};
+        long nanos = PerfBudget.best(1, EDIT_RUNS - 1, () -> {
+            for (int i = 0; i < EDITS; i++) {
+                assertTrue(dbManager.deleteCategory(next[0]++));
+            }
+        });
+        assertEquals(before, dbManager.getCategories().size());
+        return (double) nanos / EDITS;
+    }
+
+    /**
+     perUpdateCategory(): Times renaming generated categories, each to a name it hasn't had before.
+     **/
+    private static double perUpdateCategory(DatabaseManager dbManager) throws Exception {
+        List<Category> categories = dbManager.getCategories();
+        int[] renamed = {0};
+        long nanos = PerfBudget.best(1, EDIT_RUNS - 1, () -> {
+            for (int i = 0; i < EDITS; i++) {
+                Category category = categories.get(i);
+                assertTrue(dbManager.updateCategory(category.getId(), "Renamed Category " + renamed[0]++));
+            }
+        });
+        assertEquals("Renamed Category " + (renamed[0] - 1), categories.get(EDITS - 1).getTopic());
+        return (double) nanos / EDITS;
+    }
+
+    private interface Lookup {
+        Object find(DatabaseManager dbManager, int conceptId);
+    }
+}
@@ -0,0 +1,106 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainApplicationWindowPerfIT {
+    private static final int SMALL = 5_000;
+    private static final int LARGE = 50_000;
+    private static final int SAMPLE = 1_000;
+
+    /**
+     window(): The main window's category table as it is after the window opens: a CategoryTableModel shown in a JTable, reading
+     from a hierarchy of a number of categories. The hierarchy is filled directly, since only the table is being timed.
+     **/
+    private static CategoryTableModel window(int categories) throws Exception {
+        DatabaseManager dbManager = new DatabaseManager("unused.db");
+        for (int id = 1; id <= categories; id++) {
+            dbManager.getHierarchy().addCategory(new Category(id, "Category " + id));
+        }
+        CategoryTableModel model = new CategoryTableModel(dbManager);
+        SwingUtilities.invokeAndWait(() -> {
+            new JTable(model);
+            model.reload();
+        });
+        assertEquals(categories, model.getRowCount());
+        return model;
+    }
+
+    private static long onEdt(int warmups, int runs, Runnable operation) throws Exception {
+        return PerfBudget.best(warmups, runs, () -> SwingUtilities.invokeAndWait(operation));
+    }
+
+    @Test
+    void testReloadingTheTableIsLinearAndFiftyThousandRowsReloadInBudget() throws Exception {
+        CategoryTableModel small = window(SMALL);
+        CategoryTableModel large = window(LARGE);
+        long smallNanos = onEdt(10, 10, small::reload);
+        long largeNanos = onEdt(5, 10, large::reload);
+
+        PerfBudget.assertScales("CategoryTableModel.reload() per row", SMALL, (double) smallNanos / SMALL, LARGE,
+                (double) largeNanos / LARGE, 2.0, "Reloading reads each category ID once from the hierarchy; it must not look "
+                        + "rows up one by one in anything the size of the table.");
+        PerfBudget.assertWithin("CategoryTableModel.reload() of 50,000 rows", largeNanos, 50);
+    }
+
+    @Test
+    void testOneEditRedrawsOneRowWhateverTheTableSize() throws Exception {
+        double smallNanos = perUpdate(window(SMALL), SMALL);
+        double largeNanos = perUpdate(window(LARGE), LARGE);
+
+        PerfBudget.assertScales("CategoryTableModel.applyChanges() of one update", SMALL, smallNanos, LARGE, largeNanos, 2.0,
+                "libraryChanged() hands each change set to the table, which repaints only the rows it names; reloading or "
+                        + "searching the table for a row makes every edit cost as much as the whole table.");
+        PerfBudget.assertWithin("CategoryTableModel.applyChanges() of 1,000 updates to 50,000 rows",
+                Math.round(largeNanos * SAMPLE), 10);
+    }
+
+    @Test
+    void testCellsAnywhereInTheTableAreReadInConstantTime() throws Exception {
+        double smallNanos = perCell(window(SMALL), SMALL);
+        double largeNanos = perCell(window(LARGE), LARGE);
+
+        PerfBudget.assertScales("CategoryTableModel.getValueAt()", SMALL, smallNanos, LARGE, largeNanos, 2.0,
+                "Painting a row reads its category from the hierarchy by ID, so scrolling to the end of a large table costs the "
+                        + "same as the top.");
+    }
+
+    /**
+     perUpdate(): Times applying a change set that renames one category, for a seeded sample of categories.
+     **/
+    private static double perUpdate(CategoryTableModel model, int categories) throws Exception {
+        int[] ids = new Random(7).ints(SAMPLE, 1, categories + 1).toArray();
+        ChangeNotifier.ChangeSet[] changes = new ChangeNotifier.ChangeSet[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            changes[i] = new ChangeNotifier.ChangeSet();
+            changes[i].getCategories().apply(ChangeNotifier.ChangeKind.UPDATED, ids[i]);
+        }
+        long nanos = onEdt(20, 10, () -> {
+            for (ChangeNotifier.ChangeSet change : changes) {
+                model.applyChanges(change);
+            }
+        });
+        assertEquals(categories, model.getRowCount());
+        return (double) nanos / SAMPLE;
+    }
+
+    /**
+     perCell(): Times reading the name cell of a seeded sample of rows, many times over.
+     **/
+    private static double perCell(CategoryTableModel model, int categories) throws Exception {
+        int[] rows = new Random(7).ints(SAMPLE, 0, categories).toArray();
+        int rounds = 100;
+        long nanos = onEdt(5, 10, () -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int row : rows) {
+                    assertNotNull(model.getValueAt(row, CategoryTableModel.NAME_COLUMN));
+                }
+            }
+        });
+        return (double) nanos / (SAMPLE * rounds);
+    }
+}
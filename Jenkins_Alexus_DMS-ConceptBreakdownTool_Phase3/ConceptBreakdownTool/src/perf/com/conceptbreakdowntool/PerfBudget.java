@@ -0,0 +1,104 @@
+/**
+ Name: Alexus Jenkins
+ Course: CEN 3042C
+ Date: Apr 11th 2024
+ ClassName: PerfBudget
+
+ Purpose: Times operations for the performance budget tests and fails them with a report that says which budget broke and by how
+ much. The benchmarks module says how fast something is; these tests only say whether it is still fast enough, so they run quickly
+ and give the same answer on every run.
+
+ - HOW IT WORKS
+     * best() runs an operation a few times and keeps the fastest run. Garbage collection, the JIT, and other processes only ever make
+       a run slower, so the fastest run changes the least from one build to the next.
+     * assertWithin() checks an absolute budget, in milliseconds on a typical developer machine. -Dperf.budgetScale multiplies every
+       absolute budget for slower machines.
+     * assertScales() checks how the time grows when the data grows, which is what breaks when a constant-time lookup turns into a
+       scan or a linear load turns quadratic. Ratios don't depend on the machine, so they are never scaled.
+     * Every check prints its result, passed or not, so the failsafe reports show how close each budget is.
+ - METHODS
+     * best(): Gathers the fastest of several runs of an operation.
+     * assertWithin(): Fails if a time is over its budget.
+     * assertScales(): Fails if the time at a larger size grew more than allowed over the time at a smaller size.
+
+ @author Alexus Jenkins
+ @version 5.0
+ **/
+
+package com.conceptbreakdowntool;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+final class PerfBudget {
+    static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("perf.budgetScale", "1"));
+
+    private PerfBudget() {
+    }
+
+    /**
+     Timed: An operation to time; it may throw, so setup code that declares checked exceptions can be timed as is.
+     **/
+    interface Timed {
+        void run() throws Exception;
+    }
+
+    /**
+     best(): Runs an operation after some warm-up runs and gathers its fastest run.
+     * @param warmups runs that are not timed, so the JIT has compiled the code being measured
+     * @param runs timed runs
+     * @param operation what to time
+     * @return the fastest run, in nanoseconds
+     **/
+    static long best(int warmups, int runs, Timed operation) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            operation.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     assertWithin(): Fails if a time is over its budget.
+     * @param budget what was timed, as the report names it
+     * @param nanos the time taken
+     * @param budgetMillis the budget before -Dperf.budgetScale is applied
+     **/
+    static void assertWithin(String budget, long nanos, long budgetMillis) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        double limit = budgetMillis * BUDGET_SCALE;
+        String result = String.format("%s: %,.1f ms of %,.0f ms (%.0f%% of the budget)", budget, millis, limit, 100 * millis / limit);
+        report(millis <= limit, result, "");
+    }
+
+    /**
+     assertScales(): Fails if growing the data grew the time per operation by more than a factor.
+     * @param budget what was timed, as the report names it
+     * @param smallSize the size of the smaller data set
+     * @param smallNanos the time per operation on it
+     * @param largeSize the size of the larger data set
+     * @param largeNanos the time per operation on it
+     * @param maxGrowth how many times slower the larger set may be
+     * @param guarantee the guarantee this checks, said in the report if it breaks
+     **/
+    static void assertScales(String budget, long smallSize, double smallNanos, long largeSize, double largeNanos, double maxGrowth,
+                             String guarantee) {
+        double growth = largeNanos / Math.max(smallNanos, 1);
+        String result = String.format("%s: %,.1fx the data took %.2fx the time (at most %.1fx): %,d -> %,.0f ns, %,d -> %,.0f ns",
+                budget, (double) largeSize / smallSize, growth, maxGrowth, smallSize, smallNanos, largeSize, largeNanos);
+        report(growth <= maxGrowth, result, guarantee);
+    }
+
+    private static void report(boolean passed, String result, String guarantee) {
+        System.out.println((passed ? "[within budget] " : "[OVER BUDGET] ") + result);
+        if (!passed) {
+            fail("Performance budget exceeded. " + result + (guarantee.isEmpty() ? "" : System.lineSeparator() + guarantee));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionButtonCellTest {
+    private final List<String> dispatched = new ArrayList<>();
+
+    private static JTable tableOfIds(int rows) {
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"Actions"}, 0);
+        for (int row = 0; row < rows; row++) {
+            model.addRow(new Object[]{100 + row});
+        }
+        return new JTable(model);
+    }
+
+    @Test
+    void testEveryRowIsPaintedWithTheSamePanel() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            ActionButtonCell cell = new ActionButtonCell((action, id) -> dispatched.add(action + " " + id), "View", "Update", "Remove");
+            JTable table = tableOfIds(50);
+            java.awt.Component first = cell.getTableCellRendererComponent(table, 100, false, false, 0, 0);
+            for (int row = 1; row < 50; row++) {
+                assertSame(first, cell.getTableCellRendererComponent(table, 100 + row, row % 2 == 0, false, row, 0));
+            }
+            assertEquals(3, ((JPanel) first).getComponentCount());
+            assertEquals(table.getBackground(), first.getBackground()); // The last row painted wasn't selected
+            cell.getTableCellRendererComponent(table, 100, true, false, 0, 0);
+            assertEquals(table.getSelectionBackground(), first.getBackground());
+        });
+    }
+
+    @Test
+    void testClickDispatchesTheActionWithTheRowId() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            ActionButtonCell cell = new ActionButtonCell((action, id) -> dispatched.add(action + " " + id), "View", "Update", "Remove");
+            JTable table = tableOfIds(5);
+            List<Boolean> stopped = new ArrayList<>();
+            cell.addCellEditorListener(new javax.swing.event.CellEditorListener() {
+                @Override
+                public void editingStopped(javax.swing.event.ChangeEvent e) {
+                    stopped.add(dispatched.isEmpty()); // Editing stops before the action runs
+                }
+
+                @Override
+                public void editingCanceled(javax.swing.event.ChangeEvent e) {
+                }
+            });
+
+            JPanel editor = (JPanel) cell.getTableCellEditorComponent(table, 103, true, 3, 0);
+            ((JButton) editor.getComponent(2)).doClick();
+
+            assertEquals(1, dispatched.size());
+            assertEquals("Remove 103", dispatched.get(0));
+            assertEquals(1, stopped.size());
+            assertTrue(stopped.get(0));
+            assertEquals(103, cell.getCellEditorValue());
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTableModelTest {
+    @Test
+    void testRowIndexMatchesAHashMapThroughPutsRemovesAndGrowth() {
+        CategoryTableModel.RowIndex index = new CategoryTableModel.RowIndex();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int step = 0; step < 50_000; step++) {
+            int id = random.nextInt(2_000) - 100; // Includes 0 and negative IDs, and keys that collide
+            if (random.nextInt(3) == 0) {
+                Integer row = expected.remove(id);
+                assertEquals(row == null ? -1 : row, index.remove(id));
+            } else {
+                index.put(id, step);
+                expected.put(id, step);
+            }
+        }
+        for (int id = -100; id < 1_900; id++) {
+            Integer row = expected.get(id);
+            assertEquals(row == null ? -1 : row, index.get(id), "ID " + id);
+        }
+        index.clear();
+        assertEquals(-1, index.get(expected.keySet().iterator().next()));
+    }
+
+    @Test
+    void testDeletedRowsRenumberTheRowsAfterThem() throws Exception {
+        DatabaseManager dbManager = new DatabaseManager("unused.db");
+        for (int id = 1; id <= 5; id++) {
+            dbManager.getHierarchy().addCategory(new Category(id * 10, "Category " + id));
+        }
+        CategoryTableModel model = new CategoryTableModel(dbManager);
+        SwingUtilities.invokeAndWait(model::reload);
+        assertEquals(2, model.getRowOf(30));
+
+        ChangeNotifier.ChangeSet changes = new ChangeNotifier.ChangeSet();
+        changes.getCategories().apply(ChangeNotifier.ChangeKind.DELETED, 20);
+        dbManager.getHierarchy().removeCategory(20);
+        SwingUtilities.invokeAndWait(() -> model.applyChanges(changes));
+        assertEquals(4, model.getRowCount());
+        assertEquals(-1, model.getRowOf(20));
+        assertEquals(1, model.getRowOf(30));
+        assertEquals(3, model.getRowOf(50));
+        assertEquals(50, model.getIdAt(3));
+    }
+}
@@ -0,0 +1,98 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.conceptbreakdowntool.ChangeNotifier.ChangeKind.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeNotifierTest {
+    private final List<ChangeNotifier.ChangeSet> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void testBurstIsDeliveredOnceOnEdt() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(50, 5000);
+        CountDownLatch deliveredLatch = new CountDownLatch(1);
+        notifier.addListener(changes -> {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            delivered.add(changes);
+            deliveredLatch.countDown();
+        });
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                notifier.conceptChanged(INSERTED, i);
+            }
+        });
+        writer.start();
+        writer.join();
+        assertTrue(deliveredLatch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(150); // Give a second delivery the chance to (wrongly) happen
+
+        assertEquals(1, delivered.size());
+        assertEquals(1000, delivered.get(0).getConcepts().getInserted().size());
+    }
+
+    @Test
+    void testChangesToTheSameEntryAreMerged() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(10_000, 10_000);
+        notifier.addListener(delivered::add);
+
+        notifier.categoryChanged(INSERTED, 1);
+        notifier.categoryChanged(UPDATED, 1);   // Still just inserted
+        notifier.categoryChanged(INSERTED, 2);
+        notifier.categoryChanged(DELETED, 2);   // Cancels out
+        notifier.categoryChanged(DELETED, 3);
+        notifier.categoryChanged(INSERTED, 3);  // Re-added: updated
+        notifier.categoryChanged(UPDATED, 4);
+        notifier.categoryChanged(DELETED, 4);   // Deleted wins
+        notifier.componentChanged(UPDATED, "component:7:Loops");
+        SwingUtilities.invokeAndWait(notifier::flush);
+
+        assertEquals(1, delivered.size());
+        ChangeNotifier.Changes<Integer> categories = delivered.get(0).getCategories();
+        assertEquals(Collections.singleton(1), categories.getInserted());
+        assertEquals(Collections.singleton(3), categories.getUpdated());
+        assertEquals(Collections.singleton(4), categories.getDeleted());
+        assertEquals(Collections.singleton("component:7:Loops"), delivered.get(0).getComponents().getUpdated());
+        assertTrue(delivered.get(0).getConcepts().isEmpty());
+    }
+
+    @Test
+    void testReloadReplacesFineGrainedChanges() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(10_000, 10_000);
+        notifier.addListener(delivered::add);
+
+        notifier.conceptChanged(INSERTED, 5);
+        notifier.reloaded();
+        notifier.conceptChanged(UPDATED, 6);
+        SwingUtilities.invokeAndWait(notifier::flush);
+
+        assertEquals(1, delivered.size());
+        assertTrue(delivered.get(0).isReload());
+        assertTrue(delivered.get(0).getConcepts().isEmpty());
+
+        SwingUtilities.invokeAndWait(notifier::flush); // Nothing pending, nothing delivered
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void testNothingIsGatheredWithoutListeners() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(10_000, 10_000);
+        notifier.categoryChanged(INSERTED, 1);
+        ChangeNotifier.Listener listener = delivered::add;
+        notifier.addListener(listener);
+        notifier.categoryChanged(INSERTED, 2);
+        SwingUtilities.invokeAndWait(notifier::flush);
+
+        assertEquals(new HashSet<>(Arrays.asList(2)), delivered.get(0).getCategories().getInserted());
+    }
+}
@@ -0,0 +1,78 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandReplayTest {
+    @TempDir
+    Path tempDir;
+
+    private Path database;
+    private List<Integer> concepts;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = tempDir.resolve("library.db");
+        LibraryGenerator generator = new LibraryGenerator(7);
+        generator.setCategoryCount(3);
+        generator.setConceptsPerCategory(10);
+        generator.setComponentsPerConcept(2);
+        generator.writeDatabase(database.toString());
+        concepts = CommandReplay.conceptIds(database);
+    }
+
+    @Test
+    void testGeneratedScriptsReplayWithoutLosingTheirPlace() throws Exception {
+        String first = CommandReplay.generateScript(0, concepts, 300, 5);
+        assertEquals(first, CommandReplay.generateScript(0, concepts, 300, 5));
+        assertNotEquals(first, CommandReplay.generateScript(1, concepts, 300, 5));
+
+        CommandReplay.Result result = new CommandReplay(database, 2, false)
+                .run(Arrays.asList(first, CommandReplay.generateScript(1, concepts, 300, 5)));
+        assertEquals(2 * 301, result.getCommands()); // Each script ends with exit
+        assertNull(result.getLatency("(unknown)"), result.toString()); // Every prompt got the answer the script expected
+        assertTrue(result.getLatency("add").getCalls() > 0);
+        assertTrue(result.getLatency("remove").getCalls() > 0);
+        assertEquals(0, result.getDatabaseErrors(), result.toString());
+        assertTrue(result.getCommandsPerSecond() > 0);
+    }
+
+    @Test
+    void testSharedSessionsWriteToTheSameFile() throws Exception {
+        CommandReplay.Result result = new CommandReplay(database, 2, true)
+                .run(Arrays.asList(CommandReplay.generateScript(0, concepts, 50, 5), CommandReplay.generateScript(1, concepts, 50, 5)));
+        assertEquals(2 * 51, result.getCommands());
+
+        DatabaseManager dbManager = new DatabaseManager(database.toString());
+        assertTrue(dbManager.loadDataFromFile(database.toString()));
+        assertNotNull(dbManager.getCategory(1_000_001)); // Both sessions' first category
+        assertNotNull(dbManager.getCategory(2_000_001));
+        assertThrows(IllegalArgumentException.class, () -> new CommandReplay(database, 0, true));
+        assertThrows(IllegalArgumentException.class, () -> CommandReplay.generateScript(0, Collections.emptyList(), 10, 5));
+    }
+
+    @Test
+    void testRecordingSkipsTheFileName() throws Exception {
+        ByteArrayOutputStream script = new ByteArrayOutputStream();
+        InputStream typed = new ByteArrayInputStream("library.db\nprint\nexit\n".getBytes(StandardCharsets.UTF_8));
+        try (Scanner scanner = new Scanner(CommandReplay.recording(typed, script))) {
+            while (scanner.hasNextLine()) {
+                scanner.nextLine();
+            }
+        }
+        assertEquals("print\nexit\n", script.toString("UTF-8"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConceptGraphTest {
+    private ConceptGraph.Builder builder;
+
+    @BeforeEach
+    void setUp() {
+        // 1 -> 2 -> 3 -> 4, plus 1 -> 5 and an unconnected pair 10 -> 11
+        builder = new ConceptGraph.Builder();
+        builder.addEdge(1, 2, ConceptRelation.RelationType.PREREQUISITE_OF);
+        builder.addEdge(2, 3, ConceptRelation.RelationType.PREREQUISITE_OF);
+        builder.addEdge(3, 4, ConceptRelation.RelationType.RELATED_TO);
+        builder.addEdge(1, 5, ConceptRelation.RelationType.EXAMPLE_OF);
+        builder.addEdge(10, 11, ConceptRelation.RelationType.RELATED_TO);
+    }
+
+    @Test
+    void testNeighbors() {
+        ConceptGraph graph = builder.build();
+        assertEquals(7, graph.nodeCount());
+        assertEquals(5, graph.edgeCount());
+
+        int[] outgoing = graph.getOutgoing(1);
+        Arrays.sort(outgoing);
+        assertArrayEquals(new int[]{2, 5}, outgoing);
+        assertArrayEquals(new int[]{5}, graph.getOutgoing(1, ConceptRelation.RelationType.EXAMPLE_OF));
+        assertArrayEquals(new int[]{1}, graph.getIncoming(2));
+
+        int[] neighbors = graph.getNeighbors(2);
+        Arrays.sort(neighbors);
+        assertArrayEquals(new int[]{1, 3}, neighbors);
+        assertEquals(0, graph.getNeighbors(99).length);
+        assertEquals(ConceptRelation.RelationType.RELATED_TO, graph.getRelationType(3, 4));
+    }
+
+    @Test
+    void testExpand() {
+        ConceptGraph graph = builder.build();
+        int[] oneHop = graph.expand(2, 1);
+        Arrays.sort(oneHop);
+        assertArrayEquals(new int[]{1, 3}, oneHop);
+
+        int[] twoHops = graph.expand(2, 2);
+        Arrays.sort(twoHops);
+        assertArrayEquals(new int[]{1, 3, 4, 5}, twoHops);
+        assertEquals(0, graph.expand(2, 0).length);
+    }
+
+    @Test
+    void testShortestPath() {
+        ConceptGraph graph = builder.build();
+        assertArrayEquals(new int[]{5, 1, 2, 3, 4}, graph.shortestPath(5, 4));
+        assertArrayEquals(new int[]{4, 3, 2, 1, 5}, graph.shortestPath(4, 5));
+        assertArrayEquals(new int[]{3}, graph.shortestPath(3, 3));
+        assertEquals(0, graph.shortestPath(1, 11).length);
+
+        // A shortcut should be preferred once it exists
+        builder.addEdge(5, 4, ConceptRelation.RelationType.RELATED_TO);
+        assertArrayEquals(new int[]{5, 4}, builder.build().shortestPath(5, 4));
+    }
+
+    @Test
+    void testRemoveEdges() {
+        ConceptGraph graph = builder.build();
+        assertTrue(graph.removeEdge(2, 3, ConceptRelation.RelationType.PREREQUISITE_OF));
+        assertFalse(graph.removeEdge(2, 3, ConceptRelation.RelationType.PREREQUISITE_OF));
+        assertEquals(0, graph.shortestPath(1, 4).length);
+        assertEquals(0, graph.getIncoming(3).length);
+
+        int[] neighbors = graph.removeConcept(1);
+        Arrays.sort(neighbors);
+        assertArrayEquals(new int[]{2, 5}, neighbors);
+        assertEquals(0, graph.getNeighbors(5).length);
+        assertEquals(0, graph.removeConcept(1).length);
+        assertEquals(2, graph.edgeCount());
+    }
+
+    @Test
+    void testAddEdges() {
+        ConceptGraph graph = builder.build();
+        graph.addEdge(4, 10, ConceptRelation.RelationType.RELATED_TO);
+        graph.addEdge(11, 20, ConceptRelation.RelationType.EXAMPLE_OF);
+        assertEquals(8, graph.nodeCount());
+        assertEquals(7, graph.edgeCount());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 10, 11, 20}, graph.shortestPath(1, 20));
+        assertEquals(ConceptRelation.RelationType.EXAMPLE_OF, graph.getRelationType(11, 20));
+        assertArrayEquals(new int[]{11}, graph.getIncoming(20));
+
+        // Removing a concept takes out its added edges as well as its built ones
+        int[] neighbors = graph.removeConcept(4);
+        Arrays.sort(neighbors);
+        assertArrayEquals(new int[]{3, 10}, neighbors);
+        assertEquals(0, graph.shortestPath(1, 20).length);
+        assertTrue(graph.removeEdge(11, 20, ConceptRelation.RelationType.EXAMPLE_OF));
+        assertEquals(0, graph.getNeighbors(20).length);
+    }
+
+    @Test
+    void testCompaction() {
+        ConceptGraph graph = builder.build();
+        // Enough edits to fold the overlay into a new CSR several times over
+        for (int i = 100; i < 5100; i++) {
+            graph.addEdge(i, i + 1, ConceptRelation.RelationType.RELATED_TO);
+        }
+        for (int i = 100; i < 5100; i += 2) {
+            assertTrue(graph.removeEdge(i, i + 1, ConceptRelation.RelationType.RELATED_TO));
+        }
+        assertEquals(5 + 2500, graph.edgeCount());
+        assertArrayEquals(new int[]{101, 102}, graph.shortestPath(101, 102));
+        assertEquals(0, graph.shortestPath(100, 102).length);
+        assertArrayEquals(new int[]{5, 1, 2, 3, 4}, graph.shortestPath(5, 4));
+    }
+}
@@ -0,0 +1,134 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataMetricsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBucketsAreWithinAnEighthOfTheirValues() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long nanos = random.nextInt(4) == 0 ? random.nextInt(100) : (random.nextLong() >>> 1) >>> random.nextInt(62);
+            int bucket = DataMetrics.bucketOf(nanos);
+            assertTrue(DataMetrics.bucketLowerBound(bucket) <= nanos && nanos <= DataMetrics.bucketUpperBound(bucket), "value " + nanos);
+            assertTrue(DataMetrics.bucketUpperBound(bucket) - DataMetrics.bucketLowerBound(bucket) <= DataMetrics.bucketLowerBound(bucket) / 4, "value " + nanos);
+        }
+        assertEquals(DataMetrics.bucketOf(Long.MAX_VALUE), DataMetrics.bucketOf(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void testSnapshotReportsCallsErrorsAndPercentiles() {
+        DataMetrics metrics = new DataMetrics(true);
+        DataMetrics.Operation operation = metrics.operation("getConcept");
+        assertSame(operation, metrics.operation("getConcept"));
+        for (int micros = 1; micros <= 1000; micros++) {
+            operation.recordNanos(micros * 1000L);
+        }
+        operation.recordError();
+        metrics.registerGauge("cache.size", () -> 7);
+
+        DataMetrics.Snapshot snapshot = metrics.snapshot();
+        DataMetrics.OperationStats stats = snapshot.getOperation("getConcept");
+        assertEquals(1000, stats.getCalls());
+        assertEquals(1, stats.getErrors());
+        assertEquals(500.5, stats.getMeanMicros(), 0.01);
+        assertEquals(500, stats.getP50Micros(), 500 * 0.125);
+        assertEquals(990, stats.getP99Micros(), 990 * 0.125);
+        assertEquals(1000, stats.getMaxMicros(), 0.01);
+        assertEquals(Long.valueOf(7), snapshot.getGauges().get("cache.size"));
+        assertTrue(snapshot.toString().contains("getConcept"));
+        assertTrue(snapshot.toJson().contains("\"p99Micros\""));
+
+        metrics.unregisterGauges("cache.");
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getOperation("getConcept").getCalls());
+        assertTrue(metrics.getGauges().isEmpty());
+    }
+
+    @Test
+    void testNothingIsRecordedWhileDisabled() {
+        DataMetrics metrics = new DataMetrics(false);
+        DataMetrics.Operation operation = metrics.operation("addConcept");
+        long start = metrics.start();
+        assertEquals(DataMetrics.NOT_TIMED, start);
+        operation.record(start);
+        operation.recordError();
+        assertEquals(0, metrics.snapshot().getOperation("addConcept").getCalls());
+        assertEquals(0, metrics.snapshot().getOperation("addConcept").getErrors());
+
+        metrics.setEnabled(true);
+        operation.record(metrics.start());
+        assertEquals(1, metrics.snapshot().getOperation("addConcept").getCalls());
+    }
+
+    @Test
+    void testDatabaseOperationsAreReadableOverJmx() throws Exception {
+        String path = tempDir.resolve("library.db").toString();
+        LibraryGenerator generator = new LibraryGenerator(1);
+        generator.setCategoryCount(1);
+        generator.writeDatabase(path);
+        DatabaseManager dbManager = new DatabaseManager(path);
+        assertTrue(dbManager.loadDataFromFile(path));
+        DataMetrics metrics = DataMetrics.get();
+        long before = metrics.snapshot().getOperation("addCategory").getCalls();
+        assertTrue(dbManager.addCategory(new Category(2, "Programming")));
+        assertFalse(dbManager.addCategory(new Category(2, "Programming")));
+        assertEquals(before + 2, metrics.snapshot().getOperation("addCategory").getCalls());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(DataMetrics.OBJECT_NAME);
+        CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+        boolean found = false;
+        for (CompositeData operation : operations) {
+            if ("addCategory".equals(operation.get("name"))) {
+                found = true;
+                assertTrue((Long) operation.get("calls") >= 2);
+            }
+        }
+        assertTrue(found);
+        assertTrue(((String) server.invoke(name, "dumpSnapshot", null, null)).contains("addCategory"));
+        assertNotNull(server.getAttribute(name, "Gauges"));
+    }
+
+    @Test
+    void testDatabaseManagerPublishesLibraryGauges() throws Exception {
+        String path = tempDir.resolve("gauges.db").toString();
+        LibraryGenerator generator = new LibraryGenerator(2);
+        generator.setCategoryCount(2);
+        generator.setConceptsPerCategory(5);
+        generator.setComponentsPerConcept(2);
+        generator.writeDatabase(path);
+        DatabaseManager dbManager = new DatabaseManager(path);
+        assertTrue(dbManager.loadDataFromFile(path));
+        dbManager.awaitIndexes();
+        dbManager.getConceptGraph();
+        try (Connection conn = dbManager.connect()) {
+            assertNotNull(conn);
+        }
+
+        Map<String, Long> gauges = DataMetrics.get().getGauges();
+        assertEquals(Long.valueOf(2), gauges.get("library.categories"));
+        assertEquals(Long.valueOf(10), gauges.get("library.concepts"));
+        assertEquals(Long.valueOf(2), gauges.get("library.categoryNameIndex"));
+        assertEquals(Long.valueOf(10), gauges.get("library.conceptTopicIndex"));
+        assertEquals(Long.valueOf(20), gauges.get("library.componentTopicIndex"));
+        assertTrue(gauges.get("library.conceptDuplicateIndex") > 0);
+        assertEquals(Long.valueOf(1), gauges.get("library.graphBuilds"));
+        assertEquals(Long.valueOf(0), gauges.get("library.graphCompactions"));
+        assertTrue(gauges.get("library.connectionsOpened") >= 1);
+    }
+}
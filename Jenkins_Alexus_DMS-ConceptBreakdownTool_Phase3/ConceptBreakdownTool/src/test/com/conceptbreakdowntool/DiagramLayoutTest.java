@@ -0,0 +1,120 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static com.conceptbreakdowntool.DiagramLayout.NodeKind.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagramLayoutTest {
+
+    /** A category with the given number of concepts, each with three components. **/
+    private static DiagramLayout buildTree(DiagramLayout.Style style, int conceptCount) {
+        DiagramLayout diagram = new DiagramLayout(style);
+        int root = diagram.addNode(CATEGORY, 1, "Programming", -1);
+        for (int c = 0; c < conceptCount; c++) {
+            int concept = diagram.addNode(CONCEPT, 100 + c, "Concept " + c, root);
+            for (int k = 0; k < 3; k++) {
+                diagram.addNode(COMPONENT, 100 + c, "Component " + c + "." + k, concept);
+            }
+        }
+        return diagram;
+    }
+
+    private static double distance(DiagramLayout.Node a, DiagramLayout.Node b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    @Test
+    void testRadialLayoutPutsEachLevelOnItsRing() {
+        DiagramLayout diagram = buildTree(DiagramLayout.Style.RADIAL, 6);
+        diagram.layout();
+        List<DiagramLayout.Node> nodes = diagram.getNodes();
+        DiagramLayout.Node root = nodes.get(0);
+        assertEquals(0, root.getX(), 1e-9);
+        assertEquals(0, root.getY(), 1e-9);
+        for (DiagramLayout.Node node : nodes) {
+            double expected = node.getKind() == CONCEPT ? DiagramLayout.RING_SPACING : node.getKind() == COMPONENT ? 2 * DiagramLayout.RING_SPACING : 0;
+            assertEquals(expected, Math.hypot(node.getX(), node.getY()), 1e-6);
+        }
+    }
+
+    @Test
+    void testForceLayoutKeepsRelatedNodesCloseAndIsRepeatable() {
+        DiagramLayout first = buildTree(DiagramLayout.Style.FORCE_DIRECTED, 8);
+        first.addEdge(1, 5); // Concept 0 -> Concept 1
+        first.layout();
+        DiagramLayout second = buildTree(DiagramLayout.Style.FORCE_DIRECTED, 8);
+        second.addEdge(1, 5);
+        second.layout();
+
+        List<DiagramLayout.Node> nodes = first.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            assertTrue(Double.isFinite(nodes.get(i).getX()) && Double.isFinite(nodes.get(i).getY()));
+            assertEquals(nodes.get(i).getX(), second.getNodes().get(i).getX(), 1e-9);
+        }
+        // A component sits nearer its own concept than the average node does
+        double total = 0;
+        for (DiagramLayout.Node node : nodes) {
+            total += distance(nodes.get(1), node);
+        }
+        assertTrue(distance(nodes.get(1), nodes.get(2)) < total / nodes.size());
+    }
+
+    @Test
+    void testLargeGraphUsesBarnesHutAndStaysFinite() {
+        DiagramLayout diagram = buildTree(DiagramLayout.Style.FORCE_DIRECTED, 200); // 801 nodes
+        assertTrue(diagram.getNodes().size() > DiagramLayout.BARNES_HUT_THRESHOLD);
+        diagram.layout();
+        for (DiagramLayout.Node node : diagram.getNodes()) {
+            assertTrue(Double.isFinite(node.getX()) && Double.isFinite(node.getY()));
+        }
+        assertTrue(diagram.getBounds().getWidth() > DiagramLayout.IDEAL_DISTANCE);
+    }
+
+    @Test
+    void testIncrementalAddOnlyMovesTheNewNodesNeighborhood() {
+        for (int conceptCount : new int[]{10, 200}) { // Pair by pair, then with Barnes-Hut
+            DiagramLayout diagram = buildTree(DiagramLayout.Style.FORCE_DIRECTED, conceptCount);
+            diagram.layout();
+            List<DiagramLayout.Node> nodes = diagram.getNodes();
+            double[] before = new double[nodes.size()];
+            for (int i = 0; i < before.length; i++) {
+                before[i] = nodes.get(i).getX();
+            }
+
+            // Concept 0 (node 1) gets a component; it and its other components may move, the root and everything else stay put
+            int added = diagram.addNodeIncrementally(COMPONENT, 100, "Late component", 1);
+            boolean othersMoved = false;
+            for (int i = 0; i < before.length; i++) {
+                if (i == 0 || i > 4) {
+                    assertEquals(before[i], nodes.get(i).getX(), 1e-9);
+                } else {
+                    othersMoved |= i != 1 && before[i] != nodes.get(i).getX();
+                }
+            }
+            assertTrue(othersMoved);
+            assertTrue(Double.isFinite(nodes.get(added).getX()) && Double.isFinite(nodes.get(added).getY()));
+            // It lands about as far from its concept as the concept's other components
+            assertTrue(distance(nodes.get(added), nodes.get(1)) < 2 * distance(nodes.get(2), nodes.get(1)));
+        }
+    }
+
+    @Test
+    void testRenderImageHeadless() {
+        DiagramLayout diagram = buildTree(DiagramLayout.Style.RADIAL, 4);
+        diagram.layout();
+        BufferedImage image = DiagramPanel.renderImage(diagram, 400, 300);
+        int drawn = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) & 0xFFFFFF) != 0xFFFFFF) {
+                    drawn++;
+                }
+            }
+        }
+        assertTrue(drawn > 1000);
+    }
+}
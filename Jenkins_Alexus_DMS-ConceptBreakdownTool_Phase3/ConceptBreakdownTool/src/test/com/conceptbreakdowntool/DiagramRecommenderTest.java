@@ -0,0 +1,89 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagramRecommenderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPrerequisiteChainIsFlowchart() {
+        // 1 -> 2 -> 3 -> 4 -> 5, all prerequisites
+        DiagramRecommender.Features f = new DiagramRecommender.Features();
+        f.conceptCount = 5;
+        f.depth = 2;
+        f.maxFanOut = 5;
+        f.relationCount = 4;
+        f.prerequisiteCount = 4;
+        f.relationTypeCount = 1;
+        f.density = 4 / 20.0;
+        DiagramRecommender.Recommendation recommendation = DiagramRecommender.score(f);
+        assertEquals("Flowchart", recommendation.getDiagramType());
+        assertTrue(recommendation.getReasons().get(0).contains("prerequisites"));
+    }
+
+    @Test
+    void testContrastedPairIsVenn() {
+        DiagramRecommender.Features f = new DiagramRecommender.Features();
+        f.conceptCount = 2;
+        f.depth = 2;
+        f.maxFanOut = 2;
+        f.textOverlap = 0.5;
+        f.relationCount = 1;
+        f.contrastCount = 1;
+        f.relationTypeCount = 1;
+        f.density = 0.5;
+        assertEquals("Venn Diagram", DiagramRecommender.score(f).getDiagramType());
+    }
+
+    @Test
+    void testPartOfStructureIsUml() {
+        DiagramRecommender.Features f = new DiagramRecommender.Features();
+        f.conceptCount = 5;
+        f.componentCount = 15;
+        f.depth = 3;
+        f.maxFanOut = 5;
+        f.relationCount = 4;
+        f.partOfCount = 4;
+        f.relationTypeCount = 1;
+        f.density = 4 / 20.0;
+        assertEquals("UML Diagram", DiagramRecommender.score(f).getDiagramType());
+    }
+
+    @Test
+    void testNoStructureIsMindMap() {
+        DiagramRecommender.Recommendation recommendation = DiagramRecommender.score(new DiagramRecommender.Features());
+        assertEquals("Mind Map", recommendation.getDiagramType());
+        assertEquals(ConceptBreakdownToolApplication.DIAGRAM_TYPES.length, recommendation.getScores().size());
+    }
+
+    @Test
+    void testCacheIsBoundedAndForgetsDeletedEntries() throws Exception {
+        String path = tempDir.resolve("library.db").toString();
+        LibraryGenerator generator = new LibraryGenerator(3);
+        generator.setCategoryCount(3);
+        generator.setConceptsPerCategory(100);
+        generator.setComponentsPerConcept(1);
+        generator.writeDatabase(path);
+        DatabaseManager dbManager = new DatabaseManager(path);
+        assertTrue(dbManager.loadDataFromFile(path));
+        DiagramRecommender recommender = new DiagramRecommender(dbManager);
+
+        for (Concept concept : dbManager.getConcepts()) {
+            recommender.recommendForConcept(concept.getId());
+        }
+        assertEquals(DiagramRecommender.MAX_CACHED, recommender.getCacheSize());
+
+        int categoryId = dbManager.getCategories().get(0).getId();
+        recommender.recommendForCategory(categoryId);
+        recommender.forgetCategory(categoryId);
+        assertEquals(DiagramRecommender.MAX_CACHED - 1, recommender.getCacheSize()); // The category pushed out one concept, then was dropped itself
+        recommender.clear();
+        assertEquals(0, recommender.getCacheSize());
+    }
+}
@@ -0,0 +1,80 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateIndexTest {
+    private DuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DuplicateIndex(0.6);
+        index.add("concept:1", "Binary Search", "Binary Search: halve a sorted array until the target is found");
+        index.add("concept:2", "Bubble Sort", "Bubble Sort: swap neighboring items until the list is in order");
+        index.add("concept:3", "Photosynthesis", "Photosynthesis: plants turn light, water, and carbon dioxide into sugar");
+    }
+
+    @Test
+    void testFindSimilar() {
+        // A small re-wording still matches
+        List<DuplicateIndex.Match> matches = index.findSimilar("binary search - halve a sorted array until the target is found!", null);
+        assertEquals(1, matches.size());
+        assertEquals("concept:1", matches.get(0).getKey());
+        assertTrue(matches.get(0).getSimilarity() >= 0.9);
+
+        // Unrelated text and the entry being edited don't
+        assertTrue(index.findSimilar("The French Revolution began in 1789 with the storming of the Bastille", null).isEmpty());
+        assertTrue(index.findSimilar("Binary Search: halve a sorted array until the target is found", "concept:1").isEmpty());
+    }
+
+    @Test
+    void testShortTextIsIgnored() {
+        // Too few shingles to estimate anything, so neither indexed nor matched
+        index.add("concept:4", "Sort", "Sort");
+        assertEquals(3, index.size());
+        assertTrue(index.findSimilar("Sort", null).isEmpty());
+    }
+
+    @Test
+    void testFindAllDuplicates() {
+        assertTrue(index.findAllDuplicates().isEmpty());
+
+        index.add("concept:4", "Bubble Sort (copy)", "Bubble sort: swap neighboring items until the list is in order.");
+        index.add("concept:5", "Bubble Sort (again)", "bubble sort - swap neighboring items until the list is in order");
+        List<DuplicateIndex.Match> duplicates = index.findAllDuplicates();
+        assertEquals(3, duplicates.size()); // Each of the three bubble sorts pairs with the other two, once
+        for (DuplicateIndex.Match match : duplicates) {
+            assertTrue(match.getLabel().startsWith("Bubble Sort"));
+            assertTrue(match.getOtherLabel().startsWith("Bubble Sort"));
+            assertNotEquals(match.getKey(), match.getOtherKey());
+        }
+
+        index.remove("concept:2");
+        duplicates = index.findAllDuplicates();
+        assertEquals(1, duplicates.size());
+        assertEquals("concept:4", duplicates.get(0).getKey());
+        assertEquals("concept:5", duplicates.get(0).getOtherKey());
+    }
+
+    @Test
+    void testOversizedBucketsStayBounded() {
+        // Identical texts share every bucket; each bucket stops growing at its cap, yet pairs within it are still found once
+        DuplicateIndex copies = new DuplicateIndex(0.6);
+        for (int i = 0; i < 100; i++) {
+            copies.add("concept:" + i, "Copy " + i, "The same description every time");
+        }
+        assertEquals(100, copies.size());
+        List<DuplicateIndex.Match> duplicates = copies.findAllDuplicates();
+        assertEquals(64 * 63 / 2, duplicates.size());
+
+        // Removing an entry frees its slot for the next one
+        copies.remove("concept:0");
+        copies.add("concept:100", "Copy 100", "The same description every time");
+        assertEquals(100, copies.size());
+        assertEquals(64 * 63 / 2, copies.findAllDuplicates().size());
+    }
+}
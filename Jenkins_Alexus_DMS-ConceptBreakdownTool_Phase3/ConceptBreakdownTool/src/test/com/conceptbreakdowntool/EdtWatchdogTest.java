@@ -0,0 +1,70 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.InvocationEvent;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdtWatchdogTest {
+    private final EdtWatchdog watchdog = new EdtWatchdog(100);
+
+    @BeforeAll
+    static void warmUp() {
+        EdtWatchdog warmUp = new EdtWatchdog(60_000); // The first dispatch starts AWT, which would count as a stall
+        warmUp.dispatchEvent(new InvocationEvent(EdtWatchdogTest.class, () -> { }));
+        warmUp.shutdown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.shutdown();
+    }
+
+    /** Dispatches on the test thread, which stands in for the EDT. **/
+    private void dispatch(Runnable work) {
+        watchdog.dispatchEvent(new InvocationEvent(this, work));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testSlowDispatchIsCaughtWithTheStackWhereItStalled() {
+        long stallsBefore = DataMetrics.get().snapshot().getOperation("edt.stall").getCalls();
+        dispatch(() -> pause(1));
+        assertEquals(0, watchdog.getStallCount());
+
+        dispatch(() -> pause(300));
+        assertEquals(1, watchdog.getStallCount());
+        EdtWatchdog.Stall stall = watchdog.getRecentStalls().get(0);
+        assertTrue(stall.getDurationMillis() >= 300, stall.toString());
+        assertTrue(stall.getEvent().startsWith("InvocationEvent"), stall.getEvent());
+        assertTrue(Arrays.stream(stall.getStack()).anyMatch(element -> element.getMethodName().equals("pause")), stall.toString());
+        assertEquals(stallsBefore + 1, DataMetrics.get().snapshot().getOperation("edt.stall").getCalls());
+    }
+
+    @Test
+    void testTimeInANestedLoopIsNotCountedAgainstTheOuterEvent() {
+        dispatch(() -> {
+            pause(10);
+            dispatch(() -> pause(300)); // As a modal dialog's loop would
+            pause(10);
+        });
+
+        List<EdtWatchdog.Stall> stalls = watchdog.getRecentStalls();
+        assertEquals(1, stalls.size(), stalls.toString()); // Only the inner event stalled
+        assertTrue(stalls.get(0).getDurationMillis() >= 300);
+        assertTrue(stalls.get(0).getDurationMillis() < 600);
+        assertThrows(IllegalArgumentException.class, () -> new EdtWatchdog(0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+    private FuzzyIndex<Integer> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex<>();
+        index.add(1, "Design");
+        index.add(2, "Mathematics");
+        index.add(3, "Data Structures");
+        index.add(4, "Databases");
+        index.add(5, "design"); // Same text as 1, different case
+    }
+
+    @Test
+    void testFindExact() {
+        List<Integer> keys = index.findExact("  DESIGN ");
+        Collections.sort(keys);
+        assertEquals(Arrays.asList(1, 5), keys);
+        assertTrue(index.findExact("Desgin").isEmpty());
+    }
+
+    @Test
+    void testSearchWithinDistance() {
+        List<FuzzyIndex.Suggestion<Integer>> suggestions = index.search("Desgin");
+        assertEquals(1, suggestions.size());
+        assertEquals("Design", suggestions.get(0).getText());
+        assertEquals(2, suggestions.get(0).getDistance());
+
+        suggestions = index.search("Mathmatics", 1, 5);
+        assertEquals("Mathematics", suggestions.get(0).getText());
+        assertTrue(index.search("Mathmatics", 0, 5).isEmpty());
+        assertTrue(index.search("Chemistry").isEmpty());
+    }
+
+    @Test
+    void testSearchOrdersByDistance() {
+        index.add(6, "Database");
+        List<FuzzyIndex.Suggestion<Integer>> suggestions = index.search("Databse", 2, 5);
+        assertEquals("Database", suggestions.get(0).getText());
+        assertEquals("Databases", suggestions.get(1).getText());
+        assertEquals(1, index.search("Databse", 2, 1).size());
+    }
+
+    @Test
+    void testRemoveAndReplace() {
+        index.remove(1);
+        assertEquals(Collections.singletonList(5), index.findExact("design"));
+        index.remove(5);
+        assertTrue(index.search("Design").isEmpty());
+
+        index.add(2, "Statistics"); // Replaces "Mathematics"
+        assertTrue(index.findExact("Mathematics").isEmpty());
+        assertEquals(Collections.singletonList(2), index.findExact("statistics"));
+
+        // Removing most entries rebuilds the tree; what is left must still be found
+        index.remove(3);
+        index.remove(2);
+        assertEquals(Collections.singletonList(4), index.findExact("Databases"));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapFootprintTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String path = tempDir.resolve("library.db").toString();
+        LibraryGenerator generator = new LibraryGenerator(11);
+        generator.setCategoryCount(3);
+        generator.setConceptsPerCategory(10);
+        generator.setComponentsPerConcept(2);
+        generator.writeDatabase(path);
+        dbManager = new DatabaseManager(path);
+        assertTrue(dbManager.loadDataFromFile(path));
+    }
+
+    @Test
+    void testLayoutArithmetic() {
+        assertEquals(0, HeapFootprint.align(0));
+        assertEquals(24, HeapFootprint.align(17));
+        assertEquals(HeapFootprint.ARRAY_LIST_BYTES, HeapFootprint.arrayListBytes(0));
+        assertEquals(HeapFootprint.arrayListBytes(1), HeapFootprint.arrayListBytes(10)); // Room for 10 from the first add
+        assertTrue(HeapFootprint.arrayListBytes(11) > HeapFootprint.arrayListBytes(10));
+        assertTrue(HeapFootprint.stringBytes("\u4e2d\u6587\u4e2d\u6587\u4e2d\u6587\u4e2d\u6587\u4e2d") > HeapFootprint.stringBytes("abcdefghi"));
+        assertEquals(HeapFootprint.STRING_BYTES + HeapFootprint.align(HeapFootprint.ARRAY_HEADER),
+                HeapFootprint.stringBytes(""));
+    }
+
+    @Test
+    void testEveryEntryIsCountedWithItsStrings() {
+        HeapFootprint.Report report = HeapFootprint.measure(dbManager);
+        assertEquals(3, dbManager.getCategories().size());
+        assertEquals(30, dbManager.getConcepts().size());
+        assertTrue(report.getCategoryBytes() >= 3 * HeapFootprint.CATEGORY_BYTES + 3 * HeapFootprint.stringBytes(""));
+        assertTrue(report.getConceptBytes() >= 30 * (HeapFootprint.CONCEPT_BYTES + HeapFootprint.ARRAY_LIST_BYTES));
+        assertTrue(report.getComponentBytes() >= dbManager.getComponents().size() * HeapFootprint.COMPONENT_BYTES);
+        assertEquals(report.getCategoryBytes() + report.getConceptBytes() + report.getComponentBytes() + report.getListBytes()
+                + report.getHierarchyBytes() + report.getTopicIndexBytes() + report.getDuplicateIndexBytes() + report.getGraphBytes(),
+                report.getTotalBytes());
+        assertTrue(report.toString().contains("Concepts"), report.toString());
+    }
+
+    @Test
+    void testIndexesAreCountedPerEntry() {
+        HeapFootprint.Report report = HeapFootprint.measure(dbManager);
+        // A node and a boxed key per concept, and a BK-tree node per distinct topic
+        assertTrue(report.getHierarchyBytes() >= 30 * (HeapFootprint.INTEGER_BYTES + HeapFootprint.HASH_MAP_NODE_BYTES));
+        assertTrue(report.getTopicIndexBytes() >= 33 * HeapFootprint.INTEGER_BYTES);
+        // Every concept's text is long enough for a MinHash signature of 64 ints
+        assertTrue(report.getDuplicateIndexBytes() >= 30 * HeapFootprint.arrayBytes(64, HeapFootprint.INT), report.toString());
+        assertEquals(report.getHierarchyBytes() + report.getTopicIndexBytes() + report.getDuplicateIndexBytes() + report.getGraphBytes(),
+                report.getIndexBytes());
+        assertTrue(report.toString().contains("Dup. index"), report.toString());
+    }
+
+    @Test
+    void testCollectionArithmetic() {
+        assertEquals(HeapFootprint.HASH_MAP_BYTES, HeapFootprint.hashMapBytes(0, 16, false));
+        assertEquals(HeapFootprint.HASH_MAP_BYTES + HeapFootprint.arrayBytes(16, HeapFootprint.REFERENCE) + 12 * HeapFootprint.HASH_MAP_NODE_BYTES,
+                HeapFootprint.hashMapBytes(12, 16, false));
+        assertEquals(HeapFootprint.HASH_MAP_BYTES + HeapFootprint.arrayBytes(32, HeapFootprint.REFERENCE) + 13 * HeapFootprint.HASH_MAP_NODE_BYTES,
+                HeapFootprint.hashMapBytes(13, 16, false)); // Past three quarters full, the table doubles
+        assertTrue(HeapFootprint.hashMapBytes(1, 2, true) > HeapFootprint.hashMapBytes(1, 2, false));
+        assertEquals(HeapFootprint.arrayListBytes(2, 2), HeapFootprint.arrayListBytes(0, 2));
+        assertEquals(HeapFootprint.ARRAY_LIST_BYTES + HeapFootprint.arrayBytes(3, HeapFootprint.REFERENCE), HeapFootprint.arrayListBytes(3, 2));
+    }
+
+    @Test
+    void testSharedStringsAreCountedOnceAndCopiesAreDuplicates() {
+        dbManager.getConcepts().clear();
+        dbManager.getComponents().clear();
+        dbManager.getCategories().clear();
+        String shared = "Shared Topic";
+        dbManager.getCategories().add(new Category(1, shared));
+        dbManager.getCategories().add(new Category(2, shared));
+        long sharedBytes = HeapFootprint.measure(dbManager).getCategoryBytes();
+        assertEquals(2 * HeapFootprint.CATEGORY_BYTES + HeapFootprint.stringBytes(shared), sharedBytes);
+        assertTrue(HeapFootprint.measure(dbManager).getDuplicates().isEmpty());
+
+        dbManager.getCategories().add(new Category(3, new String(shared)));
+        HeapFootprint.Report report = HeapFootprint.measure(dbManager);
+        assertEquals(1, report.getDuplicates().size());
+        assertEquals(shared, report.getDuplicates().get(0).getValue());
+        assertEquals(2, report.getDuplicates().get(0).getInstances());
+        assertEquals(HeapFootprint.stringBytes(shared), report.getDuplicateBytes());
+    }
+
+    @Test
+    void testProjectionGrowsWithTheLibrary() {
+        HeapFootprint.Report report = HeapFootprint.measure(dbManager);
+        long entries = report.getCategoryBytes() + report.getConceptBytes() + report.getComponentBytes();
+        long projected = report.projectForConcepts(300);
+        assertTrue(projected >= 10 * entries, projected + " < 10 x " + entries);
+        assertTrue(projected < 11 * report.getTotalBytes(), projected + " >= 11 x " + report.getTotalBytes());
+        assertEquals(0, report.project(0, 0, 0));
+        assertEquals(HeapFootprint.CATEGORY_BYTES + Math.round(HeapFootprint.REFERENCE * 1.25),
+                HeapFootprint.measure(emptyManager()).project(1, 0, 0));
+    }
+
+    private DatabaseManager emptyManager() {
+        dbManager.getConcepts().clear();
+        dbManager.getComponents().clear();
+        dbManager.getCategories().clear();
+        return dbManager;
+    }
+}
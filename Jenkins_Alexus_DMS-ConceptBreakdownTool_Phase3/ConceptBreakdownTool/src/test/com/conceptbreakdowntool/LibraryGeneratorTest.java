@@ -0,0 +1,102 @@
+package com.conceptbreakdowntool;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryGeneratorTest {
+    @TempDir
+    Path tempDir;
+
+    /** 4 categories of 5 concepts, each with 3 components. **/
+    private static LibraryGenerator generator(long seed) {
+        LibraryGenerator generator = new LibraryGenerator(seed);
+        generator.setCategoryCount(4);
+        generator.setConceptsPerCategory(5);
+        generator.setComponentsPerConcept(3);
+        generator.setDetailWords(2, 30);
+        return generator;
+    }
+
+    @Test
+    void testSameSeedWritesTheSameLibrary() throws Exception {
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        Path other = tempDir.resolve("other.txt");
+        generator(7).writeText(first.toString());
+        generator(7).writeText(second.toString());
+        generator(8).writeText(other.toString());
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+        assertFalse(java.util.Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+        assertEquals(generator(7).getConcept(13).getDetails(), generator(7).getConcept(13).getDetails()); // Order doesn't matter
+    }
+
+    @Test
+    void testDatabaseLoadsWithEveryEntry() throws Exception {
+        String path = tempDir.resolve("library.db").toString();
+        LibraryGenerator generator = generator(7);
+        generator.writeDatabase(path);
+
+        DatabaseManager dbManager = new DatabaseManager(path);
+        assertTrue(dbManager.loadDataFromFile(path));
+        assertEquals(4, dbManager.getCategories().size());
+        assertEquals(20, dbManager.getConcepts().size());
+        assertEquals(60, dbManager.getReportRowCount()); // One row per component
+
+        Concept expected = generator.getConcept(12);
+        Concept loaded = dbManager.getConcept(12);
+        assertEquals(expected.getTopic(), loaded.getTopic());
+        assertEquals(expected.getDetails(), loaded.getDetails());
+        List<Component> components = dbManager.getComponentsByConceptId(12);
+        assertEquals(3, components.size());
+        assertEquals(expected.getComponents().get(0).getTopic(), components.get(0).getTopic());
+        assertEquals(generator.getCategory(3).getTopic(), dbManager.findCategoryByName(generator.getCategory(3).getTopic()).getTopic());
+    }
+
+    @Test
+    void testJsonAndTextMatchTheirFormats() throws Exception {
+        LibraryGenerator generator = generator(7);
+        Path json = tempDir.resolve("data.json");
+        Path text = tempDir.resolve("concepts.txt");
+        generator.writeJson(json.toString());
+        generator.writeText(text.toString());
+
+        JsonObject allData = JsonParser.parseString(new String(Files.readAllBytes(json), "UTF-8")).getAsJsonObject();
+        assertEquals(20, allData.getAsJsonArray("concepts").size());
+        assertEquals(60, allData.getAsJsonArray("components").size());
+        assertEquals(4, allData.getAsJsonArray("categories").size());
+        JsonObject concept = allData.getAsJsonArray("concepts").get(5).getAsJsonObject();
+        assertEquals(6, concept.get("id").getAsInt());
+        assertEquals(generator.getCategory(2).getTopic(), concept.get("category").getAsString());
+        assertEquals(3, concept.getAsJsonArray("components").size());
+
+        List<String> lines = Files.readAllLines(text);
+        assertEquals(4 + 20 + 60, lines.size());
+        assertEquals("Category: 1," + generator.getCategory(1).getTopic(), lines.get(0));
+        for (String line : lines) {
+            String[] properties = line.split(":", 2)[1].split(",", -1);
+            if (line.startsWith("Concept:")) {
+                assertEquals(4, properties.length, line);
+            } else if (line.startsWith("Component:")) {
+                assertEquals(2, properties.length, line);
+            }
+        }
+    }
+
+    @Test
+    void testExistingFilesAreNotOverwritten() throws Exception {
+        Path existing = Files.createFile(tempDir.resolve("existing.db"));
+        assertThrows(FileAlreadyExistsException.class, () -> generator(7).writeDatabase(existing.toString()));
+        assertEquals(0, Files.size(existing));
+        assertThrows(IllegalArgumentException.class, () -> new LibraryGenerator(7).setCategoryCount(0));
+    }
+}
@@ -0,0 +1,106 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryHierarchyTest {
+    private LibraryHierarchy hierarchy;
+
+    @BeforeEach
+    void setUp() {
+        hierarchy = new LibraryHierarchy();
+        hierarchy.addCategory(new Category(1, "Math"));
+        hierarchy.addCategory(new Category(2, "Science"));
+        hierarchy.addConcept(new Concept(10, "Algebra", "1", "Symbols and rules"), 1);
+        hierarchy.addConcept(new Concept(11, "Geometry", "1", "Shapes"), 1);
+        hierarchy.addConcept(new Concept(20, "Cells", "2", "Units of life"), 2);
+        hierarchy.addComponent(new Component("Variables", "Named values", 10));
+        hierarchy.addComponent(new Component("Equations", "Balanced statements", 10));
+    }
+
+    @Test
+    void testTraverseInDisplayOrder() {
+        List<String> visited = new ArrayList<>();
+        hierarchy.traverse(new LibraryHierarchy.Visitor() {
+            @Override
+            public boolean visitCategory(Category category) {
+                visited.add(category.getTopic());
+                return true;
+            }
+
+            @Override
+            public boolean visitConcept(Category category, Concept concept) {
+                visited.add(concept.getTopic());
+                return true;
+            }
+
+            @Override
+            public void visitComponent(Concept concept, Component component) {
+                visited.add(component.getTopic());
+            }
+        });
+        assertEquals(Arrays.asList("Math", "Algebra", "Variables", "Equations", "Geometry", "Science", "Cells"), visited);
+        assertEquals(2, hierarchy.getCategoryCount());
+        assertEquals(3, hierarchy.getConceptCount());
+        assertEquals(1, hierarchy.getCategoryIdOfConcept(10));
+    }
+
+    @Test
+    void testComponentChanges() {
+        hierarchy.updateComponent(10, "Variables", "Unknowns", "Values to solve for");
+        hierarchy.removeComponent(10, "Equations");
+        List<Component> components = hierarchy.getComponents(10);
+        assertEquals(1, components.size());
+        assertEquals("Unknowns", components.get(0).getTopic());
+
+        // Components of unknown concepts are ignored
+        hierarchy.addComponent(new Component("Orphan", "No concept", 99));
+        assertTrue(hierarchy.getComponents(99).isEmpty());
+    }
+
+    @Test
+    void testDetachedConceptsWaitForTheirCategory() {
+        hierarchy.removeCategory(2);
+        assertNull(hierarchy.getCategory(2));
+        assertEquals(1, hierarchy.getCategoryCount());
+        assertNotNull(hierarchy.getConcept(20)); // Still in the database, just hidden
+        assertEquals(Arrays.asList("Math"), topics(hierarchy.getCategories()));
+
+        hierarchy.addCategory(new Category(2, "Biology"));
+        assertEquals(Arrays.asList("Math", "Biology"), topics(hierarchy.getCategories()));
+        assertEquals("Cells", hierarchy.getConcepts(2).get(0).getTopic());
+
+        // A concept filed under a category that doesn't exist yet appears once it does
+        hierarchy.addConcept(new Concept(30, "Atoms", "3", "Matter"), 3);
+        assertEquals(2, hierarchy.getCategoryCount());
+        hierarchy.addCategory(new Category(3, "Chemistry"));
+        assertEquals("Atoms", hierarchy.getConcepts(3).get(0).getTopic());
+    }
+
+    @Test
+    void testRemoveConcept() {
+        hierarchy.removeConcept(10);
+        assertNull(hierarchy.getConcept(10));
+        assertEquals(-1, hierarchy.getCategoryIdOfConcept(10));
+        assertTrue(hierarchy.getComponents(10).isEmpty());
+        assertEquals("Geometry", hierarchy.getConcepts(1).get(0).getTopic());
+
+        hierarchy.clear();
+        assertEquals(0, hierarchy.getConceptCount());
+        assertTrue(hierarchy.getCategories().isEmpty());
+    }
+
+    private static List<String> topics(List<Category> categories) {
+        List<String> topics = new ArrayList<>();
+        for (Category category : categories) {
+            topics.add(category.getTopic());
+        }
+        return topics;
+    }
+}
@@ -0,0 +1,115 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogTest {
+    private static final Log LOG = Log.get(LogTest.class);
+    private final Log.Level originalLevel = Log.getLevel();
+
+    @AfterEach
+    void restore() {
+        Log.flush();
+        Log.setLevel(originalLevel);
+        Log.setSink(System.err);
+    }
+
+    private static ByteArrayOutputStream capture() {
+        Log.flush(); // Nothing from earlier tests lands in this one
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Log.setSink(new PrintStream(out, true));
+        return out;
+    }
+
+    @Test
+    void testMessagesBelowTheLevelAreNeverBuilt() {
+        ByteArrayOutputStream out = capture();
+        Log.setLevel(Log.Level.WARN);
+        LOG.debug(() -> fail("A disabled supplier must not be called"));
+        LOG.info(() -> fail("A disabled supplier must not be called"));
+        LOG.warn(() -> "kept");
+        Log.flush();
+
+        assertFalse(LOG.isEnabled(Log.Level.INFO));
+        assertTrue(LOG.isEnabled(Log.Level.ERROR));
+        assertTrue(out.toString().trim().endsWith("WARN [" + Thread.currentThread().getName() + "] LogTest: kept"), out.toString());
+        assertEquals(Log.Level.DEBUG, Log.parseLevel(" debug ", Log.Level.INFO));
+        assertEquals(Log.Level.INFO, Log.parseLevel("loud", Log.Level.INFO));
+    }
+
+    @Test
+    void testFlushWritesEverythingInOrder() {
+        ByteArrayOutputStream out = capture();
+        Log.setLevel(Log.Level.DEBUG);
+        for (int i = 0; i < 1000; i++) {
+            LOG.debug("message " + i);
+        }
+        Log.flush();
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(1000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].endsWith("LogTest: message " + i), lines[i]);
+        }
+    }
+
+    @Test
+    void testErrorsAlwaysCarryTheirStackTrace() {
+        ByteArrayOutputStream out = capture();
+        Log.setLevel(Log.Level.ERROR);
+        LOG.error("Load failed", new IllegalStateException("disk gone"));
+        Log.flush();
+        assertTrue(out.toString().contains("ERROR"), out.toString());
+        assertTrue(out.toString().contains("Load failed: disk gone"));
+        assertTrue(out.toString().contains("\tat com.conceptbreakdowntool.LogTest"));
+
+        ByteArrayOutputStream npe = capture();
+        LOG.error("Load failed", new NullPointerException());
+        Log.flush();
+        assertTrue(npe.toString().contains("Load failed: java.lang.NullPointerException"), npe.toString());
+        assertFalse(npe.toString().contains(": null"), npe.toString());
+        assertTrue(npe.toString().contains("\tat com.conceptbreakdowntool.LogTest"));
+    }
+
+    @Test
+    void testFullBufferDropsInsteadOfBlocking() throws Exception {
+        Log.flush();
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        Log.setSink(new PrintStream(new OutputStream() { // Holds the writer until the buffer has overflowed
+            @Override
+            public void write(int b) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.write(b);
+            }
+        }));
+        Log.setLevel(Log.Level.INFO);
+        long droppedBefore = Log.getDroppedCount();
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < Log.BUFFER_CAPACITY + 100; i++) {
+            LOG.info("filler");
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        release.countDown();
+        Log.flush();
+
+        assertTrue(Log.getDroppedCount() - droppedBefore >= 99, "dropped " + (Log.getDroppedCount() - droppedBefore));
+        assertTrue(elapsedMillis < 1000, "logging took " + elapsedMillis + " ms");
+        LOG.info("after");
+        Log.flush();
+        assertTrue(written.toString().contains("log messages were dropped because the log buffer was full"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTraceTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String path = tempDir.resolve("library.db").toString();
+        LibraryGenerator generator = new LibraryGenerator(7);
+        generator.setCategoryCount(3);
+        generator.setConceptsPerCategory(10);
+        generator.setComponentsPerConcept(2);
+        generator.writeDatabase(path);
+        dbManager = new DatabaseManager(path);
+        SqlTrace.clearSlowQueries();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlTrace.setEnabled(false);
+        SqlTrace.setSlowThresholdMillis(100);
+        SqlTrace.clearSlowQueries();
+    }
+
+    @Test
+    void testConnectionsAreUntouchedWhileTracingIsOff() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("plain.db"))) {
+            assertSame(conn, SqlTrace.wrap(conn));
+        }
+        assertEquals(5, dbManager.getReportRows(0, 5).size());
+        assertTrue(SqlTrace.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    void testKeyedPagesMatchPagesByPosition() {
+        // 3 categories x 10 concepts x 2 components = 60 rows, read in pages of 7
+        SqlTrace.setEnabled(true);
+        SqlTrace.setSlowThresholdMillis(0);
+        List<Object[]> page = dbManager.getReportRowsAfter(Integer.MIN_VALUE, Long.MIN_VALUE, 7);
+        int offset = 0;
+        while (!page.isEmpty()) {
+            List<Object[]> expected = dbManager.getReportRows(offset, 7);
+            assertEquals(expected.size(), page.size());
+            for (int i = 0; i < page.size(); i++) {
+                assertArrayEquals(expected.get(i), page.get(i));
+            }
+            offset += page.size();
+            Object[] last = page.get(page.size() - 1);
+            page = dbManager.getReportRowsAfter((Integer) last[0], DatabaseManager.reportRowKey(last), 7);
+        }
+        assertEquals(60, offset);
+
+        SqlTrace.Query keyed = SqlTrace.getSlowQueries().get(SqlTrace.getSlowQueries().size() - 1);
+        assertFalse(keyed.getSql().contains("OFFSET"), keyed.getSql());
+        assertTrue(keyed.getPlan().contains("SEARCH c USING INTEGER PRIMARY KEY"), keyed.getPlan());
+    }
+
+    @Test
+    void testSlowQueriesKeepTheirParametersRowsAndPlan() {
+        SqlTrace.setEnabled(true);
+        SqlTrace.setSlowThresholdMillis(0); // Everything counts as slow
+        assertEquals(10, dbManager.getReportRows(20, 10).size());
+
+        List<SqlTrace.Query> slowQueries = SqlTrace.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        SqlTrace.Query query = slowQueries.get(0);
+        assertTrue(query.getSql().endsWith("LIMIT ? OFFSET ?"), query.getSql());
+        assertEquals(10, query.getParameters().get(1));
+        assertEquals(20, query.getParameters().get(2));
+        assertEquals(10, query.getRows());
+        assertTrue(query.getElapsedNanos() >= 0);
+        assertTrue(query.getPlan().startsWith("QUERY PLAN"), query.getPlan());
+        assertTrue(query.getPlan().contains("SCAN") || query.getPlan().contains("SEARCH"), query.getPlan());
+        assertTrue(query.toString().endsWith("[10, 20]"), query.toString());
+    }
+
+    @Test
+    void testUpdatesCountChangedRowsAndFastQueriesAreNotLogged() {
+        SqlTrace.setEnabled(true);
+        SqlTrace.setSlowThresholdMillis(60_000);
+        assertEquals(3, dbManager.getCategoryPage(Integer.MIN_VALUE, 10).size());
+        assertTrue(SqlTrace.getSlowQueries().isEmpty());
+
+        SqlTrace.setSlowThresholdMillis(0);
+        dbManager.addCategory(new Category(4, "Fresh Topic"));
+        SqlTrace.Query insert = SqlTrace.getSlowQueries().stream()
+                .filter(query -> query.getSql().startsWith("INSERT")).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(1, insert.getRows());
+        assertEquals("Fresh Topic", insert.getParameters().get(2));
+        assertThrows(IllegalArgumentException.class, () -> SqlTrace.setSlowThresholdMillis(-1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.conceptbreakdowntool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRunnerTest {
+    private final List<String> statuses = new ArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private TaskRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new TaskRunner((message, percent, runningCount) -> statuses.add(message), failure::set);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void testResultIsDeliveredOnEdt() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean workedOffEdt = new AtomicBoolean();
+        AtomicBoolean deliveredOnEdt = new AtomicBoolean();
+        AtomicReference<Integer> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> runner.submit("Adding", progress -> {
+            workedOffEdt.set(!SwingUtilities.isEventDispatchThread());
+            progress.update(50, "Halfway");
+            return 42;
+        }, value -> {
+            deliveredOnEdt.set(SwingUtilities.isEventDispatchThread());
+            result.set(value);
+            done.countDown();
+        }));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(workedOffEdt.get());
+        assertTrue(deliveredOnEdt.get());
+        assertEquals(42, result.get());
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(0, runner.getRunningCount());
+            assertEquals("Ready.", statuses.get(statuses.size() - 1));
+        });
+    }
+
+    @Test
+    void testFailureGoesToDefaultHandler() throws Exception {
+        CountDownLatch finished = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> runner.submit("Loading", progress -> {
+            throw new IllegalStateException("disk gone");
+        }, value -> fail("success callback must not run")));
+        SwingUtilities.invokeAndWait(() -> runner.submit("After", progress -> null, value -> finished.countDown()));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(failure.get() instanceof IllegalStateException);
+        assertEquals("disk gone", failure.get().getMessage());
+    }
+
+    @Test
+    void testCancelledTasksSkipTheirCallbacks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        AtomicBoolean callbackRan = new AtomicBoolean();
+        SwingUtilities.invokeAndWait(() -> {
+            runner.submit("Slow", progress -> {
+                started.countDown();
+                release.await();
+                return progress.isCancelled();
+            }, value -> callbackRan.set(true));
+            runner.submit("Queued", progress -> {
+                queuedRan.set(true);
+                return null;
+            }, value -> callbackRan.set(true));
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> {
+            runner.cancelAll();
+            assertEquals(0, runner.getRunningCount());
+        });
+        release.countDown();
+
+        // Tasks run one at a time, so this one only finishes after the cancelled ones are out of the way
+        SwingUtilities.invokeAndWait(() -> runner.submit("Check", progress -> null, value -> finished.countDown()));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(queuedRan.get());
+        assertFalse(callbackRan.get());
+    }
+}